@@ -0,0 +1,134 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.content.type.NestTypeComponent;
+import io.infectnet.server.engine.content.type.WormTypeComponent;
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.component.HealthComponent;
+import io.infectnet.server.engine.core.entity.component.OwnerComponent;
+import io.infectnet.server.engine.core.entity.component.PositionComponent;
+import io.infectnet.server.engine.core.entity.component.TypeComponent;
+import io.infectnet.server.engine.core.entity.component.ViewComponent;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.player.PlayerServiceImpl;
+import io.infectnet.server.engine.core.player.storage.PlayerStorageServiceImpl;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.WorldImpl;
+import io.infectnet.server.engine.core.world.strategy.generation.CellularAutomaton;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Builds the worlds, players and entities the benchmarks run on. Everything is generated from
+ * fixed seeds, so every run of a benchmark measures the same state.
+ */
+final class BenchmarkFixtures {
+  /**
+   * The seed of the generated worlds.
+   */
+  static final long WORLD_SEED = 1L;
+
+  /**
+   * The seed of the positions and other random choices of the benchmarks.
+   */
+  static final long RANDOM_SEED = 2L;
+
+  /**
+   * The view radius of the entities seeing around them.
+   */
+  static final int VIEW_RADIUS = 8;
+
+  private static final TypeComponent WORKER_TYPE = new WormTypeComponent();
+
+  private static final TypeComponent BUILDING_TYPE = new NestTypeComponent();
+
+  private static final int HEALTH = 10;
+
+  private BenchmarkFixtures() {
+    /*
+     * Cannot be instantiated.
+     */
+  }
+
+  /**
+   * Generates a square world.
+   * @param size the length of the sides of the world
+   * @param pathFinderStrategy the strategy to find paths in the world
+   * @return the generated world
+   */
+  static World createWorld(int size, PathFinderStrategy pathFinderStrategy) {
+    World world = new WorldImpl(new CellularAutomaton(), pathFinderStrategy);
+
+    world.generate(size, size, WORLD_SEED);
+
+    return world;
+  }
+
+  /**
+   * Creates a player service holding the given number of observed players.
+   * @param playerCount the number of players
+   * @return the created service
+   */
+  static PlayerService createPlayerService(int playerCount) {
+    PlayerService playerService =
+        new PlayerServiceImpl(Function.identity(), new PlayerStorageServiceImpl());
+
+    for (int i = 0; i < playerCount; ++i) {
+      playerService.createPlayer("player" + i).ifPresent(playerService::setPlayerAsObserved);
+    }
+
+    return playerService;
+  }
+
+  /**
+   * Chooses distinct empty {@code CAVE} positions at random.
+   * @param world the world to choose from
+   * @param count the number of positions
+   * @param random the source of the random choices
+   * @return the chosen positions
+   */
+  static List<Position> randomFreePositions(World world, int count, Random random) {
+    Set<Position> positions = new LinkedHashSet<>();
+
+    while (positions.size() < count) {
+      int h = random.nextInt(world.getHeight());
+      int w = random.nextInt(world.getWidth());
+
+      if (!world.isBlockedOrOccupied(h, w)) {
+        positions.add(new Position(h, w));
+      }
+    }
+
+    return new ArrayList<>(positions);
+  }
+
+  /**
+   * Creates an entity seeing around it, and places it onto the world. Every fourth entity is a
+   * building, the others are workers.
+   * @param world the world to place the entity onto
+   * @param owner the owner of the entity
+   * @param position the position of the entity
+   * @param index the index of the entity
+   * @return the created entity
+   */
+  static Entity placeEntity(World world, Player owner, Position position, int index) {
+    Entity entity = Entity.builder()
+        .typeComponent(index % 4 == 0 ? BUILDING_TYPE : WORKER_TYPE)
+        .ownerComponent(new OwnerComponent(owner))
+        .healthComponent(new HealthComponent(HEALTH))
+        .positionComponent(new PositionComponent(position))
+        .viewComponent(new ViewComponent(VIEW_RADIUS))
+        .build();
+
+    world.setEntityOnPosition(entity, position);
+
+    return entity;
+  }
+}
@@ -0,0 +1,111 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.core.entity.Category;
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.EntityManager;
+import io.infectnet.server.engine.core.entity.EntityManagerImpl;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.JumpPointSearchPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.WeightedHeuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the entity queries the selectors run: the workers of a player, and the workers around
+ * a position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityQueryBenchmark {
+  @Param({"256", "1024"})
+  public int mapSize;
+
+  @Param({"1000", "10000"})
+  public int entityCount;
+
+  @Param({"2", "16"})
+  public int playerCount;
+
+  private EntityManager entityManager;
+
+  private List<Player> players;
+
+  private List<Position> positions;
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    World world = BenchmarkFixtures.createWorld(mapSize,
+        new JumpPointSearchPathFinderStrategy(new WeightedHeuristic()));
+
+    PlayerService playerService = BenchmarkFixtures.createPlayerService(playerCount);
+
+    players = playerService.getAllPlayers();
+
+    positions = BenchmarkFixtures.randomFreePositions(world, entityCount,
+        new Random(BenchmarkFixtures.RANDOM_SEED));
+
+    entityManager = new EntityManagerImpl();
+
+    for (int i = 0; i < entityCount; ++i) {
+      Entity entity = BenchmarkFixtures.placeEntity(world, players.get(i % playerCount),
+          positions.get(i), i);
+
+      entityManager.addEntity(entity);
+    }
+
+    next = 0;
+  }
+
+  @Benchmark
+  public Collection<Entity> ofPlayerInCategory() {
+    return entityManager.query()
+        .ofPlayer(players.get(nextIndex() % playerCount))
+        .inCategory(Category.WORKER)
+        .execute();
+  }
+
+  @Benchmark
+  public Collection<Entity> workersWithinRadius() {
+    return entityManager.query()
+        .ofAnyPlayer()
+        .inCategory(Category.WORKER)
+        .withinRadius(positions.get(nextIndex()), BenchmarkFixtures.VIEW_RADIUS)
+        .execute();
+  }
+
+  @Benchmark
+  public Collection<Entity> enemyWorkersWithinRadius() {
+    int index = nextIndex();
+
+    return entityManager.query()
+        .exceptPlayer(players.get(index % playerCount))
+        .inCategory(Category.WORKER)
+        .withinRadius(positions.get(index), BenchmarkFixtures.VIEW_RADIUS)
+        .execute();
+  }
+
+  private int nextIndex() {
+    int index = next;
+
+    next = (next + 1) % entityCount;
+
+    return index;
+  }
+}
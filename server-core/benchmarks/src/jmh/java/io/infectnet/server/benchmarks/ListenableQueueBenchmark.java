@@ -0,0 +1,74 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.content.system.boot.BootAction;
+import io.infectnet.server.engine.content.system.infect.InfectAction;
+import io.infectnet.server.engine.content.system.movement.MovementAction;
+import io.infectnet.server.engine.content.type.NestTypeComponent;
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.util.ListenableQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures queueing the actions of a tick and dispatching them to the listeners of their classes,
+ * like the action phase of the game loop does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListenableQueueBenchmark {
+  @Param({"100", "10000"})
+  public int entityCount;
+
+  private ListenableQueue<Action> actionQueue;
+
+  private List<Action> actions;
+
+  private long processed;
+
+  @Setup
+  public void setUp() {
+    actionQueue = new ListenableQueue<>();
+
+    actionQueue.addListener(MovementAction.class, action -> ++processed);
+    actionQueue.addListener(InfectAction.class, action -> ++processed);
+    actionQueue.addListener(BootAction.class, action -> ++processed);
+
+    Entity entity = Entity.builder().build();
+
+    actions = new ArrayList<>(entityCount);
+
+    /* Most entities move in a tick, the rest infect or boot. */
+    for (int i = 0; i < entityCount; ++i) {
+      if (i % 8 == 0) {
+        actions.add(new BootAction(entity, NestTypeComponent.TYPE_NAME));
+      } else if (i % 4 == 0) {
+        actions.add(new InfectAction(entity, entity));
+      } else {
+        actions.add(new MovementAction(entity, entity));
+      }
+    }
+
+    processed = 0;
+  }
+
+  @Benchmark
+  public long addAndProcessAll() {
+    actionQueue.addAll(actions);
+
+    actionQueue.processAll();
+
+    return processed;
+  }
+}
@@ -0,0 +1,107 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.AStarPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.ChebyshevHeuristic;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.JumpPointSearchPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.WeightedHeuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding a path between two random tiles of the same region, with plain A* and with
+ * Jump Point Search. Both are measured with the admissible heuristic, so they find equally long
+ * paths, and A* is also measured with the weighted heuristic, which trades path length for speed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathFindingBenchmark {
+  /**
+   * The number of start and target pairs the measured calls cycle through.
+   */
+  private static final int QUERY_COUNT = 64;
+
+  /**
+   * The path finding algorithms to compare.
+   */
+  public enum Algorithm {
+    A_STAR,
+
+    A_STAR_WEIGHTED,
+
+    JUMP_POINT_SEARCH
+  }
+
+  @Param({"256", "1024", "4096"})
+  public int mapSize;
+
+  @Param({"A_STAR", "A_STAR_WEIGHTED", "JUMP_POINT_SEARCH"})
+  public Algorithm algorithm;
+
+  private World world;
+
+  private List<Position> starts;
+
+  private List<Position> targets;
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    PathFinderStrategy pathFinderStrategy;
+
+    switch (algorithm) {
+      case A_STAR:
+        pathFinderStrategy = new AStarPathFinderStrategy(new ChebyshevHeuristic());
+        break;
+      case A_STAR_WEIGHTED:
+        pathFinderStrategy = new AStarPathFinderStrategy(new WeightedHeuristic());
+        break;
+      default:
+        pathFinderStrategy = new JumpPointSearchPathFinderStrategy(new ChebyshevHeuristic());
+    }
+
+    world = BenchmarkFixtures.createWorld(mapSize, pathFinderStrategy);
+
+    Random random = new Random(BenchmarkFixtures.RANDOM_SEED);
+
+    starts = new ArrayList<>(QUERY_COUNT);
+    targets = new ArrayList<>(QUERY_COUNT);
+
+    /* Only reachable targets are kept, the unreachable ones are rejected without searching. */
+    while (starts.size() < QUERY_COUNT) {
+      List<Position> pair = BenchmarkFixtures.randomFreePositions(world, 2, random);
+
+      if (world.sameRegion(pair.get(0), pair.get(1))) {
+        starts.add(pair.get(0));
+        targets.add(pair.get(1));
+      }
+    }
+
+    next = 0;
+  }
+
+  @Benchmark
+  public List<Tile> findPath() {
+    int query = next;
+
+    next = (next + 1) % QUERY_COUNT;
+
+    return world.findPath(starts.get(query), targets.get(query));
+  }
+}
@@ -0,0 +1,85 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.content.status.SynchronousStatusPublisher;
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.EntityManager;
+import io.infectnet.server.engine.core.entity.EntityManagerImpl;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.status.StatusPublisher;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.JumpPointSearchPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.WeightedHeuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the status messages of every observed player at the end of a tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatusPublishingBenchmark {
+  @Param({"256", "1024"})
+  public int mapSize;
+
+  @Param({"100", "1000"})
+  public int entityCount;
+
+  @Param({"1", "16"})
+  public int playerCount;
+
+  private StatusPublisher statusPublisher;
+
+  private long publishedTiles;
+
+  @Setup
+  public void setUp() {
+    World world = BenchmarkFixtures.createWorld(mapSize,
+        new JumpPointSearchPathFinderStrategy(new WeightedHeuristic()));
+
+    PlayerService playerService = BenchmarkFixtures.createPlayerService(playerCount);
+
+    List<Player> players = playerService.getAllPlayers();
+
+    List<Position> positions = BenchmarkFixtures.randomFreePositions(world, entityCount,
+        new Random(BenchmarkFixtures.RANDOM_SEED));
+
+    EntityManager entityManager = new EntityManagerImpl();
+
+    VisibilityCache visibilityCache = new VisibilityCache(entityManager, world);
+
+    for (int i = 0; i < entityCount; ++i) {
+      Entity entity = BenchmarkFixtures.placeEntity(world, players.get(i % playerCount),
+          positions.get(i), i);
+
+      entityManager.addEntity(entity);
+
+      visibilityCache.entityCreated(entity);
+    }
+
+    statusPublisher = new SynchronousStatusPublisher(playerService, visibilityCache);
+
+    publishedTiles = 0;
+  }
+
+  @Benchmark
+  public long publish() {
+    statusPublisher.publish(
+        (player, statusMessage) -> publishedTiles += statusMessage.getTileSet().size());
+
+    return publishedTiles;
+  }
+}
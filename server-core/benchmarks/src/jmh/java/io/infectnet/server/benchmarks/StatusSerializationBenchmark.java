@@ -0,0 +1,98 @@
+package io.infectnet.server.benchmarks;
+
+import com.google.gson.Gson;
+import io.infectnet.server.controller.configuration.ControllerModule;
+import io.infectnet.server.controller.websocket.messaging.Action;
+import io.infectnet.server.controller.websocket.messaging.SocketMessage;
+import io.infectnet.server.controller.websocket.status.BinaryStatusEncoder;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.status.StatusMessage;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.JumpPointSearchPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.WeightedHeuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing a keyframe status message in the two wire formats: as a JSON text message
+ * with the Gson instance of the controllers, and as a binary message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatusSerializationBenchmark {
+  @Param({"256", "1024"})
+  public int mapSize;
+
+  @Param({"10", "100", "1000"})
+  public int entityCount;
+
+  @Param({"1", "16"})
+  public int playerCount;
+
+  private Gson gson;
+
+  private BinaryStatusEncoder binaryStatusEncoder;
+
+  private StatusMessage statusMessage;
+
+  @Setup
+  public void setUp() {
+    World world = BenchmarkFixtures.createWorld(mapSize,
+        new JumpPointSearchPathFinderStrategy(new WeightedHeuristic()));
+
+    PlayerService playerService = BenchmarkFixtures.createPlayerService(playerCount);
+
+    List<Player> players = playerService.getAllPlayers();
+
+    List<Position> positions = BenchmarkFixtures.randomFreePositions(world, entityCount,
+        new Random(BenchmarkFixtures.RANDOM_SEED));
+
+    for (int i = 0; i < entityCount; ++i) {
+      BenchmarkFixtures.placeEntity(world, players.get(i % playerCount), positions.get(i), i);
+    }
+
+    /* The message holds the tiles seen by every entity, like a keyframe of a large player. */
+    Map<Position, Tile> visibleTiles = new HashMap<>();
+
+    for (Position position : positions) {
+      for (Tile tile : world.viewSight(position, BenchmarkFixtures.VIEW_RADIUS)) {
+        visibleTiles.putIfAbsent(tile.getPosition(), tile);
+      }
+    }
+
+    statusMessage = StatusMessage.keyframe(1L, new HashSet<>(visibleTiles.values()));
+
+    gson = ControllerModule.providesGson();
+
+    binaryStatusEncoder = new BinaryStatusEncoder();
+  }
+
+  @Benchmark
+  public String json() {
+    return gson.toJson(
+        new SocketMessage<>(Action.STATUS_UPDATE, statusMessage, StatusMessage.class));
+  }
+
+  @Benchmark
+  public ByteBuffer binary() {
+    return binaryStatusEncoder.encode(statusMessage);
+  }
+}
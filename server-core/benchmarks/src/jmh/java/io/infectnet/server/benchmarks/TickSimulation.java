@@ -0,0 +1,314 @@
+package io.infectnet.server.benchmarks;
+
+import static io.infectnet.server.engine.core.metrics.ScriptCost.ACTIONS;
+import static io.infectnet.server.engine.core.metrics.ScriptCost.ALLOCATED_BYTES;
+import static io.infectnet.server.engine.core.metrics.ScriptCost.CPU_TIME;
+import static io.infectnet.server.engine.core.metrics.ScriptCost.PATH_FINDING_REQUESTS;
+import static io.infectnet.server.engine.core.metrics.ScriptCost.SELECTOR_CALLS;
+import static io.infectnet.server.engine.core.metrics.ScriptCost.WALL_TIME;
+
+import io.infectnet.server.engine.Engine;
+import io.infectnet.server.engine.core.TickListener;
+import io.infectnet.server.engine.core.TickPhase;
+import io.infectnet.server.engine.core.TickTimings;
+import io.infectnet.server.engine.core.entity.Category;
+import io.infectnet.server.engine.core.metrics.ScriptProfile;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.script.generation.CompilationError;
+import io.infectnet.server.engine.core.status.StatusMessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Headless simulation of full game ticks. The engine is booted without the web server, synthetic
+ * players are created with the scripts of the corpus, and the game loop runs as fast as it can for
+ * a fixed number of ticks. The durations of the phases, the allocation rate, the number of
+ * entities and the profiles of the most expensive scripts are reported at the end.
+ * <p>
+ * Unlike the JMH benchmarks, the simulation measures the systems working together, on a world
+ * that changes from tick to tick. Run with:
+ * {@code gradlew :server-core:benchmarks:simulate -Pplayers=16 -Pticks=1000}
+ * </p>
+ */
+public final class TickSimulation implements TickListener {
+  private static final int DEFAULT_PLAYER_COUNT = 16;
+
+  private static final int DEFAULT_TICK_COUNT = 1000;
+
+  /**
+   * The ticks run before the measurement, so the hot paths are compiled by then.
+   */
+  private static final int WARM_UP_TICK_COUNT = 100;
+
+  /**
+   * The scripts uploaded for the players in turn, found next to this class.
+   */
+  private static final String[] SCRIPTS = {
+      "scripts/gatherer.groovy", "scripts/raider.groovy", "scripts/swarm.groovy"
+  };
+
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private static final double BYTES_PER_KILOBYTE = 1024.0;
+
+  /**
+   * The number of the most expensive scripts reported.
+   */
+  private static final int REPORTED_SCRIPT_COUNT = 5;
+
+  private final int playerCount;
+
+  private final int tickCount;
+
+  private final Engine engine;
+
+  /**
+   * The duration of every measured tick in nanoseconds, indexed by the ordinal of the phase.
+   */
+  private final long[][] phaseDurations;
+
+  private final long[] tickDurations;
+
+  private final LongAdder statusMessageCount;
+
+  private final CountDownLatch finished;
+
+  private long measurementStart;
+
+  private long measurementDuration;
+
+  private long allocatedBytesAtStart;
+
+  private long allocatedBytes;
+
+  private TickSimulation(int playerCount, int tickCount) {
+    this.playerCount = playerCount;
+
+    this.tickCount = tickCount;
+
+    this.engine = Engine.create(this::statusPublished, BenchmarkFixtures.WORLD_SEED);
+
+    this.phaseDurations = new long[TickPhase.values().length][tickCount];
+
+    this.tickDurations = new long[tickCount];
+
+    this.statusMessageCount = new LongAdder();
+
+    this.finished = new CountDownLatch(1);
+  }
+
+  /**
+   * Runs the simulation.
+   * @param args the number of players and the number of measured ticks, both optional
+   * @throws Exception if a script cannot be loaded or compiled, or the game loop does not finish
+   */
+  public static void main(String[] args) throws Exception {
+    int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYER_COUNT;
+
+    int tickCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICK_COUNT;
+
+    new TickSimulation(playerCount, tickCount).run();
+  }
+
+  @Override
+  public void tickFinished(TickTimings timings) {
+    long index = timings.getTick() - WARM_UP_TICK_COUNT;
+
+    if (index == -1) {
+      measurementStart = System.nanoTime();
+
+      allocatedBytesAtStart = allocatedBytes();
+    }
+
+    if (index < 0 || index >= tickCount) {
+      return;
+    }
+
+    for (TickPhase phase : TickPhase.values()) {
+      phaseDurations[phase.ordinal()][(int) index] = timings.getPhaseDuration(phase);
+    }
+
+    tickDurations[(int) index] = timings.getDuration();
+
+    if (index == tickCount - 1) {
+      measurementDuration = System.nanoTime() - measurementStart;
+
+      allocatedBytes = allocatedBytes() - allocatedBytesAtStart;
+
+      /* Stopping from the game loop itself, so no tick runs after the last measured one. */
+      engine.stopAsync();
+
+      finished.countDown();
+    }
+  }
+
+  private void run() throws IOException, InterruptedException {
+    for (int i = 0; i < playerCount; ++i) {
+      Player player = engine.createOrGetPlayer("player-" + i);
+
+      engine.setPlayerAsObserved(player);
+
+      String script = SCRIPTS[i % SCRIPTS.length];
+
+      List<CompilationError> errors = engine.compileAndUploadForPlayer(player, loadScript(script));
+
+      if (!errors.isEmpty()) {
+        throw new IllegalStateException("The script " + script + " cannot be compiled: " + errors
+            .stream()
+            .map(CompilationError::getMessage)
+            .collect(Collectors.joining(", ")));
+      }
+    }
+
+    Map<Category, Integer> entitiesBefore = engine.countEntities();
+
+    engine.addTickListener(this);
+
+    engine.start(0L);
+
+    /* A failed tick stops the game loop silently, so the wait must not be endless. */
+    if (!finished.await(WARM_UP_TICK_COUNT + tickCount, TimeUnit.SECONDS)) {
+      engine.stopBlocking();
+
+      throw new IllegalStateException("The simulation has not finished in time!");
+    }
+
+    engine.stopBlocking();
+
+    report(entitiesBefore, engine.countEntities());
+  }
+
+  private void statusPublished(Player player, StatusMessage statusMessage) {
+    statusMessageCount.increment();
+  }
+
+  private void report(Map<Category, Integer> entitiesBefore, Map<Category, Integer> entitiesAfter) {
+    System.out.printf("Simulated %d ticks of %d players, after %d warm-up ticks%n", tickCount,
+        playerCount, WARM_UP_TICK_COUNT);
+
+    System.out.printf("%-10s %10s %10s %10s%n", "phase", "p50 (ms)", "p99 (ms)", "max (ms)");
+
+    for (TickPhase phase : TickPhase.values()) {
+      reportDurations(phase.name(), phaseDurations[phase.ordinal()]);
+    }
+
+    reportDurations("TICK", tickDurations);
+
+    double seconds = measurementDuration / NANOS_PER_SECOND;
+
+    System.out.printf("Ticks per second: %.1f%n", tickCount / seconds);
+
+    if (allocatedBytesAtStart < 0) {
+      System.out.println("Allocation rate: not supported by the JVM");
+    } else {
+      System.out.printf("Allocation rate: %.1f MB/s, %.1f KB per tick%n",
+          allocatedBytes / BYTES_PER_KILOBYTE / BYTES_PER_KILOBYTE / seconds,
+          allocatedBytes / BYTES_PER_KILOBYTE / tickCount);
+    }
+
+    System.out.printf("Status messages: %d%n", statusMessageCount.sum());
+
+    System.out.printf("Entities before: %s%n", entitiesBefore);
+
+    System.out.printf("Entities after: %s%n", entitiesAfter);
+
+    reportScripts();
+  }
+
+  private void reportScripts() {
+    System.out.printf("%-12s %10s %10s %10s %8s %10s %8s%n", "script", "cpu (ms)", "wall (ms)",
+        "alloc (KB)", "actions", "selectors", "paths");
+
+    engine.getScriptProfiler().getProfiles().entrySet().stream()
+        .sorted(Comparator.comparingDouble(
+            (Map.Entry<String, ScriptProfile> entry) -> entry.getValue().getMean(CPU_TIME))
+            .reversed())
+        .limit(REPORTED_SCRIPT_COUNT)
+        .forEach(entry -> {
+          ScriptProfile profile = entry.getValue();
+
+          System.out.printf("%-12s %10.3f %10.3f %10.1f %8.1f %10.1f %8.1f%n", entry.getKey(),
+              profile.getMean(CPU_TIME) / NANOS_PER_MILLI,
+              profile.getMean(WALL_TIME) / NANOS_PER_MILLI,
+              profile.getMean(ALLOCATED_BYTES) / BYTES_PER_KILOBYTE, profile.getMean(ACTIONS),
+              profile.getMean(SELECTOR_CALLS), profile.getMean(PATH_FINDING_REQUESTS));
+        });
+  }
+
+  private void reportDurations(String name, long[] durations) {
+    long[] sorted = durations.clone();
+
+    Arrays.sort(sorted);
+
+    System.out.printf("%-10s %10.3f %10.3f %10.3f%n", name,
+        percentile(sorted, 0.5) / NANOS_PER_MILLI, percentile(sorted, 0.99) / NANOS_PER_MILLI,
+        sorted[sorted.length - 1] / NANOS_PER_MILLI);
+  }
+
+  /**
+   * Gets a percentile of the sorted values with the nearest-rank method.
+   */
+  private static long percentile(long[] sorted, double fraction) {
+    return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+  }
+
+  /**
+   * Sums the bytes allocated by the live threads, which include the game loop and the script
+   * runner threads.
+   * @return the allocated bytes, or {@code -1} if the JVM cannot measure them
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+      return -1L;
+    }
+
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+
+    if (!allocationBean.isThreadAllocatedMemorySupported()
+        || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+      return -1L;
+    }
+
+    long sum = 0L;
+
+    for (long bytes : allocationBean.getThreadAllocatedBytes(allocationBean.getAllThreadIds())) {
+      /* Threads that have died meanwhile are reported with -1. */
+      if (bytes > 0) {
+        sum += bytes;
+      }
+    }
+
+    return sum;
+  }
+
+  private static String loadScript(String name) throws IOException {
+    InputStream stream = TickSimulation.class.getResourceAsStream(name);
+
+    if (stream == null) {
+      throw new IOException("The script " + name + " cannot be found!");
+    }
+
+    try (BufferedReader reader =
+             new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      return reader.lines().collect(Collectors.joining("\n"));
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.core.world.strategy.generation.CellularAutomaton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the caves of a world with the cellular automaton.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorldGenerationBenchmark {
+  @Param({"256", "1024", "4096"})
+  public int mapSize;
+
+  private final CellularAutomaton cellularAutomaton = new CellularAutomaton();
+
+  @Benchmark
+  public boolean[][] generateWorld() {
+    return cellularAutomaton.generateWorld(mapSize, mapSize, BenchmarkFixtures.WORLD_SEED);
+  }
+}
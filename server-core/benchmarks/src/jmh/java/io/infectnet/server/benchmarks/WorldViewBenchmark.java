@@ -0,0 +1,85 @@
+package io.infectnet.server.benchmarks;
+
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.JumpPointSearchPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.WeightedHeuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the entities see around them: the entities within their view radius, and the
+ * tiles of their view box.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldViewBenchmark {
+  @Param({"256", "1024"})
+  public int mapSize;
+
+  @Param({"100", "1000", "10000"})
+  public int entityCount;
+
+  private World world;
+
+  private List<Entity> entities;
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    world = BenchmarkFixtures.createWorld(mapSize,
+        new JumpPointSearchPathFinderStrategy(new WeightedHeuristic()));
+
+    PlayerService playerService = BenchmarkFixtures.createPlayerService(1);
+
+    Player owner = playerService.getAllPlayers().get(0);
+
+    List<Position> positions = BenchmarkFixtures.randomFreePositions(world, entityCount,
+        new Random(BenchmarkFixtures.RANDOM_SEED));
+
+    entities = new ArrayList<>(entityCount);
+
+    for (int i = 0; i < entityCount; ++i) {
+      entities.add(BenchmarkFixtures.placeEntity(world, owner, positions.get(i), i));
+    }
+
+    next = 0;
+  }
+
+  @Benchmark
+  public Set<Entity> seenBy() {
+    return world.seenBy(nextEntity());
+  }
+
+  @Benchmark
+  public List<Tile> viewSight() {
+    return world.viewSight(nextEntity().getPositionComponent().getPosition(),
+        BenchmarkFixtures.VIEW_RADIUS);
+  }
+
+  private Entity nextEntity() {
+    Entity entity = entities.get(next);
+
+    next = (next + 1) % entities.size();
+
+    return entity;
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Infects the visible resources next to the workers, and moves the other workers towards the
+ * nearest one. The nest keeps spawning workers.
+ */
+def distance = { first, second ->
+  Math.max(Math.abs(first.position.h - second.position.h),
+      Math.abs(first.position.w - second.position.w))
+}
+
+def resources = environment.resources
+
+def gatherers = gather own.workers that { current.freeInventoryCapacity > 0 }
+
+all gatherers execute {
+  def worker = current
+
+  def nearest = resources.min { resource -> distance(worker, resource) }
+
+  if (nearest != null) {
+    if (distance(worker, nearest) <= 1) {
+      worker.infect(nearest)
+    } else {
+      worker.moveTo(nearest)
+    }
+  }
+}
+
+only own.buildings that { current.type == 'Nest' } execute {
+  current.spawn('Worm')
+}
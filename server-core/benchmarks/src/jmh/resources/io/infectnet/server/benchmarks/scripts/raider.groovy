@@ -0,0 +1,27 @@
+/*
+ * Sends the workers after the nearest visible enemy, and infects it when it is next to them.
+ */
+def distance = { first, second ->
+  Math.max(Math.abs(first.position.h - second.position.h),
+      Math.abs(first.position.w - second.position.w))
+}
+
+def targets = enemy.workers + enemy.buildings
+
+all own.workers execute {
+  def worker = current
+
+  def nearest = targets.min { target -> distance(worker, target) }
+
+  if (nearest != null) {
+    if (distance(worker, nearest) <= 1) {
+      worker.infect(nearest)
+    } else {
+      worker.moveTo(nearest)
+    }
+  }
+}
+
+only own.buildings execute {
+  current.spawn('Worm')
+}
@@ -0,0 +1,21 @@
+/*
+ * Keeps the workers together around the oldest one, and spawns a worker every few ticks,
+ * counting the ticks in the memory of the player.
+ */
+memory.ticks = (memory.ticks ?: 0) + 1
+
+def workers = own.workers
+
+if (workers) {
+  def leader = workers[0]
+
+  all workers that { current != leader } execute {
+    current.moveTo(leader)
+  }
+}
+
+if (memory.ticks % 5 == 0) {
+  only own.buildings execute {
+    current.spawn(memory.ticks % 10 == 0 ? 'Trojan' : 'Worm')
+  }
+}
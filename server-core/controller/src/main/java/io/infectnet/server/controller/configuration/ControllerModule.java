@@ -3,10 +3,12 @@ package io.infectnet.server.controller.configuration;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import io.infectnet.server.controller.engine.EngineConnector;
 import io.infectnet.server.controller.rest.RestController;
 import io.infectnet.server.controller.rest.admin.AuthenticationController;
 import io.infectnet.server.controller.rest.exception.ExceptionMapperController;
 import io.infectnet.server.controller.rest.info.InfoController;
+import io.infectnet.server.controller.rest.metrics.MetricsController;
 import io.infectnet.server.controller.rest.token.TokenController;
 import io.infectnet.server.controller.rest.user.RegistrationController;
 import io.infectnet.server.controller.rest.user.RegistrationDetails;
@@ -66,6 +68,14 @@ public class ControllerModule {
     return new UserListingController(userService, gson);
   }
 
+  @Provides
+  @IntoSet
+  @Singleton
+  public static RestController providesMetricsController(EngineConnector engineConnector,
+                                                         Gson gson) {
+    return new MetricsController(engineConnector, gson);
+  }
+
   @Provides
   @IntoSet
   @Singleton
@@ -14,12 +14,17 @@ import io.infectnet.server.controller.websocket.messaging.GsonMessageFactoryImpl
 import io.infectnet.server.controller.websocket.messaging.MessageFactory;
 import io.infectnet.server.controller.websocket.messaging.MessageTransmitter;
 import io.infectnet.server.controller.websocket.messaging.MessageTransmitterImpl;
+import io.infectnet.server.controller.websocket.profile.ScriptProfileController;
+import io.infectnet.server.controller.websocket.status.BinaryStatusEncoder;
+import io.infectnet.server.controller.websocket.status.StatusFormatRegistry;
 import io.infectnet.server.controller.websocket.status.WebSocketStatusTransmitter;
 import io.infectnet.server.controller.websocket.subscribe.SubscriptionController;
 import io.infectnet.server.engine.core.status.StatusConsumer;
 import io.infectnet.server.service.user.UserService;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
@@ -61,9 +66,22 @@ public class WebSocketModule {
   @IntoSet
   @Singleton
   public static WebSocketController providesSubscriptionController(EngineConnector engineConnector,
+                                                                   Gson gson,
                                                                    SessionAuthenticator sessionAuthenticator,
-                                                                   MessageTransmitter messageTransmitter) {
-    return new SubscriptionController(engineConnector, sessionAuthenticator, messageTransmitter);
+                                                                   MessageTransmitter messageTransmitter,
+                                                                   StatusFormatRegistry statusFormatRegistry,
+                                                                   WebSocketStatusTransmitter statusTransmitter) {
+    return new SubscriptionController(engineConnector, gson, sessionAuthenticator,
+        messageTransmitter, statusFormatRegistry, statusTransmitter);
+  }
+
+  @Provides
+  @IntoSet
+  @Singleton
+  public static WebSocketController providesScriptProfileController(
+      EngineConnector engineConnector, SessionAuthenticator sessionAuthenticator,
+      MessageTransmitter messageTransmitter) {
+    return new ScriptProfileController(engineConnector, sessionAuthenticator, messageTransmitter);
   }
 
   @Provides
@@ -90,12 +108,38 @@ public class WebSocketModule {
 
   @Provides
   @Singleton
-  public static StatusConsumer providesStatusConsumer(SessionAuthenticator sessionAuthenticator,
-                                                      MessageTransmitter messageTransmitter,
-                                                      UserService userService) {
-    WebSocketStatusTransmitter transmitter = new WebSocketStatusTransmitter(
-        messageTransmitter, sessionAuthenticator, userService);
+  public static StatusFormatRegistry providesStatusFormatRegistry() {
+    return new StatusFormatRegistry();
+  }
+
+  @Provides
+  @Singleton
+  public static BinaryStatusEncoder providesBinaryStatusEncoder() {
+    return new BinaryStatusEncoder();
+  }
+
+  @Provides
+  @Singleton
+  public static WebSocketStatusTransmitter providesWebSocketStatusTransmitter(
+      SessionAuthenticator sessionAuthenticator, MessageTransmitter messageTransmitter,
+      UserService userService, StatusFormatRegistry statusFormatRegistry,
+      BinaryStatusEncoder binaryStatusEncoder) {
+    ExecutorService statusExecutor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+          Thread thread = new Thread(runnable, "status-fan-out");
+
+          thread.setDaemon(true);
 
+          return thread;
+        });
+
+    return new WebSocketStatusTransmitter(messageTransmitter, sessionAuthenticator, userService,
+        statusFormatRegistry, binaryStatusEncoder, statusExecutor);
+  }
+
+  @Provides
+  @Singleton
+  public static StatusConsumer providesStatusConsumer(WebSocketStatusTransmitter transmitter) {
     return transmitter::transmit;
   }
 
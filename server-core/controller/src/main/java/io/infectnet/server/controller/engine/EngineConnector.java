@@ -1,7 +1,10 @@
 package io.infectnet.server.controller.engine;
 
 import io.infectnet.server.engine.Engine;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
 import io.infectnet.server.engine.core.script.generation.CompilationError;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.CachingPathFinderStrategy;
 import io.infectnet.server.service.user.UserDTO;
 
 import java.util.List;
@@ -51,12 +54,39 @@ public interface EngineConnector {
   /**
    * Sets the user as observed.
    * @param user the {@code UserDTO} to be set as observed
+   * @param deltasAccepted whether the client of the user is able to apply delta status updates,
+   * otherwise it receives the full state in every status update
    */
-  void setUserAsObserved(UserDTO user);
+  void setUserAsObserved(UserDTO user, boolean deltasAccepted);
 
   /**
    * Removes the user from the list of observed {@code UserDTO}s.
    * @param user the {@code UserDTO} to be removed
    */
   void removeUserFromObserved(UserDTO user);
+
+  /**
+   * Acknowledges that the user has processed the status update of the given tick.
+   * @param user the {@code UserDTO} who processed the status update
+   * @param tick the tick of the processed status update
+   */
+  void acknowledgeStatusForUser(UserDTO user, long tick);
+
+  /**
+   * Gets the metrics of the game loop of the engine.
+   * @return the metrics, updated as the engine runs
+   */
+  TickMetrics getTickMetrics();
+
+  /**
+   * Gets the profiles of the scripts of the users.
+   * @return the profiler of the scripts, updated as the engine runs
+   */
+  ScriptProfiler getScriptProfiler();
+
+  /**
+   * Gets the cache of the paths found by the engine.
+   * @return the cache of the paths, whose counts are updated as the engine runs
+   */
+  CachingPathFinderStrategy getPathCache();
 }
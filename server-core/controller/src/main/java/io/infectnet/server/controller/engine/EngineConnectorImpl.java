@@ -1,16 +1,26 @@
 package io.infectnet.server.controller.engine;
 
+import io.infectnet.server.common.configuration.Configuration;
 import io.infectnet.server.common.configuration.ConfigurationHolder;
 import io.infectnet.server.engine.Engine;
+import io.infectnet.server.engine.core.OverrunPolicy;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
 import io.infectnet.server.engine.core.player.Player;
 import io.infectnet.server.engine.core.script.generation.CompilationError;
 import io.infectnet.server.engine.core.status.StatusConsumer;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.CachingPathFinderStrategy;
 import io.infectnet.server.service.user.UserDTO;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Default implementation of {@link EngineConnector}.
@@ -19,10 +29,40 @@ public class EngineConnectorImpl implements EngineConnector {
 
   private static final String DESIRED_TICK_DURATION_PROPERTY = "desired_tick_duration";
 
+  private static final String WORLD_SEED_PROPERTY = "world_seed";
+
+  private static final String WORLD_CACHE_FILE_PROPERTY = "world_cache_file";
+
+  private static final String OVERRUN_POLICY_PROPERTY = "tick_overrun_policy";
+
+  private static final String MAX_BURST_PROPERTY = "tick_max_burst";
+
+  private static final String PUBLISH_INTERVAL_PROPERTY = "tick_publish_interval";
+
+  /**
+   * The publish interval used if the {@code DEGRADE} policy is configured without one.
+   */
+  private static final int DEFAULT_PUBLISH_INTERVAL = 4;
+
   private final Engine engine;
 
+  /**
+   * Creates the engine, generating its world from the seed of the active configuration, or from a
+   * random seed if no seed is configured. The world is cached in the configured file, or in the
+   * {@link Engine#DEFAULT_WORLD_CACHE_FILE} if no file is configured.
+   * @throws IllegalArgumentException if the configured seed is not an integer, with a message
+   * naming the property
+   */
   public EngineConnectorImpl(StatusConsumer statusConsumer) {
-    this.engine = Engine.create(statusConsumer);
+    Configuration configuration = ConfigurationHolder.INSTANCE.getActiveConfiguration();
+
+    String worldCacheFileName = configuration.get(WORLD_CACHE_FILE_PROPERTY);
+
+    Path worldCacheFile = worldCacheFileName == null
+        ? Engine.DEFAULT_WORLD_CACHE_FILE
+        : Paths.get(worldCacheFileName.trim());
+
+    this.engine = Engine.create(statusConsumer, readWorldSeed(configuration), worldCacheFile);
   }
 
   @Override
@@ -30,7 +70,7 @@ public class EngineConnectorImpl implements EngineConnector {
     Long desiredTickDuration = Long.parseLong(
         ConfigurationHolder.INSTANCE.getActiveConfiguration().get(DESIRED_TICK_DURATION_PROPERTY));
 
-    engine.start(desiredTickDuration);
+    engine.start(desiredTickDuration, readOverrunPolicy());
   }
 
   @Override
@@ -72,8 +112,8 @@ public class EngineConnectorImpl implements EngineConnector {
   }
 
   @Override
-  public void setUserAsObserved(UserDTO user) {
-    engine.setPlayerAsObserved(createOrGetPlayer(user));
+  public void setUserAsObserved(UserDTO user, boolean deltasAccepted) {
+    engine.setPlayerAsObserved(createOrGetPlayer(user), deltasAccepted);
   }
 
   @Override
@@ -81,6 +121,116 @@ public class EngineConnectorImpl implements EngineConnector {
     engine.removePlayerFromObserved(createOrGetPlayer(user));
   }
 
+  @Override
+  public void acknowledgeStatusForUser(UserDTO user, long tick) {
+    engine.acknowledgeStatus(createOrGetPlayer(user), tick);
+  }
+
+  @Override
+  public TickMetrics getTickMetrics() {
+    return engine.getTickMetrics();
+  }
+
+  @Override
+  public ScriptProfiler getScriptProfiler() {
+    return engine.getScriptProfiler();
+  }
+
+  @Override
+  public CachingPathFinderStrategy getPathCache() {
+    return engine.getPathCache();
+  }
+
+  /**
+   * Reads the overrun policy of the game loop from the active configuration. The default policy
+   * is used if no policy is configured, and the default parameters are used if the parameters of
+   * the configured policy are missing.
+   * @throws IllegalArgumentException if the configured policy is unknown or its parameters are
+   * invalid, with a message naming the property
+   */
+  private OverrunPolicy readOverrunPolicy() {
+    Configuration configuration = ConfigurationHolder.INSTANCE.getActiveConfiguration();
+
+    String policy = configuration.get(OVERRUN_POLICY_PROPERTY);
+
+    if (policy == null) {
+      return OverrunPolicy.defaultPolicy();
+    }
+
+    OverrunPolicy.Type type;
+
+    try {
+      type = OverrunPolicy.Type.valueOf(policy.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown " + OVERRUN_POLICY_PROPERTY + ": " + policy
+          + ", expected one of " + Arrays.toString(OverrunPolicy.Type.values()) + "!", e);
+    }
+
+    switch (type) {
+      case SKIP:
+        return OverrunPolicy.skip();
+      case CATCH_UP:
+        return OverrunPolicy.catchUp(
+            readPositiveInt(configuration, MAX_BURST_PROPERTY, OverrunPolicy.DEFAULT_MAX_BURST));
+      case DEGRADE:
+        return OverrunPolicy.degrade(
+            readPositiveInt(configuration, MAX_BURST_PROPERTY, OverrunPolicy.DEFAULT_MAX_BURST),
+            readPositiveInt(configuration, PUBLISH_INTERVAL_PROPERTY, DEFAULT_PUBLISH_INTERVAL));
+      default:
+        return OverrunPolicy.defaultPolicy();
+    }
+  }
+
+  /**
+   * Reads the seed of the world from the configuration.
+   * @return the configured seed, or a random seed if the property is missing
+   * @throws IllegalArgumentException if the configured value is not an integer
+   */
+  private static long readWorldSeed(Configuration configuration) {
+    String value = configuration.get(WORLD_SEED_PROPERTY);
+
+    if (value == null) {
+      return ThreadLocalRandom.current().nextLong();
+    }
+
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "The " + WORLD_SEED_PROPERTY + " must be an integer, but it is: " + value + "!", e);
+    }
+  }
+
+  /**
+   * Reads a positive integer from the configuration.
+   * @return the configured value, or the default value if the property is missing
+   * @throws IllegalArgumentException if the configured value is not a positive integer
+   */
+  private static int readPositiveInt(Configuration configuration, String property,
+                                     int defaultValue) {
+    String value = configuration.get(property);
+
+    if (value == null) {
+      return defaultValue;
+    }
+
+    int parsed;
+
+    try {
+      parsed = Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "The " + property + " must be a positive integer, but it is: " + value + "!", e);
+    }
+
+    if (parsed <= 0) {
+      throw new IllegalArgumentException(
+          "The " + property + " must be a positive integer, but it is: " + value + "!");
+    }
+
+    return parsed;
+  }
+
   private Player createOrGetPlayer(UserDTO user) {
     return engine.createOrGetPlayer(user.getUserName());
   }
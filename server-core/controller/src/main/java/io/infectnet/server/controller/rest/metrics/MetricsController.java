@@ -0,0 +1,69 @@
+package io.infectnet.server.controller.rest.metrics;
+
+import static spark.Spark.get;
+
+import com.google.gson.Gson;
+
+import io.infectnet.server.controller.engine.EngineConnector;
+import io.infectnet.server.controller.rest.RestController;
+import io.infectnet.server.controller.websocket.profile.ScriptProfileView;
+
+import spark.Request;
+import spark.Response;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Controller that exposes the metrics of the game loop and of the path cache, both as JSON and in
+ * the text format of Prometheus, and the profiles of the scripts of the players as JSON. Like
+ * every endpoint under {@code /admin}, they require an administrator token.
+ */
+public class MetricsController implements RestController {
+  private static final String URL_PATH = "/admin/metrics";
+
+  private static final String PROMETHEUS_URL_PATH = URL_PATH + "/prometheus";
+
+  private static final String SCRIPTS_URL_PATH = URL_PATH + "/scripts";
+
+  private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4";
+
+  private final EngineConnector engineConnector;
+
+  private final Gson gson;
+
+  public MetricsController(EngineConnector engineConnector, Gson gson) {
+    this.engineConnector = engineConnector;
+
+    this.gson = gson;
+  }
+
+  @Override
+  public void configure() {
+    get(URL_PATH, this::metricsEndpoint, gson::toJson);
+
+    get(PROMETHEUS_URL_PATH, this::prometheusEndpoint);
+
+    get(SCRIPTS_URL_PATH, this::scriptsEndpoint, gson::toJson);
+  }
+
+  private Object metricsEndpoint(Request req, Response resp) {
+    return new TickMetricsView(engineConnector.getTickMetrics(), engineConnector.getPathCache());
+  }
+
+  private Object prometheusEndpoint(Request req, Response resp) {
+    resp.type(PROMETHEUS_CONTENT_TYPE);
+
+    return PrometheusFormatter.format(engineConnector.getTickMetrics(),
+        engineConnector.getPathCache());
+  }
+
+  private Object scriptsEndpoint(Request req, Response resp) {
+    Map<String, ScriptProfileView> profiles = new TreeMap<>();
+
+    engineConnector.getScriptProfiler().getProfiles()
+        .forEach((player, profile) -> profiles.put(player, new ScriptProfileView(profile)));
+
+    return profiles;
+  }
+}
@@ -0,0 +1,153 @@
+package io.infectnet.server.controller.rest.metrics;
+
+import io.infectnet.server.engine.core.TickPhase;
+import io.infectnet.server.engine.core.metrics.LatencyHistogram;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.CachingPathFinderStrategy;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Formats the metrics of the game loop and of the path cache in the text exposition format of
+ * Prometheus. Durations are exported as summaries in seconds, with the quantiles computed by the
+ * engine.
+ */
+final class PrometheusFormatter {
+  private static final String PREFIX = "infectnet_";
+
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+  private PrometheusFormatter() {
+    /*
+     * Cannot be instantiated.
+     */
+  }
+
+  /**
+   * Formats the current state of the metrics.
+   * @param tickMetrics the metrics to format
+   * @param pathCache the path cache whose counts to format
+   * @return the metrics in the Prometheus text format
+   */
+  static String format(TickMetrics tickMetrics, CachingPathFinderStrategy pathCache) {
+    StringBuilder out = new StringBuilder();
+
+    counter(out, "ticks_total", "Finished game loop ticks.", tickMetrics.getTickCount());
+
+    counter(out, "tick_overruns_total", "Ticks not finished before the next tick was due.",
+        tickMetrics.getOverrunTickCount());
+
+    counter(out, "ticks_skipped_total", "Ticks dropped to get back on schedule.",
+        tickMetrics.getSkippedTickCount());
+
+    counter(out, "publishes_shed_total", "Ticks not publishing the status to get back on schedule.",
+        tickMetrics.getShedPublishCount());
+
+    counter(out, "actions_total", "Processed actions.", tickMetrics.getActionCount());
+
+    counter(out, "requests_total", "Processed requests.", tickMetrics.getRequestCount());
+
+    counter(out, "path_cache_hits_total", "Paths returned from the path cache.",
+        pathCache.getHitCount());
+
+    counter(out, "path_cache_misses_total", "Paths searched because they were not cached.",
+        pathCache.getMissCount());
+
+    counter(out, "path_cache_invalidations_total",
+        "Cached paths cut or removed because one of their tiles got blocked.",
+        pathCache.getInvalidationCount());
+
+    summaryHeader(out, "tick_duration_seconds", "Duration of the game loop ticks.");
+    summary(out, "tick_duration_seconds", "", tickMetrics.getTickDurations());
+
+    summaryHeader(out, "tick_scheduling_lag_seconds",
+        "Delay between the scheduled and the actual start of the ticks.");
+    summary(out, "tick_scheduling_lag_seconds", "", tickMetrics.getSchedulingLag());
+
+    summaryHeader(out, "tick_jitter_seconds",
+        "Difference between the period of the ticks and the desired tick duration.");
+    summary(out, "tick_jitter_seconds", "", tickMetrics.getTickJitter());
+
+    summaryHeader(out, "tick_phase_duration_seconds", "Duration of the phases of the ticks.");
+
+    for (TickPhase phase : TickPhase.values()) {
+      String phaseLabel = label("phase", phase.name().toLowerCase(Locale.ROOT));
+
+      summary(out, "tick_phase_duration_seconds", phaseLabel, tickMetrics.getPhaseDurations(phase));
+    }
+
+    summaryHeader(out, "script_duration_seconds", "Duration of the scripts of the players.");
+
+    for (Map.Entry<String, LatencyHistogram> entry
+        : new TreeMap<>(tickMetrics.getScriptDurations()).entrySet()) {
+      summary(out, "script_duration_seconds", label("player", entry.getKey()), entry.getValue());
+    }
+
+    summaryHeader(out, "action_duration_seconds", "Processing time of the actions by type.");
+
+    for (Map.Entry<Class<?>, LatencyHistogram> entry
+        : tickMetrics.getActionDurations().entrySet()) {
+      summary(out, "action_duration_seconds", label("type", entry.getKey().getSimpleName()),
+          entry.getValue());
+    }
+
+    summaryHeader(out, "request_duration_seconds", "Processing time of the requests by type.");
+
+    for (Map.Entry<Class<?>, LatencyHistogram> entry
+        : tickMetrics.getRequestDurations().entrySet()) {
+      summary(out, "request_duration_seconds", label("type", entry.getKey().getSimpleName()),
+          entry.getValue());
+    }
+
+    return out.toString();
+  }
+
+  private static void counter(StringBuilder out, String name, String help, long value) {
+    out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+    out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void summaryHeader(StringBuilder out, String name, String help) {
+    out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(PREFIX).append(name).append(" summary\n");
+  }
+
+  /**
+   * Appends the samples of a summary.
+   * @param labels the labels of the summary separated by commas, or an empty string
+   */
+  private static void summary(StringBuilder out, String name, String labels,
+                              LatencyHistogram histogram) {
+    String separator = labels.isEmpty() ? "" : ",";
+
+    for (double quantile : QUANTILES) {
+      out.append(PREFIX).append(name)
+          .append('{').append(labels).append(separator)
+          .append("quantile=\"").append(quantile).append("\"} ")
+          .append(histogram.getValueAtPercentile(quantile * 100.0) / NANOS_PER_SECOND)
+          .append('\n');
+    }
+
+    String braced = labels.isEmpty() ? "" : "{" + labels + "}";
+
+    out.append(PREFIX).append(name).append("_sum").append(braced).append(' ')
+        .append(histogram.getTotal() / NANOS_PER_SECOND).append('\n');
+
+    out.append(PREFIX).append(name).append("_count").append(braced).append(' ')
+        .append(histogram.getCount()).append('\n');
+  }
+
+  private static String label(String name, String value) {
+    String escaped = value
+        .replace("\\", "\\\\")
+        .replace("\"", "\\\"")
+        .replace("\n", "\\n");
+
+    return name + "=\"" + escaped + "\"";
+  }
+}
@@ -0,0 +1,125 @@
+package io.infectnet.server.controller.rest.metrics;
+
+import io.infectnet.server.engine.core.TickPhase;
+import io.infectnet.server.engine.core.metrics.LatencyHistogram;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.CachingPathFinderStrategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The metrics of the game loop and the counts of the path cache as they are serialized to JSON,
+ * every duration in milliseconds.
+ */
+class TickMetricsView {
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  private final long ticks;
+
+  private final long overrunTicks;
+
+  private final long skippedTicks;
+
+  private final long shedPublishes;
+
+  private final long actions;
+
+  private final long requests;
+
+  private final long pathCacheHits;
+
+  private final long pathCacheMisses;
+
+  private final long pathCacheInvalidations;
+
+  private final HistogramView tickDuration;
+
+  private final HistogramView schedulingLag;
+
+  private final HistogramView tickJitter;
+
+  private final Map<String, HistogramView> phases;
+
+  private final Map<String, HistogramView> scripts;
+
+  private final Map<String, HistogramView> actionTypes;
+
+  private final Map<String, HistogramView> requestTypes;
+
+  TickMetricsView(TickMetrics tickMetrics, CachingPathFinderStrategy pathCache) {
+    this.ticks = tickMetrics.getTickCount();
+
+    this.overrunTicks = tickMetrics.getOverrunTickCount();
+
+    this.skippedTicks = tickMetrics.getSkippedTickCount();
+
+    this.shedPublishes = tickMetrics.getShedPublishCount();
+
+    this.actions = tickMetrics.getActionCount();
+
+    this.requests = tickMetrics.getRequestCount();
+
+    this.pathCacheHits = pathCache.getHitCount();
+
+    this.pathCacheMisses = pathCache.getMissCount();
+
+    this.pathCacheInvalidations = pathCache.getInvalidationCount();
+
+    this.tickDuration = new HistogramView(tickMetrics.getTickDurations());
+
+    this.schedulingLag = new HistogramView(tickMetrics.getSchedulingLag());
+
+    this.tickJitter = new HistogramView(tickMetrics.getTickJitter());
+
+    this.phases = new LinkedHashMap<>();
+
+    for (TickPhase phase : TickPhase.values()) {
+      phases.put(phase.name(), new HistogramView(tickMetrics.getPhaseDurations(phase)));
+    }
+
+    this.scripts = new TreeMap<>();
+
+    tickMetrics.getScriptDurations()
+        .forEach((player, histogram) -> scripts.put(player, new HistogramView(histogram)));
+
+    this.actionTypes = new TreeMap<>();
+
+    tickMetrics.getActionDurations().forEach((actionClass, histogram) ->
+        actionTypes.put(actionClass.getSimpleName(), new HistogramView(histogram)));
+
+    this.requestTypes = new TreeMap<>();
+
+    tickMetrics.getRequestDurations().forEach((requestClass, histogram) ->
+        requestTypes.put(requestClass.getSimpleName(), new HistogramView(histogram)));
+  }
+
+  private static class HistogramView {
+    private final long count;
+
+    private final double mean;
+
+    private final double p50;
+
+    private final double p90;
+
+    private final double p99;
+
+    private final double max;
+
+    private HistogramView(LatencyHistogram histogram) {
+      this.count = histogram.getCount();
+
+      this.mean = count == 0 ? 0.0 : histogram.getTotal() / NANOS_PER_MILLI / count;
+
+      this.p50 = histogram.getValueAtPercentile(50.0) / NANOS_PER_MILLI;
+
+      this.p90 = histogram.getValueAtPercentile(90.0) / NANOS_PER_MILLI;
+
+      this.p99 = histogram.getValueAtPercentile(99.0) / NANOS_PER_MILLI;
+
+      this.max = histogram.getMax() / NANOS_PER_MILLI;
+    }
+  }
+}
@@ -7,6 +7,9 @@ public class MalformedMessageException extends ErrorConvertibleException {
 
   private final String code = "Malformed message";
 
+  public MalformedMessageException() {
+  }
+
   public MalformedMessageException(Throwable cause) {
     super(cause);
   }
@@ -22,6 +22,11 @@ public enum Action {
    */
   UNSUBSCRIBE,
 
+  /**
+   * Used when the client acknowledges a status update.
+   */
+  STATUS_ACK,
+
   /**
    * Used when the client uploads new code.
    */
@@ -51,4 +56,14 @@ public enum Action {
    * Used for sending the client map updates.
    */
   STATUS_UPDATE,
+
+  /**
+   * Used when the client requests the profile of its script.
+   */
+  GET_SCRIPT_PROFILE,
+
+  /**
+   * Used for sending the client the costs of the recent executions of its script.
+   */
+  SCRIPT_PROFILE,
 }
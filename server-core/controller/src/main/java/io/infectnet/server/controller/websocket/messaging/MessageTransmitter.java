@@ -2,11 +2,17 @@ package io.infectnet.server.controller.websocket.messaging;
 
 import io.infectnet.server.controller.utils.error.ErrorConvertibleException;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public interface MessageTransmitter {
   <T> void transmitString(Session session, SocketMessage<T> socketMessage) throws IOException;
 
   void transmitException(Session session, ErrorConvertibleException exception) throws IOException;
+
+  <T> void transmitString(Session session, SocketMessage<T> socketMessage, WriteCallback callback);
+
+  void transmitBytes(Session session, ByteBuffer bytes, WriteCallback callback);
 }
@@ -2,8 +2,10 @@ package io.infectnet.server.controller.websocket.messaging;
 
 import io.infectnet.server.controller.utils.error.ErrorConvertibleException;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class MessageTransmitterImpl implements MessageTransmitter {
   private final MessageFactory messageFactory;
@@ -29,4 +31,17 @@ public class MessageTransmitterImpl implements MessageTransmitter {
 
     transmitString(session, message);
   }
+
+  @Override
+  public <T> void transmitString(Session session, SocketMessage<T> socketMessage,
+                                 WriteCallback callback) {
+    String transmittableString = messageFactory.convertSocketMessage(socketMessage);
+
+    session.getRemote().sendString(transmittableString, callback);
+  }
+
+  @Override
+  public void transmitBytes(Session session, ByteBuffer bytes, WriteCallback callback) {
+    session.getRemote().sendBytes(bytes, callback);
+  }
 }
@@ -0,0 +1,63 @@
+package io.infectnet.server.controller.websocket.profile;
+
+import io.infectnet.server.controller.engine.EngineConnector;
+import io.infectnet.server.controller.websocket.WebSocketController;
+import io.infectnet.server.controller.websocket.WebSocketDispatcher;
+import io.infectnet.server.controller.websocket.authentication.SessionAuthenticator;
+import io.infectnet.server.controller.websocket.exception.AuthenticationNeededException;
+import io.infectnet.server.controller.websocket.messaging.Action;
+import io.infectnet.server.controller.websocket.messaging.MessageTransmitter;
+import io.infectnet.server.controller.websocket.messaging.SocketMessage;
+import io.infectnet.server.engine.core.metrics.ScriptProfile;
+import io.infectnet.server.service.user.UserDTO;
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * WebSocket controller responsible for providing the users the profiles of their own scripts, so
+ * they can see what their code costs the server.
+ */
+public class ScriptProfileController implements WebSocketController {
+
+  private final EngineConnector engineConnector;
+
+  private final SessionAuthenticator sessionAuthenticator;
+
+  private final MessageTransmitter messageTransmitter;
+
+  public ScriptProfileController(EngineConnector engineConnector,
+                                 SessionAuthenticator sessionAuthenticator,
+                                 MessageTransmitter messageTransmitter) {
+    this.engineConnector = engineConnector;
+    this.sessionAuthenticator = sessionAuthenticator;
+    this.messageTransmitter = messageTransmitter;
+  }
+
+  @Override
+  public void configure(WebSocketDispatcher webSocketDispatcher) {
+    webSocketDispatcher.registerOnMessage(Action.GET_SCRIPT_PROFILE, this::provideScriptProfile);
+  }
+
+  /**
+   * Handles client requesting the profile of its script. A script that has not run yet is sent
+   * an empty profile.
+   */
+  private void provideScriptProfile(Session session, String arguments) throws IOException {
+    Optional<UserDTO> user = sessionAuthenticator.verifyAuthentication(session);
+
+    if (user.isPresent()) {
+      ScriptProfileView profile = engineConnector.getScriptProfiler()
+          .getProfile(user.get().getUserName())
+          .map(ScriptProfileView::new)
+          .orElseGet(() -> new ScriptProfileView(ScriptProfile.EMPTY));
+
+      messageTransmitter.transmitString(session,
+          new SocketMessage<>(Action.SCRIPT_PROFILE, profile, ScriptProfileView.class));
+
+    } else {
+      messageTransmitter.transmitException(session, new AuthenticationNeededException());
+    }
+  }
+}
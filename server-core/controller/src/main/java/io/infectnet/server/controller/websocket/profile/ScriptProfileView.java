@@ -0,0 +1,59 @@
+package io.infectnet.server.controller.websocket.profile;
+
+import io.infectnet.server.engine.core.metrics.ScriptCost;
+import io.infectnet.server.engine.core.metrics.ScriptProfile;
+
+/**
+ * The profile of the script of a user as serialized to JSON, with the times in milliseconds. Every
+ * cost is reported as the mean and the maximum of the recent executions.
+ */
+public class ScriptProfileView {
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  private final int executions;
+
+  private final CostView wallTime;
+
+  private final CostView cpuTime;
+
+  private final CostView allocatedBytes;
+
+  private final CostView actions;
+
+  private final CostView selectorCalls;
+
+  private final CostView pathFindingRequests;
+
+  /**
+   * Creates the view of a profile.
+   * @param scriptProfile the profile to be viewed
+   */
+  public ScriptProfileView(ScriptProfile scriptProfile) {
+    this.executions = scriptProfile.getExecutionCount();
+
+    this.wallTime = new CostView(scriptProfile, ScriptCost.WALL_TIME, NANOS_PER_MILLI);
+
+    this.cpuTime = new CostView(scriptProfile, ScriptCost.CPU_TIME, NANOS_PER_MILLI);
+
+    this.allocatedBytes = new CostView(scriptProfile, ScriptCost.ALLOCATED_BYTES, 1.0);
+
+    this.actions = new CostView(scriptProfile, ScriptCost.ACTIONS, 1.0);
+
+    this.selectorCalls = new CostView(scriptProfile, ScriptCost.SELECTOR_CALLS, 1.0);
+
+    this.pathFindingRequests =
+        new CostView(scriptProfile, ScriptCost.PATH_FINDING_REQUESTS, 1.0);
+  }
+
+  private static class CostView {
+    private final double mean;
+
+    private final double max;
+
+    private CostView(ScriptProfile scriptProfile, ScriptCost cost, double unit) {
+      this.mean = scriptProfile.getMean(cost) / unit;
+
+      this.max = scriptProfile.getMax(cost) / unit;
+    }
+  }
+}
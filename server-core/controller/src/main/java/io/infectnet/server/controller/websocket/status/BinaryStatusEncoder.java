@@ -0,0 +1,221 @@
+package io.infectnet.server.controller.websocket.status;
+
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.component.HealthComponent;
+import io.infectnet.server.engine.core.entity.component.OwnerComponent;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.status.StatusMessage;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes {@link StatusMessage}s into the compact binary format. Every number is written as an
+ * unsigned LEB128 varint, except the health, which is zigzag-encoded first, as it may be negative.
+ * <p>
+ * The layout of a message is the following:
+ * </p>
+ * <ol>
+ * <li>the format version, {@value #FORMAT_VERSION}</li>
+ * <li>the type of the message, the ordinal of {@link StatusMessage.Type}</li>
+ * <li>the tick and the base tick of the message</li>
+ * <li>the string table: the number of strings, then the length of each string in bytes followed
+ * by its UTF-8 bytes</li>
+ * <li>the number of tiles, then a record for each {@link Tile}: {@code h}, {@code w}, the flags
+ * ({@code tileType << 1 | hasEntity}), and if the {@code Tile} has an {@link Entity}, the string
+ * table index of its type name, the string table index of its owner's name plus one ({@code 0} if
+ * it has no owner) and its health</li>
+ * <li>the number of hidden positions, then {@code h} and {@code w} of each {@link Position}</li>
+ * </ol>
+ * <p>
+ * The encoding buffers are reused per thread, so encoding does not allocate once the buffers have
+ * grown large enough.
+ * </p>
+ */
+public class BinaryStatusEncoder {
+  /**
+   * The version of the binary format, sent as the first byte of every message.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  private static final int INITIAL_BUFFER_CAPACITY = 16 * 1024;
+
+  private final ThreadLocal<EncoderState> encoderState;
+
+  /**
+   * Constructs a new encoder.
+   */
+  public BinaryStatusEncoder() {
+    this.encoderState = ThreadLocal.withInitial(EncoderState::new);
+  }
+
+  /**
+   * Encodes the specified message. The returned buffer is owned by the encoder and is reused by the
+   * next call on the same thread, therefore it must be sent before encoding the next message.
+   * @param statusMessage the message to encode
+   * @return a buffer containing the encoded message between its position and limit
+   */
+  public ByteBuffer encode(StatusMessage statusMessage) {
+    EncoderState state = encoderState.get();
+
+    state.reset();
+
+    /*
+     * The string table has to precede the records, so it's collected in a separate pass.
+     */
+    for (Tile tile : statusMessage.getTileSet()) {
+      Entity entity = tile.getEntity();
+
+      if (entity != null) {
+        state.stringId(entity.getTypeComponent().getName());
+
+        Player owner = getOwner(entity);
+
+        if (owner != null) {
+          state.stringId(owner.getUsername());
+        }
+      }
+    }
+
+    state.writeVarint(FORMAT_VERSION);
+    state.writeVarint(statusMessage.getType().ordinal());
+    state.writeVarint(statusMessage.getTick());
+    state.writeVarint(statusMessage.getBaseTick());
+
+    state.writeVarint(state.strings.size());
+
+    for (byte[] string : state.strings) {
+      state.writeVarint(string.length);
+      state.writeBytes(string);
+    }
+
+    state.writeVarint(statusMessage.getTileSet().size());
+
+    for (Tile tile : statusMessage.getTileSet()) {
+      Entity entity = tile.getEntity();
+
+      state.writeVarint(tile.getPosition().getH());
+      state.writeVarint(tile.getPosition().getW());
+      state.writeVarint(tile.getType().ordinal() << 1 | (entity == null ? 0 : 1));
+
+      if (entity != null) {
+        state.writeVarint(state.stringId(entity.getTypeComponent().getName()));
+
+        Player owner = getOwner(entity);
+
+        state.writeVarint(owner == null ? 0 : state.stringId(owner.getUsername()) + 1);
+
+        state.writeVarint(zigzag(getHealth(entity)));
+      }
+    }
+
+    state.writeVarint(statusMessage.getHiddenPositionSet().size());
+
+    for (Position position : statusMessage.getHiddenPositionSet()) {
+      state.writeVarint(position.getH());
+      state.writeVarint(position.getW());
+    }
+
+    state.buffer.flip();
+
+    return state.buffer;
+  }
+
+  private static Player getOwner(Entity entity) {
+    OwnerComponent ownerComponent = entity.getOwnerComponent();
+
+    return ownerComponent == null ? null : ownerComponent.getOwner();
+  }
+
+  private static int getHealth(Entity entity) {
+    HealthComponent healthComponent = entity.getHealthComponent();
+
+    return healthComponent == null ? 0 : healthComponent.getHealth();
+  }
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  /**
+   * The reusable buffers of a single thread.
+   */
+  private static class EncoderState {
+    private ByteBuffer buffer;
+
+    private final Map<String, Integer> stringIds;
+
+    private final List<byte[]> strings;
+
+    private EncoderState() {
+      this.buffer = ByteBuffer.allocate(INITIAL_BUFFER_CAPACITY);
+
+      this.stringIds = new HashMap<>();
+
+      this.strings = new ArrayList<>();
+    }
+
+    private void reset() {
+      buffer.clear();
+
+      stringIds.clear();
+
+      strings.clear();
+    }
+
+    private int stringId(String string) {
+      Integer id = stringIds.get(string);
+
+      if (id == null) {
+        id = strings.size();
+
+        stringIds.put(string, id);
+
+        strings.add(string.getBytes(StandardCharsets.UTF_8));
+      }
+
+      return id;
+    }
+
+    private void writeVarint(long value) {
+      ensureRemaining(10);
+
+      while ((value & ~0x7FL) != 0) {
+        buffer.put((byte) ((value & 0x7F) | 0x80));
+
+        value >>>= 7;
+      }
+
+      buffer.put((byte) value);
+    }
+
+    private void writeVarint(int value) {
+      writeVarint(value & 0xFFFFFFFFL);
+    }
+
+    private void writeBytes(byte[] bytes) {
+      ensureRemaining(bytes.length);
+
+      buffer.put(bytes);
+    }
+
+    private void ensureRemaining(int bytes) {
+      if (buffer.remaining() < bytes) {
+        ByteBuffer grown =
+            ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+
+        buffer.flip();
+
+        grown.put(buffer);
+
+        buffer = grown;
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package io.infectnet.server.controller.websocket.status;
+
+import io.infectnet.server.engine.core.status.StatusMessage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bounded queue of the status updates waiting to be sent to a single player. Only the newest
+ * updates are worth sending: a keyframe makes every earlier update obsolete, and a delta contains
+ * every change since its base tick, which is never older than the last keyframe, so it makes the
+ * earlier deltas obsolete. The queue therefore holds at most a keyframe followed by a delta, and
+ * stale updates are dropped when a client falls behind.
+ * <p>
+ * The queue is drained by a single task at a time, so the updates of a player are sent in order
+ * and at most one of them is being written at any time.
+ * </p>
+ */
+class OutboundStatusQueue {
+  private StatusMessage pendingKeyframe;
+
+  private StatusMessage pendingDelta;
+
+  private boolean draining;
+
+  /**
+   * The buffer binary updates are copied into while being written. Only one update is written at a
+   * time, so it can be reused.
+   */
+  private ByteBuffer sendBuffer;
+
+  OutboundStatusQueue() {
+    this.pendingKeyframe = null;
+
+    this.pendingDelta = null;
+
+    this.draining = false;
+
+    this.sendBuffer = ByteBuffer.allocate(0);
+  }
+
+  /**
+   * Adds the update to the queue, dropping the updates made obsolete by it.
+   * @param statusMessage the update to send
+   * @return {@code true} if the queue is not being drained, and the caller must start draining it,
+   * {@code false} otherwise
+   */
+  synchronized boolean offer(StatusMessage statusMessage) {
+    if (statusMessage.getType() == StatusMessage.Type.KEYFRAME) {
+      pendingKeyframe = statusMessage;
+
+      pendingDelta = null;
+    } else {
+      pendingDelta = statusMessage;
+    }
+
+    if (draining) {
+      return false;
+    }
+
+    draining = true;
+
+    return true;
+  }
+
+  /**
+   * Removes the next update to send. If the queue is empty, draining is finished, and the next
+   * {@link #offer(StatusMessage)} will have to start it again.
+   * @return the next update or {@code null} if the queue is empty
+   */
+  synchronized StatusMessage poll() {
+    StatusMessage next;
+
+    if (pendingKeyframe != null) {
+      next = pendingKeyframe;
+
+      pendingKeyframe = null;
+    } else {
+      next = pendingDelta;
+
+      pendingDelta = null;
+    }
+
+    if (next == null) {
+      draining = false;
+    }
+
+    return next;
+  }
+
+  /**
+   * Copies the encoded update into the buffer owned by the queue. Must only be called by the task
+   * draining the queue.
+   * @param bytes the encoded update
+   * @return the buffer containing the copy
+   */
+  ByteBuffer copyToSendBuffer(ByteBuffer bytes) {
+    if (sendBuffer.capacity() < bytes.remaining()) {
+      sendBuffer = ByteBuffer.allocate(bytes.remaining());
+    }
+
+    sendBuffer.clear();
+
+    sendBuffer.put(bytes);
+
+    sendBuffer.flip();
+
+    return sendBuffer;
+  }
+}
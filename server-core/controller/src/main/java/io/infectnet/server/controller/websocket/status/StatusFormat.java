@@ -0,0 +1,17 @@
+package io.infectnet.server.controller.websocket.status;
+
+/**
+ * The wire formats status updates can be sent in. The format is chosen by the client when
+ * subscribing.
+ */
+public enum StatusFormat {
+  /**
+   * Status updates are sent as JSON text messages, like every other message.
+   */
+  JSON,
+
+  /**
+   * Status updates are sent as binary messages, encoded by {@link BinaryStatusEncoder}.
+   */
+  BINARY
+}
@@ -0,0 +1,48 @@
+package io.infectnet.server.controller.websocket.status;
+
+import io.infectnet.server.service.user.UserDTO;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the {@link StatusFormat} chosen by the subscribed users. Users who have not chosen a
+ * format receive their status updates in {@link StatusFormat#JSON}.
+ */
+public class StatusFormatRegistry {
+  private final Map<String, StatusFormat> formatMap;
+
+  /**
+   * Constructs a new, empty registry.
+   */
+  public StatusFormatRegistry() {
+    this.formatMap = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Sets the format the specified user will receive status updates in.
+   * @param user the user
+   * @param format the chosen format
+   */
+  public void setFormatForUser(UserDTO user, StatusFormat format) {
+    formatMap.put(user.getUserName(), Objects.requireNonNull(format));
+  }
+
+  /**
+   * Gets the format the specified user receives status updates in.
+   * @param user the user
+   * @return the chosen format or {@link StatusFormat#JSON} if no format has been chosen
+   */
+  public StatusFormat getFormatForUser(UserDTO user) {
+    return formatMap.getOrDefault(user.getUserName(), StatusFormat.JSON);
+  }
+
+  /**
+   * Forgets the format chosen by the specified user.
+   * @param user the user
+   */
+  public void removeFormatForUser(UserDTO user) {
+    formatMap.remove(user.getUserName());
+  }
+}
@@ -10,16 +10,29 @@ import io.infectnet.server.engine.core.status.StatusMessage;
 import io.infectnet.server.service.user.UserDTO;
 import io.infectnet.server.service.user.UserService;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * WebSocket controller-like class responsible for sending out status updates through WebSocket.
+ * <p>
+ * Status updates are only queued on the calling thread, which is the thread of the game loop. The
+ * updates are serialized on the worker threads of the specified {@link Executor}, and are written
+ * without blocking. Every player has a bounded {@link OutboundStatusQueue}, so a slow client only
+ * misses stale updates, instead of slowing down the game loop or the other clients.
+ * </p>
+ * <p>
+ * The queue of a player is created by {@link #addUser(UserDTO)}, which has to happen when the user
+ * subscribes, and is kept together with the cached user until {@link #removeUser(UserDTO)} is
+ * called, which has to happen when the user unsubscribes or disconnects. Updates of players
+ * without a queue are dropped.
+ * </p>
  */
 public class WebSocketStatusTransmitter {
 
@@ -31,55 +44,163 @@ public class WebSocketStatusTransmitter {
 
   private final UserService userService;
 
-  private final Map<Player, UserDTO> userDTOCache;
+  private final StatusFormatRegistry statusFormatRegistry;
+
+  private final BinaryStatusEncoder binaryStatusEncoder;
+
+  private final Executor executor;
+
+  private final Map<String, UserDTO> userDTOCache;
+
+  private final Map<String, OutboundStatusQueue> queueMap;
 
   /**
    * Constructs a new status transmitter using WebSocket connections.
    * @param messageTransmitter the message transmitter to use
    * @param sessionAuthenticator the session authenticator to use
    * @param userService the user service to use
+   * @param statusFormatRegistry the registry of the formats chosen by the users
+   * @param binaryStatusEncoder the encoder to use for the binary format
+   * @param executor the executor serializing and sending the updates
    */
   public WebSocketStatusTransmitter(MessageTransmitter messageTransmitter,
                                     SessionAuthenticator sessionAuthenticator,
-                                    UserService userService) {
+                                    UserService userService,
+                                    StatusFormatRegistry statusFormatRegistry,
+                                    BinaryStatusEncoder binaryStatusEncoder,
+                                    Executor executor) {
     this.messageTransmitter = messageTransmitter;
 
     this.sessionAuthenticator = sessionAuthenticator;
 
     this.userService = userService;
 
-    this.userDTOCache = new HashMap<>();
+    this.statusFormatRegistry = statusFormatRegistry;
+
+    this.binaryStatusEncoder = binaryStatusEncoder;
+
+    this.executor = executor;
+
+    this.userDTOCache = new ConcurrentHashMap<>();
+
+    this.queueMap = new ConcurrentHashMap<>();
   }
 
   /**
-   * Sends out the given status update message to the specified player.
+   * Queues the given status update message to be sent to the specified player, in the format
+   * chosen by the player. The message must not be modified afterwards.
    * @param player the player to send to
    * @param statusMessage the status update message
    */
   public void transmit(Player player, StatusMessage statusMessage) {
+    OutboundStatusQueue queue = queueMap.get(player.getUsername());
+
+    /*
+     * The user has unsubscribed or disconnected since the update has been published.
+     */
+    if (queue == null) {
+      return;
+    }
+
+    if (queue.offer(statusMessage)) {
+      executor.execute(() -> sendNext(player, queue));
+    }
+  }
 
-    SocketMessage<StatusMessage> message =
-        new SocketMessage<>(Action.STATUS_UPDATE, statusMessage, StatusMessage.class);
+  /**
+   * Creates the queue of the specified user, so the status updates of the user can be sent. Does
+   * nothing if the user already has a queue.
+   * @param user the user who subscribed
+   */
+  public void addUser(UserDTO user) {
+    userDTOCache.put(user.getUserName(), user);
 
-    Optional<Session> session =
-        getUserForPlayer(player).flatMap(sessionAuthenticator::getSessionForUserDto);
+    queueMap.putIfAbsent(user.getUserName(), new OutboundStatusQueue());
+  }
+
+  /**
+   * Forgets the queue and the cached user of the specified user. Updates transmitted afterwards
+   * are dropped until the user subscribes again.
+   * @param user the user who unsubscribed or disconnected
+   */
+  public void removeUser(UserDTO user) {
+    queueMap.remove(user.getUserName());
+
+    userDTOCache.remove(user.getUserName());
+  }
+
+  /**
+   * Sends the next update of the queue. The next update is sent when the write has finished, so
+   * the updates dropped in the meantime are never serialized.
+   */
+  private void sendNext(Player player, OutboundStatusQueue queue) {
+    StatusMessage statusMessage;
+
+    while ((statusMessage = queue.poll()) != null) {
+      Optional<UserDTO> user = getUserForPlayer(player);
+
+      Optional<Session> session = user.flatMap(sessionAuthenticator::getSessionForUserDto);
+
+      if (!session.isPresent()) {
+        continue;
+      }
+
+      WriteCallback callback = new QueueDrainingCallback(player, queue);
 
-    if (session.isPresent()) {
       try {
-        messageTransmitter.transmitString(session.get(), message);
-      } catch (IOException e) {
+        if (statusFormatRegistry.getFormatForUser(user.get()) == StatusFormat.BINARY) {
+          messageTransmitter.transmitBytes(session.get(),
+              queue.copyToSendBuffer(binaryStatusEncoder.encode(statusMessage)), callback);
+        } else {
+          messageTransmitter.transmitString(session.get(),
+              new SocketMessage<>(Action.STATUS_UPDATE, statusMessage, StatusMessage.class),
+              callback);
+        }
+
+        return;
+      } catch (RuntimeException e) {
+        /*
+         * The callback is only invoked for writes that have been started, so the queue has to be
+         * drained further here, otherwise it would never be drained again.
+         */
         logger.warn("Couldn't send status update to {}: {}", player, e);
       }
     }
-
   }
 
   private Optional<UserDTO> getUserForPlayer(Player player) {
     UserDTO userDTO =
-        userDTOCache.computeIfAbsent(player,
-            p -> userService.getUserDtoByUsername(player.getUsername()).orElse(null));
+        userDTOCache.computeIfAbsent(player.getUsername(),
+            username -> userService.getUserDtoByUsername(username).orElse(null));
 
     return Optional.ofNullable(userDTO);
   }
 
+  /**
+   * Continues draining the queue on a worker thread when a write has finished.
+   */
+  private class QueueDrainingCallback implements WriteCallback {
+    private final Player player;
+
+    private final OutboundStatusQueue queue;
+
+    private QueueDrainingCallback(Player player, OutboundStatusQueue queue) {
+      this.player = player;
+
+      this.queue = queue;
+    }
+
+    @Override
+    public void writeFailed(Throwable throwable) {
+      logger.warn("Couldn't send status update to {}: {}", player, throwable);
+
+      executor.execute(() -> sendNext(player, queue));
+    }
+
+    @Override
+    public void writeSuccess() {
+      executor.execute(() -> sendNext(player, queue));
+    }
+  }
+
 }
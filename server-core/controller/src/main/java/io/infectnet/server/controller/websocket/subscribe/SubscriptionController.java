@@ -1,13 +1,21 @@
 package io.infectnet.server.controller.websocket.subscribe;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+
 import io.infectnet.server.controller.engine.EngineConnector;
 import io.infectnet.server.controller.websocket.WebSocketController;
 import io.infectnet.server.controller.websocket.WebSocketDispatcher;
 import io.infectnet.server.controller.websocket.authentication.SessionAuthenticator;
 import io.infectnet.server.controller.websocket.exception.AuthenticationNeededException;
+import io.infectnet.server.controller.websocket.exception.MalformedMessageException;
 import io.infectnet.server.controller.websocket.messaging.Action;
 import io.infectnet.server.controller.websocket.messaging.MessageTransmitter;
 import io.infectnet.server.controller.websocket.messaging.SocketMessage;
+import io.infectnet.server.controller.websocket.status.StatusFormat;
+import io.infectnet.server.controller.websocket.status.StatusFormatRegistry;
+import io.infectnet.server.controller.websocket.status.WebSocketStatusTransmitter;
 import io.infectnet.server.service.user.UserDTO;
 import org.eclipse.jetty.websocket.api.Session;
 import org.slf4j.Logger;
@@ -25,31 +33,57 @@ public class SubscriptionController implements WebSocketController {
 
   private final EngineConnector engineConnector;
 
+  private final Gson gson;
+
   private final SessionAuthenticator sessionAuthenticator;
 
   private final MessageTransmitter messageTransmitter;
 
-  public SubscriptionController(EngineConnector engineConnector,
+  private final StatusFormatRegistry statusFormatRegistry;
+
+  private final WebSocketStatusTransmitter statusTransmitter;
+
+  public SubscriptionController(EngineConnector engineConnector, Gson gson,
                                 SessionAuthenticator sessionAuthenticator,
-                                MessageTransmitter messageTransmitter) {
+                                MessageTransmitter messageTransmitter,
+                                StatusFormatRegistry statusFormatRegistry,
+                                WebSocketStatusTransmitter statusTransmitter) {
     this.engineConnector = engineConnector;
+    this.gson = gson;
     this.sessionAuthenticator = sessionAuthenticator;
     this.messageTransmitter = messageTransmitter;
+    this.statusFormatRegistry = statusFormatRegistry;
+    this.statusTransmitter = statusTransmitter;
   }
 
   @Override
   public void configure(WebSocketDispatcher webSocketDispatcher) {
     webSocketDispatcher.registerOnMessage(Action.SUBSCRIBE, this::handleUserSubscription);
     webSocketDispatcher.registerOnMessage(Action.UNSUBSCRIBE, this::handleUserUnsubscription);
+    webSocketDispatcher.registerOnMessage(Action.STATUS_ACK, this::handleStatusAcknowledgement);
 
     webSocketDispatcher.registerOnClose(this::autoUnsubscribeOnDisconnect);
   }
 
-  private void handleUserSubscription(Session session, String arguments) throws IOException {
+  /**
+   * Handles client subscribing to status updates. The client may choose the format of the status
+   * updates by passing {@code {"format": "BINARY"}}, otherwise JSON is used. Clients able to apply
+   * delta status updates have to pass {@code {"deltas": true}}, otherwise they receive the full
+   * state in every status update.
+   */
+  private void handleUserSubscription(Session session, String arguments)
+      throws MalformedMessageException, IOException {
     Optional<UserDTO> user = sessionAuthenticator.verifyAuthentication(session);
 
     if (user.isPresent()) {
-      engineConnector.setUserAsObserved(user.get());
+      SubscriptionOptions options = parseArgumentsToOptions(arguments);
+
+      statusFormatRegistry.setFormatForUser(user.get(),
+          options.format == null ? StatusFormat.JSON : options.format);
+
+      statusTransmitter.addUser(user.get());
+
+      engineConnector.setUserAsObserved(user.get(), options.deltas);
 
       messageTransmitter.transmitString(session, SocketMessage.EMPTY_OK);
 
@@ -64,6 +98,10 @@ public class SubscriptionController implements WebSocketController {
     if (user.isPresent()) {
       engineConnector.removeUserFromObserved(user.get());
 
+      statusFormatRegistry.removeFormatForUser(user.get());
+
+      statusTransmitter.removeUser(user.get());
+
       messageTransmitter.transmitString(session, SocketMessage.EMPTY_OK);
 
     } else {
@@ -71,13 +109,88 @@ public class SubscriptionController implements WebSocketController {
     }
   }
 
+  /**
+   * Parses the subscription options chosen by the client. Clients not passing an object as the
+   * arguments are not aware of the options, so they receive the full state in JSON.
+   * @param arguments the client input source
+   * @throws MalformedMessageException when the input is malformed
+   */
+  private SubscriptionOptions parseArgumentsToOptions(String arguments)
+      throws MalformedMessageException {
+    try {
+      JsonElement element = gson.fromJson(arguments, JsonElement.class);
+
+      if (element == null || !element.isJsonObject()) {
+        return new SubscriptionOptions();
+      }
+
+      return gson.fromJson(element, SubscriptionOptions.class);
+    } catch (JsonParseException e) {
+      throw new MalformedMessageException(e);
+    }
+  }
+
+  /**
+   * Handles client acknowledging a status update. No response is sent, as acknowledgements are
+   * sent in every tick.
+   */
+  private void handleStatusAcknowledgement(Session session, String arguments)
+      throws MalformedMessageException, IOException {
+    Optional<UserDTO> user = sessionAuthenticator.verifyAuthentication(session);
+
+    if (user.isPresent()) {
+      StatusAcknowledgement acknowledgement = parseArgumentsToAcknowledgement(arguments);
+
+      engineConnector.acknowledgeStatusForUser(user.get(), acknowledgement.tick);
+
+    } else {
+      messageTransmitter.transmitException(session, new AuthenticationNeededException());
+    }
+  }
+
+  /**
+   * Parses the client input as a {@link StatusAcknowledgement} object.
+   * @param arguments the client input source
+   * @throws MalformedMessageException when the input is malformed
+   */
+  private StatusAcknowledgement parseArgumentsToAcknowledgement(String arguments)
+      throws MalformedMessageException {
+    StatusAcknowledgement acknowledgement;
+
+    try {
+      acknowledgement = gson.fromJson(arguments, StatusAcknowledgement.class);
+    } catch (JsonParseException e) {
+      throw new MalformedMessageException(e);
+    }
+
+    if (acknowledgement == null) {
+      throw new MalformedMessageException();
+    }
+
+    return acknowledgement;
+  }
+
   private void autoUnsubscribeOnDisconnect(Session session, int statusCode, String reason) {
     Optional<UserDTO> user = sessionAuthenticator.verifyAuthentication(session);
 
     if (user.isPresent()) {
       engineConnector.removeUserFromObserved(user.get());
 
+      statusFormatRegistry.removeFormatForUser(user.get());
+
+      statusTransmitter.removeUser(user.get());
+
       logger.info("Force unsubscribed user: {}", user.get());
     }
   }
+
+  private static class SubscriptionOptions {
+    private StatusFormat format;
+
+    private boolean deltas;
+  }
+
+  private static class StatusAcknowledgement {
+    private long tick;
+  }
 }
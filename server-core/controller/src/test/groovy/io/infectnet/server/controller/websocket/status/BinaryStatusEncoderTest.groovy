@@ -0,0 +1,226 @@
+package io.infectnet.server.controller.websocket.status
+
+import io.infectnet.server.engine.core.entity.Category
+import io.infectnet.server.engine.core.entity.Entity
+import io.infectnet.server.engine.core.entity.component.HealthComponent
+import io.infectnet.server.engine.core.entity.component.OwnerComponent
+import io.infectnet.server.engine.core.entity.component.TypeComponent
+import io.infectnet.server.engine.core.player.Player
+import io.infectnet.server.engine.core.status.StatusMessage
+import io.infectnet.server.engine.core.world.Position
+import io.infectnet.server.engine.core.world.Tile
+import io.infectnet.server.engine.core.world.TileType
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+class BinaryStatusEncoderTest extends Specification {
+
+  def final INITIAL_BUFFER_CAPACITY = 16 * 1024
+
+  def encoder = new BinaryStatusEncoder()
+
+  def "a keyframe of an unowned entity is encoded into the documented bytes"() {
+    given: "a keyframe with a single tile holding an entity without owner and negative health"
+      def tile = tile(2, 3, TileType.CAVE, entity("W", null, -3))
+      def message = StatusMessage.keyframe(5L, [tile] as Set)
+
+    when: "the message is encoded"
+      def bytes = toList(encoder.encode(message))
+
+    then: "the bytes are the version, the header, the string table, the tile and no hidden tiles"
+      bytes == [BinaryStatusEncoder.FORMAT_VERSION, StatusMessage.Type.KEYFRAME.ordinal(), 5, 5,
+                1, 1, 0x57,
+                1, 2, 3, TileType.CAVE.ordinal() << 1 | 1, 0, 0, 5,
+                0]
+  }
+
+  def "health is zigzag encoded"() {
+    given: "a tile with an entity of the given health"
+      def message = StatusMessage.keyframe(1L, [tile(0, 0, TileType.CAVE,
+          entity("W", null, health))] as Set)
+
+    expect: "the last varint of the tile record is the zigzag encoded health"
+      decode(encoder.encode(message)).tiles[0].health == health
+      zigzagBytes(encoder.encode(message)) == encoded
+
+    where:
+      health            | encoded
+      0                 | [0]
+      -1                | [1]
+      1                 | [2]
+      -64               | [0x7F]
+      64                | [0x80, 0x01]
+      Integer.MAX_VALUE | [0xFE, 0xFF, 0xFF, 0xFF, 0x0F]
+      Integer.MIN_VALUE | [0xFF, 0xFF, 0xFF, 0xFF, 0x0F]
+  }
+
+  def "a delta with owners, rocks and hidden positions survives a round trip"() {
+    given: "a delta with owned and unowned entities, empty tiles and hidden positions"
+      def alice = new Player("alice")
+      def bob = new Player("bob")
+      def tiles = [
+          tile(0, 0, TileType.CAVE, entity("Worker", alice, 100)),
+          tile(1, 200, TileType.CAVE, entity("Worker", bob, 7)),
+          tile(300, 5, TileType.CAVE, entity("Nest", alice, -20)),
+          tile(17, 17, TileType.CAVE, entity("Resource", null, 0)),
+          tile(4, 4, TileType.ROCK, null),
+          tile(5, 4, TileType.CAVE, null)
+      ] as Set
+      def hidden = [new Position(9, 9), new Position(128, 16384)] as Set
+      def message = StatusMessage.delta(70000L, 69990L, tiles, hidden)
+
+    when: "the message is encoded and decoded"
+      def decoded = decode(encoder.encode(message))
+
+    then: "the header is kept"
+      decoded.version == BinaryStatusEncoder.FORMAT_VERSION
+      decoded.type == StatusMessage.Type.DELTA.ordinal()
+      decoded.tick == 70000L
+      decoded.baseTick == 69990L
+
+    and: "every string is stored once"
+      decoded.strings.sort() == ["Nest", "Resource", "Worker", "alice", "bob"]
+
+    and: "every tile is kept, an owner index of 0 meaning no owner"
+      decoded.tiles as Set == message.tileSet.collect { describe(it) } as Set
+
+    and: "the hidden positions are kept"
+      decoded.hidden as Set == [[9, 9], [128, 16384]] as Set
+  }
+
+  def "the buffer grows past its initial capacity"() {
+    given: "a keyframe larger than the initial buffer"
+      def tiles = (0..<3000).collect {
+        tile(it.intdiv(64), it % 64, TileType.CAVE,
+            entity("Worker", new Player("player-with-a-long-name-" + it), it))
+      } as Set
+      def message = StatusMessage.keyframe(3L, tiles)
+
+    when: "the message is encoded"
+      def encoded = encoder.encode(message)
+      def size = encoded.remaining()
+      def decoded = decode(encoded)
+
+    then: "it is encoded completely"
+      size > INITIAL_BUFFER_CAPACITY
+      decoded.tiles as Set == message.tileSet.collect { describe(it) } as Set
+
+    when: "a small message is encoded on the same thread afterwards"
+      def small = decode(encoder.encode(StatusMessage.keyframe(4L, [tile(1, 1, TileType.ROCK,
+          null)] as Set)))
+
+    then: "only the small message is in the reused buffer"
+      small.tick == 4L
+      small.strings.isEmpty()
+      small.tiles == [[h: 1, w: 1, type: TileType.ROCK.ordinal()]]
+  }
+
+  def tile(int h, int w, TileType type, Entity entity) {
+    def tile = new Tile(type, new Position(h, w))
+
+    tile.setEntity(entity)
+
+    return tile
+  }
+
+  def entity(String typeName, Player owner, int health) {
+    def type = new TypeComponent(Category.WORKER, typeName) {
+      @Override
+      Entity createEntityOfType() {
+        return null
+      }
+    }
+
+    return Entity.builder()
+        .typeComponent(type)
+        .ownerComponent(new OwnerComponent(owner))
+        .healthComponent(new HealthComponent(health))
+        .build()
+  }
+
+  def describe(Tile tile) {
+    def description = [h: tile.position.h, w: tile.position.w, type: tile.type.ordinal()]
+
+    if (tile.entity != null) {
+      description.typeName = tile.entity.typeComponent.name
+      description.owner = tile.entity.ownerComponent.owner?.username
+      description.health = tile.entity.healthComponent.health
+    }
+
+    return description
+  }
+
+  def toList(ByteBuffer buffer) {
+    def bytes = []
+
+    while (buffer.hasRemaining()) {
+      bytes << (buffer.get() & 0xFF)
+    }
+
+    return bytes
+  }
+
+  def zigzagBytes(ByteBuffer buffer) {
+    def bytes = toList(buffer)
+
+    /*
+     * A single tile at (0, 0) holding an unowned "W": the header, the string table and the tile
+     * record up to the owner take 13 bytes, the health is followed by the count of hidden
+     * positions.
+     */
+    return bytes.subList(13, bytes.size() - 1)
+  }
+
+  def decode(ByteBuffer buffer) {
+    def readVarint = {
+      long value = 0
+      int shift = 0
+      int b
+
+      while (((b = buffer.get() & 0xFF) & 0x80) != 0) {
+        value |= (long) (b & 0x7F) << shift
+        shift += 7
+      }
+
+      return value | (long) b << shift
+    }
+
+    def message = [version: readVarint(), type: readVarint(), tick: readVarint(),
+                   baseTick: readVarint(), strings: [], tiles: [], hidden: []]
+
+    readVarint().times {
+      def bytes = new byte[(int) readVarint()]
+      buffer.get(bytes)
+      message.strings << new String(bytes, StandardCharsets.UTF_8)
+    }
+
+    readVarint().times {
+      def tile = [h: (int) readVarint(), w: (int) readVarint()]
+      def flags = (int) readVarint()
+
+      tile.type = flags >> 1
+
+      if ((flags & 1) != 0) {
+        tile.typeName = message.strings[(int) readVarint()]
+
+        def ownerIndex = (int) readVarint()
+        tile.owner = ownerIndex == 0 ? null : message.strings[ownerIndex - 1]
+
+        def zigzag = (int) readVarint()
+        tile.health = (zigzag >>> 1) ^ -(zigzag & 1)
+      }
+
+      message.tiles << tile
+    }
+
+    readVarint().times {
+      message.hidden << [(int) readVarint(), (int) readVarint()]
+    }
+
+    assert !buffer.hasRemaining()
+
+    return message
+  }
+}
@@ -2,6 +2,7 @@ package io.infectnet.server.engine.core.traits
 
 import groovy.transform.SelfType
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapper
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget
 
 @SelfType(EntityWrapper)
 trait InventoryTrait {
@@ -11,6 +12,8 @@ trait InventoryTrait {
    * @return the max inventory capacity
    */
   int getMaxInventoryCapacity() {
+    ExecutionBudget.checkAccess();
+
     return this.wrappedEntity.getInventoryComponent().getCapacity();
   }
 
@@ -19,6 +22,8 @@ trait InventoryTrait {
    * @return the free inventory capacity
    */
   int getFreeInventoryCapacity() {
+    ExecutionBudget.checkAccess();
+
     return this.wrappedEntity.getInventoryComponent().getFreeCapacity();
   }
 
@@ -27,6 +32,8 @@ trait InventoryTrait {
    * @return the whole inventory
    */
   Map<String, Integer> getInventory() {
+    ExecutionBudget.checkAccess();
+
     return this.wrappedEntity.getInventoryComponent().getInventory();
   }
 
@@ -37,6 +44,8 @@ trait InventoryTrait {
    * @return the number of items
    */
   int getItem(String itemName) {
+    ExecutionBudget.checkAccess();
+
     return this.wrappedEntity.getInventoryComponent().getInventoryElement(itemName);
   }
 
@@ -3,7 +3,13 @@ package io.infectnet.server.engine;
 import groovy.lang.Script;
 import io.infectnet.server.engine.content.configuration.ContentModule;
 import io.infectnet.server.engine.core.GameLoop;
+import io.infectnet.server.engine.core.OverrunPolicy;
+import io.infectnet.server.engine.core.TickListener;
 import io.infectnet.server.engine.core.configuration.CoreModule;
+import io.infectnet.server.engine.core.entity.Category;
+import io.infectnet.server.engine.core.entity.EntityManager;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
 import io.infectnet.server.engine.core.player.Player;
 import io.infectnet.server.engine.core.player.PlayerService;
 import io.infectnet.server.engine.core.script.code.Code;
@@ -12,16 +18,23 @@ import io.infectnet.server.engine.core.script.generation.CompilationError;
 import io.infectnet.server.engine.core.script.generation.ScriptGenerationFailedException;
 import io.infectnet.server.engine.core.script.generation.ScriptGenerator;
 import io.infectnet.server.engine.core.status.StatusConsumer;
+import io.infectnet.server.engine.core.status.StatusPublisher;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.CachingPathFinderStrategy;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 import org.codehaus.groovy.control.messages.Message;
 import org.codehaus.groovy.control.messages.SyntaxErrorMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import javax.inject.Singleton;
 import dagger.Component;
@@ -30,6 +43,11 @@ public class Engine {
 
   private static final Logger logger = LoggerFactory.getLogger(Engine.class);
 
+  /**
+   * The file the world is cached in, unless another file is specified.
+   */
+  public static final Path DEFAULT_WORLD_CACHE_FILE = Paths.get("world.cache");
+
   private final Bootstrapper bootstrapper;
 
   @Singleton
@@ -46,36 +64,87 @@ public class Engine {
 
     PlayerService getPlayerService();
 
+    StatusPublisher getStatusPublisher();
+
+    EntityManager getEntityManager();
+
+    TickMetrics getTickMetrics();
+
+    ScriptProfiler getScriptProfiler();
+
+    CachingPathFinderStrategy getCachingPathFinderStrategy();
+
   }
 
   /**
-   * Constructs a new instance that publishes its status updates using the specified consumer.
+   * Constructs a new instance that publishes its status updates using the specified consumer. The
+   * world is generated from a random seed.
    * @param statusConsumer the consumer that accepts status updates
    * @return a new instance
    * @throws NullPointerException if the passed consumer is {@code null}
    */
   public static Engine create(StatusConsumer statusConsumer) {
-    return new Engine(Objects.requireNonNull(statusConsumer));
+    return create(statusConsumer, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Constructs a new instance that publishes its status updates using the specified consumer, and
+   * generates its world from the specified seed. The same seed always generates the same world,
+   * which is restored from the {@link #DEFAULT_WORLD_CACHE_FILE} if it has been generated before.
+   * @param statusConsumer the consumer that accepts status updates
+   * @param worldSeed the seed of the world
+   * @return a new instance
+   * @throws NullPointerException if the passed consumer is {@code null}
+   */
+  public static Engine create(StatusConsumer statusConsumer, long worldSeed) {
+    return create(statusConsumer, worldSeed, DEFAULT_WORLD_CACHE_FILE);
+  }
+
+  /**
+   * Constructs a new instance that publishes its status updates using the specified consumer, and
+   * generates its world from the specified seed, caching it in the specified file.
+   * @param statusConsumer the consumer that accepts status updates
+   * @param worldSeed the seed of the world
+   * @param worldCacheFile the file the world is cached in
+   * @return a new instance
+   * @throws NullPointerException if the passed consumer or file is {@code null}
+   */
+  public static Engine create(StatusConsumer statusConsumer, long worldSeed,
+                              Path worldCacheFile) {
+    return new Engine(Objects.requireNonNull(statusConsumer), worldSeed,
+        Objects.requireNonNull(worldCacheFile));
   }
 
   /**
    * Cannot be instantiated directly.
    */
-  private Engine(StatusConsumer statusConsumer) {
+  private Engine(StatusConsumer statusConsumer, long worldSeed, Path worldCacheFile) {
     this.bootstrapper = DaggerEngine_Bootstrapper.create();
 
     bootstrapper.getGameLoop().setStatusConsumer(statusConsumer);
 
-    EngineConfigurator configurator = DaggerEngine_Bootstrapper.create().getEngineConfigurator();
+    /*
+     * The configurator must come from the same component as the game loop, otherwise it would
+     * configure another world than the one being played on.
+     */
+    bootstrapper.getEngineConfigurator().configure(worldSeed, worldCacheFile);
+  }
 
-    configurator.configure();
+  /**
+   * Starts the game engine with the default {@link OverrunPolicy}.
+   * @param desiredTickDuration the period of the ticks in milliseconds
+   */
+  public void start(long desiredTickDuration) {
+    start(desiredTickDuration, OverrunPolicy.defaultPolicy());
   }
 
   /**
    * Starts the game engine.
+   * @param desiredTickDuration the period of the ticks in milliseconds
+   * @param overrunPolicy the policy applied when the game loop falls behind schedule
    */
-  public void start(long desiredTickDuration) {
-    bootstrapper.getGameLoop().start(desiredTickDuration);
+  public void start(long desiredTickDuration, OverrunPolicy overrunPolicy) {
+    bootstrapper.getGameLoop().start(desiredTickDuration, overrunPolicy);
   }
 
   /**
@@ -95,6 +164,60 @@ public class Engine {
     return true;
   }
 
+  /**
+   * Adds a listener that will be notified after every tick of the game loop with the durations of
+   * its phases.
+   * @param listener the listener to add
+   * @throws NullPointerException if the listener is {@code null}
+   */
+  public void addTickListener(TickListener listener) {
+    bootstrapper.getGameLoop().addTickListener(listener);
+  }
+
+  /**
+   * Gets the metrics of the game loop, which are updated as the engine runs.
+   * @return the metrics of the game loop
+   */
+  public TickMetrics getTickMetrics() {
+    return bootstrapper.getTickMetrics();
+  }
+
+  /**
+   * Gets the profiles of the scripts of the players, which are updated as the engine runs.
+   * @return the profiler of the scripts
+   */
+  public ScriptProfiler getScriptProfiler() {
+    return bootstrapper.getScriptProfiler();
+  }
+
+  /**
+   * Gets the cache of the found paths, whose hit, miss and invalidation counts are updated as the
+   * engine runs.
+   * @return the cache of the found paths
+   */
+  public CachingPathFinderStrategy getPathCache() {
+    return bootstrapper.getCachingPathFinderStrategy();
+  }
+
+  /**
+   * Counts the entities of the world in every {@link Category}. As the entities are modified by
+   * the game loop, the counts are only exact while the engine is stopped.
+   * @return the number of entities by their category
+   */
+  public Map<Category, Integer> countEntities() {
+    Map<Category, Integer> counts = new EnumMap<>(Category.class);
+
+    for (Category category : Category.values()) {
+      counts.put(category, bootstrapper.getEntityManager().query()
+          .ofAnyPlayer()
+          .inCategory(category)
+          .execute()
+          .size());
+    }
+
+    return counts;
+  }
+
   /**
    * Compiles and stores the compiled script under the name of the player.
    * The source will be stored even if it cannot be compiled.
@@ -189,21 +312,58 @@ public class Engine {
   }
 
   /**
-   * Sets the {@code Player} as observed. For the meaning of being observed, please refer to
+   * Sets the {@code Player} as observed, receiving the full state of the world in every status
+   * update. For the meaning of being observed, please refer to
    * {@link PlayerService#isPlayerObserved(Player)}.
    * @param player the {@code Player} to be set as observed
    */
   public void setPlayerAsObserved(Player player) {
+    setPlayerAsObserved(player, false);
+  }
+
+  /**
+   * Sets the {@code Player} as observed. For the meaning of being observed, please refer to
+   * {@link PlayerService#isPlayerObserved(Player)}.
+   * @param player the {@code Player} to be set as observed
+   * @param deltasAccepted whether the client of the {@code Player} is able to apply delta status
+   * updates
+   */
+  public void setPlayerAsObserved(Player player, boolean deltasAccepted) {
     bootstrapper.getPlayerService().setPlayerAsObserved(player);
+
+    /*
+     * The player has to be observed first, otherwise the publisher may forget the subscription
+     * before the next tick. A new subscription must start with the full state of the world.
+     */
+    bootstrapper.getStatusPublisher().setDeltasAccepted(player, deltasAccepted);
+
+    bootstrapper.getStatusPublisher().requestKeyframe(player);
+  }
+
+  /**
+   * Acknowledges that the status update of the specified tick has been processed by the client of
+   * the {@code Player}. Subsequent delta status updates will only contain the changes since this
+   * tick.
+   * @param player the {@code Player} whose client has processed the status update
+   * @param tick the tick of the processed status update
+   */
+  public void acknowledgeStatus(Player player, long tick) {
+    bootstrapper.getStatusPublisher().acknowledge(player, tick);
   }
 
   /**
    * Removes the {@code Player} from the list of observed {@code Player}s. For the meaning of being
-   * observed, please refer to {@link PlayerService#isPlayerObserved(Player)}.
+   * observed, please refer to {@link PlayerService#isPlayerObserved(Player)}. The script durations
+   * and the script profile of the {@code Player} are forgotten, as the {@code Player} has
+   * departed.
    * @param player the {@code Player} to be removed
    */
   public void removePlayerFromObserved(Player player) {
     bootstrapper.getPlayerService().removePlayerFromObserved(player);
+
+    bootstrapper.getTickMetrics().removePlayer(player);
+
+    bootstrapper.getScriptProfiler().removePlayer(player);
   }
 
 }
@@ -10,14 +10,25 @@ import io.infectnet.server.engine.core.script.Request;
 import io.infectnet.server.engine.core.system.ProcessorSystem;
 import io.infectnet.server.engine.core.util.ListenableQueue;
 import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.cache.WorldCache;
 import io.infectnet.server.engine.core.world.customizer.WorldCustomizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import javax.inject.Inject;
 import javax.inject.Named;
 
 class EngineConfigurator {
+  private static final Logger logger = LoggerFactory.getLogger(EngineConfigurator.class);
+
+  private static final int WORLD_HEIGHT = 1000;
+
+  private static final int WORLD_WIDTH = 1000;
+
   @Inject
   @Named("Action Queue")
   /* package */ ListenableQueue<Action> actionQueue;
@@ -50,6 +61,9 @@ class EngineConfigurator {
   @Inject
   /* package */ Set<WorldCustomizer> worldCustomizerSet;
 
+  @Inject
+  /* package */ Function<Path, WorldCache> worldCacheFactory;
+
   @Inject
   public EngineConfigurator() {
     /*
@@ -57,7 +71,13 @@ class EngineConfigurator {
      */
   }
 
-  public void configure() {
+  /**
+   * Configures the engine, restoring the world from the cache, or generating it if the cache
+   * holds another world.
+   * @param worldSeed the seed of the world
+   * @param worldCacheFile the file the world is cached in
+   */
+  public void configure(long worldSeed, Path worldCacheFile) {
     processorSystems.forEach(s -> {
       s.registerActionListeners(actionQueue);
 
@@ -71,9 +91,17 @@ class EngineConfigurator {
           .ifPresent(type -> entityWrapperRepository.registerFactoryForType(type, factory));
     });
 
-    world.generate(1000, 1000);
+    WorldCache worldCache = worldCacheFactory.apply(worldCacheFile);
+
+    if (!worldCache.restore(world, worldCustomizerSet, WORLD_HEIGHT, WORLD_WIDTH, worldSeed)) {
+      logger.info("Generating the world with seed {}...", worldSeed);
+
+      world.generate(WORLD_HEIGHT, WORLD_WIDTH, worldSeed);
+
+      worldCustomizerSet.forEach(worldCustomizer -> worldCustomizer.customize(world, worldSeed));
 
-    worldCustomizerSet.forEach(worldCustomizer -> worldCustomizer.customize(world));
+      worldCache.store(world, worldCustomizerSet, worldSeed);
+    }
 
     postSetUpSet.forEach(Runnable::run);
   }
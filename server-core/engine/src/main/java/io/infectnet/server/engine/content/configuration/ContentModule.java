@@ -1,7 +1,9 @@
 package io.infectnet.server.engine.content.configuration;
 
-import io.infectnet.server.engine.content.status.SynchronousStatusPublisher;
+import io.infectnet.server.engine.content.status.DeltaStatusPublisher;
 import io.infectnet.server.engine.content.type.BitResourceTypeComponent;
+import io.infectnet.server.engine.content.type.NestTypeComponent;
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.component.TypeComponent;
@@ -26,6 +28,16 @@ import dagger.multibindings.IntoSet;
 @Module(includes = {SelectorModule.class, DslModule.class, SystemModule.class, TypeModule.class,
     WorldModule.class, WrapperModule.class})
 public class ContentModule {
+  /**
+   * The number of ticks after which a keyframe status update is sent again.
+   */
+  private static final int STATUS_KEYFRAME_INTERVAL = 20;
+
+  /**
+   * The number of unacknowledged status updates after which a keyframe is sent instead of a delta.
+   */
+  private static final int MAX_UNACKNOWLEDGED_STATUS_TICKS = 10;
+
   @Provides
   @Singleton
   public static Function<Player, Player> providesIdentityPlayerInitializer(
@@ -40,11 +52,13 @@ public class ContentModule {
       });
 
       Optional<TypeComponent> typeComponent =
-          typeRepository.getTypeByName(BitResourceTypeComponent.TYPE_NAME);
+          typeRepository.getTypeByName(NestTypeComponent.TYPE_NAME);
 
       if(typeComponent.isPresent()){
         Entity nest = typeComponent.get().createEntityOfType();
 
+        nest.getOwnerComponent().setOwner(player);
+
         NestCustomizer nestCustomizer = null;
 
         for (WorldCustomizer customizer : worldCustomizers) {
@@ -54,7 +68,9 @@ public class ContentModule {
         }
 
         nestCustomizer.getRandomNestPosition().ifPresent(pos -> {
-          world.getTileByPosition(pos).setEntity(nest);
+          world.setEntityOnPosition(nest, pos);
+
+          nest.getPositionComponent().setPosition(pos);
 
           entityManager.addEntity(nest);
         });
@@ -75,8 +91,19 @@ public class ContentModule {
   @Provides
   @Singleton
   public static StatusPublisher providesStatusPublisher(PlayerService playerService,
-                                                        EntityManager entityManager,
+                                                        VisibilityCache visibilityCache,
                                                         World world) {
-    return new SynchronousStatusPublisher(playerService, entityManager, world);
+    DeltaStatusPublisher statusPublisher = new DeltaStatusPublisher(playerService,
+        visibilityCache, world, STATUS_KEYFRAME_INTERVAL, MAX_UNACKNOWLEDGED_STATUS_TICKS);
+
+    world.addTileChangeListener(statusPublisher);
+
+    return statusPublisher;
+  }
+
+  @Provides
+  @Singleton
+  public static VisibilityCache providesVisibilityCache(EntityManager entityManager, World world) {
+    return new VisibilityCache(entityManager, world);
   }
 }
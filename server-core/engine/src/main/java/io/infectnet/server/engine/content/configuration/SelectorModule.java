@@ -4,10 +4,10 @@ import io.infectnet.server.engine.content.dsl.DslBindingCustomizer;
 import io.infectnet.server.engine.content.selector.EnemySelectorFactory;
 import io.infectnet.server.engine.content.selector.EnvironmentSelectorFactory;
 import io.infectnet.server.engine.content.selector.OwnSelectorFactory;
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapperRepository;
 import io.infectnet.server.engine.core.player.PlayerService;
-import io.infectnet.server.engine.core.world.World;
 
 import dagger.Module;
 import dagger.Provides;
@@ -27,15 +27,16 @@ public class SelectorModule {
   @IntoSet
   public static DslBindingCustomizer providesEnemySelectorFactory(
       EntityManager entityManager, EntityWrapperRepository wrapperRepository,
-      PlayerService playerService, World world) {
-    return new EnemySelectorFactory(entityManager, wrapperRepository, playerService, world);
+      VisibilityCache visibilityCache) {
+    return new EnemySelectorFactory(entityManager, wrapperRepository, visibilityCache);
   }
 
   @Provides
   @IntoSet
   public static DslBindingCustomizer providesEnvironmentSelectorFactory(
       EntityManager entityManager, EntityWrapperRepository wrapperRepository,
-      PlayerService playerService, World world) {
-    return new EnvironmentSelectorFactory(entityManager, wrapperRepository, playerService, world);
+      PlayerService playerService, VisibilityCache visibilityCache) {
+    return new EnvironmentSelectorFactory(entityManager, wrapperRepository, playerService,
+        visibilityCache);
   }
 }
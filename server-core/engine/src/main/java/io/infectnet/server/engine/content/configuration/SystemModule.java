@@ -8,13 +8,17 @@ import io.infectnet.server.engine.content.system.inventory.InventoryManagementSy
 import io.infectnet.server.engine.content.system.kill.KillSystem;
 import io.infectnet.server.engine.content.system.movement.MovementSystem;
 import io.infectnet.server.engine.content.system.spawn.SpawnSystem;
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.type.TypeRepository;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
 import io.infectnet.server.engine.core.player.storage.PlayerStorageService;
 import io.infectnet.server.engine.core.script.Request;
+import io.infectnet.server.engine.core.status.StatusPublisher;
 import io.infectnet.server.engine.core.system.ProcessorSystem;
 import io.infectnet.server.engine.core.util.ListenableQueue;
 import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.FlowFieldService;
 
 import javax.inject.Named;
 import dagger.Module;
@@ -33,15 +37,19 @@ public class SystemModule {
 
   @Provides
   @IntoSet
-  public static ProcessorSystem providesInventoryManagementSystem() {
-    return new InventoryManagementSystem();
+  public static ProcessorSystem providesInventoryManagementSystem(
+      StatusPublisher statusPublisher) {
+    return new InventoryManagementSystem(statusPublisher);
   }
 
   @Provides
   @IntoSet
   public static ProcessorSystem providesMovementSystem(
-      @Named("Request Queue") ListenableQueue<Request> requestQueue, World world) {
-    return new MovementSystem(requestQueue, world);
+      @Named("Request Queue") ListenableQueue<Request> requestQueue, World world,
+      EntityManager entityManager, VisibilityCache visibilityCache,
+      FlowFieldService flowFieldService, ScriptProfiler scriptProfiler) {
+    return new MovementSystem(requestQueue, world, entityManager, visibilityCache,
+        flowFieldService, scriptProfiler);
   }
 
   @Provides
@@ -53,8 +61,9 @@ public class SystemModule {
 
   @Provides
   @IntoSet
-  public static ProcessorSystem providesKillSystem(EntityManager entityManager, World world) {
-    return new KillSystem(entityManager, world);
+  public static ProcessorSystem providesKillSystem(EntityManager entityManager, World world,
+                                                   VisibilityCache visibilityCache) {
+    return new KillSystem(entityManager, world, visibilityCache);
   }
 
   @Provides
@@ -77,7 +86,8 @@ public class SystemModule {
   @IntoSet
   public static ProcessorSystem providesEntityCreatorSystem(EntityManager entityManager,
                                                             World world,
-                                                            PlayerStorageService playerStorageService) {
-    return new EntityCreatorSystem(entityManager, world, playerStorageService);
+                                                            PlayerStorageService playerStorageService,
+                                                            VisibilityCache visibilityCache) {
+    return new EntityCreatorSystem(entityManager, world, playerStorageService, visibilityCache);
   }
 }
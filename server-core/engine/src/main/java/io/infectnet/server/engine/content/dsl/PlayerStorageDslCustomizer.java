@@ -3,6 +3,7 @@ package io.infectnet.server.engine.content.dsl;
 import io.infectnet.server.engine.core.player.storage.PlayerStorage;
 import io.infectnet.server.engine.core.player.storage.PlayerStorageService;
 import io.infectnet.server.engine.core.script.execution.BindingContext;
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget;
 
 public class PlayerStorageDslCustomizer implements DslBindingCustomizer {
 
@@ -35,10 +36,14 @@ public class PlayerStorageDslCustomizer implements DslBindingCustomizer {
     }
 
     public Object getAt(String key) {
+      ExecutionBudget.checkAccess();
+
       return playerStorage.getAttribute(key).orElse(null);
     }
 
     public boolean isCase(String key) {
+      ExecutionBudget.checkAccess();
+
       return playerStorage.getAttribute(key).isPresent();
     }
 
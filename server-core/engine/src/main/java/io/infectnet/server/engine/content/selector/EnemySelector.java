@@ -4,39 +4,34 @@ import static io.infectnet.server.engine.core.entity.Category.BUILDING;
 import static io.infectnet.server.engine.core.entity.Category.FIGHTER;
 import static io.infectnet.server.engine.core.entity.Category.WORKER;
 
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.Category;
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapper;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapperRepository;
 import io.infectnet.server.engine.core.player.Player;
-import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget;
+import io.infectnet.server.engine.core.script.execution.SelectorCallCounter;
 import io.infectnet.server.engine.core.script.selector.Selector;
-import io.infectnet.server.engine.core.world.World;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 public class EnemySelector extends Selector {
   private final EntityManager entityManager;
 
   private final EntityWrapperRepository wrapperRepository;
 
-  private final PlayerService playerService;
-
-  private final World world;
+  private final VisibilityCache visibilityCache;
 
   public EnemySelector(Player player, EntityManager entityManager,
-                       EntityWrapperRepository wrapperRepository,
-                       PlayerService playerService, World world) {
+                       EntityWrapperRepository wrapperRepository, VisibilityCache visibilityCache) {
     super(player);
     this.entityManager = entityManager;
     this.wrapperRepository = wrapperRepository;
-    this.playerService = playerService;
-    this.world = world;
+    this.visibilityCache = visibilityCache;
   }
 
   public List<EntityWrapper> getWorkers() {
@@ -64,14 +59,16 @@ public class EnemySelector extends Selector {
   }
 
   private List<EntityWrapper> getWrappersOfCategory(Category category) {
-    Collection<Entity> enemyEntities = getAllEnemyEntities(category);
+    ExecutionBudget.checkAccess();
 
-    Set<Entity> seenEntities = getEntitiesSeenByPlayer();
+    SelectorCallCounter.increment();
+
+    Collection<Entity> enemyEntities = getAllEnemyEntities(category);
 
     List<EntityWrapper> wrappers = new LinkedList<>();
 
     for (Entity entity : enemyEntities) {
-      if (seenEntities.contains(entity)) {
+      if (visibilityCache.isVisible(player, entity)) {
         wrappers.add(wrapperRepository.wrapEntity(entity));
       }
     }
@@ -79,34 +76,10 @@ public class EnemySelector extends Selector {
     return wrappers;
   }
 
-  private Set<Entity> getEntitiesSeenByPlayer() {
-    Collection<Entity> buildings = entityManager.query()
-        .ofPlayer(player)
-        .inCategory(BUILDING)
-        .execute();
-
-    Set<Entity> seenEntities = new HashSet<>();
-
-    for (Entity building : buildings) {
-      seenEntities.addAll(world.seenBy(building));
-    }
-    return seenEntities;
-  }
-
   private Collection<Entity> getAllEnemyEntities(Category category) {
-    Collection<Entity> enemyEntities = new LinkedList<>();
-
-    for (Player p : playerService.getAllPlayers()) {
-      if (!p.equals(player)) {
-        Collection<Entity> entities = entityManager.query()
-            .ofPlayer(player)
-            .inCategory(category)
-            .execute();
-
-        enemyEntities.addAll(entities);
-      }
-    }
-
-    return enemyEntities;
+    return entityManager.query()
+        .exceptPlayer(player)
+        .inCategory(category)
+        .execute();
   }
 }
@@ -1,11 +1,10 @@
 package io.infectnet.server.engine.content.selector;
 
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapperRepository;
 import io.infectnet.server.engine.core.player.Player;
-import io.infectnet.server.engine.core.player.PlayerService;
 import io.infectnet.server.engine.core.script.selector.SelectorFactory;
-import io.infectnet.server.engine.core.world.World;
 
 public class EnemySelectorFactory extends SelectorFactory<EnemySelector> {
   private static final String NAME = "enemy";
@@ -14,24 +13,20 @@ public class EnemySelectorFactory extends SelectorFactory<EnemySelector> {
 
   private final EntityWrapperRepository wrapperRepository;
 
-  private final PlayerService playerService;
-
-  private final World world;
+  private final VisibilityCache visibilityCache;
 
   public EnemySelectorFactory(EntityManager entityManager,
                               EntityWrapperRepository wrapperRepository,
-                              PlayerService playerService,
-                              World world) {
+                              VisibilityCache visibilityCache) {
 
     super(NAME);
     this.entityManager = entityManager;
     this.wrapperRepository = wrapperRepository;
-    this.playerService = playerService;
-    this.world = world;
+    this.visibilityCache = visibilityCache;
   }
 
   @Override
   public EnemySelector forPlayer(Player player) {
-    return new EnemySelector(player, entityManager, wrapperRepository, playerService, world);
+    return new EnemySelector(player, entityManager, wrapperRepository, visibilityCache);
   }
 }
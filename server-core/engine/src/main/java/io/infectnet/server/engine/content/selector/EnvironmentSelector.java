@@ -1,8 +1,8 @@
 package io.infectnet.server.engine.content.selector;
 
-import static io.infectnet.server.engine.core.entity.Category.BUILDING;
 import static io.infectnet.server.engine.core.entity.Category.RESOURCE;
 
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.Category;
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.EntityManager;
@@ -10,16 +10,15 @@ import io.infectnet.server.engine.core.entity.wrapper.EntityWrapper;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapperRepository;
 import io.infectnet.server.engine.core.player.Player;
 import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget;
+import io.infectnet.server.engine.core.script.execution.SelectorCallCounter;
 import io.infectnet.server.engine.core.script.selector.Selector;
-import io.infectnet.server.engine.core.world.World;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 public class EnvironmentSelector extends Selector {
   private static final String ENVIRONMENT_USERNAME = "Environment";
@@ -30,16 +29,16 @@ public class EnvironmentSelector extends Selector {
 
   private final PlayerService playerService;
 
-  private final World world;
+  private final VisibilityCache visibilityCache;
 
   public EnvironmentSelector(Player player, EntityManager entityManager,
                              EntityWrapperRepository wrapperRepository, PlayerService playerService,
-                             World world) {
+                             VisibilityCache visibilityCache) {
     super(player);
     this.entityManager = entityManager;
     this.wrapperRepository = wrapperRepository;
     this.playerService = playerService;
-    this.world = world;
+    this.visibilityCache = visibilityCache;
   }
 
   public List<EntityWrapper> getResources() {
@@ -51,14 +50,16 @@ public class EnvironmentSelector extends Selector {
   }
 
   private List<EntityWrapper> getWrappersOfCategory(Category category) {
-    Collection<Entity> entities = getAllEnvironmentEntities(category);
+    ExecutionBudget.checkAccess();
+
+    SelectorCallCounter.increment();
 
-    Set<Entity> seenEntities = getEntitiesSeenByPlayer();
+    Collection<Entity> entities = getAllEnvironmentEntities(category);
 
     List<EntityWrapper> wrappers = new LinkedList<>();
 
     for (Entity entity : entities) {
-      if (seenEntities.contains(entity)) {
+      if (visibilityCache.isVisible(player, entity)) {
         wrappers.add(wrapperRepository.wrapEntity(entity));
       }
     }
@@ -66,20 +67,6 @@ public class EnvironmentSelector extends Selector {
     return wrappers;
   }
 
-  private Set<Entity> getEntitiesSeenByPlayer() {
-    Collection<Entity> buildings = entityManager.query()
-        .ofPlayer(player)
-        .inCategory(BUILDING)
-        .execute();
-
-    Set<Entity> seenEntities = new HashSet<>();
-
-    for (Entity building : buildings) {
-      seenEntities.addAll(world.seenBy(building));
-    }
-    return seenEntities;
-  }
-
   private Collection<Entity> getAllEnvironmentEntities(Category category) {
     Optional<Player> environmentPlayer = playerService.getPlayerByUsername(ENVIRONMENT_USERNAME);
 
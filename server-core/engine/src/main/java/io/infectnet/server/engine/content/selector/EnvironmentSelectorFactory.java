@@ -1,11 +1,11 @@
 package io.infectnet.server.engine.content.selector;
 
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapperRepository;
 import io.infectnet.server.engine.core.player.Player;
 import io.infectnet.server.engine.core.player.PlayerService;
 import io.infectnet.server.engine.core.script.selector.SelectorFactory;
-import io.infectnet.server.engine.core.world.World;
 
 public class EnvironmentSelectorFactory extends SelectorFactory<EnvironmentSelector> {
   private static final String NAME = "env";
@@ -16,21 +16,22 @@ public class EnvironmentSelectorFactory extends SelectorFactory<EnvironmentSelec
 
   private final PlayerService playerService;
 
-  private final World world;
+  private final VisibilityCache visibilityCache;
 
   public EnvironmentSelectorFactory(EntityManager entityManager,
                                     EntityWrapperRepository wrapperRepository,
                                     PlayerService playerService,
-                                    World world) {
+                                    VisibilityCache visibilityCache) {
     super(NAME);
     this.entityManager = entityManager;
     this.wrapperRepository = wrapperRepository;
     this.playerService = playerService;
-    this.world = world;
+    this.visibilityCache = visibilityCache;
   }
 
   @Override
   public EnvironmentSelector forPlayer(Player player) {
-    return new EnvironmentSelector(player, entityManager, wrapperRepository, playerService, world);
+    return new EnvironmentSelector(player, entityManager, wrapperRepository, playerService,
+        visibilityCache);
   }
 }
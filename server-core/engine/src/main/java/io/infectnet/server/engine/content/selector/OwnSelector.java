@@ -10,6 +10,8 @@ import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapper;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapperRepository;
 import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget;
+import io.infectnet.server.engine.core.script.execution.SelectorCallCounter;
 import io.infectnet.server.engine.core.script.selector.Selector;
 
 import java.util.Collection;
@@ -54,6 +56,10 @@ public class OwnSelector extends Selector {
   }
 
   private List<EntityWrapper> getWrappersOfCategory(Category category) {
+    ExecutionBudget.checkAccess();
+
+    SelectorCallCounter.increment();
+
     Collection<Entity> entities = entityManager.query()
         .ofPlayer(player)
         .inCategory(category)
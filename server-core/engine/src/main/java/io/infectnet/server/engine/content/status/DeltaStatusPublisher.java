@@ -0,0 +1,335 @@
+package io.infectnet.server.engine.content.status;
+
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.player.PlayerService;
+import io.infectnet.server.engine.core.status.StatusConsumer;
+import io.infectnet.server.engine.core.status.StatusMessage;
+import io.infectnet.server.engine.core.status.StatusPublisher;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.TileChangeListener;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status publisher that only sends the changes of the world to the observed players whose clients
+ * accept deltas. The first message of such a subscription is a keyframe containing every visible
+ * tile. The following messages are deltas, containing the tiles that have changed or became
+ * visible, and the positions of the tiles that became invisible since the last tick acknowledged
+ * by the player. Players not accepting deltas receive a keyframe in every tick, just like from the
+ * {@link SynchronousStatusPublisher}.
+ * <p>
+ * A keyframe is sent periodically, when requested or when the player has not acknowledged too
+ * many ticks, so clients can always recover.
+ * </p>
+ * <p>
+ * A {@link Tile} is considered changed if an {@code Entity} has been placed on or removed from it,
+ * therefore the publisher must be registered as a {@link TileChangeListener} on the
+ * {@link World}, or if the state of the {@code Entity} on it has changed, which the systems
+ * report through {@link #entityChanged(Entity)}. The publishing itself runs on the same thread
+ * that it's been called on.
+ * </p>
+ */
+public class DeltaStatusPublisher implements StatusPublisher, TileChangeListener {
+
+  private final PlayerService playerService;
+
+  private final VisibilityCache visibilityCache;
+
+  private final World world;
+
+  private final int keyframeInterval;
+
+  private final int maxUnacknowledgedTicks;
+
+  /**
+   * The subscriptions of the observed players by their username.
+   */
+  private final Map<String, Subscription> subscriptionMap;
+
+  /**
+   * The tiles changed in the current tick.
+   */
+  private final BitSet changedTiles;
+
+  private long tick;
+
+  /**
+   * Constructs a new instance that queries players and tiles from the specified sources.
+   * @param playerService the {@link PlayerService} to be used
+   * @param visibilityCache the {@link VisibilityCache} to be used
+   * @param world the {@link World} to be used
+   * @param keyframeInterval the number of ticks after which a keyframe is sent again
+   * @param maxUnacknowledgedTicks the number of unacknowledged ticks after which a keyframe is
+   * sent instead of a delta
+   */
+  public DeltaStatusPublisher(PlayerService playerService, VisibilityCache visibilityCache,
+                              World world, int keyframeInterval, int maxUnacknowledgedTicks) {
+    this.playerService = playerService;
+
+    this.visibilityCache = visibilityCache;
+
+    this.world = world;
+
+    this.keyframeInterval = keyframeInterval;
+
+    this.maxUnacknowledgedTicks = maxUnacknowledgedTicks;
+
+    this.subscriptionMap = new HashMap<>();
+
+    this.changedTiles = new BitSet();
+
+    this.tick = 0L;
+  }
+
+  @Override
+  public void publish(StatusConsumer statusConsumer) {
+    List<Player> observedPlayers = playerService.getObservedPlayerList();
+
+    List<StatusMessage> messages = new ArrayList<>(observedPlayers.size());
+
+    synchronized (this) {
+      ++tick;
+
+      Set<String> observedUsernames = new HashSet<>();
+
+      int changedTileCount = changedTiles.cardinality();
+
+      for (Player p : observedPlayers) {
+        observedUsernames.add(p.getUsername());
+
+        messages.add(createMessage(p, changedTileCount));
+      }
+
+      /*
+       * Players observed again later will start with a keyframe.
+       */
+      subscriptionMap.keySet().retainAll(observedUsernames);
+
+      changedTiles.clear();
+    }
+
+    /*
+     * The visibility changes of this tick have been recorded by the subscriptions.
+     */
+    visibilityCache.clearChanges();
+
+    /*
+     * Sending happens outside of the lock, so acknowledgements are not blocked by the network.
+     */
+    for (int i = 0; i < observedPlayers.size(); ++i) {
+      statusConsumer.accept(observedPlayers.get(i), messages.get(i));
+    }
+  }
+
+  @Override
+  public synchronized void setDeltasAccepted(Player player, boolean deltasAccepted) {
+    Subscription subscription = getSubscription(player);
+
+    subscription.deltasAccepted = deltasAccepted;
+
+    /*
+     * No changes have been recorded while deltas were not accepted.
+     */
+    subscription.keyframeRequested = true;
+  }
+
+  @Override
+  public synchronized void requestKeyframe(Player player) {
+    getSubscription(player).keyframeRequested = true;
+  }
+
+  @Override
+  public synchronized void acknowledge(Player player, long acknowledgedTick) {
+    Subscription subscription = subscriptionMap.get(player.getUsername());
+
+    if (subscription == null || acknowledgedTick <= subscription.acknowledgedTick
+        || acknowledgedTick > tick) {
+      return;
+    }
+
+    subscription.acknowledgedTick = acknowledgedTick;
+
+    Iterator<TickChanges> iterator = subscription.unacknowledgedChanges.iterator();
+
+    while (iterator.hasNext() && iterator.next().tick <= acknowledgedTick) {
+      iterator.remove();
+    }
+  }
+
+  @Override
+  public synchronized void tileChanged(Tile tile) {
+    changedTiles.set(indexOf(tile.getPosition()));
+  }
+
+  @Override
+  public synchronized void entityChanged(Entity entity) {
+    changedTiles.set(indexOf(entity.getPositionComponent().getPosition()));
+  }
+
+  private Subscription getSubscription(Player player) {
+    return subscriptionMap.computeIfAbsent(player.getUsername(), username -> new Subscription());
+  }
+
+  private StatusMessage createMessage(Player player, int changedTileCount) {
+    Subscription subscription = getSubscription(player);
+
+    BitSet visibleTiles = visibilityCache.getVisibleTiles(player);
+
+    if (!subscription.deltasAccepted) {
+      subscription.keyframeTick = tick;
+
+      return StatusMessage.keyframe(tick, visibilityCache.toTileSet(visibleTiles));
+    }
+
+    subscription.unacknowledgedChanges.add(new TickChanges(tick,
+        visibleChangesOf(visibleTiles, visibilityCache.getRevealedTiles(player), changedTileCount),
+        visibilityCache.getHiddenTiles(player)));
+
+    if (subscription.keyframeRequested
+        || tick - subscription.keyframeTick >= keyframeInterval
+        || subscription.unacknowledgedChanges.size() > maxUnacknowledgedTicks) {
+      subscription.keyframeRequested = false;
+
+      subscription.keyframeTick = tick;
+
+      subscription.unacknowledgedChanges.clear();
+
+      return StatusMessage.keyframe(tick, visibilityCache.toTileSet(visibleTiles));
+    }
+
+    /*
+     * The client has the state of the base tick for sure, either from a keyframe or from the
+     * messages it has acknowledged.
+     */
+    long baseTick = Math.max(subscription.keyframeTick, subscription.acknowledgedTick);
+
+    BitSet deltaTiles = new BitSet();
+
+    BitSet hiddenTiles = new BitSet();
+
+    for (TickChanges changes : subscription.unacknowledgedChanges) {
+      if (changes.tick > baseTick) {
+        changes.addTo(deltaTiles, hiddenTiles);
+      }
+    }
+
+    deltaTiles.and(visibleTiles);
+
+    hiddenTiles.andNot(visibleTiles);
+
+    return StatusMessage.delta(tick, baseTick, visibilityCache.toTileSet(deltaTiles),
+        toPositionSet(hiddenTiles));
+  }
+
+  /**
+   * Collects the indices of the tiles changed in this tick that are visible for the player, and
+   * the indices of the tiles that became visible. Only the set bits are visited, so no world sized
+   * bitset is allocated for the players.
+   */
+  private int[] visibleChangesOf(BitSet visibleTiles, BitSet revealedTiles, int changedTileCount) {
+    int[] indices = new int[changedTileCount + revealedTiles.cardinality()];
+
+    int count = 0;
+
+    for (int i = changedTiles.nextSetBit(0); i >= 0; i = changedTiles.nextSetBit(i + 1)) {
+      if (visibleTiles.get(i) && !revealedTiles.get(i)) {
+        indices[count++] = i;
+      }
+    }
+
+    for (int i = revealedTiles.nextSetBit(0); i >= 0; i = revealedTiles.nextSetBit(i + 1)) {
+      indices[count++] = i;
+    }
+
+    return count == indices.length ? indices : Arrays.copyOf(indices, count);
+  }
+
+  private Set<Position> toPositionSet(BitSet tileIndices) {
+    Set<Position> positions = new HashSet<>();
+
+    int width = world.getWidth();
+
+    for (int i = tileIndices.nextSetBit(0); i >= 0; i = tileIndices.nextSetBit(i + 1)) {
+      positions.add(new Position(i / width, i % width));
+    }
+
+    return positions;
+  }
+
+  private int indexOf(Position position) {
+    return position.getH() * world.getWidth() + position.getW();
+  }
+
+  /**
+   * The state of the status updates of an observed {@code Player}.
+   */
+  private static class Subscription {
+    private boolean deltasAccepted;
+
+    private boolean keyframeRequested;
+
+    private long keyframeTick;
+
+    private long acknowledgedTick;
+
+    /**
+     * The changes of the ticks not acknowledged yet, in ascending order of the ticks.
+     */
+    private final List<TickChanges> unacknowledgedChanges;
+
+    private Subscription() {
+      this.deltasAccepted = false;
+
+      this.keyframeRequested = true;
+
+      this.keyframeTick = 0L;
+
+      this.acknowledgedTick = 0L;
+
+      this.unacknowledgedChanges = new LinkedList<>();
+    }
+  }
+
+  /**
+   * The changes of a single tick for a single {@code Player}. The tile indices are stored in
+   * arrays instead of bitsets, as only a small part of the world changes in a tick.
+   */
+  private static class TickChanges {
+    private final long tick;
+
+    private final int[] changedTiles;
+
+    private final int[] hiddenTiles;
+
+    private TickChanges(long tick, int[] changedTiles, BitSet hiddenTiles) {
+      this.tick = tick;
+
+      this.changedTiles = changedTiles;
+
+      this.hiddenTiles = hiddenTiles.stream().toArray();
+    }
+
+    private void addTo(BitSet changedTileSet, BitSet hiddenTileSet) {
+      for (int index : changedTiles) {
+        changedTileSet.set(index);
+      }
+
+      for (int index : hiddenTiles) {
+        hiddenTileSet.set(index);
+      }
+    }
+  }
+}
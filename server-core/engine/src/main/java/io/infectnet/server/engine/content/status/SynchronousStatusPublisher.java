@@ -1,26 +1,18 @@
 package io.infectnet.server.engine.content.status;
 
-import io.infectnet.server.engine.core.entity.Category;
-import io.infectnet.server.engine.core.entity.Entity;
-import io.infectnet.server.engine.core.entity.EntityManager;
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.player.Player;
 import io.infectnet.server.engine.core.player.PlayerService;
 import io.infectnet.server.engine.core.status.StatusConsumer;
 import io.infectnet.server.engine.core.status.StatusMessage;
 import io.infectnet.server.engine.core.status.StatusPublisher;
-import io.infectnet.server.engine.core.world.Tile;
-import io.infectnet.server.engine.core.world.World;
-
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Status publisher that runs on the same thread that it's been called on. May cause performance
  * issues when larger {@link StatusMessage} objects have to be created and published.
  * <p>
  * This implementation only invokes the passed status consumer for the status messages of observed
- * players.
+ * players. The visible tiles are read from the {@link VisibilityCache}.
  * </p>
  * <p>
  * Be aware that the same {@code Tile} and {@code Entity} instances are used that the game loop
@@ -31,43 +23,30 @@ public class SynchronousStatusPublisher implements StatusPublisher {
 
   private final PlayerService playerService;
 
-  private final EntityManager entityManager;
-
-  private final World world;
+  private final VisibilityCache visibilityCache;
 
   /**
-   * Constructs a new instance that queries entities and tiles from the specified sources.
+   * Constructs a new instance that queries players and visible tiles from the specified sources.
    * @param playerService the {@link PlayerService} to be used
-   * @param entityManager the {@link EntityManager} to be used
-   * @param world the {@link World} to be used
+   * @param visibilityCache the {@link VisibilityCache} to be used
    */
-  public SynchronousStatusPublisher(PlayerService playerService, EntityManager entityManager,
-                                    World world) {
+  public SynchronousStatusPublisher(PlayerService playerService,
+                                    VisibilityCache visibilityCache) {
     this.playerService = playerService;
 
-    this.entityManager = entityManager;
-
-    this.world = world;
+    this.visibilityCache = visibilityCache;
   }
 
   @Override
   public void publish(StatusConsumer statusConsumer) {
     for (Player p : playerService.getObservedPlayerList()) {
-      statusConsumer.accept(p, new StatusMessage(getVisibleTilesForPlayer(p)));
-    }
-  }
-
-  private Set<Tile> getVisibleTilesForPlayer(Player player) {
-    Collection<Entity> playerEntities =
-        entityManager.query().ofPlayer(player).inCategory(Category.BUILDING).execute();
-
-    Set<Tile> visibleTiles = new HashSet<>();
-
-    for (Entity e : playerEntities) {
-      visibleTiles.addAll(world.viewSight(e));
+      statusConsumer.accept(p, new StatusMessage(visibilityCache.getVisibleTileSet(p)));
     }
 
-    return visibleTiles;
+    /*
+     * The visibility changes of this tick have been published.
+     */
+    visibilityCache.clearChanges();
   }
 
 }
@@ -1,6 +1,7 @@
 package io.infectnet.server.engine.content.system.creation;
 
 import io.infectnet.server.engine.content.type.BitResourceTypeComponent;
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.Category;
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.EntityManager;
@@ -25,13 +26,18 @@ public class EntityCreatorSystem extends RequestOnlyProcessor {
 
   private final PlayerStorageService playerStorageService;
 
+  private final VisibilityCache visibilityCache;
+
   public EntityCreatorSystem(EntityManager entityManager, World world,
-                             PlayerStorageService playerStorageService) {
+                             PlayerStorageService playerStorageService,
+                             VisibilityCache visibilityCache) {
     this.entityManager = entityManager;
 
     this.world = world;
 
     this.playerStorageService = playerStorageService;
+
+    this.visibilityCache = visibilityCache;
   }
 
   @Override
@@ -67,6 +73,8 @@ public class EntityCreatorSystem extends RequestOnlyProcessor {
           entityManager.addEntity(createdEntity);
           world.setEntityOnPosition(createdEntity, createPosition);
 
+          visibilityCache.entityCreated(createdEntity);
+
         }
       }
     }
@@ -90,7 +98,7 @@ public class EntityCreatorSystem extends RequestOnlyProcessor {
     if (creatorEntity.getTypeComponent().getCategory() == Category.BUILDING) {
 
       Optional<Position> freePosition =
-          getFreePositionAround(creatorEntity.getPositionComponent().getPosition());
+          creatorEntity.getPositionComponent().getPosition().findFreeNeighbour(world);
 
       if (freePosition.isPresent()) {
         createPosition = freePosition.get();
@@ -103,25 +111,4 @@ public class EntityCreatorSystem extends RequestOnlyProcessor {
     return createPosition;
   }
 
-  private Optional<Position> getFreePositionAround(Position position) {
-    Position[] neighbours = {
-        position.stepNorth(),
-        position.stepNorth().stepEast(),
-        position.stepEast(),
-        position.stepEast().stepSouth(),
-        position.stepSouth(),
-        position.stepSouth().stepWest(),
-        position.stepWest(),
-        position.stepWest().stepNorth()
-    };
-
-    for (Position n : neighbours) {
-      if (!world.getTileByPosition(n).isBlockedOrOccupied()) {
-        return Optional.of(n);
-      }
-    }
-
-    return Optional.empty();
-  }
-
 }
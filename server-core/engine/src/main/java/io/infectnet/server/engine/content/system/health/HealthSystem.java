@@ -4,6 +4,7 @@ package io.infectnet.server.engine.content.system.health;
 import io.infectnet.server.engine.content.system.kill.KillRequest;
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.script.Request;
+import io.infectnet.server.engine.core.status.StatusPublisher;
 import io.infectnet.server.engine.core.system.RequestOnlyProcessor;
 import io.infectnet.server.engine.core.util.ListenableQueue;
 
@@ -11,8 +12,11 @@ public class HealthSystem extends RequestOnlyProcessor {
 
   private final ListenableQueue<Request> requestQueue;
 
-  public HealthSystem(ListenableQueue<Request> requestQueue) {
+  private final StatusPublisher statusPublisher;
+
+  public HealthSystem(ListenableQueue<Request> requestQueue, StatusPublisher statusPublisher) {
     this.requestQueue = requestQueue;
+    this.statusPublisher = statusPublisher;
   }
 
   @Override
@@ -33,6 +37,8 @@ public class HealthSystem extends RequestOnlyProcessor {
     modificationTarget.getHealthComponent()
         .setHealth(modificationTarget.getHealthComponent().getHealth() + modificationNumber);
 
+    statusPublisher.entityChanged(modificationTarget);
+
     if (modificationTarget.getHealthComponent().getHealth() <= 0) {
       requestQueue
           .add(new KillRequest(modificationTarget, healthModificationRequest.getOrigin().get()));
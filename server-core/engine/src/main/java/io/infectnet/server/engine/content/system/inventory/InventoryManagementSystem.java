@@ -3,11 +3,18 @@ package io.infectnet.server.engine.content.system.inventory;
 
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.script.Request;
+import io.infectnet.server.engine.core.status.StatusPublisher;
 import io.infectnet.server.engine.core.system.RequestOnlyProcessor;
 import io.infectnet.server.engine.core.util.ListenableQueue;
 
 public class InventoryManagementSystem extends RequestOnlyProcessor {
 
+  private final StatusPublisher statusPublisher;
+
+  public InventoryManagementSystem(StatusPublisher statusPublisher) {
+    this.statusPublisher = statusPublisher;
+  }
+
   @Override
   public void registerRequestListeners(ListenableQueue<Request> requestQueue) {
     requestQueue.addListener(InventoryModificationRequest.class, this::consumeInventoryRequest);
@@ -43,5 +50,7 @@ public class InventoryManagementSystem extends RequestOnlyProcessor {
 
     modificationTarget.getInventoryComponent()
         .modifyQuantity(inventoryModificationRequest.getItemName(), actualModification);
+
+    statusPublisher.entityChanged(modificationTarget);
   }
 }
@@ -1,6 +1,7 @@
 package io.infectnet.server.engine.content.system.kill;
 
 
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.script.Request;
@@ -14,9 +15,12 @@ public class KillSystem extends RequestOnlyProcessor {
 
   private final World world;
 
-  public KillSystem(EntityManager entityManager, World world) {
+  private final VisibilityCache visibilityCache;
+
+  public KillSystem(EntityManager entityManager, World world, VisibilityCache visibilityCache) {
     this.entityManager = entityManager;
     this.world = world;
+    this.visibilityCache = visibilityCache;
   }
 
   @Override
@@ -35,5 +39,7 @@ public class KillSystem extends RequestOnlyProcessor {
 
     world.setEntityOnPosition(null, killTarget.getPositionComponent().getPosition());
 
+    visibilityCache.entityRemoved(killTarget);
+
   }
 }
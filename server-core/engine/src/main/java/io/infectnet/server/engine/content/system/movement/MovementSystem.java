@@ -1,13 +1,19 @@
 package io.infectnet.server.engine.content.system.movement;
 
 
+import io.infectnet.server.engine.content.visibility.VisibilityCache;
 import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.EntityManager;
 import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
 import io.infectnet.server.engine.core.script.Request;
 import io.infectnet.server.engine.core.system.ProcessorSystem;
 import io.infectnet.server.engine.core.util.ListenableQueue;
 import io.infectnet.server.engine.core.world.Position;
 import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.FlowFieldService;
+
+import java.util.Optional;
 
 public class MovementSystem implements ProcessorSystem {
 
@@ -15,10 +21,24 @@ public class MovementSystem implements ProcessorSystem {
 
   private final World world;
 
+  private final EntityManager entityManager;
+
+  private final VisibilityCache visibilityCache;
+
+  private final FlowFieldService flowFieldService;
+
+  private final ScriptProfiler scriptProfiler;
+
   public MovementSystem(
-      ListenableQueue<Request> requestQueue, World world) {
+      ListenableQueue<Request> requestQueue, World world, EntityManager entityManager,
+      VisibilityCache visibilityCache, FlowFieldService flowFieldService,
+      ScriptProfiler scriptProfiler) {
     this.requestQueue = requestQueue;
     this.world = world;
+    this.entityManager = entityManager;
+    this.visibilityCache = visibilityCache;
+    this.flowFieldService = flowFieldService;
+    this.scriptProfiler = scriptProfiler;
   }
 
   @Override
@@ -37,9 +57,13 @@ public class MovementSystem implements ProcessorSystem {
     Position startPosition = movementAction.getSource().getPositionComponent().getPosition();
     Position targetPosition = movementAction.getTargetEntity().getPositionComponent().getPosition();
 
-    Position nextPosition = world.findPath(startPosition, targetPosition).get(0).getPosition();
+    // Entities moving towards the same target share a single flow field.
+    Optional<Position> nextPosition = flowFieldService.nextStep(startPosition, targetPosition);
 
-    requestQueue.add(new MovementRequest(movementAction.getSource(), movementAction, nextPosition));
+    scriptProfiler.pathFindingRequested(movementAction.getSource().getOwnerComponent().getOwner());
+
+    nextPosition.ifPresent(position -> requestQueue
+        .add(new MovementRequest(movementAction.getSource(), movementAction, position)));
   }
 
   private void consumeMovementRequest(Request request) {
@@ -49,10 +73,19 @@ public class MovementSystem implements ProcessorSystem {
     // This is enforced by the constructor.
     Entity movementTarget = movementRequest.getTarget().get();
 
+    Position position = movementRequest.getPosition();
+
+    // An other Entity may have stepped on the same Tile earlier in this tick.
+    if (world.isBlockedOrOccupied(position.getH(), position.getW())) {
+      return;
+    }
+
     world.setEntityOnPosition(null, movementTarget.getPositionComponent().getPosition());
 
-    world.setEntityOnPosition(movementTarget, movementRequest.getPosition().stepSouth());
+    world.setEntityOnPosition(movementTarget, position);
+
+    entityManager.moveEntity(movementTarget, position);
 
-    movementTarget.getPositionComponent().setPosition(movementRequest.getPosition());
+    visibilityCache.entityMoved(movementTarget);
   }
 }
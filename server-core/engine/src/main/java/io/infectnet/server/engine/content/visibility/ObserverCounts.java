@@ -0,0 +1,92 @@
+package io.infectnet.server.engine.content.visibility;
+
+/**
+ * Grid of counters storing how many observers see each tile. The grid is divided into square
+ * chunks, and the counters of a chunk are only allocated when one of its tiles is observed, so a
+ * player only pays for the part of the world it can see.
+ */
+class ObserverCounts {
+  private static final int CHUNK_SHIFT = 5;
+
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final int chunksPerRow;
+
+  /**
+   * The counters of the chunks, {@code null} for chunks without any observed tiles.
+   */
+  private final int[][] chunks;
+
+  /**
+   * The number of observed tiles in each chunk.
+   */
+  private final int[] observedTiles;
+
+  /**
+   * Constructs a new grid of counters, all set to zero.
+   * @param height the height of the grid
+   * @param width the width of the grid
+   */
+  ObserverCounts(int height, int width) {
+    this.chunksPerRow = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+
+    int chunkRows = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+
+    this.chunks = new int[chunkRows * chunksPerRow][];
+
+    this.observedTiles = new int[chunkRows * chunksPerRow];
+  }
+
+  /**
+   * Increments the counter of the tile.
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return the new value of the counter
+   */
+  int increment(int h, int w) {
+    int chunk = chunkIndex(h, w);
+
+    if (chunks[chunk] == null) {
+      chunks[chunk] = new int[CHUNK_SIZE * CHUNK_SIZE];
+    }
+
+    int count = ++chunks[chunk][offset(h, w)];
+
+    if (count == 1) {
+      ++observedTiles[chunk];
+    }
+
+    return count;
+  }
+
+  /**
+   * Decrements the counter of the tile. Must not be called for unobserved tiles.
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return the new value of the counter
+   */
+  int decrement(int h, int w) {
+    int chunk = chunkIndex(h, w);
+
+    int count = --chunks[chunk][offset(h, w)];
+
+    if (count == 0 && --observedTiles[chunk] == 0) {
+      /*
+       * Release the chunk, the player cannot see any of its tiles.
+       */
+      chunks[chunk] = null;
+    }
+
+    return count;
+  }
+
+  private int chunkIndex(int h, int w) {
+    return (h >> CHUNK_SHIFT) * chunksPerRow + (w >> CHUNK_SHIFT);
+  }
+
+  private static int offset(int h, int w) {
+    return ((h & CHUNK_MASK) << CHUNK_SHIFT) | (w & CHUNK_MASK);
+  }
+}
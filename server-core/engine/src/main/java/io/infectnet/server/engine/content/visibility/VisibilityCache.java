@@ -0,0 +1,332 @@
+package io.infectnet.server.engine.content.visibility;
+
+import io.infectnet.server.engine.core.entity.Category;
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.EntityManager;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache storing the tiles seen by the players. A {@link Player} sees every {@link Tile} in the
+ * view sight of its buildings, called the viewers of the {@code Player}.
+ * <p>
+ * The visibility of a {@code Player} is computed from scratch only once, when it's first needed.
+ * After that it's maintained incrementally: for every {@code Tile} the number of viewers seeing it
+ * is counted, and only the counters in the view sight of created, moved or removed viewers are
+ * updated. The tiles that became visible or invisible are collected until
+ * {@link #clearChanges()} is called, so consumers can find out what has changed in a tick.
+ * </p>
+ * <p>
+ * The tiles are stored in bitsets over the tile grid of the {@link World}, the index of a
+ * {@code Tile} being {@code h * width + w}.
+ * </p>
+ * <p>
+ * Reading the cache is thread-safe, therefore the selectors may use it from multiple script
+ * threads. The cache must only be updated when it is not being read, that is in the request
+ * phase of the game loop.
+ * </p>
+ */
+public class VisibilityCache {
+  private final EntityManager entityManager;
+
+  private final World world;
+
+  /**
+   * The visibility of the players by their username.
+   */
+  private final Map<String, PlayerVisibility> visibilityMap;
+
+  /**
+   * Constructs a new, empty cache, that will query the buildings and the tiles from the specified
+   * sources.
+   * @param entityManager the {@link EntityManager} to be used
+   * @param world the {@link World} to be used
+   */
+  public VisibilityCache(EntityManager entityManager, World world) {
+    this.entityManager = entityManager;
+
+    this.world = world;
+
+    this.visibilityMap = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the tiles seen by the specified {@code Player} as a bitset. The returned bitset is shared,
+   * it must not be modified.
+   * @param player the {@code Player}
+   * @return the visible tiles
+   */
+  public BitSet getVisibleTiles(Player player) {
+    return getPlayerVisibility(player).visibleTiles;
+  }
+
+  /**
+   * Gets the tiles that became visible for the specified {@code Player} since the last call of
+   * {@link #clearChanges()}. The returned bitset is shared, it must not be modified.
+   * @param player the {@code Player}
+   * @return the revealed tiles
+   */
+  public BitSet getRevealedTiles(Player player) {
+    return getPlayerVisibility(player).revealedTiles;
+  }
+
+  /**
+   * Gets the tiles that became invisible for the specified {@code Player} since the last call of
+   * {@link #clearChanges()}. The returned bitset is shared, it must not be modified.
+   * @param player the {@code Player}
+   * @return the hidden tiles
+   */
+  public BitSet getHiddenTiles(Player player) {
+    return getPlayerVisibility(player).hiddenTiles;
+  }
+
+  /**
+   * Gets the tiles seen by the specified {@code Player}.
+   * @param player the {@code Player}
+   * @return a new set of the visible {@code Tile}s
+   */
+  public Set<Tile> getVisibleTileSet(Player player) {
+    return toTileSet(getVisibleTiles(player));
+  }
+
+  /**
+   * Converts a bitset of tile indices into a set of tiles.
+   * @param tileIndices the bitset of tile indices
+   * @return a new set of the {@code Tile}s
+   */
+  public Set<Tile> toTileSet(BitSet tileIndices) {
+    Set<Tile> tiles = new HashSet<>();
+
+    int width = world.getWidth();
+
+    for (int i = tileIndices.nextSetBit(0); i >= 0; i = tileIndices.nextSetBit(i + 1)) {
+      tiles.add(world.getTileByPosition(new Position(i / width, i % width)));
+    }
+
+    return tiles;
+  }
+
+  /**
+   * Checks whether the {@code Tile} at the specified {@code Position} is seen by the
+   * {@code Player}.
+   * @param player the {@code Player}
+   * @param position the {@code Position} to check, may be {@code null}
+   * @return {@code true} if the {@code Position} is visible, {@code false} otherwise or if the
+   * {@code Position} is {@code null} or outside of the {@code World}
+   */
+  public boolean isVisible(Player player, Position position) {
+    if (position == null || !world.isPositionValidTile(position)) {
+      return false;
+    }
+
+    return getVisibleTiles(player).get(position.getH() * world.getWidth() + position.getW());
+  }
+
+  /**
+   * Checks whether the specified {@code Entity} is seen by the {@code Player}.
+   * @param player the {@code Player}
+   * @param entity the {@code Entity} to check
+   * @return {@code true} if the {@code Entity} is visible, {@code false} otherwise
+   */
+  public boolean isVisible(Player player, Entity entity) {
+    return isVisible(player, entity.getPositionComponent().getPosition());
+  }
+
+  /**
+   * Updates the visibility after the specified {@code Entity} has been created and added to the
+   * {@code EntityManager}.
+   * @param entity the created {@code Entity}
+   */
+  public void entityCreated(Entity entity) {
+    PlayerVisibility visibility = getInitializedVisibility(entity);
+
+    if (visibility != null) {
+      visibility.addViewer(entity);
+    }
+  }
+
+  /**
+   * Updates the visibility after the specified {@code Entity} has been moved.
+   * @param entity the moved {@code Entity}
+   */
+  public void entityMoved(Entity entity) {
+    PlayerVisibility visibility = getInitializedVisibility(entity);
+
+    /*
+     * Entities removed earlier in the tick must not become viewers again.
+     */
+    if (visibility != null && visibility.removeViewer(entity)) {
+      visibility.addViewer(entity);
+    }
+  }
+
+  /**
+   * Updates the visibility after the specified {@code Entity} has been removed from the
+   * {@code EntityManager}.
+   * @param entity the removed {@code Entity}
+   */
+  public void entityRemoved(Entity entity) {
+    PlayerVisibility visibility = getInitializedVisibility(entity);
+
+    if (visibility != null) {
+      visibility.removeViewer(entity);
+    }
+  }
+
+  /**
+   * Forgets the tiles that became visible or invisible so far.
+   */
+  public void clearChanges() {
+    for (PlayerVisibility visibility : visibilityMap.values()) {
+      visibility.revealedTiles.clear();
+
+      visibility.hiddenTiles.clear();
+    }
+  }
+
+  private PlayerVisibility getPlayerVisibility(Player player) {
+    return visibilityMap.computeIfAbsent(Objects.requireNonNull(player).getUsername(),
+        username -> computeVisibility(player));
+  }
+
+  /**
+   * Gets the visibility affected by the specified {@code Entity}, if it has been computed already.
+   * Visibilities computed later will take the current state of the entity into account anyway.
+   * @param entity the changed {@code Entity}
+   * @return the affected visibility or {@code null} if no visibility has to be updated
+   */
+  private PlayerVisibility getInitializedVisibility(Entity entity) {
+    if (entity.getTypeComponent().getCategory() != Category.BUILDING) {
+      return null;
+    }
+
+    return visibilityMap.get(entity.getOwnerComponent().getOwner().getUsername());
+  }
+
+  private PlayerVisibility computeVisibility(Player player) {
+    PlayerVisibility visibility = new PlayerVisibility();
+
+    for (Entity building : entityManager.query()
+        .ofPlayer(player)
+        .inCategory(Category.BUILDING)
+        .execute()) {
+      visibility.addViewer(building);
+    }
+
+    return visibility;
+  }
+
+  /**
+   * The {@code Position} and the view radius a viewer was counted with.
+   */
+  private static class Viewer {
+    private final Position position;
+
+    private final int viewRadius;
+
+    private Viewer(Position position, int viewRadius) {
+      this.position = position;
+
+      this.viewRadius = viewRadius;
+    }
+  }
+
+  /**
+   * The visibility of a single {@code Player}.
+   */
+  private class PlayerVisibility {
+    private final ObserverCounts observerCounts;
+
+    private final BitSet visibleTiles;
+
+    private final BitSet revealedTiles;
+
+    private final BitSet hiddenTiles;
+
+    /**
+     * The viewers counted in the observer counts. {@code Entity} does not override
+     * {@code equals}, but the map makes sure the entities are compared by identity.
+     */
+    private final Map<Entity, Viewer> viewers;
+
+    private PlayerVisibility() {
+      this.observerCounts = new ObserverCounts(world.getHeight(), world.getWidth());
+
+      this.visibleTiles = new BitSet();
+
+      this.revealedTiles = new BitSet();
+
+      this.hiddenTiles = new BitSet();
+
+      this.viewers = new IdentityHashMap<>();
+    }
+
+    private void addViewer(Entity entity) {
+      Position position = entity.getPositionComponent().getPosition();
+
+      if (position == null) {
+        return;
+      }
+
+      Viewer viewer = new Viewer(position, entity.getViewComponent().getViewRadius());
+
+      viewers.put(entity, viewer);
+
+      int width = world.getWidth();
+
+      world.forEachCellInSight(viewer.position, viewer.viewRadius, index -> {
+        if (observerCounts.increment(index / width, index % width) == 1) {
+          visibleTiles.set(index);
+
+          /*
+           * A tile hidden and revealed again in the same tick has not changed.
+           */
+          if (hiddenTiles.get(index)) {
+            hiddenTiles.clear(index);
+          } else {
+            revealedTiles.set(index);
+          }
+        }
+      });
+    }
+
+    /**
+     * Removes the viewer, if it has been counted.
+     * @param entity the viewer {@code Entity}
+     * @return {@code true} if the {@code Entity} was a viewer, {@code false} otherwise
+     */
+    private boolean removeViewer(Entity entity) {
+      Viewer viewer = viewers.remove(entity);
+
+      if (viewer == null) {
+        return false;
+      }
+
+      int width = world.getWidth();
+
+      world.forEachCellInSight(viewer.position, viewer.viewRadius, index -> {
+        if (observerCounts.decrement(index / width, index % width) == 0) {
+          visibleTiles.clear(index);
+
+          if (revealedTiles.get(index)) {
+            revealedTiles.clear(index);
+          } else {
+            hiddenTiles.set(index);
+          }
+        }
+      });
+
+      return true;
+    }
+  }
+}
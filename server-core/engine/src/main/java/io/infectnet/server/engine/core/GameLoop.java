@@ -1,12 +1,13 @@
 package io.infectnet.server.engine.core;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
 import io.infectnet.server.engine.core.script.Request;
-import io.infectnet.server.engine.core.script.code.Code;
 import io.infectnet.server.engine.core.script.code.CodeRepository;
-import io.infectnet.server.engine.core.script.execution.ScriptExecutor;
+import io.infectnet.server.engine.core.script.execution.ScriptRunner;
 import io.infectnet.server.engine.core.status.StatusConsumer;
 import io.infectnet.server.engine.core.status.StatusPublisher;
 import io.infectnet.server.engine.core.util.ListenableQueue;
@@ -14,8 +15,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -36,43 +38,82 @@ public class GameLoop {
 
   private final CodeRepository codeRepository;
 
-  private final ScriptExecutor scriptExecutor;
+  private final ScriptRunner scriptRunner;
 
   private final StatusPublisher statusPublisher;
 
+  private final TickMetrics tickMetrics;
+
+  private final List<TickListener> tickListeners;
+
   private ScheduledExecutorService gameLoopExecutorService;
 
   private Duration desiredTickDuration;
 
+  private OverrunPolicy overrunPolicy;
+
+  /**
+   * The desired tick duration in nanoseconds, the period between the starts of the ticks.
+   */
+  private long tickPeriod;
+
   private AtomicBoolean isLoopRunning;
 
   private StatusConsumer statusConsumer;
 
+  /**
+   * The number of the next tick, only accessed by the thread of the game loop.
+   */
+  private long tick;
+
+  /**
+   * The {@link System#nanoTime()} at which the next tick is due to start, only accessed by the
+   * thread of the game loop after it has been started.
+   */
+  private long nextTickStart;
+
+  /**
+   * The {@link System#nanoTime()} at which the last tick has started, used to measure the jitter.
+   */
+  private long lastTickStart;
+
+  /**
+   * The number of ticks in a row started behind schedule, including the next one.
+   */
+  private int lateTickCount;
+
   /**
    * Constructs a new instance that works on the specified queues and executes the code pulled from
-   * the specified {@code CodeRepository} with the passes {@code ScriptExecutor}.
+   * the specified {@code CodeRepository} with the passed {@code ScriptRunner}.
    * @param actionQueue the queue that stores the {@code Action}s to be processed
    * @param requestQueue the queue in which the {@code Request}s will be put and will be pulled
    * from
    * @param codeRepository the repository storing the codes submitted by the {@link
    * io.infectnet.server.engine.core.player.Player}s
-   * @param scriptExecutor the executor that will run the DSL code
+   * @param scriptRunner the runner that will execute the DSL code of the players
    * @param statusPublisher publisher service responsible for sending out updates
+   * @param tickMetrics the metrics the durations of the ticks are recorded into
    */
   public GameLoop(ListenableQueue<Action> actionQueue, ListenableQueue<Request> requestQueue,
-                  CodeRepository codeRepository, ScriptExecutor scriptExecutor,
-                  StatusPublisher statusPublisher) {
+                  CodeRepository codeRepository, ScriptRunner scriptRunner,
+                  StatusPublisher statusPublisher, TickMetrics tickMetrics) {
     this.actionQueue = actionQueue;
 
     this.requestQueue = requestQueue;
 
     this.codeRepository = codeRepository;
 
-    this.scriptExecutor = scriptExecutor;
+    this.scriptRunner = scriptRunner;
 
     this.statusPublisher = statusPublisher;
 
+    this.tickMetrics = tickMetrics;
+
+    this.tickListeners = new CopyOnWriteArrayList<>();
+
     this.isLoopRunning = new AtomicBoolean(false);
+
+    this.tick = 0L;
   }
 
   /**
@@ -85,12 +126,26 @@ public class GameLoop {
   }
 
   /**
-   * Starts the game loop in a separate thread. Subsequent invocations of this method have no
+   * Adds a listener that will be notified after every tick with the durations of its phases.
+   * @param listener the listener to add
+   * @throws NullPointerException if the listener is {@code null}
+   */
+  public void addTickListener(TickListener listener) {
+    tickListeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Starts the game loop in a separate thread. The ticks are due to start at fixed points in time,
+   * one desired tick duration apart, and the overrun policy decides what happens if a tick is not
+   * finished by the time the next one is due. Subsequent invocations of this method have no
    * effect.
-   * @param desiredTickDuration the minimal duration between the ticks of the game loop
+   * @param desiredTickDuration the period of the ticks of the game loop in milliseconds, zero to
+   * run the ticks back to back
+   * @param overrunPolicy the policy applied when the loop falls behind schedule
+   * @throws NullPointerException if the policy is {@code null}
    * @throws IllegalStateException if the status consumer has not been set
    */
-  public void start(long desiredTickDuration) {
+  public void start(long desiredTickDuration, OverrunPolicy overrunPolicy) {
     if (isLoopRunning.get()) {
       return;
     }
@@ -101,10 +156,18 @@ public class GameLoop {
 
     setDesiredTickDuration(Duration.ofMillis(desiredTickDuration));
 
+    this.overrunPolicy = Objects.requireNonNull(overrunPolicy);
+
     gameLoopExecutorService = Executors.newSingleThreadScheduledExecutor();
 
     isLoopRunning.set(true);
 
+    nextTickStart = System.nanoTime();
+
+    lastTickStart = nextTickStart - tickPeriod;
+
+    lateTickCount = 0;
+
     logger.info("Game loop started!");
 
     gameLoopExecutorService.schedule(this::loop, NO_DELAY, MILLISECONDS);
@@ -204,24 +267,24 @@ public class GameLoop {
   }
 
   private void loop() {
-    Instant startTime = Instant.now();
+    long scriptsStart = System.nanoTime();
+
+    tickMetrics.tickStarted(scriptsStart - nextTickStart);
+
+    tickMetrics.tickJitter(Math.abs(scriptsStart - lastTickStart - tickPeriod));
+
+    lastTickStart = scriptsStart;
 
     /*
      * #1 Run Scripts
      *
      * Execute the DSL code written by the players. The action queue will be filled with Action
-     * instances created by the executed Scripts.
+     * instances created by the executed Scripts. The Scripts might run in parallel, but their
+     * Actions are always added to the queue in the same order.
      */
-    for (Code code : codeRepository.getAllCodes()) {
-      if (code.isRunnable()) {
-        try {
-          scriptExecutor.execute(code.getScript().get(), code.getOwner());
-        } catch (Exception e) {
-          logger.warn("Exception during player ({}) code execution: {}", code.getOwner(),
-              e);
-        }
-      }
-    }
+    scriptRunner.runAll(codeRepository.getAllCodes(), actionQueue);
+
+    long actionsStart = System.nanoTime();
 
     /*
      * #2 Process Actions
@@ -233,6 +296,8 @@ public class GameLoop {
      */
     actionQueue.processAll();
 
+    long requestsStart = System.nanoTime();
+
     /*
      * #3 Process Requests
      *
@@ -242,52 +307,97 @@ public class GameLoop {
      */
     requestQueue.processAll();
 
+    long publishStart = System.nanoTime();
+
     /*
      * #4 Send results
      *
+     * A degrading loop behind schedule sheds the publishing of most ticks. The publisher keeps
+     * collecting the changes, so the next published status contains them.
      */
-    statusPublisher.publish(statusConsumer);
+    if (lateTickCount % overrunPolicy.getPublishInterval() == 0) {
+      statusPublisher.publish(statusConsumer);
+    } else {
+      tickMetrics.publishShed();
+    }
+
+    long publishEnd = System.nanoTime();
+
+    TickTimings timings = new TickTimings(tick++, actionsStart - scriptsStart,
+        requestsStart - actionsStart, publishStart - requestsStart, publishEnd - publishStart);
+
+    tickMetrics.tickFinished(timings);
+
+    notifyTickListeners(timings);
 
     /*
      * #5 Reschedule Loop
      *
-     * Once we're done with all our processing job, we will reschedule ourselves with respect to the
-     * desired tick duration. If we've failed to deliver, the rescheduling will mean an instant
-     * execution. This is exactly an infinite loop.
+     * Once we're done with all our processing job, we will reschedule ourselves to the deadline
+     * of the next tick. If we've failed to deliver, the overrun policy decides whether the missed
+     * ticks are run instantly or dropped. This is exactly an infinite loop.
      */
-    rescheduleLoop(startTime);
+    rescheduleLoop();
   }
 
-  private void rescheduleLoop(Instant startTime) {
-    Instant endTime = Instant.now();
-
-    Duration actualTickDuration = Duration.between(startTime, endTime);
-
-    Duration waitTime = desiredTickDuration.minus(actualTickDuration);
+  private void notifyTickListeners(TickTimings timings) {
+    for (TickListener listener : tickListeners) {
+      listener.tickFinished(timings);
+    }
+  }
 
-    logger.info("Tick time: {}", actualTickDuration);
-    logger.info("Next tick after: {}", waitTime);
+  private void rescheduleLoop() {
+    /*
+     * The loop may have been stopped during the tick, even by a tick listener, and the stopped
+     * executor would reject the next tick.
+     */
+    if (!isLoopRunning.get()) {
+      return;
+    }
 
     /*
-     * If the current tick was longer than desired, we will schedule the loop with no delay.
-     *
-     * Otherwise we will wait for the time between the actual and desired tick duration.
+     * The deadlines are absolute, so the time spent scheduling and waking up never accumulates
+     * into a drift.
      */
-    if (waitTime.isNegative()) {
-      gameLoopExecutorService.schedule(this::loop, NO_DELAY, MILLISECONDS);
+    nextTickStart += tickPeriod;
+
+    long now = System.nanoTime();
+
+    if (tickPeriod == 0L || nextTickStart - now >= 0L) {
+      lateTickCount = 0;
     } else {
-      gameLoopExecutorService.schedule(this::loop, waitTime.toMillis(), MILLISECONDS);
+      tickMetrics.tickOverrun();
+
+      ++lateTickCount;
+
+      if (lateTickCount > overrunPolicy.getMaxBurst()) {
+        /*
+         * Dropping every deadline that has already passed, so the next tick starts in phase with
+         * the schedule.
+         */
+        long missedTicks = (now - nextTickStart) / tickPeriod + 1;
+
+        nextTickStart += missedTicks * tickPeriod;
+
+        tickMetrics.ticksSkipped(missedTicks);
+
+        lateTickCount = 0;
+      }
     }
+
+    gameLoopExecutorService.schedule(this::loop, Math.max(nextTickStart - now, NO_DELAY),
+        NANOSECONDS);
   }
 
   /**
-   * Sets the desired duration of a game tick. This is the <b>minimal</b> length of a game tick,
-   * it's guaranteed, that no game tick will be shorter than this duration. However, upon high load
-   * or too many calculations, game ticks might get longer and longer.
+   * Sets the desired duration of a game tick. This is the <b>period</b> of the game loop, the
+   * ticks are due to start one desired duration after each other. Upon high load or too many
+   * calculations, game ticks might get longer than the period, and the overrun policy decides how
+   * the loop gets back on schedule.
    * <p>
    * Can only be set before starting the game loop.
    * </p>
-   * @param desiredTickDuration the desired/minimal duration of a game tick
+   * @param desiredTickDuration the desired duration of a game tick
    * @throws NullPointerException if the duration is {@code null}
    * @throws IllegalArgumentException if the duration is negative
    * @throws IllegalStateException if the game loop is currently running
@@ -304,5 +414,7 @@ public class GameLoop {
     }
 
     this.desiredTickDuration = duration;
+
+    this.tickPeriod = duration.toNanos();
   }
 }
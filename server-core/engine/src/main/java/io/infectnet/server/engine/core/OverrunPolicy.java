@@ -0,0 +1,129 @@
+package io.infectnet.server.engine.core;
+
+/**
+ * Decides what the {@link GameLoop} does when a tick has not finished before the next tick was due
+ * to start. Instances are immutable, and are created by the static factory methods.
+ */
+public final class OverrunPolicy {
+  /**
+   * The kinds of policies.
+   */
+  public enum Type {
+    /**
+     * The missed ticks are dropped, the next tick starts at the next deadline still ahead.
+     */
+    SKIP,
+
+    /**
+     * The missed ticks are run back to back until the loop is on schedule again, but only up to a
+     * burst of ticks, after which the remaining missed ticks are dropped.
+     */
+    CATCH_UP,
+
+    /**
+     * Like {@link #CATCH_UP}, but the ticks run behind schedule only publish the status every
+     * few ticks, so they finish sooner.
+     */
+    DEGRADE
+  }
+
+  /**
+   * The number of ticks the {@link #defaultPolicy()} runs at most back to back to catch up.
+   */
+  public static final int DEFAULT_MAX_BURST = 3;
+
+  private final Type type;
+
+  private final int maxBurst;
+
+  private final int publishInterval;
+
+  private OverrunPolicy(Type type, int maxBurst, int publishInterval) {
+    this.type = type;
+
+    this.maxBurst = maxBurst;
+
+    this.publishInterval = publishInterval;
+  }
+
+  /**
+   * Creates a policy that drops the missed ticks.
+   * @return the new policy
+   */
+  public static OverrunPolicy skip() {
+    return new OverrunPolicy(Type.SKIP, 0, 1);
+  }
+
+  /**
+   * Creates a policy that runs the missed ticks back to back.
+   * @param maxBurst the maximal number of ticks run behind schedule in a row
+   * @return the new policy
+   * @throws IllegalArgumentException if the burst is not positive
+   */
+  public static OverrunPolicy catchUp(int maxBurst) {
+    checkPositive(maxBurst, "burst");
+
+    return new OverrunPolicy(Type.CATCH_UP, maxBurst, 1);
+  }
+
+  /**
+   * Creates a policy that runs the missed ticks back to back, and sheds the status publishing of
+   * the ticks run behind schedule. The publishers must keep collecting the changes of the world
+   * until they publish again.
+   * @param maxBurst the maximal number of ticks run behind schedule in a row
+   * @param publishInterval the status is only published by every {@code publishInterval}th tick
+   * run behind schedule in a row
+   * @return the new policy
+   * @throws IllegalArgumentException if the burst or the interval is not positive
+   */
+  public static OverrunPolicy degrade(int maxBurst, int publishInterval) {
+    checkPositive(maxBurst, "burst");
+
+    checkPositive(publishInterval, "publish interval");
+
+    return new OverrunPolicy(Type.DEGRADE, maxBurst, publishInterval);
+  }
+
+  /**
+   * Gets the policy used when none is configured, which catches up a few ticks.
+   * @return the default policy
+   */
+  public static OverrunPolicy defaultPolicy() {
+    return catchUp(DEFAULT_MAX_BURST);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Gets the maximal number of ticks run behind schedule in a row.
+   * @return the maximal burst, {@code 0} for the {@link Type#SKIP} policy
+   */
+  public int getMaxBurst() {
+    return maxBurst;
+  }
+
+  /**
+   * Gets how often the ticks run behind schedule publish the status.
+   * @return the interval, {@code 1} unless the policy is {@link Type#DEGRADE}
+   */
+  public int getPublishInterval() {
+    return publishInterval;
+  }
+
+  @Override
+  public String toString() {
+    return "OverrunPolicy{" +
+        "type=" + type +
+        ", maxBurst=" + maxBurst +
+        ", publishInterval=" + publishInterval +
+        '}';
+  }
+
+  private static void checkPositive(int value, String name) {
+    if (value < 1) {
+      throw new IllegalArgumentException("The " + name + " must be positive!");
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package io.infectnet.server.engine.core;
+
+/**
+ * Listener notified by the {@link GameLoop} after every tick, on the thread of the game loop.
+ * Listeners should return quickly, as they delay the next tick.
+ */
+@FunctionalInterface
+public interface TickListener {
+  /**
+   * Called after the status of the tick has been published.
+   * @param timings the durations of the phases of the finished tick
+   */
+  void tickFinished(TickTimings timings);
+}
@@ -0,0 +1,26 @@
+package io.infectnet.server.engine.core;
+
+/**
+ * The phases of a tick of the {@link GameLoop}, in the order they are executed.
+ */
+public enum TickPhase {
+  /**
+   * The DSL code of the players is executed, filling the action queue.
+   */
+  SCRIPTS,
+
+  /**
+   * The {@code Action}s are dispatched to the systems, filling the request queue.
+   */
+  ACTIONS,
+
+  /**
+   * The {@code Request}s are dispatched to the systems, modifying the World and the Entities.
+   */
+  REQUESTS,
+
+  /**
+   * The status updates are sent to the observed players.
+   */
+  PUBLISH
+}
@@ -0,0 +1,59 @@
+package io.infectnet.server.engine.core;
+
+import java.util.Objects;
+
+/**
+ * The durations of the phases of a tick of the {@link GameLoop}, measured in nanoseconds.
+ */
+public class TickTimings {
+  private static final TickPhase[] PHASES = TickPhase.values();
+
+  private final long tick;
+
+  private final long[] phaseDurations;
+
+  /**
+   * Creates a new instance for the specified tick.
+   * @param tick the number of the tick, counted from zero since the game loop has been created
+   * @param phaseDurations the duration of every phase in nanoseconds, in the order of
+   * {@link TickPhase#values()}
+   * @throws IllegalArgumentException if not every phase has a duration
+   */
+  public TickTimings(long tick, long... phaseDurations) {
+    if (phaseDurations.length != PHASES.length) {
+      throw new IllegalArgumentException("Every phase must have a duration!");
+    }
+
+    this.tick = tick;
+
+    this.phaseDurations = phaseDurations.clone();
+  }
+
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Gets the duration of a phase of the tick.
+   * @param phase the phase
+   * @return the duration in nanoseconds
+   * @throws NullPointerException if the phase is {@code null}
+   */
+  public long getPhaseDuration(TickPhase phase) {
+    return phaseDurations[Objects.requireNonNull(phase).ordinal()];
+  }
+
+  /**
+   * Gets the duration of the whole tick, that is the sum of the durations of its phases.
+   * @return the duration in nanoseconds
+   */
+  public long getDuration() {
+    long duration = 0L;
+
+    for (long phaseDuration : phaseDurations) {
+      duration += phaseDuration;
+    }
+
+    return duration;
+  }
+}
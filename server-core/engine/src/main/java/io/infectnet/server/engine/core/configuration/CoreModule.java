@@ -3,9 +3,12 @@ package io.infectnet.server.engine.core.configuration;
 import io.infectnet.server.engine.core.GameLoop;
 import io.infectnet.server.engine.core.entity.wrapper.Action;
 import io.infectnet.server.engine.core.entity.wrapper.EntityWrapper;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
 import io.infectnet.server.engine.core.script.Request;
 import io.infectnet.server.engine.core.script.code.CodeRepository;
-import io.infectnet.server.engine.core.script.execution.ScriptExecutor;
+import io.infectnet.server.engine.core.script.execution.ActionBuffer;
+import io.infectnet.server.engine.core.script.execution.ScriptRunner;
 import io.infectnet.server.engine.core.status.StatusPublisher;
 import io.infectnet.server.engine.core.system.ProcessorSystem;
 import io.infectnet.server.engine.core.util.ListenableQueue;
@@ -22,18 +25,43 @@ import dagger.multibindings.ElementsIntoSet;
 
 @Module(includes = {ScriptModule.class, EntityModule.class, PlayerModule.class, WorldModule.class})
 public class CoreModule {
+  /**
+   * The number of the last script executions profiled for every player.
+   */
+  private static final int SCRIPT_PROFILE_WINDOW_SIZE = 100;
+
   @Provides
   @Singleton
   @Named("Action Queue")
-  public static ListenableQueue<Action> providesActionQueue() {
-    return new ListenableQueue<>();
+  public static ListenableQueue<Action> providesActionQueue(TickMetrics tickMetrics) {
+    ListenableQueue<Action> actionQueue = new ListenableQueue<>();
+
+    actionQueue.setProcessingObserver(tickMetrics::actionProcessed);
+
+    return actionQueue;
   }
 
   @Provides
   @Singleton
   @Named("Request Queue")
-  public static ListenableQueue<Request> providesRequestQueue() {
-    return new ListenableQueue<>();
+  public static ListenableQueue<Request> providesRequestQueue(TickMetrics tickMetrics) {
+    ListenableQueue<Request> requestQueue = new ListenableQueue<>();
+
+    requestQueue.setProcessingObserver(tickMetrics::requestProcessed);
+
+    return requestQueue;
+  }
+
+  @Provides
+  @Singleton
+  public static TickMetrics providesTickMetrics() {
+    return new TickMetrics();
+  }
+
+  @Provides
+  @Singleton
+  public static ScriptProfiler providesScriptProfiler() {
+    return new ScriptProfiler(SCRIPT_PROFILE_WINDOW_SIZE);
   }
 
   @Provides
@@ -41,9 +69,10 @@ public class CoreModule {
   public static GameLoop providesGameLoop(
       @Named("Action Queue") ListenableQueue<Action> actionQueue,
       @Named("Request Queue") ListenableQueue<Request> requestQueue,
-      CodeRepository codeRepository, ScriptExecutor scriptExecutor,
-      StatusPublisher statusPublisher) {
-    return new GameLoop(actionQueue, requestQueue, codeRepository, scriptExecutor, statusPublisher);
+      CodeRepository codeRepository, ScriptRunner scriptRunner,
+      StatusPublisher statusPublisher, TickMetrics tickMetrics) {
+    return new GameLoop(actionQueue, requestQueue, codeRepository, scriptRunner, statusPublisher,
+        tickMetrics);
   }
 
   @Provides
@@ -54,7 +83,13 @@ public class CoreModule {
       if (!state.isInteractedWith()) {
         state.setInteractedWith(true);
 
-        actionQueue.add(action);
+        /*
+         * Actions emitted by player scripts are collected per execution and merged by the
+         * game loop, only the rest goes directly into the queue.
+         */
+        if (!ActionBuffer.offer(action)) {
+          actionQueue.add(action);
+        }
       }
     };
   }
@@ -21,13 +21,18 @@ import dagger.multibindings.Multibinds;
 
 @Module
 public abstract class EntityModule {
+  /**
+   * The side length of the chunks of the spatial entity index, measured in tiles.
+   */
+  private static final int ENTITY_INDEX_CHUNK_SIZE = 16;
+
   @Multibinds
   abstract Map<String, EntityWrapperFactory<? extends EntityWrapper>> bindsEmptyWrapperFactoryMap();
 
   @Provides
   @Singleton
   public static EntityManager providesEntityManager() {
-    return new EntityManagerImpl();
+    return new EntityManagerImpl(ENTITY_INDEX_CHUNK_SIZE);
   }
 
   @Provides
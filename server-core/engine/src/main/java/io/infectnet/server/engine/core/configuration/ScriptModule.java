@@ -4,16 +4,24 @@ import groovy.lang.Binding;
 import io.infectnet.server.engine.content.configuration.DslModule;
 import io.infectnet.server.engine.content.configuration.SelectorModule;
 import io.infectnet.server.engine.content.dsl.DslBindingCustomizer;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
 import io.infectnet.server.engine.core.player.Player;
 import io.infectnet.server.engine.core.script.code.CodeRepository;
 import io.infectnet.server.engine.core.script.code.CodeRepositoryImpl;
 import io.infectnet.server.engine.core.script.execution.BindingContext;
+import io.infectnet.server.engine.core.script.execution.ParallelScriptRunner;
+import io.infectnet.server.engine.core.script.execution.ProfilingScriptExecutor;
 import io.infectnet.server.engine.core.script.execution.ScriptExecutor;
 import io.infectnet.server.engine.core.script.execution.ScriptExecutorImpl;
+import io.infectnet.server.engine.core.script.execution.ScriptRunner;
+import io.infectnet.server.engine.core.script.execution.TimedScriptExecutor;
+import io.infectnet.server.engine.core.script.generation.ExecutionBudgetCustomizer;
 import io.infectnet.server.engine.core.script.generation.ScriptGenerator;
 import io.infectnet.server.engine.core.script.generation.ScriptGeneratorImpl;
 import org.codehaus.groovy.control.customizers.CompilationCustomizer;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Set;
 import java.util.function.Function;
@@ -21,9 +29,31 @@ import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
 import dagger.multibindings.ElementsIntoSet;
+import dagger.multibindings.IntoSet;
 
 @Module(includes = {DslModule.class, SelectorModule.class})
 public class ScriptModule {
+  /**
+   * The maximal number of loop iterations, method and closure calls of a player script per tick.
+   */
+  private static final long SCRIPT_CHECKPOINT_LIMIT = 1_000_000L;
+
+  /**
+   * The maximal wall-clock time a player script may run for per tick.
+   */
+  private static final Duration SCRIPT_TIME_LIMIT = Duration.ofMillis(200);
+
+  /**
+   * The maximal wall-clock time the scripts of every player may run for together per tick.
+   */
+  private static final Duration SCRIPT_PHASE_TIME_LIMIT = Duration.ofMillis(400);
+
+  /**
+   * The maximal wall-clock time the scripts still running at the end of the phase are waited for,
+   * after they have been told to stop.
+   */
+  private static final Duration SCRIPT_REVOCATION_GRACE = Duration.ofMillis(50);
+
   @Provides
   @Singleton
   public static ScriptGenerator providesScriptGenerator(Set<CompilationCustomizer> customizers) {
@@ -33,8 +63,19 @@ public class ScriptModule {
   @Provides
   @Singleton
   public static ScriptExecutor providesScriptExecutor(
-      Function<Player, BindingContext> playerBindingContextFunction) {
-    return new ScriptExecutorImpl(playerBindingContextFunction);
+      Function<Player, BindingContext> playerBindingContextFunction, TickMetrics tickMetrics,
+      ScriptProfiler scriptProfiler) {
+    return new ProfilingScriptExecutor(
+        new TimedScriptExecutor(new ScriptExecutorImpl(playerBindingContextFunction), tickMetrics),
+        scriptProfiler);
+  }
+
+  @Provides
+  @Singleton
+  public static ScriptRunner providesScriptRunner(ScriptExecutor scriptExecutor) {
+    return new ParallelScriptRunner(scriptExecutor, Runtime.getRuntime().availableProcessors(),
+        SCRIPT_CHECKPOINT_LIMIT, SCRIPT_TIME_LIMIT, SCRIPT_PHASE_TIME_LIMIT,
+        SCRIPT_REVOCATION_GRACE);
   }
 
   @Provides
@@ -49,6 +90,12 @@ public class ScriptModule {
     return Collections.emptySet();
   }
 
+  @Provides
+  @IntoSet
+  public static CompilationCustomizer providesExecutionBudgetCustomizer() {
+    return new ExecutionBudgetCustomizer();
+  }
+
   @Provides
   @ElementsIntoSet
   public static Set<DslBindingCustomizer> providesDefaultEmptyDslBindingCustomizerSet() {
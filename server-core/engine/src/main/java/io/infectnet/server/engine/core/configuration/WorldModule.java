@@ -2,24 +2,68 @@ package io.infectnet.server.engine.core.configuration;
 
 import io.infectnet.server.engine.core.world.World;
 import io.infectnet.server.engine.core.world.WorldImpl;
+import io.infectnet.server.engine.core.world.cache.FileWorldCache;
+import io.infectnet.server.engine.core.world.cache.WorldCache;
 import io.infectnet.server.engine.core.world.strategy.generation.CellularAutomaton;
 import io.infectnet.server.engine.core.world.strategy.generation.WorldGeneratorStrategy;
 import io.infectnet.server.engine.core.world.strategy.pathfinding.AStarPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.CachingPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.ChebyshevHeuristic;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.FlowFieldService;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.FlowFieldServiceImpl;
 import io.infectnet.server.engine.core.world.strategy.pathfinding.Heuristic;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.HierarchicalPathFinderStrategy;
+import io.infectnet.server.engine.core.world.strategy.pathfinding.JumpPointSearchPathFinderStrategy;
 import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy;
 import io.infectnet.server.engine.core.world.strategy.pathfinding.WeightedHeuristic;
 
+import java.nio.file.Path;
+import java.util.function.Function;
 import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
 
 @Module
 public class WorldModule {
+  /**
+   * Whether paths are found using Jump Point Search instead of plain A*. Jump Point Search expands
+   * few enough tiles to use the admissible {@link ChebyshevHeuristic} and find the shortest paths.
+   * Plain A* uses the provided {@link Heuristic}, which is weighted, so it expands fewer tiles but
+   * may return longer paths.
+   */
+  private static final boolean JUMP_POINT_SEARCH_ENABLED = true;
+
+  /**
+   * The length of the sides of the clusters the world is split into for hierarchical path
+   * finding. Paths shorter than two clusters are found without the abstraction.
+   */
+  private static final int PATH_FINDING_CLUSTER_SIZE = 16;
+
+  /**
+   * The maximal number of found paths kept between ticks.
+   */
+  private static final int MAX_CACHED_PATHS = 1024;
+
+  /**
+   * The distance between the target of a flow field and the edges of the area it covers. Entities
+   * farther from their target are routed by the path finder.
+   */
+  private static final int FLOW_FIELD_RADIUS = 32;
+
+  /**
+   * The maximal number of flow fields kept between ticks.
+   */
+  private static final int MAX_CACHED_FLOW_FIELDS = 256;
+
   @Provides
   @Singleton
   public static World providesWorld(WorldGeneratorStrategy worldGeneratorStrategy,
-                                    PathFinderStrategy pathFinderStrategy) {
-    return new WorldImpl(worldGeneratorStrategy, pathFinderStrategy);
+                                    CachingPathFinderStrategy pathFinderStrategy) {
+    World world = new WorldImpl(worldGeneratorStrategy, pathFinderStrategy);
+
+    world.addTileChangeListener(pathFinderStrategy);
+
+    return world;
   }
 
   @Provides
@@ -28,12 +72,42 @@ public class WorldModule {
     return new CellularAutomaton();
   }
 
+  @Provides
+  @Singleton
+  public static Function<Path, WorldCache> providesWorldCacheFactory(
+      WorldGeneratorStrategy worldGeneratorStrategy) {
+    return worldCacheFile -> new FileWorldCache(worldCacheFile, worldGeneratorStrategy);
+  }
+
+  @Provides
+  @Singleton
+  public static CachingPathFinderStrategy providesCachingPathFinderStrategy(
+      PathFinderStrategy pathFinderStrategy, Heuristic heuristic) {
+    return new CachingPathFinderStrategy(new HierarchicalPathFinderStrategy(pathFinderStrategy,
+        heuristic, PATH_FINDING_CLUSTER_SIZE), MAX_CACHED_PATHS);
+  }
+
   @Provides
   @Singleton
   public static PathFinderStrategy providesPathFinderStrategy(Heuristic heuristic) {
+    if (JUMP_POINT_SEARCH_ENABLED) {
+      return new JumpPointSearchPathFinderStrategy(new ChebyshevHeuristic());
+    }
+
     return new AStarPathFinderStrategy(heuristic);
   }
 
+  @Provides
+  @Singleton
+  public static FlowFieldService providesFlowFieldService(World world) {
+    FlowFieldServiceImpl flowFieldService =
+        new FlowFieldServiceImpl(world, FLOW_FIELD_RADIUS, MAX_CACHED_FLOW_FIELDS);
+
+    world.addTileChangeListener(flowFieldService);
+
+    return flowFieldService;
+  }
+
   @Provides
   @Singleton
   public static Heuristic providesHeuristic() {
@@ -1,6 +1,7 @@
 package io.infectnet.server.engine.core.entity;
 
 import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.world.Position;
 
 import java.util.Collection;
 import java.util.function.Predicate;
@@ -30,19 +31,46 @@ public interface EntityManager {
    */
   void removeEntity(Entity entity);
 
+  /**
+   * Moves the specified {@code Entity} to the passed {@code Position} by updating its
+   * {@code PositionComponent}. The position of managed entities should always be changed using
+   * this method, so the manager can keep its indices up to date.
+   * @param entity the {@code Entity} to be moved
+   * @param position the new {@code Position} of the {@code Entity}
+   */
+  void moveEntity(Entity entity, Position position);
+
   /**
    * Fluent interface that enables clients to query {@link Entity} instances from an
    * {@code EntityManager} in a comfortable way.
    */
   interface Query {
     /**
-     * Filters the entities returning the ones owned by the specified {@code Player}. This filter
-     * cannot be omitted. Subsequent calls will replace the previously specified {@code Player}.
+     * Filters the entities returning the ones owned by the specified {@code Player}. Either this,
+     * {@link #ofAnyPlayer()} or {@link #exceptPlayer(Player)} must be called. Subsequent calls
+     * will replace the previously specified owner filter.
      * @param player the owner of the entities
      * @return a {@code Query} with this filter set
      */
     Query ofPlayer(Player player);
 
+    /**
+     * Returns the entities regardless of their owner. Subsequent calls will replace the
+     * previously specified owner filter.
+     * @return a {@code Query} with this filter set
+     * @see #ofPlayer(Player)
+     */
+    Query ofAnyPlayer();
+
+    /**
+     * Filters the entities returning the ones not owned by the specified {@code Player}.
+     * Subsequent calls will replace the previously specified owner filter.
+     * @param player the {@code Player} whose entities are excluded
+     * @return a {@code Query} with this filter set
+     * @see #ofPlayer(Player)
+     */
+    Query exceptPlayer(Player player);
+
     /**
      * Filters the entities returning the ones with the specified {@code Category}. This filter
      * cannot be omitted. Subsequent calls will replace the previously specified {@code Category}.
@@ -59,6 +87,27 @@ public interface EntityManager {
      */
     Query satisfying(Predicate<Entity> predicate);
 
+    /**
+     * Filters the entities returning the ones not farther from the specified {@code Position} than
+     * the passed radius. The distance of two positions is the larger of the differences of their
+     * coordinates, just like in the case of view radiuses. Entities without a {@code Position} are
+     * filtered out. Subsequent calls will replace the previously specified area.
+     * @param center the center of the area
+     * @param radius the radius of the area, must not be negative
+     * @return a {@code Query} with this filter set
+     */
+    Query withinRadius(Position center, int radius);
+
+    /**
+     * Filters the entities returning the ones inside the box spanned by the specified corners. The
+     * box includes its border. Entities without a {@code Position} are filtered out. Subsequent
+     * calls will replace the previously specified area.
+     * @param corner a corner of the box
+     * @param oppositeCorner the opposite corner of the box
+     * @return a {@code Query} with this filter set
+     */
+    Query inBox(Position corner, Position oppositeCorner);
+
     /**
      * Executes the query and returns the entities satisfying the requirements.
      * @return a collection of {@code Entity} objects
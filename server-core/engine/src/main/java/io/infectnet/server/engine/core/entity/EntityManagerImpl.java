@@ -1,31 +1,76 @@
 package io.infectnet.server.engine.core.entity;
 
 import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.world.Position;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
+/**
+ * {@link EntityManager} storing the entities grouped by owner and {@link Category}. Every
+ * {@code Entity} is also stored in a global storage grouped only by {@code Category}, which serves
+ * the queries not restricted to a single owner. Optionally a {@link SpatialIndex} is maintained
+ * for every group, so area queries do not have to scan every {@code Entity} of the group.
+ */
 public class EntityManagerImpl implements EntityManager {
 
   private static final Logger logger = LoggerFactory.getLogger(EntityManagerImpl.class);
 
   /**
    * Store by username instead of by {@link Player} instance because {@code String}
-   * is immutable so hashCode and equals values won't change.
+   * is immutable so hashCode and equals values won't change. The map is concurrent, because
+   * queries may be executed from multiple script threads at once.
    */
-  private final Map<String, PlayerStorage> playerMap;
+  private final Map<String, EntityStorage> playerMap;
 
+  /**
+   * The entities of all players.
+   */
+  private final EntityStorage globalStorage;
+
+  /**
+   * The chunk size of the spatial indices, {@code 0} if no indices are maintained.
+   */
+  private final int chunkSize;
+
+  /**
+   * Constructs a new manager without spatial indices. Area queries are evaluated by scanning the
+   * entities.
+   */
   public EntityManagerImpl() {
-    this.playerMap = new HashMap<>();
+    this.playerMap = new ConcurrentHashMap<>();
+
+    this.globalStorage = new EntityStorage(0);
+
+    this.chunkSize = 0;
+  }
+
+  /**
+   * Constructs a new manager maintaining spatial indices with the specified chunk size.
+   * @param chunkSize the length of the side of an index chunk, measured in tiles
+   * @throws IllegalArgumentException if the chunk size is not positive
+   */
+  public EntityManagerImpl(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive!");
+    }
+
+    this.playerMap = new ConcurrentHashMap<>();
+
+    this.globalStorage = new EntityStorage(chunkSize);
+
+    this.chunkSize = chunkSize;
   }
 
   @Override
@@ -43,65 +88,128 @@ public class EntityManagerImpl implements EntityManager {
     detachEntity(Objects.requireNonNull(entity));
   }
 
-  private void manageEntity(Entity entity) {
-    PlayerStorage storage = createOrGetPlayerStorage(entity.getOwnerComponent().getOwner());
-
-    storage.storeEntity(entity);
-  }
+  @Override
+  public void moveEntity(Entity entity, Position position) {
+    Objects.requireNonNull(entity).getPositionComponent().setPosition(position);
 
-  private void detachEntity(Entity entity) {
-    PlayerStorage storage = getPlayerStorage(entity.getOwnerComponent().getOwner());
+    EntityStorage storage = getPlayerStorage(entity.getOwnerComponent().getOwner());
 
-    storage.removeEntity(entity);
+    if (storage != null && storage.updatePosition(entity)) {
+      globalStorage.updatePosition(entity);
+    }
   }
 
-  private PlayerStorage createOrGetPlayerStorage(Player player) {
-    PlayerStorage storage = playerMap.get(player.getUsername());
+  private void manageEntity(Entity entity) {
+    EntityStorage storage = createOrGetPlayerStorage(entity.getOwnerComponent().getOwner());
 
-    if (storage == null) {
-      storage = new PlayerStorage();
+    if (storage.storeEntity(entity)) {
+      globalStorage.storeEntity(entity);
+    }
+  }
 
-      playerMap.put(player.getUsername(), storage);
+  private void detachEntity(Entity entity) {
+    EntityStorage storage = getPlayerStorage(entity.getOwnerComponent().getOwner());
 
-      logger.info("New PlayerStorage initialized for {}", player);
+    if (storage != null && storage.removeEntity(entity)) {
+      globalStorage.removeEntity(entity);
     }
+  }
+
+  private EntityStorage createOrGetPlayerStorage(Player player) {
+    return playerMap.computeIfAbsent(player.getUsername(), username -> {
+      logger.info("New EntityStorage initialized for {}", player);
 
-    return storage;
+      return new EntityStorage(chunkSize);
+    });
   }
 
-  private PlayerStorage getPlayerStorage(Player player) {
+  private EntityStorage getPlayerStorage(Player player) {
     return playerMap.get(player.getUsername());
   }
 
   private Collection<Entity> executeQuery(Query query) {
-    PlayerStorage storage = createOrGetPlayerStorage(query.playerSelector);
+    if (query.ownerFilter != OwnerFilter.OWNED_BY) {
+      return globalStorage.executeQuery(query);
+    }
+
+    /*
+     * Querying must not modify the manager, so no storage is created for unknown players.
+     */
+    EntityStorage storage = getPlayerStorage(query.playerSelector);
+
+    if (storage == null) {
+      return Collections.emptyList();
+    }
 
     return storage.executeQuery(query);
   }
 
+  /**
+   * The possible ways of filtering by owner.
+   */
+  private enum OwnerFilter {
+    OWNED_BY, ANY, EXCEPT
+  }
+
   public static class Query implements EntityManager.Query {
     private final EntityManagerImpl entityManager;
 
     private Player playerSelector;
 
+    private OwnerFilter ownerFilter;
+
     private Category categorySelector;
 
     private final List<Predicate<Entity>> predicateList;
 
+    private boolean areaSelected;
+
+    private int northLimit;
+
+    private int westLimit;
+
+    private int southLimit;
+
+    private int eastLimit;
+
     private Query(EntityManagerImpl entityManager) {
       this.entityManager = entityManager;
 
       playerSelector = null;
 
+      ownerFilter = null;
+
       categorySelector = null;
 
       predicateList = new ArrayList<>();
+
+      areaSelected = false;
     }
 
     @Override
     public EntityManager.Query ofPlayer(Player player) {
       playerSelector = Objects.requireNonNull(player);
 
+      ownerFilter = OwnerFilter.OWNED_BY;
+
+      return this;
+    }
+
+    @Override
+    public EntityManager.Query ofAnyPlayer() {
+      playerSelector = null;
+
+      ownerFilter = OwnerFilter.ANY;
+
+      return this;
+    }
+
+    @Override
+    public EntityManager.Query exceptPlayer(Player player) {
+      playerSelector = Objects.requireNonNull(player);
+
+      ownerFilter = OwnerFilter.EXCEPT;
+
       return this;
     }
 
@@ -119,70 +227,210 @@ public class EntityManagerImpl implements EntityManager {
       return this;
     }
 
+    @Override
+    public EntityManager.Query withinRadius(Position center, int radius) {
+      Objects.requireNonNull(center);
+
+      if (radius < 0) {
+        throw new IllegalArgumentException("Radius cannot be negative!");
+      }
+
+      return selectArea(center.getH() - radius, center.getW() - radius, center.getH() + radius,
+          center.getW() + radius);
+    }
+
+    @Override
+    public EntityManager.Query inBox(Position corner, Position oppositeCorner) {
+      Objects.requireNonNull(corner);
+      Objects.requireNonNull(oppositeCorner);
+
+      return selectArea(Math.min(corner.getH(), oppositeCorner.getH()),
+          Math.min(corner.getW(), oppositeCorner.getW()),
+          Math.max(corner.getH(), oppositeCorner.getH()),
+          Math.max(corner.getW(), oppositeCorner.getW()));
+    }
+
     @Override
     public Collection<Entity> execute() {
-      if (playerSelector == null || categorySelector == null) {
+      if (ownerFilter == null || categorySelector == null) {
         throw new IllegalStateException("Player and Category selectors cannot be omitted!");
       }
 
       return entityManager.executeQuery(this);
     }
-  }
 
-  private static class PlayerStorage {
-    private final Map<Category, List<Entity>> entityMap;
+    private EntityManager.Query selectArea(int northLimit, int westLimit, int southLimit,
+                                           int eastLimit) {
+      this.areaSelected = true;
+
+      this.northLimit = northLimit;
+
+      this.westLimit = westLimit;
+
+      this.southLimit = southLimit;
+
+      this.eastLimit = eastLimit;
+
+      return this;
+    }
+
+    private boolean matches(Entity entity) {
+      return matchOwner(entity) && matchArea(entity) && matchPredicates(entity);
+    }
+
+    private boolean matchOwner(Entity entity) {
+      /*
+       * Entities of other players are never stored together with the entities of the selected
+       * player, so only the exclusion has to be checked.
+       */
+      if (ownerFilter != OwnerFilter.EXCEPT) {
+        return true;
+      }
+
+      String ownerName = entity.getOwnerComponent().getOwner().getUsername();
+
+      return !playerSelector.getUsername().equals(ownerName);
+    }
+
+    private boolean matchPredicates(Entity entity) {
+      for (Predicate<Entity> predicate : predicateList) {
+        if (!predicate.test(entity)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    private boolean matchArea(Entity entity) {
+      if (!areaSelected) {
+        return true;
+      }
+
+      Position position = entity.getPositionComponent().getPosition();
 
-    private PlayerStorage() {
+      return position != null
+          && position.getH() >= northLimit && position.getH() <= southLimit
+          && position.getW() >= westLimit && position.getW() <= eastLimit;
+    }
+  }
+
+  /**
+   * Storage of entities grouped by {@link Category}.
+   */
+  private static class EntityStorage {
+    /**
+     * The entities of the categories. {@code Entity} does not override {@code equals}, so the sets
+     * compare the entities by identity.
+     */
+    private final Map<Category, Collection<Entity>> entityMap;
+
+    /**
+     * The spatial indices of the categories, empty if no indices are maintained.
+     */
+    private final Map<Category, SpatialIndex> indexMap;
+
+    private EntityStorage(int chunkSize) {
       this.entityMap = new EnumMap<>(Category.class);
 
+      this.indexMap = new EnumMap<>(Category.class);
+
       for (Category category : Category.values()) {
-        entityMap.put(category, new LinkedList<>());
+        entityMap.put(category, new LinkedHashSet<>());
+
+        if (chunkSize > 0) {
+          indexMap.put(category, new SpatialIndex(chunkSize));
+        }
       }
     }
 
-    private void storeEntity(Entity entity) {
-      List<Entity> entities = entityMap.get(entity.getTypeComponent().getCategory());
+    /**
+     * Stores the {@code Entity}.
+     * @param entity the {@code Entity} to store
+     * @return {@code true} if the {@code Entity} was not stored before, {@code false} otherwise
+     */
+    private boolean storeEntity(Entity entity) {
+      Category category = entity.getTypeComponent().getCategory();
 
-      if (entities != null) {
-        entities.add(entity);
+      if (!entityMap.get(category).add(entity)) {
+        return false;
       }
-    }
 
-    private void removeEntity(Entity entity) {
-      List<Entity> entities = entityMap.get(entity.getTypeComponent().getCategory());
+      SpatialIndex index = indexMap.get(category);
 
-      if (entities != null) {
-        entities.remove(entity);
+      if (index != null) {
+        index.put(entity, entity.getPositionComponent().getPosition());
       }
+
+      return true;
     }
 
-    private List<Entity> executeQuery(Query query) {
-      // Always non-null - hopefully
-      List<Entity> entities = entityMap.get(query.categorySelector);
+    /**
+     * Removes the {@code Entity}.
+     * @param entity the {@code Entity} to remove
+     * @return {@code true} if the {@code Entity} was stored, {@code false} otherwise
+     */
+    private boolean removeEntity(Entity entity) {
+      Category category = entity.getTypeComponent().getCategory();
+
+      if (!entityMap.get(category).remove(entity)) {
+        return false;
+      }
+
+      SpatialIndex index = indexMap.get(category);
+
+      if (index != null) {
+        index.remove(entity);
+      }
 
-      return filterEntities(entities, query);
+      return true;
     }
 
-    private List<Entity> filterEntities(List<Entity> entities, Query query) {
-      List<Entity> results = new LinkedList<>();
+    /**
+     * Updates the spatial index after the {@code Entity} has been moved.
+     * @param entity the moved {@code Entity}
+     * @return {@code true} if the {@code Entity} is stored, {@code false} otherwise
+     */
+    private boolean updatePosition(Entity entity) {
+      Category category = entity.getTypeComponent().getCategory();
+
+      /*
+       * Only stored entities can be put in the index.
+       */
+      if (!entityMap.get(category).contains(entity)) {
+        return false;
+      }
 
-      for (Entity entity : entities) {
-        if (matchPredicates(entity, query.predicateList)) {
-          results.add(entity);
-        }
+      SpatialIndex index = indexMap.get(category);
+
+      if (index != null) {
+        index.put(entity, entity.getPositionComponent().getPosition());
       }
 
-      return results;
+      return true;
     }
 
-    private boolean matchPredicates(Entity entity, List<Predicate<Entity>> predicateList) {
-      for (Predicate<Entity> predicate : predicateList) {
-        if (!predicate.test(entity)) {
-          return false;
+    private List<Entity> executeQuery(Query query) {
+      List<Entity> results = new LinkedList<>();
+
+      SpatialIndex index = indexMap.get(query.categorySelector);
+
+      if (query.areaSelected && index != null) {
+        index.forEachCandidate(query.northLimit, query.westLimit, query.southLimit,
+            query.eastLimit, entity -> {
+              if (query.matches(entity)) {
+                results.add(entity);
+              }
+            });
+      } else {
+        for (Entity entity : entityMap.get(query.categorySelector)) {
+          if (query.matches(entity)) {
+            results.add(entity);
+          }
         }
       }
 
-      return true;
+      return results;
     }
   }
 }
@@ -0,0 +1,163 @@
+package io.infectnet.server.engine.core.entity;
+
+import io.infectnet.server.engine.core.world.Position;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid of {@link Entity} instances. The world is divided into square chunks of the same
+ * size, and every {@code Entity} is stored in the bucket of the chunk containing its
+ * {@link Position}. Finding the entities in an area therefore only needs to visit the chunks
+ * overlapping the area.
+ * <p>
+ * The index remembers the chunk of every stored {@code Entity}, so it can be updated even if the
+ * {@code Position} of the {@code Entity} has already been changed.
+ * </p>
+ */
+class SpatialIndex {
+  private final int chunkSize;
+
+  private final Map<Long, List<Entity>> buckets;
+
+  /**
+   * The chunk key of every stored {@code Entity}. {@code Entity} does not override
+   * {@code equals}, so the entities are compared by identity.
+   */
+  private final Map<Entity, Long> chunkKeys;
+
+  /**
+   * Constructs a new, empty index.
+   * @param chunkSize the length of the side of a chunk, measured in tiles
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  SpatialIndex(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive!");
+    }
+
+    this.chunkSize = chunkSize;
+
+    this.buckets = new HashMap<>();
+
+    this.chunkKeys = new HashMap<>();
+  }
+
+  /**
+   * Stores the {@code Entity} in the chunk of the specified {@code Position}. If the
+   * {@code Entity} is already stored, it's moved to the new chunk.
+   * @param entity the {@code Entity} to store
+   * @param position the {@code Position} of the {@code Entity}, {@code null} if it is not placed
+   * in the world, in which case the {@code Entity} is not stored
+   */
+  void put(Entity entity, Position position) {
+    if (position == null) {
+      remove(entity);
+
+      return;
+    }
+
+    long key = chunkKey(chunkOf(position.getH()), chunkOf(position.getW()));
+
+    Long previousKey = chunkKeys.put(entity, key);
+
+    if (previousKey != null) {
+      if (previousKey == key) {
+        return;
+      }
+
+      removeFromBucket(entity, previousKey);
+    }
+
+    buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(entity);
+  }
+
+  /**
+   * Removes the {@code Entity} from the index. Does nothing if the {@code Entity} is not stored.
+   * @param entity the {@code Entity} to remove
+   */
+  void remove(Entity entity) {
+    Long key = chunkKeys.remove(entity);
+
+    if (key != null) {
+      removeFromBucket(entity, key);
+    }
+  }
+
+  /**
+   * Checks whether the {@code Entity} is stored in the index.
+   * @param entity the {@code Entity} to look for
+   * @return {@code true} if the {@code Entity} is stored, {@code false} otherwise
+   */
+  boolean contains(Entity entity) {
+    return chunkKeys.containsKey(entity);
+  }
+
+  /**
+   * Passes every {@code Entity} stored in a chunk overlapping the specified box to the consumer.
+   * The consumer may receive entities outside of the box, but never misses one inside it. The box
+   * is inclusive on all sides.
+   * @param minH the northern limit of the box
+   * @param minW the western limit of the box
+   * @param maxH the southern limit of the box
+   * @param maxW the eastern limit of the box
+   * @param consumer the consumer of the candidates
+   */
+  void forEachCandidate(int minH, int minW, int maxH, int maxW, Consumer<Entity> consumer) {
+    int minChunkH = chunkOf(minH);
+    int minChunkW = chunkOf(minW);
+    int maxChunkH = chunkOf(maxH);
+    int maxChunkW = chunkOf(maxW);
+
+    long overlappedChunks =
+        ((long) maxChunkH - minChunkH + 1) * ((long) maxChunkW - minChunkW + 1);
+
+    if (overlappedChunks > buckets.size()) {
+      /*
+       * The box is larger than the populated part of the grid, it's cheaper to check the buckets.
+       */
+      for (Map.Entry<Long, List<Entity>> bucket : buckets.entrySet()) {
+        int chunkH = (int) (bucket.getKey() >> 32);
+        int chunkW = bucket.getKey().intValue();
+
+        if (chunkH >= minChunkH && chunkH <= maxChunkH && chunkW >= minChunkW
+            && chunkW <= maxChunkW) {
+          bucket.getValue().forEach(consumer);
+        }
+      }
+    } else {
+      for (int chunkH = minChunkH; chunkH <= maxChunkH; ++chunkH) {
+        for (int chunkW = minChunkW; chunkW <= maxChunkW; ++chunkW) {
+          List<Entity> bucket = buckets.get(chunkKey(chunkH, chunkW));
+
+          if (bucket != null) {
+            bucket.forEach(consumer);
+          }
+        }
+      }
+    }
+  }
+
+  private void removeFromBucket(Entity entity, long key) {
+    List<Entity> bucket = buckets.get(key);
+
+    if (bucket != null) {
+      bucket.remove(entity);
+
+      if (bucket.isEmpty()) {
+        buckets.remove(key);
+      }
+    }
+  }
+
+  private int chunkOf(int coordinate) {
+    return Math.floorDiv(coordinate, chunkSize);
+  }
+
+  private static long chunkKey(int chunkH, int chunkW) {
+    return ((long) chunkH << 32) | (chunkW & 0xFFFFFFFFL);
+  }
+}
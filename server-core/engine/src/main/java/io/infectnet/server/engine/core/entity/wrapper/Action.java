@@ -2,23 +2,34 @@ package io.infectnet.server.engine.core.entity.wrapper;
 
 
 import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.util.ClassIndex;
+import io.infectnet.server.engine.core.util.ClassIndexed;
 
 /**
  * Class that represents an action coming from the player code. Methods called on wrappers can
  * produce {@code Action}s that can be propagated to the engine which in turn executes them.
  */
-public abstract class Action {
+public abstract class Action implements ClassIndexed {
   private final Entity source;
 
+  private final int classIndex;
+
   /**
    * Constructs an {@code Action} initiated by the specified {@code Entity}
    * @param source the {@code Entity} that initiated the {@code Action}
    */
   public Action(Entity source) {
     this.source = source;
+
+    this.classIndex = ClassIndex.of(getClass());
   }
 
   public Entity getSource() {
     return source;
   }
+
+  @Override
+  public int getClassIndex() {
+    return classIndex;
+  }
 }
@@ -2,6 +2,7 @@ package io.infectnet.server.engine.core.entity.wrapper;
 
 import io.infectnet.server.engine.core.entity.Category;
 import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget;
 import io.infectnet.server.engine.core.world.Position;
 
 import java.util.function.BiConsumer;
@@ -10,6 +11,10 @@ import java.util.function.BiConsumer;
  * Wrapper (or proxy class) for {@link Entity} in order to make it safe to expose them to
  * Groovy DSL code.
  * <p>
+ * The getters check {@link ExecutionBudget#checkAccess()}, so player code whose execution has been
+ * revoked cannot read the state of the world.
+ * </p>
+ * <p>
  * Descendants of this class <b>must</b> be written in Groovy so they can implement traits and
  * have meta class.
  * </p>
@@ -48,6 +53,8 @@ public abstract class EntityWrapper {
    * @return the type name
    */
   public String getType() {
+    ExecutionBudget.checkAccess();
+
     return wrappedEntity.getTypeComponent().getName();
   }
 
@@ -56,6 +63,8 @@ public abstract class EntityWrapper {
    * @return the category
    */
   public Category getCategory() {
+    ExecutionBudget.checkAccess();
+
     return wrappedEntity.getTypeComponent().getCategory();
   }
 
@@ -64,6 +73,8 @@ public abstract class EntityWrapper {
    * @return the owner's name
    */
   public String getOwnerName() {
+    ExecutionBudget.checkAccess();
+
     return wrappedEntity.getOwnerComponent().getOwner().getUsername();
   }
 
@@ -72,6 +83,8 @@ public abstract class EntityWrapper {
    * @return the current position
    */
   public Position getPosition() {
+    ExecutionBudget.checkAccess();
+
     return wrappedEntity.getPositionComponent().getPosition();
   }
 
@@ -80,6 +93,8 @@ public abstract class EntityWrapper {
    * @return the current health
    */
   public int getHealth() {
+    ExecutionBudget.checkAccess();
+
     return wrappedEntity.getHealthComponent().getHealth();
   }
 
@@ -88,6 +103,8 @@ public abstract class EntityWrapper {
    * @return the view radius
    */
   public int getViewRadius() {
+    ExecutionBudget.checkAccess();
+
     return wrappedEntity.getViewComponent().getViewRadius();
   }
 
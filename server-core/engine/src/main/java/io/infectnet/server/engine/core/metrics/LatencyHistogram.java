@@ -0,0 +1,153 @@
+package io.infectnet.server.engine.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations, with buckets laid out like in an HDR histogram.
+ * <p>
+ * Every power of two is split into {@code 32} linear sub-buckets, so a value is reported with an
+ * error of at most about three percent, whatever its magnitude. Values up to {@code 2^40}
+ * nanoseconds, that is about eighteen minutes, are told apart, larger ones share the last bucket.
+ * Recording a value increments a single atomic counter, so any number of threads may record
+ * concurrently without blocking each other, and the histogram may be read while being recorded
+ * into. A read is not an atomic snapshot though, values recorded during the read may or may not be
+ * taken into account.
+ * </p>
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  private static final int HIGHEST_TRACKABLE_BITS = 40;
+
+  private static final long HIGHEST_TRACKABLE_VALUE = (1L << HIGHEST_TRACKABLE_BITS) - 1;
+
+  /**
+   * The values below {@code 2 * SUB_BUCKET_COUNT} have their own buckets, and every further power
+   * of two has {@code SUB_BUCKET_COUNT} buckets.
+   */
+  private static final int BUCKET_COUNT =
+      (HIGHEST_TRACKABLE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts;
+
+  private final LongAdder total;
+
+  private final LongAccumulator max;
+
+  /**
+   * Creates a new empty histogram.
+   */
+  public LatencyHistogram() {
+    this.counts = new AtomicLongArray(BUCKET_COUNT);
+
+    this.total = new LongAdder();
+
+    this.max = new LongAccumulator(Math::max, 0L);
+  }
+
+  /**
+   * Records a value, negative values are recorded as zero.
+   * @param value the value to record, usually a duration in nanoseconds
+   */
+  public void record(long value) {
+    long recorded = Math.max(0L, value);
+
+    counts.incrementAndGet(bucketIndex(Math.min(recorded, HIGHEST_TRACKABLE_VALUE)));
+
+    total.add(recorded);
+
+    max.accumulate(recorded);
+  }
+
+  /**
+   * Gets the number of recorded values.
+   * @return the number of values
+   */
+  public long getCount() {
+    long count = 0L;
+
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      count += counts.get(i);
+    }
+
+    return count;
+  }
+
+  /**
+   * Gets the sum of the recorded values.
+   * @return the sum of the values
+   */
+  public long getTotal() {
+    return total.sum();
+  }
+
+  /**
+   * Gets the largest recorded value.
+   * @return the largest value, {@code 0} if no value has been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Gets the value below which the specified percentage of the recorded values fall.
+   * @param percentile the percentage, between {@code 0} and {@code 100}
+   * @return the highest value equivalent to the one at the percentile, but never more than the
+   * largest recorded value, {@code 0} if no value has been recorded
+   * @throws IllegalArgumentException if the percentage is out of range
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100!");
+    }
+
+    long[] snapshot = new long[BUCKET_COUNT];
+
+    long count = 0L;
+
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      snapshot[i] = counts.get(i);
+
+      count += snapshot[i];
+    }
+
+    if (count == 0L) {
+      return 0L;
+    }
+
+    /* The rank of the value, counted from one, with the nearest-rank method. */
+    long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+
+    long seen = 0L;
+
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      seen += snapshot[i];
+
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(i), getMax());
+      }
+    }
+
+    return getMax();
+  }
+
+  private static int bucketIndex(long value) {
+    int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1);
+
+    /* The value shifted by its magnitude is always in [SUB_BUCKET_COUNT, 2 * SUB_BUCKET_COUNT),
+       apart from the smallest values, which are not shifted at all. */
+    return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  private static long highestEquivalentValue(int index) {
+    int shift = Math.max(0, (index >>> SUB_BUCKET_BITS) - 1);
+
+    long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,36 @@
+package io.infectnet.server.engine.core.metrics;
+
+/**
+ * The costs of a single execution of a player script, as recorded by the {@link ScriptProfiler}.
+ */
+public enum ScriptCost {
+  /**
+   * The wall-clock time of the script in nanoseconds.
+   */
+  WALL_TIME,
+
+  /**
+   * The CPU time of the script in nanoseconds, zero if the JVM cannot measure it.
+   */
+  CPU_TIME,
+
+  /**
+   * The bytes allocated by the script, zero if the JVM cannot measure them.
+   */
+  ALLOCATED_BYTES,
+
+  /**
+   * The number of {@code Action}s emitted by the script.
+   */
+  ACTIONS,
+
+  /**
+   * The number of {@code Selector} calls made by the script.
+   */
+  SELECTOR_CALLS,
+
+  /**
+   * The number of paths looked up for the movements the script has ordered.
+   */
+  PATH_FINDING_REQUESTS
+}
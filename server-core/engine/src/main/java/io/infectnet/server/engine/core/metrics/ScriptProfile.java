@@ -0,0 +1,73 @@
+package io.infectnet.server.engine.core.metrics;
+
+import java.util.Objects;
+
+/**
+ * The costs of the recent executions of the script of a player, summarized when the profile was
+ * taken. Instances are immutable.
+ */
+public class ScriptProfile {
+  /**
+   * The profile of a script that has not been executed yet.
+   */
+  public static final ScriptProfile EMPTY = new ScriptProfile(0,
+      new long[ScriptCost.values().length], new long[ScriptCost.values().length]);
+
+  private final int executionCount;
+
+  private final long[] totals;
+
+  private final long[] maxima;
+
+  /**
+   * Creates a new profile.
+   * @param executionCount the number of executions summarized
+   * @param totals the sums of the costs, indexed by the ordinal of the {@link ScriptCost}
+   * @param maxima the maxima of the costs, indexed by the ordinal of the {@link ScriptCost}
+   */
+  ScriptProfile(int executionCount, long[] totals, long[] maxima) {
+    this.executionCount = executionCount;
+
+    this.totals = totals;
+
+    this.maxima = maxima;
+  }
+
+  /**
+   * Gets the number of executions summarized by the profile.
+   * @return the number of executions
+   */
+  public int getExecutionCount() {
+    return executionCount;
+  }
+
+  /**
+   * Gets the sum of a cost over the executions.
+   * @param cost the cost
+   * @return the sum
+   * @throws NullPointerException if the cost is {@code null}
+   */
+  public long getTotal(ScriptCost cost) {
+    return totals[Objects.requireNonNull(cost).ordinal()];
+  }
+
+  /**
+   * Gets the mean of a cost over the executions.
+   * @param cost the cost
+   * @return the mean, {@code 0} if there are no executions
+   * @throws NullPointerException if the cost is {@code null}
+   */
+  public double getMean(ScriptCost cost) {
+    return executionCount == 0 ? 0.0 : (double) getTotal(cost) / executionCount;
+  }
+
+  /**
+   * Gets the largest cost of a single execution.
+   * @param cost the cost
+   * @return the maximum
+   * @throws NullPointerException if the cost is {@code null}
+   */
+  public long getMax(ScriptCost cost) {
+    return maxima[Objects.requireNonNull(cost).ordinal()];
+  }
+}
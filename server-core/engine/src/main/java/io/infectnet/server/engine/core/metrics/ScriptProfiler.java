@@ -0,0 +1,181 @@
+package io.infectnet.server.engine.core.metrics;
+
+import io.infectnet.server.engine.core.player.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Attributes the costs of the game loop to the scripts of the players. The costs of the last few
+ * executions of every script are kept in a rolling window, so the profiles show how the scripts
+ * behave now rather than since the engine has started.
+ * <p>
+ * The costs measured while a script runs are recorded when the execution has finished. The path
+ * finding requests are only made later in the tick, when the {@code Action}s of the script are
+ * processed, therefore they are added to the last execution of the owner.
+ * </p>
+ */
+public class ScriptProfiler {
+  private static final int COST_COUNT = ScriptCost.values().length;
+
+  private final int windowSize;
+
+  private final ConcurrentMap<String, Window> windows;
+
+  /**
+   * Creates a new instance without any executions.
+   * @param windowSize the number of the last executions profiled for every player
+   * @throws IllegalArgumentException if the window size is not positive
+   */
+  public ScriptProfiler(int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("The window size must be positive!");
+    }
+
+    this.windowSize = windowSize;
+
+    this.windows = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Records a finished execution of the script of a player. May be called by several threads at
+   * once.
+   * @param owner the owner of the script
+   * @param wallTime the wall-clock time of the execution in nanoseconds
+   * @param cpuTime the CPU time of the execution in nanoseconds
+   * @param allocatedBytes the bytes allocated by the execution
+   * @param actionCount the number of {@code Action}s emitted
+   * @param selectorCallCount the number of {@code Selector} calls made
+   */
+  public void scriptExecuted(Player owner, long wallTime, long cpuTime, long allocatedBytes,
+                             int actionCount, int selectorCallCount) {
+    windowOf(owner).add(wallTime, cpuTime, allocatedBytes, actionCount, selectorCallCount);
+  }
+
+  /**
+   * Records that a path has been looked up for an {@code Entity} of a player. The request is added
+   * to the last execution of the script of the player, and ignored if there is none.
+   * @param owner the owner of the moving {@code Entity}
+   */
+  public void pathFindingRequested(Player owner) {
+    Window window = windows.get(owner.getUsername());
+
+    if (window != null) {
+      window.addToLast(ScriptCost.PATH_FINDING_REQUESTS, 1L);
+    }
+  }
+
+  /**
+   * Forgets the executions of the script of a player, so the windows of the departed players are
+   * not kept forever. The executions are profiled from scratch if the script of the player runs
+   * again.
+   * @param player the departed player
+   */
+  public void removePlayer(Player player) {
+    windows.remove(player.getUsername());
+  }
+
+  /**
+   * Gets the profile of the script of a player.
+   * @param username the name of the player
+   * @return the profile of the last executions, or an empty {@code Optional} if the script of the
+   * player has not been executed yet
+   */
+  public Optional<ScriptProfile> getProfile(String username) {
+    return Optional.ofNullable(windows.get(username)).map(Window::summarize);
+  }
+
+  /**
+   * Gets the profiles of the scripts of every player.
+   * @return the profiles of the last executions by the names of the players
+   */
+  public Map<String, ScriptProfile> getProfiles() {
+    Map<String, ScriptProfile> profiles = new HashMap<>();
+
+    windows.forEach((username, window) -> profiles.put(username, window.summarize()));
+
+    return profiles;
+  }
+
+  /**
+   * Gets the number of the last executions profiled for every player.
+   * @return the size of the window
+   */
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  private Window windowOf(Player owner) {
+    /* Looking up first, as computeIfAbsent may lock even if the key is present. */
+    Window window = windows.get(owner.getUsername());
+
+    if (window == null) {
+      window = windows.computeIfAbsent(owner.getUsername(), username -> new Window(windowSize));
+    }
+
+    return window;
+  }
+
+  /**
+   * The costs of the last executions of a script in a ring buffer. The script runner thread, the
+   * game loop and the readers of the profiles access it one after the other, so locking it is
+   * practically never contended.
+   */
+  private static class Window {
+    /**
+     * The costs of the executions, indexed by the ordinal of the cost and the slot of the
+     * execution.
+     */
+    private final long[][] costs;
+
+    private int last;
+
+    private int count;
+
+    private Window(int size) {
+      this.costs = new long[COST_COUNT][size];
+
+      this.last = -1;
+
+      this.count = 0;
+    }
+
+    private synchronized void add(long wallTime, long cpuTime, long allocatedBytes,
+                                  int actionCount, int selectorCallCount) {
+      last = (last + 1) % costs[0].length;
+
+      count = Math.min(count + 1, costs[0].length);
+
+      costs[ScriptCost.WALL_TIME.ordinal()][last] = wallTime;
+      costs[ScriptCost.CPU_TIME.ordinal()][last] = cpuTime;
+      costs[ScriptCost.ALLOCATED_BYTES.ordinal()][last] = allocatedBytes;
+      costs[ScriptCost.ACTIONS.ordinal()][last] = actionCount;
+      costs[ScriptCost.SELECTOR_CALLS.ordinal()][last] = selectorCallCount;
+      costs[ScriptCost.PATH_FINDING_REQUESTS.ordinal()][last] = 0L;
+    }
+
+    private synchronized void addToLast(ScriptCost cost, long value) {
+      costs[cost.ordinal()][last] += value;
+    }
+
+    private synchronized ScriptProfile summarize() {
+      long[] totals = new long[COST_COUNT];
+
+      long[] maxima = new long[COST_COUNT];
+
+      for (int cost = 0; cost < COST_COUNT; ++cost) {
+        /* The slots not written yet hold zeros, so they change neither the sums nor the maxima. */
+        for (long value : costs[cost]) {
+          totals[cost] += value;
+
+          maxima[cost] = Math.max(maxima[cost], value);
+        }
+      }
+
+      return new ScriptProfile(count, totals, maxima);
+    }
+  }
+}
@@ -0,0 +1,301 @@
+package io.infectnet.server.engine.core.metrics;
+
+import io.infectnet.server.engine.core.TickPhase;
+import io.infectnet.server.engine.core.TickTimings;
+import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.player.Player;
+import io.infectnet.server.engine.core.script.Request;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The measurements of the game loop since the engine has started: the durations of the phases of
+ * the ticks, the script time of every player, the processing time of every kind of {@link Action}
+ * and {@link Request}, the scheduling lag and jitter of the ticks, and counters of the processed
+ * elements, the overrun and skipped ticks and the shed status publishes.
+ * <p>
+ * Every duration is recorded into a {@link LatencyHistogram} in nanoseconds. Recording never
+ * blocks, so the scripts running in parallel can record their durations, and the metrics can be
+ * read by other threads while the game loop is running.
+ * </p>
+ */
+public class TickMetrics {
+  private final Map<TickPhase, LatencyHistogram> phaseDurations;
+
+  private final LatencyHistogram tickDurations;
+
+  /**
+   * The time between the moment a tick should have started and the moment it started.
+   */
+  private final LatencyHistogram schedulingLag;
+
+  /**
+   * The difference between the time elapsed since the start of the previous tick and the desired
+   * tick duration.
+   */
+  private final LatencyHistogram tickJitter;
+
+  private final ConcurrentMap<String, LatencyHistogram> scriptDurations;
+
+  private final ConcurrentMap<Class<?>, LatencyHistogram> actionDurations;
+
+  private final ConcurrentMap<Class<?>, LatencyHistogram> requestDurations;
+
+  private final LongAdder overrunTickCount;
+
+  private final LongAdder skippedTickCount;
+
+  private final LongAdder shedPublishCount;
+
+  /**
+   * Creates a new instance without any measurements.
+   */
+  public TickMetrics() {
+    this.phaseDurations = new EnumMap<>(TickPhase.class);
+
+    for (TickPhase phase : TickPhase.values()) {
+      phaseDurations.put(phase, new LatencyHistogram());
+    }
+
+    this.tickDurations = new LatencyHistogram();
+
+    this.schedulingLag = new LatencyHistogram();
+
+    this.tickJitter = new LatencyHistogram();
+
+    this.scriptDurations = new ConcurrentHashMap<>();
+
+    this.actionDurations = new ConcurrentHashMap<>();
+
+    this.requestDurations = new ConcurrentHashMap<>();
+
+    this.overrunTickCount = new LongAdder();
+
+    this.skippedTickCount = new LongAdder();
+
+    this.shedPublishCount = new LongAdder();
+  }
+
+  /**
+   * Records the durations of a finished tick and of its phases.
+   * @param timings the timings of the tick
+   */
+  public void tickFinished(TickTimings timings) {
+    for (TickPhase phase : TickPhase.values()) {
+      phaseDurations.get(phase).record(timings.getPhaseDuration(phase));
+    }
+
+    tickDurations.record(timings.getDuration());
+  }
+
+  /**
+   * Records that a tick has not finished before the next tick was due to start.
+   */
+  public void tickOverrun() {
+    overrunTickCount.increment();
+  }
+
+  /**
+   * Records that ticks have been dropped to get the game loop back on schedule.
+   * @param count the number of dropped ticks
+   */
+  public void ticksSkipped(long count) {
+    skippedTickCount.add(count);
+  }
+
+  /**
+   * Records that a tick has not published the status, because the game loop was behind schedule.
+   */
+  public void publishShed() {
+    shedPublishCount.increment();
+  }
+
+  /**
+   * Records how late a tick has started.
+   * @param lag the time between the scheduled and the actual start in nanoseconds
+   */
+  public void tickStarted(long lag) {
+    schedulingLag.record(lag);
+  }
+
+  /**
+   * Records how much the time between the starts of two ticks differed from the desired tick
+   * duration.
+   * @param jitter the absolute difference in nanoseconds
+   */
+  public void tickJitter(long jitter) {
+    tickJitter.record(jitter);
+  }
+
+  /**
+   * Records the time the script of a player took. May be called by several threads at once.
+   * @param player the owner of the script
+   * @param duration the wall-clock time of the script in nanoseconds
+   */
+  public void scriptExecuted(Player player, long duration) {
+    histogramOf(scriptDurations, player.getUsername()).record(duration);
+  }
+
+  /**
+   * Forgets the script durations of a player, so the histograms of the departed players are not
+   * kept forever. The durations are recorded from scratch if the script of the player runs again.
+   * @param player the departed player
+   */
+  public void removePlayer(Player player) {
+    scriptDurations.remove(player.getUsername());
+  }
+
+  /**
+   * Records the time the listeners of an {@code Action} took.
+   * @param action the processed {@code Action}
+   * @param duration the processing time in nanoseconds
+   */
+  public void actionProcessed(Action action, long duration) {
+    histogramOf(actionDurations, action.getClass()).record(duration);
+  }
+
+  /**
+   * Records the time the listeners of a {@code Request} took.
+   * @param request the processed {@code Request}
+   * @param duration the processing time in nanoseconds
+   */
+  public void requestProcessed(Request request, long duration) {
+    histogramOf(requestDurations, request.getClass()).record(duration);
+  }
+
+  /**
+   * Gets the durations of a phase of the ticks.
+   * @param phase the phase
+   * @return the histogram of the durations in nanoseconds
+   * @throws NullPointerException if the phase is {@code null}
+   */
+  public LatencyHistogram getPhaseDurations(TickPhase phase) {
+    return phaseDurations.get(Objects.requireNonNull(phase));
+  }
+
+  /**
+   * Gets the durations of the whole ticks.
+   * @return the histogram of the durations in nanoseconds
+   */
+  public LatencyHistogram getTickDurations() {
+    return tickDurations;
+  }
+
+  /**
+   * Gets how late the ticks have started compared to their schedule.
+   * @return the histogram of the lags in nanoseconds
+   */
+  public LatencyHistogram getSchedulingLag() {
+    return schedulingLag;
+  }
+
+  /**
+   * Gets how much the periods of the ticks have differed from the desired tick duration.
+   * @return the histogram of the jitter in nanoseconds
+   */
+  public LatencyHistogram getTickJitter() {
+    return tickJitter;
+  }
+
+  /**
+   * Gets the script durations of the players.
+   * @return an unmodifiable view of the histograms by the names of the players
+   */
+  public Map<String, LatencyHistogram> getScriptDurations() {
+    return Collections.unmodifiableMap(scriptDurations);
+  }
+
+  /**
+   * Gets the processing times of the kinds of {@code Action}s. The count of a histogram is the
+   * number of processed {@code Action}s of its kind.
+   * @return an unmodifiable view of the histograms by the classes of the {@code Action}s
+   */
+  public Map<Class<?>, LatencyHistogram> getActionDurations() {
+    return Collections.unmodifiableMap(actionDurations);
+  }
+
+  /**
+   * Gets the processing times of the kinds of {@code Request}s. The count of a histogram is the
+   * number of processed {@code Request}s of its kind.
+   * @return an unmodifiable view of the histograms by the classes of the {@code Request}s
+   */
+  public Map<Class<?>, LatencyHistogram> getRequestDurations() {
+    return Collections.unmodifiableMap(requestDurations);
+  }
+
+  /**
+   * Gets the number of finished ticks.
+   * @return the number of ticks
+   */
+  public long getTickCount() {
+    return tickDurations.getCount();
+  }
+
+  /**
+   * Gets the number of ticks that have not finished before the next tick was due to start.
+   * @return the number of overrun ticks
+   */
+  public long getOverrunTickCount() {
+    return overrunTickCount.sum();
+  }
+
+  /**
+   * Gets the number of ticks dropped to get the game loop back on schedule.
+   * @return the number of skipped ticks
+   */
+  public long getSkippedTickCount() {
+    return skippedTickCount.sum();
+  }
+
+  /**
+   * Gets the number of ticks that have not published the status to get back on schedule.
+   * @return the number of shed publishes
+   */
+  public long getShedPublishCount() {
+    return shedPublishCount.sum();
+  }
+
+  /**
+   * Gets the number of processed {@code Action}s of every kind.
+   * @return the number of {@code Action}s
+   */
+  public long getActionCount() {
+    return countAll(actionDurations);
+  }
+
+  /**
+   * Gets the number of processed {@code Request}s of every kind.
+   * @return the number of {@code Request}s
+   */
+  public long getRequestCount() {
+    return countAll(requestDurations);
+  }
+
+  private static <K> LatencyHistogram histogramOf(ConcurrentMap<K, LatencyHistogram> histograms,
+                                                  K key) {
+    /* Looking up first, as computeIfAbsent may lock even if the key is present. */
+    LatencyHistogram histogram = histograms.get(key);
+
+    if (histogram == null) {
+      histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    return histogram;
+  }
+
+  private static long countAll(Map<?, LatencyHistogram> histograms) {
+    long count = 0L;
+
+    for (LatencyHistogram histogram : histograms.values()) {
+      count += histogram.getCount();
+    }
+
+    return count;
+  }
+}
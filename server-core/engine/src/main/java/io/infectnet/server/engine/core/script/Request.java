@@ -2,6 +2,8 @@ package io.infectnet.server.engine.core.script;
 
 import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.util.ClassIndex;
+import io.infectnet.server.engine.core.util.ClassIndexed;
 
 import java.util.Optional;
 
@@ -10,11 +12,13 @@ import java.util.Optional;
  * game (the World, the Entity System, etc.). {@code Request}s can have an origin {@link Action}
  * they were created from.
  */
-public abstract class Request {
+public abstract class Request implements ClassIndexed {
   private final Entity target;
 
   private final Action origin;
 
+  private final int classIndex;
+
   /**
    * Constructs a new instance with the specified target {@code Entity} and origin {@code Action}.
    * The target of the request is the {@code Entity} to be modified. This parameter can be
@@ -27,6 +31,8 @@ public abstract class Request {
     this.target = target;
 
     this.origin = origin;
+
+    this.classIndex = ClassIndex.of(getClass());
   }
 
   public Optional<Entity> getTarget() {
@@ -36,4 +42,9 @@ public abstract class Request {
   public Optional<Action> getOrigin() {
     return Optional.ofNullable(origin);
   }
+
+  @Override
+  public int getClassIndex() {
+    return classIndex;
+  }
 }
@@ -0,0 +1,83 @@
+package io.infectnet.server.engine.core.script.execution;
+
+import io.infectnet.server.engine.core.entity.wrapper.Action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Thread-bound buffer that collects the {@link Action}s emitted by the player {@code Script}
+ * currently running on the calling thread. Scripts of different players may run simultaneously on
+ * different threads, therefore their {@code Action}s cannot be put into the shared action queue
+ * directly. Instead, each execution opens its own buffer, which is merged into the queue by the
+ * game loop once every {@code Script} has finished.
+ */
+public final class ActionBuffer {
+
+  private static final ThreadLocal<List<Action>> currentBuffer = new ThreadLocal<>();
+
+  private ActionBuffer() {
+    /*
+     * Cannot be instantiated.
+     */
+  }
+
+  /**
+   * Opens a new empty buffer on the calling thread. Subsequent {@link #offer(Action)} calls made
+   * from this thread will be collected into this buffer until {@link #close()} is called.
+   * @throws IllegalStateException if a buffer is already open on the calling thread
+   */
+  public static void open() {
+    if (currentBuffer.get() != null) {
+      throw new IllegalStateException("An ActionBuffer is already open on this thread!");
+    }
+
+    currentBuffer.set(new ArrayList<>());
+  }
+
+  /**
+   * Closes the buffer of the calling thread and returns the collected {@code Action}s in the order
+   * they were offered.
+   * @return the collected {@code Action}s, an empty list if no buffer was open
+   */
+  public static List<Action> close() {
+    List<Action> actions = currentBuffer.get();
+
+    currentBuffer.remove();
+
+    return actions != null ? actions : Collections.emptyList();
+  }
+
+  /**
+   * Gets the number of {@code Action}s collected so far by the buffer open on the calling thread.
+   * @return the number of buffered {@code Action}s, {@code 0} if no buffer was open
+   */
+  public static int size() {
+    List<Action> actions = currentBuffer.get();
+
+    return actions != null ? actions.size() : 0;
+  }
+
+  /**
+   * Offers the specified {@code Action} to the buffer open on the calling thread.
+   * @param action the {@code Action} to be buffered
+   * @return {@code true} if the {@code Action} was buffered, {@code false} if there's no buffer
+   * open on the calling thread
+   * @throws NullPointerException if the {@code Action} is {@code null}
+   */
+  public static boolean offer(Action action) {
+    Objects.requireNonNull(action);
+
+    List<Action> actions = currentBuffer.get();
+
+    if (actions == null) {
+      return false;
+    }
+
+    actions.add(action);
+
+    return true;
+  }
+}
@@ -0,0 +1,146 @@
+package io.infectnet.server.engine.core.script.execution;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Thread-bound execution budget of the player {@code Script} currently running on the calling
+ * thread. Compiled player code calls {@link #checkpoint()} at the beginning of every loop
+ * iteration, method and closure body (see
+ * {@link io.infectnet.server.engine.core.script.generation.ExecutionBudgetCustomizer}). Once the
+ * number of checkpoints or the elapsed time exceeds the budget, every subsequent checkpoint throws
+ * an {@link ExecutionBudgetExceededException}, so the {@code Script} cannot simply catch the
+ * exception and continue.
+ * <p>
+ * A budget can also be revoked from another thread, when the execution has to stop at once. After
+ * that, the next checkpoint throws, and so does every call of {@link #checkAccess()}, which the
+ * engine makes before player code reads the state of the world. A revoked execution that is stuck
+ * outside of the checkpoints therefore cannot see the state while another phase is changing it.
+ * </p>
+ * <p>
+ * Checkpoints reached on a thread without a started budget have no effect.
+ * </p>
+ */
+public final class ExecutionBudget {
+
+  /**
+   * The clock is only read at every {@code TIME_CHECK_INTERVAL}th checkpoint, as reading it is much
+   * more expensive than incrementing a counter. Must be a power of two.
+   */
+  private static final long TIME_CHECK_INTERVAL = 1024;
+
+  private static final ThreadLocal<ExecutionBudget> currentBudget = new ThreadLocal<>();
+
+  private final long maxCheckpoints;
+
+  private final long deadline;
+
+  private long checkpoints;
+
+  private boolean exceeded;
+
+  private volatile boolean revoked;
+
+  private ExecutionBudget(long maxCheckpoints, long deadline) {
+    this.maxCheckpoints = maxCheckpoints;
+
+    this.deadline = deadline;
+
+    this.checkpoints = 0;
+
+    this.exceeded = false;
+
+    this.revoked = false;
+  }
+
+  /**
+   * Starts a new budget on the calling thread.
+   * @param maxCheckpoints the maximal number of checkpoints the {@code Script} may reach
+   * @param timeLimit the maximal wall-clock time the {@code Script} may run for
+   * @return the started budget, which may be revoked from other threads
+   * @throws NullPointerException if the time limit is {@code null}
+   * @throws IllegalStateException if a budget has already been started on the calling thread
+   */
+  public static ExecutionBudget start(long maxCheckpoints, Duration timeLimit) {
+    Objects.requireNonNull(timeLimit);
+
+    if (currentBudget.get() != null) {
+      throw new IllegalStateException("An ExecutionBudget is already started on this thread!");
+    }
+
+    ExecutionBudget budget =
+        new ExecutionBudget(maxCheckpoints, System.nanoTime() + timeLimit.toNanos());
+
+    currentBudget.set(budget);
+
+    return budget;
+  }
+
+  /**
+   * Finishes the budget of the calling thread and returns whether it has been exceeded. A budget is
+   * exceeded if a checkpoint threw, or if the time limit has passed by the time of this call.
+   * @return {@code true} if the budget has been exceeded, {@code false} otherwise or if no budget
+   * was started on the calling thread
+   */
+  public static boolean finish() {
+    ExecutionBudget budget = currentBudget.get();
+
+    currentBudget.remove();
+
+    return budget != null
+        && (budget.exceeded || budget.revoked || System.nanoTime() - budget.deadline > 0);
+  }
+
+  /**
+   * Checks whether the player code running on the calling thread may still read the state of the
+   * world. Called by the engine on every entry point of the DSL that reads the state.
+   * @throws ExecutionBudgetExceededException if the budget of the calling thread has been revoked
+   */
+  public static void checkAccess() {
+    ExecutionBudget budget = currentBudget.get();
+
+    if (budget != null && budget.revoked) {
+      budget.exceeded = true;
+
+      throw new ExecutionBudgetExceededException(budget.checkpoints);
+    }
+  }
+
+  /**
+   * Revokes the budget, so its execution fails at the next checkpoint or access to the state of
+   * the world. May be called from any thread.
+   */
+  public void revoke() {
+    revoked = true;
+  }
+
+  /**
+   * Accounts one unit of work for the budget of the calling thread. Called from compiled player
+   * code.
+   * @throws ExecutionBudgetExceededException if the budget has been exceeded or the thread has
+   * been interrupted
+   */
+  public static void checkpoint() {
+    ExecutionBudget budget = currentBudget.get();
+
+    if (budget != null) {
+      budget.account();
+    }
+  }
+
+  private void account() {
+    ++checkpoints;
+
+    if (!exceeded) {
+      if (revoked || checkpoints > maxCheckpoints) {
+        exceeded = true;
+      } else if ((checkpoints & (TIME_CHECK_INTERVAL - 1)) == 0) {
+        exceeded = System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted();
+      }
+    }
+
+    if (exceeded) {
+      throw new ExecutionBudgetExceededException(checkpoints);
+    }
+  }
+}
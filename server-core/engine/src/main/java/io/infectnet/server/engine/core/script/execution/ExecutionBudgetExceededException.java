@@ -0,0 +1,23 @@
+package io.infectnet.server.engine.core.script.execution;
+
+/**
+ * Thrown from player code when the {@link ExecutionBudget} of the running {@code Script} has been
+ * exceeded.
+ */
+public class ExecutionBudgetExceededException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private static final String MESSAGE = "Script execution budget exceeded";
+
+  private final long checkpoints;
+
+  public ExecutionBudgetExceededException(long checkpoints) {
+    super(MESSAGE);
+
+    this.checkpoints = checkpoints;
+  }
+
+  public long getCheckpoints() {
+    return checkpoints;
+  }
+}
@@ -0,0 +1,442 @@
+package io.infectnet.server.engine.core.script.execution;
+
+import groovy.lang.Script;
+import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.script.code.Code;
+import io.infectnet.server.engine.core.util.ListenableQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Script runner that executes the {@link Code}s of the players simultaneously on a fork-join pool.
+ * Each execution collects its {@link Action}s into its own {@link ActionBuffer}. Once every
+ * execution has finished, the buffers are appended to the action queue ordered by the username of
+ * the owner, so the content of the queue does not depend on thread scheduling.
+ * <p>
+ * Every execution runs within an {@link ExecutionBudget}. Executions that exceed their budget are
+ * aborted and their {@code Action}s are discarded. A watchdog revokes the budget of executions
+ * that are still running after twice the time limit.
+ * </p>
+ * <p>
+ * The runner waits for the executions for at most the phase time limit, however many codes there
+ * are. Then the executions not started yet are cancelled, the budgets of the running ones are
+ * revoked, and their {@code Action}s are discarded. Revoked executions fail at their next
+ * checkpoint, and the runner waits for them for at most the revocation grace period, so no player
+ * code is running once the following phases start changing the state of the world.
+ * </p>
+ * <p>
+ * An execution that is still running after the grace period is stuck in code the budget cannot
+ * reach, and would hold its worker forever. Its budget stays revoked, so it fails as soon as it
+ * tries to read the state of the world. Its worker is retired by replacing the pool, so the
+ * following ticks run with full parallelism, and its {@code Script} is dropped: its owner is
+ * skipped until new code is uploaded.
+ * </p>
+ * <p>
+ * The pools use daemon threads, therefore they do not have to be shut down explicitly.
+ * </p>
+ */
+public class ParallelScriptRunner implements ScriptRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelScriptRunner.class);
+
+  private static final Comparator<Code> BY_OWNER_NAME =
+      Comparator.comparing(code -> code.getOwner().getUsername());
+
+  private final ScriptExecutor scriptExecutor;
+
+  private final int parallelism;
+
+  private final long checkpointLimit;
+
+  private final Duration timeLimit;
+
+  private final Duration phaseTimeLimit;
+
+  private final Duration revocationGrace;
+
+  /**
+   * The pool running the executions, replaced when one of its workers gets stuck.
+   */
+  private volatile ForkJoinPool workerPool;
+
+  private final ScheduledExecutorService watchdog;
+
+  /**
+   * The {@code Script}s that got stuck, by the usernames of their owners.
+   */
+  private final ConcurrentMap<String, Script> droppedScripts;
+
+  /**
+   * The number of workers retired since the runner has been created. Every retired worker is lost
+   * until its execution returns, if it ever does.
+   */
+  private int retiredWorkerCount;
+
+  /**
+   * Constructs a new instance that executes the scripts with the specified executor on a pool of
+   * the specified size.
+   * @param scriptExecutor the executor that will run the DSL code, must be thread-safe
+   * @param parallelism the number of worker threads
+   * @param checkpointLimit the maximal number of checkpoints a single execution may reach
+   * @param timeLimit the maximal duration of a single execution
+   * @param phaseTimeLimit the maximal duration of the execution of every code in a tick
+   * @param revocationGrace the maximal time revoked executions are waited for
+   * @throws NullPointerException if the executor or a duration is {@code null}
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  public ParallelScriptRunner(ScriptExecutor scriptExecutor, int parallelism, long checkpointLimit,
+                              Duration timeLimit, Duration phaseTimeLimit,
+                              Duration revocationGrace) {
+    this.scriptExecutor = Objects.requireNonNull(scriptExecutor);
+
+    this.parallelism = parallelism;
+
+    this.checkpointLimit = checkpointLimit;
+
+    this.timeLimit = Objects.requireNonNull(timeLimit);
+
+    this.phaseTimeLimit = Objects.requireNonNull(phaseTimeLimit);
+
+    this.revocationGrace = Objects.requireNonNull(revocationGrace);
+
+    this.workerPool = new ForkJoinPool(parallelism);
+
+    ScheduledThreadPoolExecutor watchdogExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "script-watchdog");
+
+      thread.setDaemon(true);
+
+      return thread;
+    });
+
+    watchdogExecutor.setRemoveOnCancelPolicy(true);
+
+    this.watchdog = watchdogExecutor;
+
+    this.droppedScripts = new ConcurrentHashMap<>();
+
+    this.retiredWorkerCount = 0;
+  }
+
+  @Override
+  public void runAll(Collection<Code> codes, ListenableQueue<Action> actionQueue) {
+    List<Code> runnableCodes = new ArrayList<>();
+
+    for (Code code : codes) {
+      if (code.isRunnable() && !isDropped(code)) {
+        runnableCodes.add(code);
+      }
+    }
+
+    runnableCodes.sort(BY_OWNER_NAME);
+
+    long deadline = System.nanoTime() + phaseTimeLimit.toNanos();
+
+    ExecutorService pool = workerPool;
+
+    List<ExecutionHandle> handles = new ArrayList<>(runnableCodes.size());
+
+    List<CompletableFuture<List<Action>>> results = new ArrayList<>(runnableCodes.size());
+
+    for (Code code : runnableCodes) {
+      ExecutionHandle handle = new ExecutionHandle();
+
+      handles.add(handle);
+
+      results.add(CompletableFuture.supplyAsync(() -> execute(code, handle), pool));
+    }
+
+    List<Integer> revoked = new ArrayList<>();
+
+    /*
+     * Merging in the sorted order of the codes, not in the order of completion.
+     */
+    for (int i = 0; i < results.size(); ++i) {
+      try {
+        actionQueue.addAll(awaitActions(runnableCodes.get(i), results.get(i), deadline));
+      } catch (TimeoutException e) {
+        logger.warn("Player ({}) code did not finish in time, its actions are discarded!",
+            runnableCodes.get(i).getOwner());
+
+        /*
+         * Prevents the execution from starting if it's still waiting for a worker, otherwise
+         * makes it fail at its next checkpoint. Cancelling the future would not do, as it does not
+         * stop a running execution.
+         */
+        if (handles.get(i).revoke()) {
+          revoked.add(i);
+        }
+      }
+    }
+
+    awaitRevoked(runnableCodes, handles, results, revoked);
+  }
+
+  /**
+   * Waits for the revoked executions, so they do not run alongside the following phases, and
+   * retires the workers of the ones that do not return in the grace period.
+   */
+  private void awaitRevoked(List<Code> codes, List<ExecutionHandle> handles,
+                            List<CompletableFuture<List<Action>>> results, List<Integer> revoked) {
+    long graceDeadline = System.nanoTime() + revocationGrace.toNanos();
+
+    for (int i : revoked) {
+      try {
+        results.get(i).get(Math.max(0L, graceDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        retireIfStuck(codes.get(i), handles.get(i));
+      } catch (ExecutionException e) {
+        /*
+         * The actions are discarded anyway.
+         */
+      } catch (InterruptedException e) {
+        /*
+         * Preserve interrupt status, so the game loop can inspect it.
+         */
+        Thread.currentThread().interrupt();
+
+        return;
+      }
+    }
+  }
+
+  /**
+   * Waits for the actions of the execution until the deadline.
+   * @throws TimeoutException if the execution has not finished by the deadline
+   */
+  private List<Action> awaitActions(Code code, CompletableFuture<List<Action>> result,
+                                    long deadline) throws TimeoutException {
+    try {
+      return result.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      logger.warn("Error during player ({}) code execution: {}", code.getOwner(), e.getCause());
+    } catch (InterruptedException e) {
+      /*
+       * Preserve interrupt status, so the game loop can inspect it.
+       */
+      Thread.currentThread().interrupt();
+    }
+
+    return Collections.emptyList();
+  }
+
+  /**
+   * Checks whether the {@code Script} of the code has been dropped. Uploading new code lifts the
+   * drop.
+   */
+  private boolean isDropped(Code code) {
+    String owner = code.getOwner().getUsername();
+
+    Script droppedScript = droppedScripts.get(owner);
+
+    if (droppedScript == null) {
+      return false;
+    }
+
+    if (droppedScript == code.getScript().get()) {
+      return true;
+    }
+
+    droppedScripts.remove(owner, droppedScript);
+
+    return false;
+  }
+
+  private List<Action> execute(Code code, ExecutionHandle handle) {
+    List<Action> actions;
+
+    boolean budgetExceeded;
+
+    ActionBuffer.open();
+
+    ExecutionBudget budget = ExecutionBudget.start(checkpointLimit, timeLimit);
+
+    if (!handle.attach(Thread.currentThread(), budget)) {
+      ExecutionBudget.finish();
+
+      ActionBuffer.close();
+
+      return Collections.emptyList();
+    }
+
+    Future<?> scheduledRevocation =
+        watchdog.schedule(handle::revoke, 2 * timeLimit.toNanos(), TimeUnit.NANOSECONDS);
+
+    try {
+      scriptExecutor.execute(code.getScript().get(), code.getOwner());
+    } catch (ExecutionBudgetExceededException e) {
+      /*
+       * Handled below, as the budget might also be exceeded without an exception.
+       */
+    } catch (Exception e) {
+      logger.warn("Exception during player ({}) code execution: {}", code.getOwner(), e);
+    } finally {
+      scheduledRevocation.cancel(false);
+
+      handle.disarm();
+
+      /*
+       * Clear the interrupt status, if the execution has been revoked, so it does not leak into
+       * the next task executed by this worker.
+       */
+      Thread.interrupted();
+
+      budgetExceeded = ExecutionBudget.finish();
+
+      actions = ActionBuffer.close();
+    }
+
+    if (budgetExceeded) {
+      logger.warn("Player ({}) code exceeded its execution budget, {} actions are discarded!",
+          code.getOwner(), actions.size());
+
+      return Collections.emptyList();
+    }
+
+    /*
+     * The actions emitted before an exception are kept, just like they were when the scripts
+     * wrote directly into the action queue.
+     */
+    return actions;
+  }
+
+  /**
+   * Retires the worker of a revoked execution that has not returned in the grace period, and
+   * drops the {@code Script} of the execution.
+   */
+  private void retireIfStuck(Code code, ExecutionHandle handle) {
+    Thread worker = handle.retire();
+
+    if (worker == null) {
+      return;
+    }
+
+    droppedScripts.put(code.getOwner().getUsername(), code.getScript().get());
+
+    int retiredCount = replacePool(worker);
+
+    logger.error("Player ({}) code does not respond to revocation, its worker is retired and the "
+        + "code is dropped until new code is uploaded! Workers retired so far: {}",
+        code.getOwner(), retiredCount);
+  }
+
+  /**
+   * Replaces the worker pool, if the stuck worker belongs to it. The old pool is shut down, so
+   * its idle workers terminate, while the stuck one keeps running until its execution returns.
+   * @return the number of workers retired so far
+   */
+  private synchronized int replacePool(Thread stuckWorker) {
+    ++retiredWorkerCount;
+
+    ForkJoinPool pool = workerPool;
+
+    if (stuckWorker instanceof ForkJoinWorkerThread
+        && ((ForkJoinWorkerThread) stuckWorker).getPool() != pool) {
+      return retiredWorkerCount;
+    }
+
+    workerPool = new ForkJoinPool(parallelism);
+
+    pool.shutdown();
+
+    return retiredWorkerCount;
+  }
+
+  /**
+   * Handle of an execution that revokes its budget and interrupts its worker, and later retires
+   * the worker, unless the execution has finished. Attaching, disarming, revoking and retiring are
+   * mutually exclusive, so the worker cannot be interrupted after it has finished the execution
+   * the handle belongs to. An execution whose handle has been revoked before it started does not
+   * run the code at all.
+   */
+  private static class ExecutionHandle {
+    private Thread worker;
+
+    private ExecutionBudget budget;
+
+    private boolean armed;
+
+    private boolean revoked;
+
+    private ExecutionHandle() {
+      this.worker = null;
+
+      this.budget = null;
+
+      this.armed = true;
+
+      this.revoked = false;
+    }
+
+    /**
+     * Attaches the running execution to the handle.
+     * @return {@code false} if the handle has already been revoked and the code must not run
+     */
+    private synchronized boolean attach(Thread worker, ExecutionBudget budget) {
+      if (revoked) {
+        return false;
+      }
+
+      this.worker = worker;
+
+      this.budget = budget;
+
+      return true;
+    }
+
+    /**
+     * Revokes the budget of the execution and interrupts its worker, if the execution is still
+     * running.
+     * @return {@code true} if the execution is running and has to be waited for
+     */
+    private synchronized boolean revoke() {
+      revoked = true;
+
+      if (armed && worker != null) {
+        budget.revoke();
+
+        worker.interrupt();
+
+        return true;
+      }
+
+      return false;
+    }
+
+    /**
+     * Disarms the handle, if the execution is still running.
+     * @return the worker to retire, or {@code null} if the execution has finished
+     */
+    private synchronized Thread retire() {
+      Thread stuckWorker = armed ? worker : null;
+
+      armed = false;
+
+      return stuckWorker;
+    }
+
+    private synchronized void disarm() {
+      armed = false;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package io.infectnet.server.engine.core.script.execution;
+
+import groovy.lang.Script;
+import io.infectnet.server.engine.core.metrics.ScriptProfiler;
+import io.infectnet.server.engine.core.player.Player;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Script executor that measures the costs of every script executed by another executor, and
+ * records them into the profile of the owner {@link Player}: the wall-clock and the CPU time, the
+ * allocated bytes, the number of emitted {@code Action}s and the number of {@code Selector} calls.
+ * <p>
+ * The executions must take place in an open {@link ActionBuffer}, as the emitted {@code Action}s
+ * are counted by the growth of the buffer. The CPU time and the allocated bytes are measured with
+ * the {@link ThreadMXBean} of the JVM, and are recorded as zero if it cannot measure them.
+ * </p>
+ */
+public class ProfilingScriptExecutor implements ScriptExecutor {
+  private final ScriptExecutor scriptExecutor;
+
+  private final ScriptProfiler scriptProfiler;
+
+  /**
+   * The bean measuring the CPU time, {@code null} if the JVM cannot measure it.
+   */
+  private final ThreadMXBean cpuTimeBean;
+
+  /**
+   * The bean measuring the allocated bytes, {@code null} if the JVM cannot measure them.
+   */
+  private final com.sun.management.ThreadMXBean allocationBean;
+
+  /**
+   * Creates a new instance that profiles the specified executor.
+   * @param scriptExecutor the executor actually running the scripts
+   * @param scriptProfiler the profiler the costs are recorded into
+   */
+  public ProfilingScriptExecutor(ScriptExecutor scriptExecutor, ScriptProfiler scriptProfiler) {
+    this.scriptExecutor = scriptExecutor;
+
+    this.scriptProfiler = scriptProfiler;
+
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    this.cpuTimeBean = threadBean.isCurrentThreadCpuTimeSupported()
+        && threadBean.isThreadCpuTimeEnabled() ? threadBean : null;
+
+    this.allocationBean = allocationBeanOf(threadBean);
+  }
+
+  @Override
+  public void execute(Script script, Player owner) {
+    int actionCountBefore = ActionBuffer.size();
+
+    SelectorCallCounter.start();
+
+    long cpuTimeBefore = cpuTime();
+
+    long allocatedBytesBefore = allocatedBytes();
+
+    long start = System.nanoTime();
+
+    try {
+      scriptExecutor.execute(script, owner);
+    } finally {
+      long wallTime = System.nanoTime() - start;
+
+      long cpuTime = cpuTime() - cpuTimeBefore;
+
+      long allocatedBytes = allocatedBytes() - allocatedBytesBefore;
+
+      scriptProfiler.scriptExecuted(owner, wallTime, cpuTime, allocatedBytes,
+          ActionBuffer.size() - actionCountBefore, SelectorCallCounter.finish());
+    }
+  }
+
+  private long cpuTime() {
+    return cpuTimeBean != null ? cpuTimeBean.getCurrentThreadCpuTime() : 0L;
+  }
+
+  private long allocatedBytes() {
+    return allocationBean != null
+        ? allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0L;
+  }
+
+  private static com.sun.management.ThreadMXBean allocationBeanOf(ThreadMXBean threadBean) {
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+
+    return allocationBean.isThreadAllocatedMemorySupported()
+        && allocationBean.isThreadAllocatedMemoryEnabled() ? allocationBean : null;
+  }
+}
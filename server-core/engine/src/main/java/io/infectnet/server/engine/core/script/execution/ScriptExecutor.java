@@ -4,7 +4,9 @@ import groovy.lang.Script;
 import io.infectnet.server.engine.core.player.Player;
 
 /**
- * Interface for classes that can execute player-written {@link Script}s.
+ * Interface for classes that can execute player-written {@link Script}s. Implementations
+ * <b>must</b> be thread-safe, because the scripts of different players might be executed
+ * simultaneously.
  */
 public interface ScriptExecutor {
   /**
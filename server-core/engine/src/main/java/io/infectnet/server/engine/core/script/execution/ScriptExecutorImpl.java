@@ -2,21 +2,40 @@ package io.infectnet.server.engine.core.script.execution;
 
 import groovy.lang.Script;
 import io.infectnet.server.engine.core.player.Player;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Thread-safe {@link ScriptExecutor} implementation. The passed {@link Script} is only used as a
+ * template: every player has its own instance of the {@code Script}'s class, bound to the
+ * {@link BindingContext} of the player, which is reused from tick to tick. This way the shared
+ * instance is never mutated, so scripts of different players can safely be executed
+ * simultaneously, while the state kept by a script, such as its {@code @Field} values, survives
+ * between the ticks until new code is uploaded.
+ * <p>
+ * The script of a player must not be executed by several threads at once.
+ * </p>
+ */
 public class ScriptExecutorImpl implements ScriptExecutor {
   private final Map<String, BindingContext> bindingMap;
 
   private final Function<Player, BindingContext> playerBindingContextFunction;
 
+  /**
+   * The instance of the script of every player, by the name of the player.
+   */
+  private final Map<String, Script> scriptInstanceMap;
+
   public ScriptExecutorImpl(Function<Player, BindingContext> playerBindingContextFunction) {
     this.playerBindingContextFunction = playerBindingContextFunction;
 
-    this.bindingMap = new HashMap<>();
+    this.bindingMap = new ConcurrentHashMap<>();
+
+    this.scriptInstanceMap = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -25,27 +44,24 @@ public class ScriptExecutorImpl implements ScriptExecutor {
 
     BindingContext bindingContext = createOrGetBinding(Objects.requireNonNull(owner));
 
-    script.setBinding(bindingContext.getBinding());
-
-    script.run();
-
-    /*
-     * Reset the binding.
-     */
-    script.setBinding(null);
+    getScriptInstance(script, owner, bindingContext).run();
   }
 
-  private BindingContext createOrGetBinding(Player player) {
-    BindingContext bindingContext = bindingMap.get(player.getUsername());
+  private Script getScriptInstance(Script script, Player owner, BindingContext bindingContext) {
+    Script instance = scriptInstanceMap.get(owner.getUsername());
 
-    return bindingContext != null ? bindingContext : createBinding(player);
-  }
+    /* Uploading new code compiles a new class, whose instance starts with a clean state. */
+    if (instance == null || instance.getClass() != script.getClass()) {
+      instance = InvokerHelper.createScript(script.getClass(), bindingContext.getBinding());
 
-  private BindingContext createBinding(Player player) {
-    BindingContext bindingContext = playerBindingContextFunction.apply(player);
+      scriptInstanceMap.put(owner.getUsername(), instance);
+    }
 
-    bindingMap.put(player.getUsername(), bindingContext);
+    return instance;
+  }
 
-    return bindingContext;
+  private BindingContext createOrGetBinding(Player player) {
+    return bindingMap.computeIfAbsent(player.getUsername(),
+        username -> playerBindingContextFunction.apply(player));
   }
 }
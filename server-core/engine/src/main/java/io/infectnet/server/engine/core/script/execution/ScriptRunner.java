@@ -0,0 +1,22 @@
+package io.infectnet.server.engine.core.script.execution;
+
+import io.infectnet.server.engine.core.entity.wrapper.Action;
+import io.infectnet.server.engine.core.script.code.Code;
+import io.infectnet.server.engine.core.util.ListenableQueue;
+
+import java.util.Collection;
+
+/**
+ * Interface for classes that run the script phase of a game tick, that is executing the
+ * {@link Code} of every player and collecting the emitted {@link Action}s.
+ */
+public interface ScriptRunner {
+  /**
+   * Executes all runnable {@code Code}s from the specified collection and puts the emitted
+   * {@code Action}s into the action queue. Implementations must add the {@code Action}s in a
+   * deterministic order, regardless of the order the {@code Code}s were executed in.
+   * @param codes the {@code Code}s to be executed
+   * @param actionQueue the queue that will receive the emitted {@code Action}s
+   */
+  void runAll(Collection<Code> codes, ListenableQueue<Action> actionQueue);
+}
@@ -0,0 +1,59 @@
+package io.infectnet.server.engine.core.script.execution;
+
+/**
+ * Thread-bound counter of the calls made to the {@code Selector}s by the player {@code Script}
+ * currently running on the calling thread. The counter is started before the execution, the
+ * {@code Selector}s increment it as they are queried, and the count is read when the execution
+ * has finished.
+ */
+public final class SelectorCallCounter {
+
+  /**
+   * The count of the calling thread, held in a single element array so it can be incremented
+   * without boxing.
+   */
+  private static final ThreadLocal<int[]> currentCount = new ThreadLocal<>();
+
+  private SelectorCallCounter() {
+    /*
+     * Cannot be instantiated.
+     */
+  }
+
+  /**
+   * Starts a new counter from zero on the calling thread.
+   * @throws IllegalStateException if a counter has already been started on the calling thread
+   */
+  public static void start() {
+    if (currentCount.get() != null) {
+      throw new IllegalStateException("A SelectorCallCounter is already started on this thread!");
+    }
+
+    currentCount.set(new int[1]);
+  }
+
+  /**
+   * Finishes the counter of the calling thread and returns the number of calls counted.
+   * @return the number of {@code Selector} calls, {@code 0} if no counter was started on the
+   * calling thread
+   */
+  public static int finish() {
+    int[] count = currentCount.get();
+
+    currentCount.remove();
+
+    return count != null ? count[0] : 0;
+  }
+
+  /**
+   * Counts a {@code Selector} call on the calling thread. Calls made outside of a started counter
+   * are not counted.
+   */
+  public static void increment() {
+    int[] count = currentCount.get();
+
+    if (count != null) {
+      ++count[0];
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package io.infectnet.server.engine.core.script.execution;
+
+import groovy.lang.Script;
+import io.infectnet.server.engine.core.metrics.TickMetrics;
+import io.infectnet.server.engine.core.player.Player;
+
+/**
+ * Script executor that measures the wall-clock time of every script executed by another executor,
+ * and records it as the script time of the owner {@link Player}. The time is recorded even if the
+ * script fails or gets interrupted.
+ */
+public class TimedScriptExecutor implements ScriptExecutor {
+  private final ScriptExecutor scriptExecutor;
+
+  private final TickMetrics tickMetrics;
+
+  /**
+   * Creates a new instance that measures the specified executor.
+   * @param scriptExecutor the executor actually running the scripts
+   * @param tickMetrics the metrics the durations are recorded into
+   */
+  public TimedScriptExecutor(ScriptExecutor scriptExecutor, TickMetrics tickMetrics) {
+    this.scriptExecutor = scriptExecutor;
+
+    this.tickMetrics = tickMetrics;
+  }
+
+  @Override
+  public void execute(Script script, Player owner) {
+    long start = System.nanoTime();
+
+    try {
+      scriptExecutor.execute(script, owner);
+    } finally {
+      tickMetrics.scriptExecuted(owner, System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package io.infectnet.server.engine.core.script.generation;
+
+import io.infectnet.server.engine.core.script.execution.ExecutionBudget;
+import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.VariableScope;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.DoWhileStatement;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.ForStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.ast.stmt.WhileStatement;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compilation customizer that instruments player code with calls to
+ * {@link ExecutionBudget#checkpoint()}. A checkpoint is inserted at the beginning of every loop
+ * body, method body and closure body, therefore a {@code Script} cannot run for an unbounded time
+ * without reaching one.
+ */
+public class ExecutionBudgetCustomizer extends CompilationCustomizer {
+
+  private static final ClassNode BUDGET_CLASS = ClassHelper.make(ExecutionBudget.class);
+
+  private static final String CHECKPOINT_METHOD = "checkpoint";
+
+  public ExecutionBudgetCustomizer() {
+    super(CompilePhase.CANONICALIZATION);
+  }
+
+  @Override
+  public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) {
+    new CheckpointInjector(source).visitClass(classNode);
+  }
+
+  private static Statement createCheckpointStatement() {
+    return new ExpressionStatement(new StaticMethodCallExpression(BUDGET_CLASS, CHECKPOINT_METHOD,
+        ArgumentListExpression.EMPTY_ARGUMENTS));
+  }
+
+  /**
+   * Puts a checkpoint in front of the specified statement.
+   * @param statement the statement to be instrumented, may be {@code null}
+   * @return a block starting with a checkpoint
+   */
+  private static Statement prependCheckpoint(Statement statement) {
+    if (statement instanceof BlockStatement) {
+      ((BlockStatement) statement).getStatements().add(0, createCheckpointStatement());
+
+      return statement;
+    }
+
+    List<Statement> statements = new ArrayList<>();
+
+    statements.add(createCheckpointStatement());
+
+    if (statement != null) {
+      statements.add(statement);
+    }
+
+    return new BlockStatement(statements, new VariableScope());
+  }
+
+  private static class CheckpointInjector extends ClassCodeVisitorSupport {
+    private final SourceUnit sourceUnit;
+
+    private CheckpointInjector(SourceUnit sourceUnit) {
+      this.sourceUnit = sourceUnit;
+    }
+
+    @Override
+    protected SourceUnit getSourceUnit() {
+      return sourceUnit;
+    }
+
+    @Override
+    public void visitMethod(MethodNode node) {
+      super.visitMethod(node);
+
+      if (!node.isAbstract() && node.getCode() != null) {
+        node.setCode(prependCheckpoint(node.getCode()));
+      }
+    }
+
+    @Override
+    public void visitClosureExpression(ClosureExpression expression) {
+      super.visitClosureExpression(expression);
+
+      expression.setCode(prependCheckpoint(expression.getCode()));
+    }
+
+    @Override
+    public void visitForLoop(ForStatement forLoop) {
+      super.visitForLoop(forLoop);
+
+      forLoop.setLoopBlock(prependCheckpoint(forLoop.getLoopBlock()));
+    }
+
+    @Override
+    public void visitWhileLoop(WhileStatement loop) {
+      super.visitWhileLoop(loop);
+
+      loop.setLoopBlock(prependCheckpoint(loop.getLoopBlock()));
+    }
+
+    @Override
+    public void visitDoWhileLoop(DoWhileStatement loop) {
+      super.visitDoWhileLoop(loop);
+
+      loop.setLoopBlock(prependCheckpoint(loop.getLoopBlock()));
+    }
+  }
+}
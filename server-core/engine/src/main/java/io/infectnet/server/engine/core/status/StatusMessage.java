@@ -1,22 +1,122 @@
 package io.infectnet.server.engine.core.status;
 
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.entity.component.HealthComponent;
+import io.infectnet.server.engine.core.entity.component.InventoryComponent;
+import io.infectnet.server.engine.core.entity.component.NullHealthComponent;
+import io.infectnet.server.engine.core.entity.component.NullInventoryComponent;
+import io.infectnet.server.engine.core.entity.component.NullViewComponent;
+import io.infectnet.server.engine.core.entity.component.OwnerComponent;
+import io.infectnet.server.engine.core.entity.component.PositionComponent;
+import io.infectnet.server.engine.core.entity.component.ViewComponent;
+import io.infectnet.server.engine.core.world.Position;
 import io.infectnet.server.engine.core.world.Tile;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Status update message, used for sending map updates.
+ * Status update message, used for sending map updates. A message is either a keyframe or a delta.
+ * A keyframe contains every map tile visible for the player, while a delta only contains the
+ * tiles that have changed or became visible since its base tick, and the positions of the tiles
+ * that became invisible.
+ * <p>
+ * A message is a snapshot of the tick it belongs to: the tiles and the mutable components of their
+ * entities are copied upon construction, so the message can be serialized on any thread while the
+ * game loop keeps changing the world.
+ * </p>
  */
 public class StatusMessage {
+  /**
+   * The kinds of status messages.
+   */
+  public enum Type {
+    /**
+     * The message contains every visible map tile.
+     */
+    KEYFRAME,
+
+    /**
+     * The message contains the changes since the base tick.
+     */
+    DELTA
+  }
+
+  private final Type type;
+
+  private final long tick;
+
+  private final long baseTick;
 
   private final Set<Tile> tileSet;
 
+  private final Set<Position> hiddenPositionSet;
+
   /**
-   * Constructs a new status update message containing the given map tiles.
+   * Constructs a new keyframe message containing the given map tiles.
    * @param tileSet the map tiles to be sent
    */
   public StatusMessage(Set<Tile> tileSet) {
-    this.tileSet = tileSet;
+    this(Type.KEYFRAME, 0L, 0L, tileSet, Collections.emptySet());
+  }
+
+  private StatusMessage(Type type, long tick, long baseTick, Set<Tile> tileSet,
+                        Set<Position> hiddenPositionSet) {
+    this.type = type;
+
+    this.tick = tick;
+
+    this.baseTick = baseTick;
+
+    this.tileSet = snapshotOf(tileSet);
+
+    this.hiddenPositionSet = Collections.unmodifiableSet(hiddenPositionSet);
+  }
+
+  /**
+   * Creates a keyframe message of the specified tick.
+   * @param tick the tick the message belongs to
+   * @param tileSet every visible map tile
+   * @return a new keyframe message
+   */
+  public static StatusMessage keyframe(long tick, Set<Tile> tileSet) {
+    return new StatusMessage(Type.KEYFRAME, tick, tick, tileSet, Collections.emptySet());
+  }
+
+  /**
+   * Creates a delta message of the specified tick.
+   * @param tick the tick the message belongs to
+   * @param baseTick the tick the changes are relative to
+   * @param tileSet the map tiles that have changed or became visible since the base tick
+   * @param hiddenPositionSet the positions of the tiles that became invisible since the base tick
+   * @return a new delta message
+   */
+  public static StatusMessage delta(long tick, long baseTick, Set<Tile> tileSet,
+                                    Set<Position> hiddenPositionSet) {
+    return new StatusMessage(Type.DELTA, tick, baseTick, tileSet, hiddenPositionSet);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Gets the tick the message belongs to. Clients acknowledge messages by this number.
+   * @return the tick of the message
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Gets the tick the changes of a delta message are relative to. A delta can only be applied to
+   * the state of its base tick. For keyframes it's the same as the tick.
+   * @return the base tick of the message
+   */
+  public long getBaseTick() {
+    return baseTick;
   }
 
   /**
@@ -26,4 +126,76 @@ public class StatusMessage {
   public Set<Tile> getTileSet() {
     return tileSet;
   }
+
+  /**
+   * Gets the positions of the tiles that became invisible. Always empty for keyframes.
+   * @return the positions of the hidden tiles
+   */
+  public Set<Position> getHiddenPositionSet() {
+    return hiddenPositionSet;
+  }
+
+  private static Set<Tile> snapshotOf(Set<Tile> tileSet) {
+    Set<Tile> snapshot = new HashSet<>();
+
+    for (Tile tile : tileSet) {
+      Tile copy = new Tile(tile.getType(), tile.getPosition());
+
+      if (tile.getEntity() != null) {
+        copy.setEntity(snapshotOf(tile.getEntity()));
+      }
+
+      snapshot.add(copy);
+    }
+
+    return Collections.unmodifiableSet(snapshot);
+  }
+
+  /**
+   * Copies the mutable components of the {@code Entity}. The type and the cost components are
+   * immutable, they are shared with the original.
+   */
+  private static Entity snapshotOf(Entity entity) {
+    return Entity.builder()
+        .typeComponent(entity.getTypeComponent())
+        .costComponent(entity.getCostComponent())
+        .healthComponent(snapshotOf(entity.getHealthComponent()))
+        .viewComponent(snapshotOf(entity.getViewComponent()))
+        .ownerComponent(entity.getOwnerComponent() == null ? null
+            : new OwnerComponent(entity.getOwnerComponent().getOwner()))
+        .positionComponent(entity.getPositionComponent() == null ? null
+            : new PositionComponent(entity.getPositionComponent().getPosition()))
+        .inventoryComponent(snapshotOf(entity.getInventoryComponent()))
+        .build();
+  }
+
+  private static HealthComponent snapshotOf(HealthComponent component) {
+    if (component == null || component instanceof NullHealthComponent) {
+      return component;
+    }
+
+    return new HealthComponent(component.getHealth());
+  }
+
+  private static ViewComponent snapshotOf(ViewComponent component) {
+    if (component == null || component instanceof NullViewComponent) {
+      return component;
+    }
+
+    return new ViewComponent(component.getViewRadius());
+  }
+
+  private static InventoryComponent snapshotOf(InventoryComponent component) {
+    if (component == null || component instanceof NullInventoryComponent) {
+      return component;
+    }
+
+    InventoryComponent copy = new InventoryComponent(component.getCapacity());
+
+    for (Map.Entry<String, Integer> item : component.getInventory().entrySet()) {
+      copy.modifyQuantity(item.getKey(), item.getValue());
+    }
+
+    return copy;
+  }
 }
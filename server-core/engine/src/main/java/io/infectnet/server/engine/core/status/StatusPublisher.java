@@ -1,5 +1,8 @@
 package io.infectnet.server.engine.core.status;
 
+import io.infectnet.server.engine.core.entity.Entity;
+import io.infectnet.server.engine.core.player.Player;
+
 /**
  * Interface for sending out world updates to players.
  */
@@ -11,4 +14,51 @@ public interface StatusPublisher {
    */
   void publish(StatusConsumer statusConsumer);
 
+  /**
+   * Sets whether the client of the specified player is able to apply delta {@link StatusMessage}s.
+   * Players not accepting deltas receive a keyframe in every tick, which is the default. Publishers
+   * always sending keyframes may ignore this.
+   * @param player the player
+   * @param deltasAccepted {@code true} if the client accepts deltas, {@code false} otherwise
+   */
+  default void setDeltasAccepted(Player player, boolean deltasAccepted) {
+    /*
+     * Every message is a keyframe by default.
+     */
+  }
+
+  /**
+   * Requests the next {@link StatusMessage} of the specified player to be a keyframe. Publishers
+   * always sending keyframes may ignore this.
+   * @param player the player
+   */
+  default void requestKeyframe(Player player) {
+    /*
+     * Every message is a keyframe by default.
+     */
+  }
+
+  /**
+   * Acknowledges that the specified player has received and applied the {@link StatusMessage}
+   * of the passed tick. Publishers not relying on acknowledgements may ignore this.
+   * @param player the player
+   * @param tick the tick of the applied message
+   */
+  default void acknowledge(Player player, long tick) {
+    /*
+     * Acknowledgements are not needed by default.
+     */
+  }
+
+  /**
+   * Notifies the publisher that the state of the specified {@code Entity}, such as its health or
+   * its inventory, has changed without it being moved. Publishers always sending keyframes may
+   * ignore this.
+   * @param entity the changed {@code Entity}
+   */
+  default void entityChanged(Entity entity) {
+    /*
+     * Every message contains the current state of the entities by default.
+     */
+  }
 }
@@ -0,0 +1,37 @@
+package io.infectnet.server.engine.core.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns dense, non-negative integer indices to classes. The first class queried gets {@code 0},
+ * the next one {@code 1} and so on. The index of a class never changes, therefore it can be used
+ * to address arrays instead of looking up the class in a map.
+ */
+public final class ClassIndex {
+
+  private static final AtomicInteger nextIndex = new AtomicInteger();
+
+  private static final ClassValue<Integer> indices = new ClassValue<Integer>() {
+    @Override
+    protected Integer computeValue(Class<?> type) {
+      return nextIndex.getAndIncrement();
+    }
+  };
+
+  private ClassIndex() {
+    /*
+     * Cannot be instantiated.
+     */
+  }
+
+  /**
+   * Gets the index of the specified class.
+   * @param type the class
+   * @return the index of the class
+   * @throws NullPointerException if the class is {@code null}
+   */
+  public static int of(Class<?> type) {
+    return indices.get(Objects.requireNonNull(type));
+  }
+}
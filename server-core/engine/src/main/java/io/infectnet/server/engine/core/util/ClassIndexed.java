@@ -0,0 +1,14 @@
+package io.infectnet.server.engine.core.util;
+
+/**
+ * Interface for objects that know the {@link ClassIndex} of their own runtime class. Implementors
+ * should look up the index once, upon construction, so queues can dispatch them without any
+ * lookup.
+ */
+public interface ClassIndexed {
+  /**
+   * Gets the {@link ClassIndex} of the runtime class of this object.
+   * @return the index of {@code getClass()}
+   */
+  int getClassIndex();
+}
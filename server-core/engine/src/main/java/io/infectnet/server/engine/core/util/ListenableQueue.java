@@ -3,15 +3,12 @@ package io.infectnet.server.engine.core.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
 
 /**
  * A queue that allows listeners to be registered. {@code ListenableQueue} is something like a
@@ -23,23 +20,55 @@ import java.util.function.Consumer;
  * <b>Note</b> that listeners are allowed to add elements as they are called, but this
  * must be used with exceptional care to avoid feedback loops.
  * </p>
+ * <p>
+ * Elements are stored in a growable ring buffer, so adding and processing them does not allocate
+ * once the buffer has grown large enough. Listeners are stored in a table addressed by the
+ * {@link ClassIndex} of the listened class. Elements implementing {@link ClassIndexed} are
+ * dispatched without any lookup, other elements need one {@code ClassIndex} lookup each.
+ * </p>
  * @param <E> the type of the elements to be stored in the queue
  */
 public class ListenableQueue<E> {
 
   private static final Logger logger = LoggerFactory.getLogger(ListenableQueue.class);
 
-  private final Map<Class<? extends E>, List<Consumer<E>>> listenerMap;
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Listener arrays indexed by the {@link ClassIndex} of the listened class. The arrays are never
+   * modified, they are replaced instead, so listeners can safely be added or removed while an
+   * element is being processed.
+   */
+  private Consumer<E>[][] dispatchTable;
+
+  /**
+   * The ring buffer storing the elements. Its length is always a power of two.
+   */
+  private Object[] storage;
+
+  private int head;
 
-  private final Queue<E> storage;
+  private int size;
+
+  /**
+   * Notified of the time the listeners of every processed element took, if set.
+   */
+  private ObjLongConsumer<? super E> processingObserver;
 
   /**
    * Constructs a new empty queue.
    */
+  @SuppressWarnings({"unchecked", "rawtypes"})
   public ListenableQueue() {
-    this.listenerMap = new HashMap<>();
+    this.dispatchTable = (Consumer<E>[][]) new Consumer[0][];
+
+    this.storage = new Object[INITIAL_CAPACITY];
+
+    this.head = 0;
 
-    this.storage = new LinkedList<>();
+    this.size = 0;
+
+    this.processingObserver = null;
   }
 
   /**
@@ -53,11 +82,23 @@ public class ListenableQueue<E> {
     Objects.requireNonNull(listenedClass);
     Objects.requireNonNull(listener);
 
-    if (!listenerMap.containsKey(listenedClass)) {
-      listenerMap.put(listenedClass, new ArrayList<>());
+    int index = ClassIndex.of(listenedClass);
+
+    if (index >= dispatchTable.length) {
+      dispatchTable = Arrays.copyOf(dispatchTable, index + 1);
     }
 
-    listenerMap.get(listenedClass).add(listener);
+    Consumer<E>[] consumers = dispatchTable[index];
+
+    if (consumers == null) {
+      consumers = newListenerArray(1);
+    } else {
+      consumers = Arrays.copyOf(consumers, consumers.length + 1);
+    }
+
+    consumers[consumers.length - 1] = listener;
+
+    dispatchTable[index] = consumers;
 
     logger.info("Listener for {} added: {}", listenedClass, listener);
   }
@@ -73,51 +114,84 @@ public class ListenableQueue<E> {
     Objects.requireNonNull(listenedClass);
     Objects.requireNonNull(listener);
 
-    List<Consumer<E>> consumers = listenerMap.get(listenedClass);
+    int index = ClassIndex.of(listenedClass);
+
+    Consumer<E>[] consumers = index < dispatchTable.length ? dispatchTable[index] : null;
 
     if (consumers != null) {
-      consumers.remove(listener);
+      int position = Arrays.asList(consumers).indexOf(listener);
 
-      if (consumers.isEmpty()) {
-        listenerMap.remove(listenedClass);
+      if (position >= 0) {
+        Consumer<E>[] remaining = newListenerArray(consumers.length - 1);
+
+        System.arraycopy(consumers, 0, remaining, 0, position);
+        System.arraycopy(consumers, position + 1, remaining, position,
+            consumers.length - position - 1);
+
+        dispatchTable[index] = remaining.length == 0 ? null : remaining;
       }
 
       logger.info("Removed listener for {}: {}", listenedClass, listener);
     }
   }
 
+  /**
+   * Sets the observer that will be notified after an element has been processed, with the time in
+   * nanoseconds its listeners took. Elements are not timed while no observer is set.
+   * @param processingObserver the observer, {@code null} to remove the current one
+   */
+  public void setProcessingObserver(ObjLongConsumer<? super E> processingObserver) {
+    this.processingObserver = processingObserver;
+  }
+
   /**
    * Adds the specified element to the end of the queue.
    * @param element the element to add
    * @throws NullPointerException if the element is {@code null}
    */
   public void add(E element) {
-    storage.add(Objects.requireNonNull(element));
+    Objects.requireNonNull(element);
+
+    if (size == storage.length) {
+      grow();
+    }
+
+    storage[(head + size) & (storage.length - 1)] = element;
+
+    ++size;
   }
 
   /**
    * Adds all of the elements from the specified collection the end of the queue.
    * @param elements the elements to add
-   * @throws NullPointerException if the collection is {@code null}
+   * @throws NullPointerException if the collection or any of its elements is {@code null}
    */
   public void addAll(Collection<? extends E> elements) {
-    storage.addAll(Objects.requireNonNull(elements));
+    for (E element : Objects.requireNonNull(elements)) {
+      add(element);
+    }
   }
 
   /**
    * Instructs the queue to remove the element from the front of thr queue and call the listener
    * corresponding to the element's class.
+   * @throws NoSuchElementException if the queue is empty
    */
   public void processOne() {
-    processElement(storage.remove());
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+
+    processElement(poll());
   }
 
   /**
    * Instructs the queue to process all queued elements. After this call the queue will be empty.
+   * Elements added by the listeners during the processing are processed too, in FIFO order.
    */
   public void processAll() {
-    while (storage.size() > 0) {
-      processElement(storage.remove());
+    while (size > 0) {
+      processElement(poll());
     }
   }
 
@@ -126,7 +200,7 @@ public class ListenableQueue<E> {
    * @return the number of elements
    */
   public int size() {
-    return storage.size();
+    return size;
   }
 
   /**
@@ -134,16 +208,70 @@ public class ListenableQueue<E> {
    * @return {@code true} if the queue is empty, {@code false} otherwise
    */
   public boolean isEmpty() {
-    return storage.isEmpty();
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private E poll() {
+    E element = (E) storage[head];
+
+    /*
+     * Let the element be garbage collected.
+     */
+    storage[head] = null;
+
+    head = (head + 1) & (storage.length - 1);
+
+    --size;
+
+    return element;
+  }
+
+  private void grow() {
+    Object[] grown = new Object[storage.length * 2];
+
+    int headToEnd = storage.length - head;
+
+    System.arraycopy(storage, head, grown, 0, headToEnd);
+    System.arraycopy(storage, 0, grown, headToEnd, head);
+
+    storage = grown;
+
+    head = 0;
   }
 
   private void processElement(E element) {
-    List<Consumer<E>> consumers = listenerMap.get(element.getClass());
+    ObjLongConsumer<? super E> observer = processingObserver;
 
-    if (consumers != null) {
-      for (Consumer<E> consumer : consumers) {
-        consumer.accept(element);
+    if (observer == null) {
+      dispatch(element);
+    } else {
+      long start = System.nanoTime();
+
+      dispatch(element);
+
+      observer.accept(element, System.nanoTime() - start);
+    }
+  }
+
+  private void dispatch(E element) {
+    int index = element instanceof ClassIndexed
+        ? ((ClassIndexed) element).getClassIndex()
+        : ClassIndex.of(element.getClass());
+
+    if (index < dispatchTable.length) {
+      Consumer<E>[] consumers = dispatchTable[index];
+
+      if (consumers != null) {
+        for (Consumer<E> consumer : consumers) {
+          consumer.accept(element);
+        }
       }
     }
   }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Consumer<E>[] newListenerArray(int length) {
+    return (Consumer<E>[]) new Consumer[length];
+  }
 }
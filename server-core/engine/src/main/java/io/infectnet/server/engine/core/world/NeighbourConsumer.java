@@ -0,0 +1,16 @@
+package io.infectnet.server.engine.core.world;
+
+/**
+ * Consumer of the coordinates of the neighbours of a {@link Position}, used to walk over them
+ * without creating any objects.
+ * @see Position#forEachNeighbour(World, NeighbourConsumer)
+ */
+@FunctionalInterface
+public interface NeighbourConsumer {
+  /**
+   * Called with the coordinates of a neighbour.
+   * @param h the first coordinate of the neighbour
+   * @param w the second coordinate of the neighbour
+   */
+  void accept(int h, int w);
+}
@@ -2,12 +2,20 @@ package io.infectnet.server.engine.core.world;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * A class to hold two coordinates together, which define an exact {@link Tile} in the {@link
  * World}.
  */
 public class Position {
+  /**
+   * The offsets of the eight neighbours, in the same order as {@link #getNeighbours()} lists them.
+   */
+  private static final int[] NEIGHBOUR_OFFSET_H = {-1, -1, 0, 1, 1, 1, 0, -1};
+
+  private static final int[] NEIGHBOUR_OFFSET_W = {0, 1, 1, 1, 0, -1, -1, -1};
+
   /**
    * The first component, referring to height.
    */
@@ -112,6 +120,59 @@ public class Position {
     return neighbours;
   }
 
+  /**
+   * Passes the coordinates of the neighbours of this Position to the action, in the same order as
+   * {@link #getNeighbours()} lists them. Only the neighbours inside the World are visited, and no
+   * objects are created.
+   * @param world the World the Position is in
+   * @param action the action to call with the coordinates of every neighbour
+   */
+  public void forEachNeighbour(World world, NeighbourConsumer action) {
+    forEachNeighbour(world, h, w, action);
+  }
+
+  /**
+   * Passes the coordinates of the neighbours of the given coordinates to the action, just like
+   * {@link #forEachNeighbour(World, NeighbourConsumer)}, so loops over the cells of the World do
+   * not have to create a Position for every cell.
+   * @param world the World the coordinates are in
+   * @param h the first coordinate
+   * @param w the second coordinate
+   * @param action the action to call with the coordinates of every neighbour
+   */
+  public static void forEachNeighbour(World world, int h, int w, NeighbourConsumer action) {
+    for (int i = 0; i < NEIGHBOUR_OFFSET_H.length; ++i) {
+      int neighbourH = h + NEIGHBOUR_OFFSET_H[i];
+      int neighbourW = w + NEIGHBOUR_OFFSET_W[i];
+
+      if (neighbourH >= 0 && neighbourH < world.getHeight() && neighbourW >= 0
+          && neighbourW < world.getWidth()) {
+        action.accept(neighbourH, neighbourW);
+      }
+    }
+  }
+
+  /**
+   * Finds the first neighbour an {@code Entity} could step on, in the same order as
+   * {@link #getNeighbours()} lists them. Only the found neighbour is created as an object.
+   * @param world the World the Position is in
+   * @return the free neighbour, or an empty Optional if every neighbour is blocked or occupied
+   */
+  public Optional<Position> findFreeNeighbour(World world) {
+    for (int i = 0; i < NEIGHBOUR_OFFSET_H.length; ++i) {
+      int neighbourH = h + NEIGHBOUR_OFFSET_H[i];
+      int neighbourW = w + NEIGHBOUR_OFFSET_W[i];
+
+      if (neighbourH >= 0 && neighbourH < world.getHeight() && neighbourW >= 0
+          && neighbourW < world.getWidth()
+          && !world.isBlockedOrOccupied(neighbourH, neighbourW)) {
+        return Optional.of(new Position(neighbourH, neighbourW));
+      }
+    }
+
+    return Optional.empty();
+  }
+
   public int getH() {
     return h;
   }
@@ -0,0 +1,502 @@
+package io.infectnet.server.engine.core.world;
+
+import java.util.Arrays;
+
+/**
+ * The connected regions of the empty {@code CAVE} tiles of the {@link World}, that is the tiles an
+ * {@code Entity} can step on.
+ * <p>
+ * Every walkable cell holds a label, and the labels are merged in a union-find structure, so two
+ * cells belong to the same region if the roots of their labels are equal. The labels are computed
+ * when the world is generated, and are updated incrementally as the tiles get occupied or freed:
+ * </p>
+ * <ul>
+ * <li>When a tile is freed, the regions around it are merged, which takes nearly constant
+ * time.</li>
+ * <li>When a tile is occupied, its region may fall apart. If the walkable tiles around it are still
+ * connected to each other, nothing changes. Otherwise the sides are flood-filled together until
+ * they meet, and the sides found to be closed are given new labels. The floods stop after a
+ * limit, and the sides not closed by then are assumed to stay connected, which may leave two
+ * regions with the same label, but never separates connected tiles.</li>
+ * </ul>
+ * <p>
+ * Occupying a tile therefore costs at most {@value #SPLIT_SEARCH_LIMIT} expanded cells, with eight
+ * neighbours checked for each, and relabelling the cells of the closed sides, at most seven times
+ * the expanded cells. Closing the only gap of a wall across a large open world takes a few hundred
+ * microseconds on the game loop thread, while tiles whose neighbours stay connected are handled
+ * by checking the neighbours alone.
+ * </p>
+ * <p>
+ * The labels left behind by merges and splits are not reused one by one, as the cells and the
+ * union-find trees may still refer to them. Instead, once the labels outnumber a fraction of the
+ * cells, they are compacted: every region is given a new, dense label, so the number of labels
+ * stays proportional to the size of the world.
+ * </p>
+ */
+class RegionLabels {
+  /**
+   * The maximal number of tiles flood-filled around a tile that has just been occupied.
+   */
+  private static final int SPLIT_SEARCH_LIMIT = 4096;
+
+  /**
+   * The labels are compacted instead of being grown once there are more labels than the number of
+   * cells divided by this.
+   */
+  private static final int COMPACTION_RATIO = 4;
+
+  private static final int NO_LABEL = -1;
+
+  /**
+   * The number of low bits of the visit stamps holding the group the cell has been reached from.
+   */
+  private static final int GROUP_BITS = 3;
+
+  private static final int GROUP_MASK = (1 << GROUP_BITS) - 1;
+
+  private static final int MAX_STAMP = Integer.MAX_VALUE >>> GROUP_BITS;
+
+  private final TileGrid tileGrid;
+
+  private final int height;
+
+  private final int width;
+
+  /**
+   * The label of every cell, {@code -1} for the cells that cannot be stepped on.
+   */
+  private final int[] label;
+
+  /**
+   * The parent of every label in the union-find structure.
+   */
+  private int[] parent;
+
+  private int labelCount;
+
+  /**
+   * The search in which the cell has been visited, so the array never has to be cleared, and the
+   * group it has been reached from.
+   */
+  private final int[] visitStamp;
+
+  private int stamp;
+
+  private int[] queue;
+
+  /**
+   * The walkable neighbours of the last occupied cell, and the group they belong to.
+   */
+  private final int[] neighbourCells;
+
+  private final int[] neighbourGroups;
+
+  private final int[] groupIndex;
+
+  /**
+   * The groups merged by the current search, in a union-find structure.
+   */
+  private final int[] groupParent;
+
+  /**
+   * The number of cells of every group waiting to be expanded.
+   */
+  private final int[] pendingCells;
+
+  RegionLabels(TileGrid tileGrid) {
+    this.tileGrid = tileGrid;
+
+    this.height = tileGrid.getHeight();
+
+    this.width = tileGrid.getWidth();
+
+    this.label = new int[height * width];
+
+    this.parent = new int[16];
+
+    this.labelCount = 0;
+
+    this.visitStamp = new int[height * width];
+
+    this.stamp = 0;
+
+    this.queue = new int[SPLIT_SEARCH_LIMIT];
+
+    this.neighbourCells = new int[8];
+
+    this.neighbourGroups = new int[8];
+
+    this.groupIndex = new int[8];
+
+    this.groupParent = new int[8];
+
+    this.pendingCells = new int[8];
+
+    labelAll();
+  }
+
+  /**
+   * Checks whether an {@code Entity} on the first Position could get next to the second one, that
+   * is whether the walkable tiles on and around the two Positions share a region.
+   */
+  boolean sameRegion(int h, int w, int otherH, int otherW) {
+    for (int dh = -1; dh <= 1; ++dh) {
+      for (int dw = -1; dw <= 1; ++dw) {
+        int root = rootAt(h + dh, w + dw);
+
+        if (root == NO_LABEL) {
+          continue;
+        }
+
+        for (int otherDh = -1; otherDh <= 1; ++otherDh) {
+          for (int otherDw = -1; otherDw <= 1; ++otherDw) {
+            if (root == rootAt(otherH + otherDh, otherW + otherDw)) {
+              return true;
+            }
+          }
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Updates the labels after the content of the Tile at the given coordinates has changed.
+   */
+  void tileChanged(int h, int w) {
+    int cell = h * width + w;
+
+    boolean walkable = isWalkable(h, w);
+
+    if (walkable && label[cell] == NO_LABEL) {
+      tileFreed(h, w, cell);
+    } else if (!walkable && label[cell] != NO_LABEL) {
+      tileOccupied(h, w, cell);
+    }
+  }
+
+  private void labelAll() {
+    Arrays.fill(label, NO_LABEL);
+
+    /* A single scan in row-major order: every walkable cell joins the label of its western
+       neighbour, and the labels of its northern neighbours are merged into it. */
+
+    for (int h = 0; h < height; ++h) {
+      for (int w = 0; w < width; ++w) {
+        int cell = h * width + w;
+
+        if (tileGrid.isBlockedOrOccupied(cell)) {
+          continue;
+        }
+
+        int cellLabel = w > 0 ? label[cell - 1] : NO_LABEL;
+
+        for (int dw = -1; dw <= 1 && h > 0; ++dw) {
+          if (w + dw >= 0 && w + dw < width) {
+            cellLabel = merge(cellLabel, label[cell - width + dw]);
+          }
+        }
+
+        label[cell] = cellLabel == NO_LABEL ? newLabel() : cellLabel;
+      }
+    }
+  }
+
+  /**
+   * Merges the regions of two labels, either of them may be {@code -1}.
+   * @return a label of the merged region
+   */
+  private int merge(int firstLabel, int secondLabel) {
+    if (firstLabel == secondLabel || secondLabel == NO_LABEL) {
+      return firstLabel;
+    }
+
+    if (firstLabel == NO_LABEL) {
+      return secondLabel;
+    }
+
+    int root = find(firstLabel);
+    int otherRoot = find(secondLabel);
+
+    parent[otherRoot] = root;
+
+    return root;
+  }
+
+  private void tileFreed(int h, int w, int cell) {
+    int root = NO_LABEL;
+
+    for (int dh = -1; dh <= 1; ++dh) {
+      for (int dw = -1; dw <= 1; ++dw) {
+        int neighbourRoot = rootAt(h + dh, w + dw);
+
+        if (neighbourRoot == NO_LABEL || neighbourRoot == root) {
+          continue;
+        }
+
+        if (root == NO_LABEL) {
+          root = neighbourRoot;
+        } else {
+          parent[neighbourRoot] = root;
+        }
+      }
+    }
+
+    label[cell] = root == NO_LABEL ? newLabel() : root;
+  }
+
+  private void tileOccupied(int h, int w, int cell) {
+    label[cell] = NO_LABEL;
+
+    int groupCount = groupNeighbours(h, w);
+
+    if (groupCount < 2) {
+      return;
+    }
+
+    /* The groups are flood-filled together, one layer at a time, and merged when their floods
+       meet. A group whose flood runs out of cells is a closed region and gets a new label. The
+       last group left keeps the old label. */
+
+    nextStamp();
+
+    int head = 0;
+    int tail = 0;
+
+    for (int group = 0; group < groupCount; ++group) {
+      groupParent[group] = group;
+      pendingCells[group] = 0;
+    }
+
+    for (int i = 0; i < 8 && neighbourCells[i] != NO_LABEL; ++i) {
+      visitStamp[neighbourCells[i]] = (stamp << GROUP_BITS) | neighbourGroups[i];
+
+      queue[tail++] = neighbourCells[i];
+
+      ++pendingCells[neighbourGroups[i]];
+    }
+
+    int openGroups = groupCount;
+
+    while (head < tail) {
+      int current = queue[head++];
+
+      int group = groupRoot(visitStamp[current] & GROUP_MASK);
+
+      for (int dh = -1; dh <= 1; ++dh) {
+        for (int dw = -1; dw <= 1; ++dw) {
+          int neighbourH = current / width + dh;
+          int neighbourW = current % width + dw;
+
+          if (!isWalkable(neighbourH, neighbourW)) {
+            continue;
+          }
+
+          int neighbour = neighbourH * width + neighbourW;
+
+          if (visitStamp[neighbour] >>> GROUP_BITS == stamp) {
+            int otherGroup = groupRoot(visitStamp[neighbour] & GROUP_MASK);
+
+            if (otherGroup != group) {
+              groupParent[otherGroup] = group;
+              pendingCells[group] += pendingCells[otherGroup];
+
+              if (--openGroups == 1) {
+                return;
+              }
+            }
+          } else {
+            if (tail == SPLIT_SEARCH_LIMIT) {
+              /* The remaining groups are assumed to be connected. */
+              return;
+            }
+
+            visitStamp[neighbour] = (stamp << GROUP_BITS) | group;
+
+            queue[tail++] = neighbour;
+
+            ++pendingCells[group];
+          }
+        }
+      }
+
+      if (--pendingCells[group] == 0) {
+        int newLabel = newLabel();
+
+        for (int i = 0; i < tail; ++i) {
+          if (groupRoot(visitStamp[queue[i]] & GROUP_MASK) == group) {
+            label[queue[i]] = newLabel;
+          }
+        }
+
+        if (--openGroups == 1) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Collects the walkable neighbours of the cell, and groups them by their adjacency. Neighbours in
+   * the same group are connected to each other even without the cell.
+   * @return the number of groups
+   */
+  private int groupNeighbours(int h, int w) {
+    int count = 0;
+
+    for (int dh = -1; dh <= 1; ++dh) {
+      for (int dw = -1; dw <= 1; ++dw) {
+        if ((dh != 0 || dw != 0) && isWalkable(h + dh, w + dw)) {
+          neighbourCells[count] = (h + dh) * width + (w + dw);
+          neighbourGroups[count] = count;
+
+          ++count;
+        }
+      }
+    }
+
+    for (int i = count; i < 8; ++i) {
+      neighbourCells[i] = NO_LABEL;
+    }
+
+    /* Merging the groups of adjacent neighbours, until nothing changes. */
+
+    boolean changed = true;
+
+    while (changed) {
+      changed = false;
+
+      for (int i = 0; i < count; ++i) {
+        for (int j = i + 1; j < count; ++j) {
+          if (neighbourGroups[i] != neighbourGroups[j]
+              && areAdjacent(neighbourCells[i], neighbourCells[j])) {
+            int group = Math.min(neighbourGroups[i], neighbourGroups[j]);
+
+            neighbourGroups[i] = group;
+            neighbourGroups[j] = group;
+
+            changed = true;
+          }
+        }
+      }
+    }
+
+    /* Renumbering the groups from zero. */
+
+    int groupCount = 0;
+
+    Arrays.fill(groupIndex, NO_LABEL);
+
+    for (int i = 0; i < count; ++i) {
+      if (groupIndex[neighbourGroups[i]] == NO_LABEL) {
+        groupIndex[neighbourGroups[i]] = groupCount++;
+      }
+
+      neighbourGroups[i] = groupIndex[neighbourGroups[i]];
+    }
+
+    return groupCount;
+  }
+
+  private int groupRoot(int group) {
+    while (groupParent[group] != group) {
+      group = groupParent[group];
+    }
+
+    return group;
+  }
+
+  private void nextStamp() {
+    if (stamp == MAX_STAMP) {
+      /* The stamps of old searches could be mistaken for the new ones after overflowing. */
+      Arrays.fill(visitStamp, 0);
+
+      stamp = 0;
+    }
+
+    ++stamp;
+  }
+
+  private boolean areAdjacent(int cell, int otherCell) {
+    return Math.abs(cell / width - otherCell / width) <= 1
+        && Math.abs(cell % width - otherCell % width) <= 1;
+  }
+
+  private int rootAt(int h, int w) {
+    if (h < 0 || h >= height || w < 0 || w >= width || label[h * width + w] == NO_LABEL) {
+      return NO_LABEL;
+    }
+
+    return find(label[h * width + w]);
+  }
+
+  private int find(int labelToFind) {
+    int current = labelToFind;
+
+    while (parent[current] != current) {
+      /* Path halving keeps the trees flat. */
+      parent[current] = parent[parent[current]];
+
+      current = parent[current];
+    }
+
+    return current;
+  }
+
+  private int newLabel() {
+    if (labelCount == parent.length) {
+      if (labelCount >= label.length / COMPACTION_RATIO) {
+        compact();
+      }
+
+      /* After a compaction, at least as many labels can be created as there are live regions
+         before the next one. */
+
+      if (labelCount > parent.length / 2) {
+        parent = Arrays.copyOf(parent, parent.length * 2);
+      }
+    }
+
+    parent[labelCount] = labelCount;
+
+    return labelCount++;
+  }
+
+  /**
+   * Gives every region a new label, numbered from zero, and drops the labels no cell belongs to.
+   * The labels held by the callers of {@link #newLabel()} are invalidated.
+   */
+  private void compact() {
+    int[] newLabels = new int[labelCount];
+
+    Arrays.fill(newLabels, NO_LABEL);
+
+    int newLabelCount = 0;
+
+    for (int cell = 0; cell < label.length; ++cell) {
+      if (label[cell] == NO_LABEL) {
+        continue;
+      }
+
+      int root = find(label[cell]);
+
+      if (newLabels[root] == NO_LABEL) {
+        newLabels[root] = newLabelCount++;
+      }
+
+      label[cell] = newLabels[root];
+    }
+
+    for (int i = 0; i < newLabelCount; ++i) {
+      parent[i] = i;
+    }
+
+    labelCount = newLabelCount;
+  }
+
+  private boolean isWalkable(int h, int w) {
+    return h >= 0 && h < height && w >= 0 && w < width
+        && !tileGrid.isBlockedOrOccupied(h * width + w);
+  }
+}
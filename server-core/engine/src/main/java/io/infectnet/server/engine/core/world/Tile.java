@@ -5,6 +5,11 @@ import io.infectnet.server.engine.core.entity.Entity;
 /**
  * This class represents an atomic piece of the {@link World}.
  * It holds information about the type of area defined by this {@code Tile}'s unique coordinates.
+ * <p>
+ * The {@code World} does not store its tiles as objects, the Tiles it returns are snapshots
+ * created on demand. Setting the {@code Entity} of a snapshot does not change the {@code World},
+ * use {@link World#setEntityOnPosition(Entity, Position)} instead.
+ * </p>
  */
 public class Tile {
 
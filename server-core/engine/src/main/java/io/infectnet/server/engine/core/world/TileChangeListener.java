@@ -0,0 +1,14 @@
+package io.infectnet.server.engine.core.world;
+
+/**
+ * Listener notified when the content of a {@link Tile} of the {@link World} changes, that is when
+ * an {@link io.infectnet.server.engine.core.entity.Entity} is placed on or removed from it.
+ */
+@FunctionalInterface
+public interface TileChangeListener {
+  /**
+   * Called after the specified {@code Tile} has changed.
+   * @param tile the changed {@code Tile}
+   */
+  void tileChanged(Tile tile);
+}
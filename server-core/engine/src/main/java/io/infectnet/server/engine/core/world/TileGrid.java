@@ -0,0 +1,155 @@
+package io.infectnet.server.engine.core.world;
+
+import io.infectnet.server.engine.core.entity.Entity;
+
+import java.util.Arrays;
+
+/**
+ * The tiles of the {@link World} stored as a structure of arrays, the index of a cell being
+ * {@code h * width + w}.
+ * <p>
+ * Every cell takes a byte for its {@link TileType} and an int for the slot of the {@link Entity}
+ * standing on it, instead of a {@link Tile} and a {@link Position} object, so the grid takes about
+ * a tenth of the memory, and the loops over neighbouring cells read neighbouring array elements.
+ * The entities are stored in a slot table, slot {@code 0} meaning an empty cell. Tile objects are
+ * only created on demand, as snapshots of a single cell.
+ * </p>
+ */
+class TileGrid {
+  private static final int NO_ENTITY = 0;
+
+  private static final TileType[] TILE_TYPES = TileType.values();
+
+  private final int height;
+
+  private final int width;
+
+  /**
+   * The ordinal of the {@link TileType} of every cell.
+   */
+  private final byte[] types;
+
+  /**
+   * The slot of the Entity on every cell, {@code 0} if the cell is empty.
+   */
+  private final int[] entitySlots;
+
+  /**
+   * The Entity of every slot, the first one is never used.
+   */
+  private Entity[] entities;
+
+  /**
+   * The slots freed by removed entities, to be reused before the table grows.
+   */
+  private int[] freeSlots;
+
+  private int freeSlotCount;
+
+  private int slotCount;
+
+  TileGrid(int height, int width) {
+    this.height = height;
+
+    this.width = width;
+
+    this.types = new byte[height * width];
+
+    this.entitySlots = new int[height * width];
+
+    this.entities = new Entity[16];
+
+    this.freeSlots = new int[16];
+
+    this.freeSlotCount = 0;
+
+    this.slotCount = 1;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  TileType getType(int cell) {
+    return TILE_TYPES[types[cell]];
+  }
+
+  void setType(int cell, TileType type) {
+    types[cell] = (byte) type.ordinal();
+  }
+
+  Entity getEntity(int cell) {
+    return entities[entitySlots[cell]];
+  }
+
+  boolean isBlockedOrOccupied(int cell) {
+    return types[cell] == TileType.ROCK.ordinal() || entitySlots[cell] != NO_ENTITY;
+  }
+
+  /**
+   * Places the Entity on the cell, replacing the previous one.
+   * @param cell the index of the cell
+   * @param entity the Entity to place, {@code null} to empty the cell
+   * @return true if the content of the cell has changed, false otherwise
+   */
+  boolean setEntity(int cell, Entity entity) {
+    int slot = entitySlots[cell];
+
+    if (entities[slot] == entity) {
+      return false;
+    }
+
+    if (slot != NO_ENTITY) {
+      releaseSlot(slot);
+    }
+
+    entitySlots[cell] = entity == null ? NO_ENTITY : acquireSlot(entity);
+
+    return true;
+  }
+
+  /**
+   * Creates a snapshot of the cell, later changes of the grid are not reflected by it.
+   */
+  Tile tileAt(int h, int w) {
+    int cell = h * width + w;
+
+    Tile tile = new Tile(getType(cell), new Position(h, w));
+
+    tile.setEntity(getEntity(cell));
+
+    return tile;
+  }
+
+  private int acquireSlot(Entity entity) {
+    int slot;
+
+    if (freeSlotCount > 0) {
+      slot = freeSlots[--freeSlotCount];
+    } else {
+      if (slotCount == entities.length) {
+        entities = Arrays.copyOf(entities, entities.length * 2);
+      }
+
+      slot = slotCount++;
+    }
+
+    entities[slot] = entity;
+
+    return slot;
+  }
+
+  private void releaseSlot(int slot) {
+    entities[slot] = null;
+
+    if (freeSlotCount == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+    }
+
+    freeSlots[freeSlotCount++] = slot;
+  }
+}
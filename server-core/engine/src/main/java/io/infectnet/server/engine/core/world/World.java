@@ -4,8 +4,12 @@ import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.world.strategy.generation.WorldGeneratorStrategy;
 import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy;
 
+import java.nio.LongBuffer;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 
 /**
  * The representation of the game world, in a finite two-dimensional space,
@@ -17,23 +21,66 @@ public abstract class World {
 
   protected final PathFinderStrategy pathFinderStrategy;
 
+  private final List<TileChangeListener> tileChangeListeners;
+
   public World(WorldGeneratorStrategy worldGeneratorStrategy,
                PathFinderStrategy pathFinderStrategy) {
     this.worldGeneratorStrategy = worldGeneratorStrategy;
     this.pathFinderStrategy = pathFinderStrategy;
+    this.tileChangeListeners = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Adds a listener that will be notified whenever an {@code Entity} is placed on or removed from
+   * a {@link Tile} using {@link #setEntityOnPosition(Entity, Position)}.
+   * @param listener the listener to add
+   * @throws NullPointerException if the listener is {@code null}
+   */
+  public void addTileChangeListener(TileChangeListener listener) {
+    tileChangeListeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Notifies the registered listeners that the specified {@code Tile} has changed.
+   * @param tile the changed {@code Tile}
+   */
+  protected void fireTileChanged(Tile tile) {
+    for (TileChangeListener listener : tileChangeListeners) {
+      listener.tileChanged(tile);
+    }
   }
 
   /**
    * Generates a new array of Tiles with the given strategy.
    * @param height the height of the world
    * @param width the width of the world
+   * @param seed the seed of the generation, the same seed always generating the same Tiles
    */
-  public abstract void generate(int height, int width);
+  public abstract void generate(int height, int width, long seed);
+
+  /**
+   * Restores the Tiles of a previously generated world, instead of generating them again.
+   * @param height the height of the world
+   * @param width the width of the world
+   * @param caves the types of the Tiles as bits, row by row, a set bit meaning a {@code CAVE}
+   * and the lowest bit of a word coming first
+   */
+  public abstract void restore(int height, int width, LongBuffer caves);
 
   public List<Tile> findPath(Position start, Position target) {
     return pathFinderStrategy.findPath(this, start, target);
   }
 
+  /**
+   * Checks whether an {@code Entity} standing on the first Position could get next to the second
+   * one, walking only on empty {@code CAVE} tiles. The check does not search, so path finders can
+   * use it to reject unreachable targets.
+   * @param position the Position of the moving Entity
+   * @param target the Position to get next to
+   * @return true if the Positions are connected, false if they are certainly not
+   */
+  public abstract boolean sameRegion(Position position, Position target);
+
   /**
    * Returns a set containing all Entities that are visible for the {@link Entity} given.
    * @param entity the {@code Entity} in the centre, whose point of view prevails
@@ -57,12 +104,73 @@ public abstract class World {
   public abstract List<Tile> viewSight(Entity entity);
 
   /**
-   * Returns a Tile defined by the given Position.
+   * Returns the list of all tiles seen from the specified {@code Position} with the passed view
+   * radius. An {@code Entity} with the same view radius standing on the {@code Position} would see
+   * the same tiles.
+   * @param position the centre of the view sight
+   * @param viewRadius the view radius
+   * @return a list of {@link Tile}s that can be seen from the given position
+   */
+  public abstract List<Tile> viewSight(Position position, int viewRadius);
+
+  /**
+   * Passes the index, {@code h * width + w}, of every tile seen from the specified
+   * {@code Position} with the passed view radius to the action. The same tiles are visited as the
+   * ones returned by {@link #viewSight(Position, int)}, without creating any {@link Tile}.
+   * @param position the centre of the view sight
+   * @param viewRadius the view radius
+   * @param action the action to call with the index of every tile seen
+   */
+  public abstract void forEachCellInSight(Position position, int viewRadius, IntConsumer action);
+
+  /**
+   * Returns a Tile defined by the given Position. The returned Tile is a snapshot, it does not
+   * change with the World, and changing it does not change the World.
    * @param position the position given
    * @return the tile
    */
   public abstract Tile getTileByPosition(Position position);
 
+  /**
+   * Returns the Tile at the given coordinates, a snapshot just like the ones returned by
+   * {@link #getTileByPosition(Position)}. Loops checking many tiles should rather use
+   * {@link #getTileType(int, int)} and {@link #isBlockedOrOccupied(int, int)}.
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return the tile
+   * @throws IllegalArgumentException if the coordinates are outside of the world
+   */
+  public abstract Tile getTileByCoordinates(int h, int w);
+
+  /**
+   * Returns the type of the tile at the given coordinates, without creating a {@link Tile}.
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return the type of the tile
+   * @throws IllegalArgumentException if the coordinates are outside of the world
+   */
+  public abstract TileType getTileType(int h, int w);
+
+  /**
+   * Checks whether the tile at the given coordinates is a {@code ROCK} or has an {@link Entity}
+   * on it, without creating a {@link Tile}.
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return true if no {@code Entity} can step on the tile, false otherwise
+   * @throws IllegalArgumentException if the coordinates are outside of the world
+   */
+  public abstract boolean isBlockedOrOccupied(int h, int w);
+
+  /**
+   * Returns the {@link Entity} on the tile at the given coordinates, without creating a
+   * {@link Tile}.
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return the Entity, or {@code null} if the tile is empty
+   * @throws IllegalArgumentException if the coordinates are outside of the world
+   */
+  public abstract Entity getEntityByCoordinates(int h, int w);
+
   /**
    * Checks if the Position given defines a coordinate pair in the field of the World.
    * @param position the given coordinates to check
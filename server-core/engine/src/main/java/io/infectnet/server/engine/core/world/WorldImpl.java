@@ -4,17 +4,19 @@ import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.world.strategy.generation.WorldGeneratorStrategy;
 import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy;
 
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 public class WorldImpl extends World {
   /**
-   * The two-dimensional array to hold all tiles in the {@link World}
+   * The grid holding all tiles in the {@link World}.
    */
-  private Tile[][] tiles;
+  private TileGrid tileGrid;
 
   /**
    * The height of the world.
@@ -32,6 +34,11 @@ public class WorldImpl extends World {
    */
   private final HashMap<Entity, Tile> entityPositionMap;
 
+  /**
+   * The connected regions of the tiles that can be stepped on.
+   */
+  private RegionLabels regionLabels;
+
   /**
    * Creates a new World in a size defined by the parameters. All its tiles are generated at random.
    * @param worldGeneratorStrategy the strategy to generate the world
@@ -73,7 +80,7 @@ public class WorldImpl extends World {
 
     for (int i = viewBox.northLimitHeight; i <= viewBox.southLimitHeight; ++i) {
       for (int j = viewBox.westLimitWidth; j <= viewBox.eastLimitWidth; ++j) {
-        Entity en = tiles[i][j].getEntity();
+        Entity en = tileGrid.getEntity(i * width + j);
         if (en != null && position.getH() != i && position.getW() != j) {
           set.add(en);
         }
@@ -85,29 +92,40 @@ public class WorldImpl extends World {
 
   @Override
   public List<Tile> viewSight(Entity entity) {
-    List<Tile> list = new ArrayList<>();
     int viewRadius = entity.getViewComponent().getViewRadius();
     Position position = entity.getPositionComponent().getPosition();
 
+    return viewSight(position, viewRadius);
+  }
+
+  @Override
+  public List<Tile> viewSight(Position position, int viewRadius) {
+    List<Tile> list = new ArrayList<>();
+
+    forEachCellInSight(position, viewRadius,
+        cell -> list.add(tileGrid.tileAt(cell / width, cell % width)));
+
+    return list;
+  }
+
+  @Override
+  public void forEachCellInSight(Position position, int viewRadius, IntConsumer action) {
     ViewBox viewBox = new ViewBox(viewRadius, position, this);
 
     for (int i = viewBox.northLimitHeight; i <= viewBox.southLimitHeight; ++i) {
       for (int j = viewBox.westLimitWidth; j <= viewBox.eastLimitWidth; ++j) {
-        Tile tile = tiles[i][j];
         if (position.getH() != i && position.getW() != j) {
-          list.add(tile);
+          action.accept(i * width + j);
         }
       }
     }
-
-    return list;
   }
 
   @Override
-  public void generate(int height, int width) {
-    tiles = new Tile[height][width];
+  public void generate(int height, int width, long seed) {
+    tileGrid = new TileGrid(height, width);
 
-    boolean[][] cells = worldGeneratorStrategy.generateWorld(height, width);
+    boolean[][] cells = worldGeneratorStrategy.generateWorld(height, width, seed);
 
     this.height = height;
     this.width = width;
@@ -115,14 +133,43 @@ public class WorldImpl extends World {
     for (int i = 0; i < height; ++i) {
       for (int j = 0; j < width; ++j) {
         if (isBorder(i, j)) {
-          tiles[i][j] = new Tile(TileType.ROCK, new Position(i, j));
+          tileGrid.setType(i * width + j, TileType.ROCK);
         } else if (cells[i][j] == worldGeneratorStrategy.CAVE) {
-          tiles[i][j] = new Tile(TileType.CAVE, new Position(i, j));
+          tileGrid.setType(i * width + j, TileType.CAVE);
         } else {
-          tiles[i][j] = new Tile(TileType.ROCK, new Position(i, j));
+          tileGrid.setType(i * width + j, TileType.ROCK);
         }
       }
     }
+
+    tilesInitialized();
+  }
+
+  @Override
+  public void restore(int height, int width, LongBuffer caves) {
+    tileGrid = new TileGrid(height, width);
+
+    this.height = height;
+    this.width = width;
+
+    for (int cell = 0; cell < height * width; ++cell) {
+      if ((caves.get(caves.position() + cell / Long.SIZE) >>> (cell % Long.SIZE) & 1L) == 1L) {
+        tileGrid.setType(cell, TileType.CAVE);
+      } else {
+        tileGrid.setType(cell, TileType.ROCK);
+      }
+    }
+
+    tilesInitialized();
+  }
+
+  /**
+   * Builds the structures depending on the types of the Tiles, once they are all set.
+   */
+  private void tilesInitialized() {
+    regionLabels = new RegionLabels(tileGrid);
+
+    pathFinderStrategy.worldGenerated(this);
   }
 
   /**
@@ -132,12 +179,8 @@ public class WorldImpl extends World {
    * @return true if it is on the border, false otherwise
    */
   private boolean isBorder(int i, int j) {
-    return i == 0 || i == tiles.length - 1
-        || j == 0 || j == tiles[i].length - 1;
-  }
-
-  public Tile[][] getTiles() {
-    return tiles;
+    return i == 0 || i == height - 1
+        || j == 0 || j == width - 1;
   }
 
   public HashMap<Entity, Tile> getEntityPositionMap() {
@@ -147,7 +190,43 @@ public class WorldImpl extends World {
   @Override
   public Tile getTileByPosition(Position position) {
     if (isPositionValidTile(position)) {
-      return tiles[position.getH()][position.getW()];
+      return tileGrid.tileAt(position.getH(), position.getW());
+    } else {
+      throw new IllegalArgumentException("Invalid Position!");
+    }
+  }
+
+  @Override
+  public Tile getTileByCoordinates(int h, int w) {
+    if (h >= 0 && h < height && w >= 0 && w < width) {
+      return tileGrid.tileAt(h, w);
+    } else {
+      throw new IllegalArgumentException("Invalid Position!");
+    }
+  }
+
+  @Override
+  public TileType getTileType(int h, int w) {
+    if (h >= 0 && h < height && w >= 0 && w < width) {
+      return tileGrid.getType(h * width + w);
+    } else {
+      throw new IllegalArgumentException("Invalid Position!");
+    }
+  }
+
+  @Override
+  public boolean isBlockedOrOccupied(int h, int w) {
+    if (h >= 0 && h < height && w >= 0 && w < width) {
+      return tileGrid.isBlockedOrOccupied(h * width + w);
+    } else {
+      throw new IllegalArgumentException("Invalid Position!");
+    }
+  }
+
+  @Override
+  public Entity getEntityByCoordinates(int h, int w) {
+    if (h >= 0 && h < height && w >= 0 && w < width) {
+      return tileGrid.getEntity(h * width + w);
     } else {
       throw new IllegalArgumentException("Invalid Position!");
     }
@@ -156,12 +235,25 @@ public class WorldImpl extends World {
   @Override
   public void setEntityOnPosition(Entity entity, Position position) {
     if (isPositionValidTile(position)) {
-      getTileByPosition(position).setEntity(entity);
+      int h = position.getH();
+      int w = position.getW();
+
+      if (tileGrid.setEntity(h * width + w, entity)) {
+        regionLabels.tileChanged(h, w);
+
+        fireTileChanged(tileGrid.tileAt(h, w));
+      }
     } else {
       throw new IllegalArgumentException("Invalid Position!");
     }
   }
 
+  @Override
+  public boolean sameRegion(Position position, Position target) {
+    return regionLabels.sameRegion(position.getH(), position.getW(), target.getH(),
+        target.getW());
+  }
+
   @Override
   public boolean isPositionValidTile(Position position) {
     return position.getH() >= 0 && position.getH() < height && position.getW() >= 0
@@ -0,0 +1,286 @@
+package io.infectnet.server.engine.core.world.cache;
+
+import io.infectnet.server.engine.core.world.TileType;
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.customizer.RestorableWorldCustomizer;
+import io.infectnet.server.engine.core.world.customizer.WorldCustomizer;
+import io.infectnet.server.engine.core.world.strategy.generation.WorldGeneratorStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the cached {@link World} in a file, which is memory-mapped when the World is restored.
+ * <p>
+ * The file starts with a header holding the fingerprint of the generation, the seed and the size
+ * of the World. The fingerprint is computed from the versions of the generator and of the
+ * {@link RestorableWorldCustomizer}s, so a World generated or customized by other versions is
+ * generated again. The types of the Tiles follow as bits, one {@code long} word for every 64
+ * Tiles, so the file takes about one eighth of a byte for every Tile. The results of the
+ * {@link RestorableWorldCustomizer}s come last, every result tagged with the class name of its
+ * customizer.
+ * </p>
+ */
+public class FileWorldCache implements WorldCache {
+  private static final Logger logger = LoggerFactory.getLogger(FileWorldCache.class);
+
+  /**
+   * The first bytes of every cache file, the characters {@code INFW}.
+   */
+  private static final int MAGIC = 0x494E4657;
+
+  /**
+   * The version of the format of the file, files of other versions are not restored.
+   */
+  private static final int VERSION = 2;
+
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+  private static final long FNV_PRIME = 0x100000001B3L;
+
+  private final Path path;
+
+  private final WorldGeneratorStrategy worldGeneratorStrategy;
+
+  /**
+   * Creates a new cache keeping the World in the given file.
+   * @param path the path of the file
+   * @param worldGeneratorStrategy the strategy generating the cached World
+   */
+  public FileWorldCache(Path path, WorldGeneratorStrategy worldGeneratorStrategy) {
+    this.path = path;
+
+    this.worldGeneratorStrategy = worldGeneratorStrategy;
+  }
+
+  @Override
+  public boolean restore(World world, Collection<WorldCustomizer> customizers, int height,
+                         int width, long seed) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+          || buffer.getLong() != fingerprint(customizers) || buffer.getLong() != seed
+          || buffer.getInt() != height || buffer.getInt() != width) {
+        logger.info("The cached world in {} is not the one to be generated!", path);
+
+        return false;
+      }
+
+      int caveWords = (height * width + Long.SIZE - 1) / Long.SIZE;
+
+      LongBuffer caves = buffer.slice().asLongBuffer();
+
+      caves.limit(caveWords);
+
+      buffer.position(buffer.position() + caveWords * Long.BYTES);
+
+      Map<String, ByteBuffer> results = readResults(buffer);
+
+      /* Checking every result before touching the World, so it is either restored or not. */
+      for (WorldCustomizer customizer : customizers) {
+        if (customizer instanceof RestorableWorldCustomizer
+            && !results.containsKey(customizer.getClass().getName())) {
+          logger.info("The cached world in {} has no results of {}!", path,
+              customizer.getClass().getName());
+
+          return false;
+        }
+      }
+
+      world.restore(height, width, caves);
+
+      for (WorldCustomizer customizer : customizers) {
+        if (customizer instanceof RestorableWorldCustomizer) {
+          ((RestorableWorldCustomizer) customizer)
+              .restoreResults(world, seed, results.get(customizer.getClass().getName()));
+        } else {
+          customizer.customize(world, seed);
+        }
+      }
+
+      logger.info("World restored from {}!", path);
+
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      logger.warn("The cached world in {} cannot be read: {}", path, e.toString());
+
+      return false;
+    }
+  }
+
+  @Override
+  public void store(World world, Collection<WorldCustomizer> customizers, long seed) {
+    /* Writing to a temporary file first, so a failed write never leaves a broken cache. */
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try {
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(fingerprint(customizers));
+        out.writeLong(seed);
+        out.writeInt(world.getHeight());
+        out.writeInt(world.getWidth());
+
+        writeCaves(world, out);
+
+        writeResults(customizers, out);
+      }
+
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+
+      logger.info("World stored in {}!", path);
+    } catch (IOException e) {
+      logger.warn("The world cannot be stored in {}: {}", path, e.toString());
+    }
+  }
+
+  /**
+   * Computes the fingerprint of the generation, a FNV-1a hash of the class names and versions of
+   * the generator and of the restorable customizers.
+   */
+  private long fingerprint(Collection<WorldCustomizer> customizers) {
+    List<String> versions = new ArrayList<>();
+
+    versions.add(worldGeneratorStrategy.getClass().getName() + ':'
+        + worldGeneratorStrategy.getVersion());
+
+    for (WorldCustomizer customizer : customizers) {
+      if (customizer instanceof RestorableWorldCustomizer) {
+        versions.add(customizer.getClass().getName() + ':'
+            + ((RestorableWorldCustomizer) customizer).getVersion());
+      }
+    }
+
+    /* The order of the customizers is not specified, so it must not change the fingerprint. */
+    Collections.sort(versions);
+
+    long fingerprint = FNV_OFFSET_BASIS;
+
+    for (byte b : String.join(",", versions).getBytes(StandardCharsets.UTF_8)) {
+      fingerprint = (fingerprint ^ (b & 0xFF)) * FNV_PRIME;
+    }
+
+    return fingerprint;
+  }
+
+  /**
+   * Reads the results of the customizers.
+   * @param buffer the buffer positioned at the results
+   * @return the results by the class names of their customizers, each in its own buffer
+   * @throws BufferUnderflowException if the file is truncated
+   */
+  private Map<String, ByteBuffer> readResults(ByteBuffer buffer) {
+    Map<String, ByteBuffer> results = new HashMap<>();
+
+    int count = buffer.getInt();
+
+    for (int i = 0; i < count; ++i) {
+      byte[] name = new byte[checkedLength(buffer)];
+
+      buffer.get(name);
+
+      int length = checkedLength(buffer);
+
+      ByteBuffer result = buffer.slice();
+
+      result.limit(length);
+
+      buffer.position(buffer.position() + length);
+
+      results.put(new String(name, StandardCharsets.UTF_8), result);
+    }
+
+    return results;
+  }
+
+  /**
+   * Reads the length of the next item of the buffer.
+   * @throws BufferUnderflowException if the length exceeds the rest of the buffer
+   */
+  private int checkedLength(ByteBuffer buffer) {
+    int length = buffer.getInt();
+
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+
+    return length;
+  }
+
+  private void writeCaves(World world, DataOutputStream out) throws IOException {
+    long word = 0L;
+
+    int cell = 0;
+
+    for (int h = 0; h < world.getHeight(); ++h) {
+      for (int w = 0; w < world.getWidth(); ++w, ++cell) {
+        if (world.getTileType(h, w) == TileType.CAVE) {
+          word |= 1L << (cell % Long.SIZE);
+        }
+
+        if (cell % Long.SIZE == Long.SIZE - 1) {
+          out.writeLong(word);
+
+          word = 0L;
+        }
+      }
+    }
+
+    if (cell % Long.SIZE != 0) {
+      out.writeLong(word);
+    }
+  }
+
+  private void writeResults(Collection<WorldCustomizer> customizers, DataOutputStream out)
+      throws IOException {
+    Map<String, byte[]> results = new HashMap<>();
+
+    for (WorldCustomizer customizer : customizers) {
+      if (customizer instanceof RestorableWorldCustomizer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ((RestorableWorldCustomizer) customizer).writeResults(new DataOutputStream(bytes));
+
+        results.put(customizer.getClass().getName(), bytes.toByteArray());
+      }
+    }
+
+    out.writeInt(results.size());
+
+    for (Map.Entry<String, byte[]> result : results.entrySet()) {
+      byte[] name = result.getKey().getBytes(StandardCharsets.UTF_8);
+
+      out.writeInt(name.length);
+      out.write(name);
+
+      out.writeInt(result.getValue().length);
+      out.write(result.getValue());
+    }
+  }
+}
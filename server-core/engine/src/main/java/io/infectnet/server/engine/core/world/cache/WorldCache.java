@@ -0,0 +1,34 @@
+package io.infectnet.server.engine.core.world.cache;
+
+import io.infectnet.server.engine.core.world.World;
+import io.infectnet.server.engine.core.world.customizer.WorldCustomizer;
+
+import java.util.Collection;
+
+/**
+ * Keeps a generated and customized {@link World}, so the next start of the server can restore it
+ * instead of generating it again.
+ */
+public interface WorldCache {
+  /**
+   * Restores the World from the cache, if the cache holds a World of the given size and seed.
+   * The results of the customizers are restored if they were stored, the other customizers
+   * customize the restored World again.
+   * @param world the world to restore
+   * @param customizers the customizers of the world, in the order they customized it
+   * @param height the height of the world
+   * @param width the width of the world
+   * @param seed the seed of the world
+   * @return true if the World has been restored, false if it has to be generated
+   */
+  boolean restore(World world, Collection<WorldCustomizer> customizers, int height, int width,
+                  long seed);
+
+  /**
+   * Stores the World along with the results of its customizers, replacing the cached World.
+   * @param world the generated and customized world
+   * @param customizers the customizers of the world, in the order they customized it
+   * @param seed the seed of the world
+   */
+  void store(World world, Collection<WorldCustomizer> customizers, long seed);
+}
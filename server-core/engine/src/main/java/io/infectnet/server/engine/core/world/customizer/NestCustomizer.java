@@ -1,180 +1,212 @@
 package io.infectnet.server.engine.core.world.customizer;
 
 import io.infectnet.server.engine.core.entity.Category;
+import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.world.Position;
 import io.infectnet.server.engine.core.world.World;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
-import java.util.Set;
 
 /**
  * Customizing the World after the Tiles were generated,
  * finding all Tiles that are fitted to hold a Nest.
  */
-public class NestCustomizer implements WorldCustomizer {
+public class NestCustomizer implements RestorableWorldCustomizer {
 
   /**
    * The minimum distance of two Nests.
    */
   private static final int NEST_DISTANCE_LIMIT = 4;
 
+  /**
+   * The number of layers of empty CAVE type Tiles a Nest has to be surrounded with.
+   */
+  private static final int BORDER_LAYERS = 2;
+
+  /**
+   * The version of the customization, to be incremented whenever the rules of choosing the
+   * Positions of the Nests change.
+   */
+  private static final int VERSION = 1;
+
   /**
    * All possible Positions to hold a Nest.
    */
   private List<Position> basePositions;
 
+  /**
+   * Chooses the Positions of the Nests, seeded with the seed of the World.
+   */
+  private Random random;
+
   @Override
-  public void customize(World world) {
+  public void customize(World world, long seed) {
+    random = new Random(seed);
+
     basePositions = new ArrayList<>();
 
     for (int h = 1; h < world.getHeight() - 1; ++h) {
       for (int w = 1; w < world.getWidth() - 1; ++w) {
 
-        Position current = new Position(h, w);
-
-        if (isValidNestPosition(world, current)) {
-          basePositions.add(current);
+        if (isValidNestPosition(world, h, w)) {
+          basePositions.add(new Position(h, w));
         }
       }
     }
-  }
 
-  /**
-   * Returns a Position to place a Nest, chosen at random.
-   * @return the chosen Position in an Optional
-   */
-  public Optional<Position> getRandomNestPosition() {
-    Position base = basePositions.get(new Random().nextInt(basePositions.size() - 1));
-    basePositions.remove(base);
+    basePositions = largestRegionGroup(world, basePositions);
+  }
 
-    Iterator<Position> it = basePositions.iterator();
+  @Override
+  public void writeResults(DataOutput out) throws IOException {
+    out.writeInt(basePositions.size());
 
-    while (it.hasNext()) {
-      if (isNestTooClose(base, it.next())) {
-        it.remove();
-      }
+    for (Position position : basePositions) {
+      out.writeInt(position.getH());
+      out.writeInt(position.getW());
     }
+  }
 
-    return Optional.ofNullable(base);
+  @Override
+  public void restoreResults(World world, long seed, ByteBuffer results) {
+    random = new Random(seed);
+
+    int count = results.getInt();
+
+    basePositions = new ArrayList<>(count);
+
+    for (int i = 0; i < count; ++i) {
+      basePositions.add(new Position(results.getInt(), results.getInt()));
+    }
   }
 
-  /**
-   * Checks if the Position meets all conditions to hold a Nest.
-   * @param world the world given
-   * @param current the Position to check
-   * @return true if the Position is valid, false otherwise
-   */
-  private boolean isValidNestPosition(World world, Position current) {
-    return !world.getTileByPosition(current).isBlockedOrOccupied()
-        && isBorderEmptyAndResourceAvailable(world, current);
+  @Override
+  public int getVersion() {
+    return VERSION;
   }
 
   /**
-   * Checks if the Position is surrounded by at least two layers of CAVE type Tiles,
-   * and at least one Resource is available in three steps.
+   * Groups the Positions by the region of the World they are in, and keeps the largest group,
+   * so every Nest can reach every other Nest.
    * @param world the world given
-   * @param current the Position to check
-   * @return true if both conditions are met, false otherwise
+   * @param positions the Positions to group
+   * @return the Positions in the region holding most of them
    */
-  private boolean isBorderEmptyAndResourceAvailable(World world, Position current) {
-    Set<Position> twoLayerNeighbours = getTwoLayerNeighbours(world, current);
+  private List<Position> largestRegionGroup(World world, List<Position> positions) {
+    List<List<Position>> groups = new ArrayList<>();
 
-    if (isBorderEmpty(world, twoLayerNeighbours)) {
+    for (Position position : positions) {
+      Optional<List<Position>> group = groups.stream()
+          .filter(g -> world.sameRegion(g.get(0), position))
+          .findFirst();
 
-      Set<Position> thirdLayer = getThreeLayerNeighbours(world, twoLayerNeighbours);
+      if (group.isPresent()) {
+        group.get().add(position);
+      } else {
+        List<Position> newGroup = new ArrayList<>();
 
-      thirdLayer.removeAll(twoLayerNeighbours);
+        newGroup.add(position);
 
-      return isResourceAvailable(world, thirdLayer);
+        groups.add(newGroup);
+      }
     }
 
-    return false;
+    return groups.stream()
+        .max(Comparator.comparingInt(List::size))
+        .orElseGet(ArrayList::new);
   }
 
   /**
-   * Checks if at least one Resource is available to the Nest.
-   * @param world the world to check in
-   * @param thirdLayer the Positions to check
-   * @return true if at least one Resource was found, false otherwise
+   * Returns a Position to place a Nest, chosen at random.
+   * @return the chosen Position in an Optional, empty if there is no Position left
    */
-  private boolean isResourceAvailable(World world, Set<Position> thirdLayer) {
-    for (Position pos : thirdLayer) {
-      if (world.getTileByPosition(pos).getEntity() != null
-          && world.getTileByPosition(pos).getEntity().getTypeComponent().getCategory()
-          == Category.RESOURCE) {
+  public Optional<Position> getRandomNestPosition() {
+    if (basePositions.isEmpty()) {
+      return Optional.empty();
+    }
+
+    Position base = basePositions.get(random.nextInt(basePositions.size()));
+    basePositions.remove(base);
 
-        return true;
+    Iterator<Position> it = basePositions.iterator();
+
+    while (it.hasNext()) {
+      if (isNestTooClose(base, it.next())) {
+        it.remove();
       }
     }
-    return false;
+
+    return Optional.ofNullable(base);
   }
 
   /**
-   * Gets all Positions surrounding the original Positions two-layered neighbours,
-   * making the third layer around it.
-   * @param world the world to search in
-   * @param twoLayerNeighbours the original Positions neighbours and second-neighbours
-   * @return a set containing the found neighbours
+   * Checks if the coordinates meet all conditions to hold a Nest.
+   * @param world the world given
+   * @param h the first coordinate to check
+   * @param w the second coordinate to check
+   * @return true if the coordinates are valid, false otherwise
    */
-  private Set<Position> getThreeLayerNeighbours(World world, Set<Position> twoLayerNeighbours) {
-    Set<Position> thirdLayer = new HashSet<>();
-
-    for (Position pos : twoLayerNeighbours) {
-
-      for (Position thirdNeighbour : pos.getNeighbours()) {
-        if (world.isPositionValidTile(thirdNeighbour)) {
-          thirdLayer.add(thirdNeighbour);
-        }
-      }
-    }
-    return thirdLayer;
+  private boolean isValidNestPosition(World world, int h, int w) {
+    return !world.isBlockedOrOccupied(h, w) && isBorderEmpty(world, h, w)
+        && isResourceAvailable(world, h, w);
   }
 
   /**
-   * Checks if the neighbours and the second-neighbours of a Position are all of type CAVE.
+   * Checks if the coordinates are surrounded by at least two layers of empty CAVE type Tiles.
    * @param world the world to search in
-   * @param twoLayerNeighbours the original Positions neighbours and second-neighbours
+   * @param h the first coordinate to check
+   * @param w the second coordinate to check
    * @return true is all neighbours were CAVE and were empty, false otherwise
    */
-  private boolean isBorderEmpty(World world, Set<Position> twoLayerNeighbours) {
-    boolean valid = true;
-
-    for (Position pos : twoLayerNeighbours) {
-      if (world.getTileByPosition(pos).isBlockedOrOccupied()) {
-        valid = false;
+  private boolean isBorderEmpty(World world, int h, int w) {
+    for (int i = Math.max(0, h - BORDER_LAYERS);
+         i <= Math.min(world.getHeight() - 1, h + BORDER_LAYERS); ++i) {
+      for (int j = Math.max(0, w - BORDER_LAYERS);
+           j <= Math.min(world.getWidth() - 1, w + BORDER_LAYERS); ++j) {
+        if (world.isBlockedOrOccupied(i, j)) {
+          return false;
+        }
       }
     }
-    return valid;
+
+    return true;
   }
 
   /**
-   * Gets all neighbours and second-neighbours of a Position given.
-   * @param world the world to search in
-   * @param current the Position to check
-   * @return a set containing all neighbours and second-neighbours of the Position
+   * Checks if at least one Resource is available in the layer right outside of the border, that
+   * is in three steps from the coordinates.
+   * @param world the world to check in
+   * @param h the first coordinate to check
+   * @param w the second coordinate to check
+   * @return true if at least one Resource was found, false otherwise
    */
-  private Set<Position> getTwoLayerNeighbours(World world, Position current) {
-    Set<Position> twoLayerNeighbours = new HashSet<>();
-
-    for (Position neighbour : current.getNeighbours()) {
-
-      if (world.isPositionValidTile(neighbour)) {
-        twoLayerNeighbours.add(neighbour);
+  private boolean isResourceAvailable(World world, int h, int w) {
+    int layer = BORDER_LAYERS + 1;
+
+    for (int i = Math.max(0, h - layer); i <= Math.min(world.getHeight() - 1, h + layer); ++i) {
+      for (int j = Math.max(0, w - layer); j <= Math.min(world.getWidth() - 1, w + layer); ++j) {
+        /* Only the outermost layer of the square is checked. */
+        if (Math.abs(i - h) != layer && Math.abs(j - w) != layer) {
+          continue;
+        }
 
-        for (Position secondNeighbour : neighbour.getNeighbours()) {
+        Entity entity = world.getEntityByCoordinates(i, j);
 
-          if (world.isPositionValidTile(secondNeighbour)) {
-            twoLayerNeighbours.add(secondNeighbour);
-          }
+        if (entity != null && entity.getTypeComponent().getCategory() == Category.RESOURCE) {
+          return true;
         }
       }
     }
-    return twoLayerNeighbours;
+
+    return false;
   }
 
   /**
@@ -5,10 +5,12 @@ import io.infectnet.server.engine.core.entity.Entity;
 import io.infectnet.server.engine.core.entity.component.TypeComponent;
 import io.infectnet.server.engine.core.entity.type.TypeRepository;
 import io.infectnet.server.engine.core.world.Position;
-import io.infectnet.server.engine.core.world.Tile;
 import io.infectnet.server.engine.core.world.TileType;
 import io.infectnet.server.engine.core.world.World;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -17,7 +19,7 @@ import java.util.Optional;
  * Customizing the World after the Tiles were generated,
  * putting Resources onto some chosen Tiles.
  */
-public class ResourceCustomizer implements WorldCustomizer {
+public class ResourceCustomizer implements RestorableWorldCustomizer {
   /**
    * The number of neighbouring CAVE Tiles and other Resources.
    */
@@ -30,18 +32,34 @@ public class ResourceCustomizer implements WorldCustomizer {
    */
   private static final int GENERATION_LIMIT = 2;
 
+  /**
+   * The version of the customization, to be incremented whenever the rules of placing the
+   * Resources change.
+   */
+  private static final int VERSION = 1;
+
   private final TypeRepository typeRepository;
 
   private TypeComponent component;
 
+  /**
+   * The Positions of all Resources placed by the last customization.
+   */
+  private List<Position> resourcePositions;
+
   public ResourceCustomizer(TypeRepository typeRepository) {
     this.typeRepository = typeRepository;
+
+    this.resourcePositions = new ArrayList<>();
   }
 
   @Override
-  public void customize(World world) {
+  public void customize(World world, long seed) {
+    /* The Resources are placed by the rules of a cellular automaton, the seed is not needed. */
     Optional<TypeComponent> componentOptional = typeRepository.getTypeByName(BitResourceTypeComponent.TYPE_NAME);
 
+    resourcePositions = new ArrayList<>();
+
     if (componentOptional.isPresent()) {
       component = componentOptional.get();
 
@@ -51,6 +69,41 @@ public class ResourceCustomizer implements WorldCustomizer {
     }
   }
 
+  @Override
+  public void writeResults(DataOutput out) throws IOException {
+    out.writeInt(resourcePositions.size());
+
+    for (Position position : resourcePositions) {
+      out.writeInt(position.getH());
+      out.writeInt(position.getW());
+    }
+  }
+
+  @Override
+  public void restoreResults(World world, long seed, ByteBuffer results) {
+    Optional<TypeComponent> componentOptional =
+        typeRepository.getTypeByName(BitResourceTypeComponent.TYPE_NAME);
+
+    int count = results.getInt();
+
+    resourcePositions = new ArrayList<>(count);
+
+    for (int i = 0; i < count; ++i) {
+      resourcePositions.add(new Position(results.getInt(), results.getInt()));
+    }
+
+    if (componentOptional.isPresent()) {
+      component = componentOptional.get();
+
+      addingResourcesToWorld(world, resourcePositions);
+    }
+  }
+
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
   /**
    * Generating the resources, collecting them into a list.
    * This is similar to the cellular automaton's simulationStep method.
@@ -62,27 +115,27 @@ public class ResourceCustomizer implements WorldCustomizer {
     for (int h = 1; h < world.getHeight() - 1; ++h) {
       for (int w = 1; w < world.getWidth() - 1; ++w) {
 
-        Position current = new Position(h, w);
+        int caveAndResourceNeighbours = countCaveAndResourceNeighbours(world, h, w);
 
-        int caveAndResourceNeighbours = countCaveAndResourceNeighbours(world, current);
-
-        if (isValidResourcePosition(world.getTileByPosition(current), caveAndResourceNeighbours)) {
-          resources.add(current);
+        if (isValidResourcePosition(world.getTileType(h, w), caveAndResourceNeighbours)) {
+          resources.add(new Position(h, w));
         }
       }
     }
 
     addingResourcesToWorld(world, resources);
+
+    resourcePositions.addAll(resources);
   }
 
   /**
    * Checks if the given tile meets the expectations to place a Resource.
-   * @param tile the given tile to check
+   * @param tileType the type of the given tile to check
    * @param caveAndResourceNeighbours number of CAVE and Resource neighbours
    * @return true if the Tile is valid, false otherwise
    */
-  private boolean isValidResourcePosition(Tile tile, int caveAndResourceNeighbours) {
-    return tile.getType() == TileType.ROCK
+  private boolean isValidResourcePosition(TileType tileType, int caveAndResourceNeighbours) {
+    return tileType == TileType.ROCK
         && caveAndResourceNeighbours >= RESOURCE_LIMIT;
   }
 
@@ -95,30 +148,30 @@ public class ResourceCustomizer implements WorldCustomizer {
     for (Position pos : resources) {
       Entity resource = component.createEntityOfType();
 
-      world.getTileByPosition(pos).setEntity(resource);
+      world.setEntityOnPosition(resource, pos);
     }
   }
 
   /**
-   * Counts the number of neighbours surrounding the given Position
+   * Counts the number of neighbours surrounding the given coordinates
    * that are either of type CAVE or contains an Entity,
    * which could only be a previously placed Resource.
    * @param world the given world
-   * @param current the given Position
-   * @return the number of the CAVE and Resource cells found surrounding the given Position
+   * @param h the first coordinate
+   * @param w the second coordinate
+   * @return the number of the CAVE and Resource cells found surrounding the given coordinates
    */
-  private int countCaveAndResourceNeighbours(World world, Position current) {
-    int count = 0;
-
-    for (Position neighbour : current.getNeighbours()) {
-      if (!world.isPositionValidTile(neighbour)) {
-        count++;
-      } else if (world.getTileByPosition(neighbour).getType() == TileType.CAVE
-          || world.getTileByPosition(neighbour).getEntity() != null) {
-        count++;
+  private int countCaveAndResourceNeighbours(World world, int h, int w) {
+    /* The neighbours outside of the World are counted too, so only the empty ROCKs are not. */
+    int[] count = {8};
+
+    Position.forEachNeighbour(world, h, w, (neighbourH, neighbourW) -> {
+      if (world.getTileType(neighbourH, neighbourW) == TileType.ROCK
+          && world.getEntityByCoordinates(neighbourH, neighbourW) == null) {
+        count[0]--;
       }
-    }
+    });
 
-    return count;
+    return count[0];
   }
 }
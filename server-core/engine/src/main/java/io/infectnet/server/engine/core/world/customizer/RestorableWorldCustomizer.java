@@ -0,0 +1,37 @@
+package io.infectnet.server.engine.core.world.customizer;
+
+import io.infectnet.server.engine.core.world.World;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link WorldCustomizer} whose results can be saved along with the generated World, and
+ * restored instead of customizing the World again.
+ */
+public interface RestorableWorldCustomizer extends WorldCustomizer {
+  /**
+   * Writes the results of the last customization.
+   * @param out the output to write the results to
+   * @throws IOException if the results cannot be written
+   */
+  void writeResults(DataOutput out) throws IOException;
+
+  /**
+   * Applies the results written by {@link #writeResults(DataOutput)} to the World, as if it had
+   * been customized with the given seed.
+   * @param world the restored world to be changed or updated
+   * @param seed the seed the world was customized with
+   * @param results the written results
+   */
+  void restoreResults(World world, long seed, ByteBuffer results);
+
+  /**
+   * Returns the version of the customization, which has to be changed whenever the same World
+   * starts to be customized differently, so the results written by the previous versions are not
+   * restored.
+   * @return the version of the customization
+   */
+  int getVersion();
+}
@@ -10,6 +10,8 @@ public interface WorldCustomizer {
   /**
    * Customizes the world in a specified way.
    * @param world the world to be changed or updated
+   * @param seed the seed of the random choices, the same seed always customizing the same world
+   * in the same way
    */
-  void customize(World world);
+  void customize(World world, long seed);
 }
@@ -1,16 +1,18 @@
 package io.infectnet.server.engine.core.world.strategy.generation;
 
-import static java.lang.Math.random;
-
-import io.infectnet.server.engine.core.world.Position;
-
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * This class represents a Cellular Automaton, which is used in the generation of the World tiles.
+ * <p>
+ * The cells are stored as bits, every row of the world in {@code long} words, a set bit meaning a
+ * cave. A simulation step handles the 64 cells of a word at once: the eight neighbours are counted
+ * with bitwise adders, and the rows are processed in parallel. The isolated caves are eliminated
+ * in a single pass over the runs of cave cells in the rows, labelling the caves with a union-find
+ * structure.
+ * </p>
  */
 public class CellularAutomaton implements WorldGeneratorStrategy {
   /**
@@ -38,6 +40,28 @@ public class CellularAutomaton implements WorldGeneratorStrategy {
    */
   private static final float RATIO_LIMIT = 0.6f;
 
+  /**
+   * The number of times the world is generated again if its largest cave system is below
+   * {@link #RATIO_LIMIT}. The last world is kept even if its cave system is still too small.
+   */
+  private static final int MAX_ATTEMPTS = 16;
+
+  /**
+   * The number of binary digits of {@link #chanceToStartAlive} used to initialize the cells.
+   */
+  private static final int CHANCE_DIGITS = 16;
+
+  /**
+   * Mixes the index of a row into the seed of its random generator.
+   */
+  private static final long ROW_SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  /**
+   * The version of the generation, to be incremented whenever the parameters or the steps above
+   * change the world generated from a seed.
+   */
+  private static final int VERSION = 1;
+
   /**
    * The height of the world.
    */
@@ -49,45 +73,101 @@ public class CellularAutomaton implements WorldGeneratorStrategy {
   private int width;
 
   /**
-   * The generated world.
+   * The number of words holding a row.
+   */
+  private int wordsPerRow;
+
+  /**
+   * The bits of the last word of a row that are inside the world.
    */
-  private boolean[][] world;
+  private long lastWordMask;
 
   /**
-   * The final product of the Automaton, with one cave system.
+   * The generated world, a set bit meaning a cave.
    */
-  private boolean[][] finalWorld;
+  private long[] cells;
 
+  /**
+   * The world being computed by the current simulation step, swapped with the generated world
+   * after the step.
+   */
+  private long[] nextCells;
 
   @Override
-  public boolean[][] generateWorld(int height, int width) {
+  public boolean[][] generateWorld(int height, int width, long seed) {
     this.height = height;
     this.width = width;
 
-    world = new boolean[height][width];
+    this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+
+    this.lastWordMask = width % Long.SIZE == 0 ? -1L : (1L << (width % Long.SIZE)) - 1;
 
-    initializeWorld();
+    cells = new long[height * wordsPerRow];
+    nextCells = new long[height * wordsPerRow];
 
-    for (int i = 0; i < numberOfSteps; ++i) {
-      doSimulationStep();
+    /* Every attempt gets its own seed, derived from the seed of the world. */
+    SplittableRandom attemptSeeds = new SplittableRandom(seed);
+
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; ++attempt) {
+      initializeWorld(attemptSeeds.nextLong());
+
+      for (int i = 0; i < numberOfSteps; ++i) {
+        doSimulationStep();
+      }
+
+      if (eliminateIslands() >= RATIO_LIMIT * height * width) {
+        break;
+      }
     }
 
-    world = eliminateIslands();
+    boolean[][] world = toBooleanGrid();
+
+    cells = null;
+    nextCells = null;
 
     return world;
   }
 
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
   /**
-   * Initializes the array with true and false values placed at random.
+   * Initializes the array with true and false values placed at random. Every row has its own
+   * random generator derived from the seed, so the rows can be initialized in parallel, and the
+   * result only depends on the seed.
+   * <p>
+   * The 64 cells of a word are set at once, by combining random words along the binary digits of
+   * {@link #chanceToStartAlive}, from the lowest one: a one digit is combined with a bitwise or,
+   * a zero digit with a bitwise and, so every bit ends up set with the chance given by the digits.
+   * </p>
+   * @param seed the seed of the random generators
    */
-  private void initializeWorld() {
-    for (int x = 0; x < width; ++x) {
-      for (int y = 0; y < height; ++y) {
-        if (random() < chanceToStartAlive) {
-          world[y][x] = CAVE;
+  private void initializeWorld(long seed) {
+    int chance = (int) (chanceToStartAlive * (1 << CHANCE_DIGITS));
+
+    IntStream.range(0, height).parallel().forEach(h -> {
+      SplittableRandom random = new SplittableRandom(seed ^ (h * ROW_SEED_MULTIPLIER));
+
+      for (int i = 0; i < wordsPerRow; ++i) {
+        long word = 0L;
+
+        for (int digit = 0; digit < CHANCE_DIGITS; ++digit) {
+          if ((chance >> digit & 1) == 1) {
+            word |= random.nextLong();
+          } else {
+            word &= random.nextLong();
+          }
         }
+
+        if (i == wordsPerRow - 1) {
+          word &= lastWordMask;
+        }
+
+        cells[h * wordsPerRow + i] = word;
       }
-    }
+    });
   }
 
   /**
@@ -95,186 +175,406 @@ public class CellularAutomaton implements WorldGeneratorStrategy {
    * now old world and the pre-set values of deathLimit and birthLimit.
    */
   private void doSimulationStep() {
-    boolean[][] newWorld = new boolean[height][width];
+    IntStream.range(0, height).parallel().forEach(this::simulateRow);
 
-    for (int h = 0; h < height; ++h) {
-      for (int w = 0; w < width; ++w) {
-        int rockNeighbours = countRockNeighbours(h, w);
+    long[] oldCells = cells;
 
-        if (world[h][w]) {
-          newWorld[h][w] = rockNeighbours >= deathLimit;
-        } else {
-          newWorld[h][w] = rockNeighbours > birthLimit;
-        }
+    cells = nextCells;
+    nextCells = oldCells;
+  }
+
+  /**
+   * Computes a row of the new world. The neighbours outside of the world count as rocks, like in
+   * the original, cell by cell automaton.
+   * @param h the index of the row
+   */
+  private void simulateRow(int h) {
+    for (int i = 0; i < wordsPerRow; ++i) {
+      long center = word(h, i);
+
+      /* Adding up the eight neighbours of the 64 cells at once, with the bits of the counts
+         spread over four words. */
+
+      long northWest = westOf(h - 1, i);
+      long north = word(h - 1, i);
+      long northEast = eastOf(h - 1, i);
+
+      long northOnes = northWest ^ north ^ northEast;
+      long northTwos = (northWest & north) | (northEast & (northWest ^ north));
+
+      long southWest = westOf(h + 1, i);
+      long south = word(h + 1, i);
+      long southEast = eastOf(h + 1, i);
+
+      long southOnes = southWest ^ south ^ southEast;
+      long southTwos = (southWest & south) | (southEast & (southWest ^ south));
+
+      long west = westOf(h, i);
+      long east = eastOf(h, i);
+
+      long middleOnes = west ^ east;
+      long middleTwos = west & east;
+
+      long ones = northOnes ^ southOnes ^ middleOnes;
+      long onesCarry = (northOnes & southOnes) | (middleOnes & (northOnes ^ southOnes));
+
+      long twosSum = northTwos ^ southTwos ^ middleTwos;
+      long twosCarry = (northTwos & southTwos) | (middleTwos & (northTwos ^ southTwos));
+
+      long twos = twosSum ^ onesCarry;
+      long foursCarry = twosSum & onesCarry;
+
+      long fours = twosCarry ^ foursCarry;
+      long eights = twosCarry & foursCarry;
+
+      /* A cave stays a cave if it has enough rock neighbours, a rock becomes a cave if it has more
+         than enough. */
+
+      long survives = atMost(ones, twos, fours, eights, 8 - deathLimit);
+      long born = atMost(ones, twos, fours, eights, 7 - birthLimit);
+
+      long next = (center & survives) | (~center & born);
+
+      if (i == wordsPerRow - 1) {
+        next &= lastWordMask;
       }
+
+      nextCells[h * wordsPerRow + i] = next;
     }
-    world = newWorld;
   }
 
   /**
-   * Counts the number of cells in a ring around (x,y) that are alive.
-   * @param x the first coordinate
-   * @param y the second coordinate
-   * @return the number of the alive cells found surrounding the (x,y) cell
+   * Selects the cells having at most the given number of cave neighbours.
+   * @param ones the lowest bits of the counts
+   * @param twos the second bits of the counts
+   * @param fours the third bits of the counts
+   * @param eights the highest bits of the counts
+   * @param limit the maximal count
+   * @return the word with the bits of the selected cells set
    */
-  private int countRockNeighbours(int x, int y) {
-    int count = 0;
-
-    for (int i = -1; i < 2; ++i) {
-      for (int j = -1; j < 2; ++j) {
-        int neighbourX = x + i;
-        int neighbourY = y + j;
-
-        if (!isMiddleCell(i, j)) {
-          if (isInvalidCoordinate(neighbourX, neighbourY)) {
-            count = count + 1;
-          } else if (world[neighbourX][neighbourY] == ROCK) {
-            count = count + 1;
-          }
-        }
+  private static long atMost(long ones, long twos, long fours, long eights, int limit) {
+    if (limit < 0) {
+      return 0L;
+    }
+
+    long greater = 0L;
+    long equal = -1L;
+
+    /* Comparing the counts with the limit from the highest bit. */
+    for (int bit = 3; bit >= 0; --bit) {
+      long countBit = bit == 3 ? eights : bit == 2 ? fours : bit == 1 ? twos : ones;
+
+      if ((limit >> bit & 1) == 0) {
+        greater |= equal & countBit;
+        equal &= ~countBit;
+      } else {
+        equal &= countBit;
       }
     }
 
-    return count;
+    return ~greater;
   }
 
   /**
-   * Checks if the neighbour cell is beyond the borders of the world.
-   * @param neighbourX the x coordinate of the neighbour
-   * @param neighbourY the y coordinate of the neighbour
-   * @return true if it is off the grid, and false otherwise
+   * Returns a word of the world, or an empty word, that is rocks, outside of the world.
+   * @param h the index of the row
+   * @param i the index of the word in the row
    */
-  private boolean isInvalidCoordinate(int neighbourX, int neighbourY) {
-    return
-        neighbourX < 0 || neighbourY < 0 || neighbourX >= height || neighbourY >= width;
+  private long word(int h, int i) {
+    if (h < 0 || h >= height || i < 0 || i >= wordsPerRow) {
+      return 0L;
+    }
+
+    return cells[h * wordsPerRow + i];
   }
 
   /**
-   * Checks if the cell is int the middle of the predefined grid, containing 9 cells.
-   * @param i the x coordinate
-   * @param j the y coordinate
-   * @return true if it is the middle cell, false otherwise
+   * Returns the word of the western neighbours of the cells of a word.
    */
-  private boolean isMiddleCell(int i, int j) {
-    return i == 0 && j == 0;
+  private long westOf(int h, int i) {
+    return (word(h, i) << 1) | (word(h, i - 1) >>> (Long.SIZE - 1));
   }
 
   /**
-   * Creates a new world without the isolated caves, which were on the previous world.
+   * Returns the word of the eastern neighbours of the cells of a word.
    */
-  private boolean[][] eliminateIslands() {
-    float ratio = 0f;
-    Position startingPosition = new Position(0, 0);
+  private long eastOf(int h, int i) {
+    return (word(h, i) >>> 1) | (word(h, i + 1) << (Long.SIZE - 1));
+  }
 
-    while (ratio < RATIO_LIMIT) {
-      finalWorld = new boolean[height][width];
+  /**
+   * Removes every cave from the world except the largest cave system. The caves are labelled in a
+   * single pass over the rows: every run of cave cells in a row gets a label, which is merged with
+   * the labels of the overlapping runs of the previous row.
+   * @return the number of cells of the remaining cave system
+   */
+  private int eliminateIslands() {
+    CaveLabels caveLabels = new CaveLabels(width / 2 + 1);
 
-      startingPosition = findNextCavePosition(startingPosition);
-      if (startingPosition == null) {
-        break;
-      }
+    int[] runStarts = new int[width / 2 + 1];
+    int[] runEnds = new int[width / 2 + 1];
+
+    for (int h = 0; h < height; ++h) {
+      caveLabels.addRow(runStarts, runEnds, findRuns(h, runStarts, runEnds));
+    }
+
+    int largest = caveLabels.largestCave();
 
-      floodFillWholeCave(startingPosition);
-      ratio = countCaveCellRatio();
+    if (largest == -1) {
+      return 0;
     }
 
-    return finalWorld;
+    /* Finding the runs again in the same order, and keeping the ones of the largest cave. */
+
+    Arrays.fill(nextCells, 0L);
+
+    int run = 0;
+
+    for (int h = 0; h < height; ++h) {
+      int rowRuns = findRuns(h, runStarts, runEnds);
+
+      for (int i = 0; i < rowRuns; ++i, ++run) {
+        if (caveLabels.find(run) == largest) {
+          setCells(h, runStarts[i], runEnds[i]);
+        }
+      }
+    }
+
+    long[] oldCells = cells;
+
+    cells = nextCells;
+    nextCells = oldCells;
+
+    return caveLabels.caveSize[largest];
   }
 
   /**
-   * Implementation of the classic flood-fill algorithm. It explores the cave system
-   * from the starting position, storing the found positions in a new array called finalWorld.
-   * @param position the starting position
+   * Finds the runs of cave cells in a row.
+   * @param h the index of the row
+   * @param runStarts the array to store the first cell of every run in
+   * @param runEnds the array to store the last cell of every run in
+   * @return the number of runs found
    */
-  private void floodFillWholeCave(Position position) {
-    if (isInvalidCoordinate(position.getH(), position.getW())) {
-      return;
-    }
+  private int findRuns(int h, int[] runStarts, int[] runEnds) {
+    int startCount = 0;
+    int endCount = 0;
 
-    Queue<Position> queue = new LinkedList<>();
-    Set<Position> set = new HashSet<>();
+    for (int i = 0; i < wordsPerRow; ++i) {
+      long word = word(h, i);
 
-    queue.add(position);
-    set.add(position);
+      /* A run starts at a cave without a cave to the west, and ends at one without a cave to the
+         east. */
+      long starts = word & ~westOf(h, i);
+      long ends = word & ~eastOf(h, i);
 
-    while (!queue.isEmpty()) {
-      Position pos = queue.remove();
-      set.remove(pos);
-      int h = pos.getH();
-      int w = pos.getW();
+      while (starts != 0) {
+        runStarts[startCount++] = i * Long.SIZE + Long.numberOfTrailingZeros(starts);
 
-      if (isNotVisitedCave(pos)) {
-        finalWorld[h][w] = CAVE;
+        starts &= starts - 1;
       }
 
-      Position southPos = pos.stepSouth();
-      Position westPos = pos.stepWest();
-      Position northPos = pos.stepNorth();
-      Position eastPos = pos.stepEast();
+      while (ends != 0) {
+        runEnds[endCount++] = i * Long.SIZE + Long.numberOfTrailingZeros(ends);
 
-      if (canStep(set, southPos)) {
-        queue.add(southPos);
-      }
-      if (canStep(set, westPos)) {
-        queue.add(westPos);
-      }
-      if (canStep(set, northPos)) {
-        queue.add(northPos);
-      }
-      if (canStep(set, eastPos)) {
-        queue.add(eastPos);
+        ends &= ends - 1;
       }
     }
+
+    return startCount;
   }
 
-  private boolean canStep(Set<Position> set, Position pos) {
-    return !isInvalidCoordinate(pos.getH(), pos.getW()) && isNotVisitedCave(pos) && set.add(pos);
+  private void setCells(int h, int first, int last) {
+    for (int i = first / Long.SIZE; i <= last / Long.SIZE; ++i) {
+      long mask = -1L;
+
+      if (i == first / Long.SIZE) {
+        mask &= -1L << (first % Long.SIZE);
+      }
+
+      if (i == last / Long.SIZE) {
+        mask &= -1L >>> (Long.SIZE - 1 - last % Long.SIZE);
+      }
+
+      nextCells[h * wordsPerRow + i] |= mask;
+    }
   }
 
   /**
-   * Checks if the Position given points to a cave in the world but to a rock on the new world.
-   * @param pos the position to check
-   * @return true if the value of the Position was not yet evaluated with the flood-fill algorithm,
-   * false otherwise.
+   * Converts the bits of the generated world into the format expected from the strategy.
    */
-  private boolean isNotVisitedCave(Position pos) {
-    return world[pos.getH()][pos.getW()] && !finalWorld[pos.getH()][pos.getW()];
+  private boolean[][] toBooleanGrid() {
+    boolean[][] world = new boolean[height][width];
+
+    IntStream.range(0, height).parallel().forEach(h -> {
+      for (int w = 0; w < width; ++w) {
+        world[h][w] = (cells[h * wordsPerRow + w / Long.SIZE] >>> (w % Long.SIZE) & 1L) != 0;
+      }
+    });
+
+    return world;
   }
 
   /**
-   * Searches through the world for a position representing a cave, that have not been visited
-   * by the algorithm.
-   * @param oldPosition the previously found position
-   * @return the new Position, which is a not yet visited cave
+   * The labels of the runs of cave cells, in a union-find structure. The runs are labelled in the
+   * order they are added, row by row, and every run is merged with the overlapping runs of the
+   * previous row.
    */
-  private Position findNextCavePosition(Position oldPosition) {
-    for (int i = oldPosition.getH(); i < height; ++i) {
-      for (int j = 0; j < width; ++j) {
-        if (world[i][j] && !finalWorld[i][j]) {
-          return new Position(i, j);
+  private static class CaveLabels {
+    /**
+     * The parent of every run.
+     */
+    private int[] parent;
+
+    /**
+     * The number of cells in the caves, valid for the roots.
+     */
+    private int[] caveSize;
+
+    private int runCount;
+
+    private final int[] previousRunStarts;
+
+    private final int[] previousRunEnds;
+
+    /**
+     * The root of every run of the previous row when the row was added, so the overlapping runs
+     * do not have to be looked up from the bottom of the trees.
+     */
+    private int[] previousRunRoots;
+
+    private int[] runRoots;
+
+    private int previousRowRuns;
+
+    private CaveLabels(int maxRowRuns) {
+      this.parent = new int[maxRowRuns];
+
+      this.caveSize = new int[maxRowRuns];
+
+      this.runCount = 0;
+
+      this.previousRunStarts = new int[maxRowRuns];
+
+      this.previousRunEnds = new int[maxRowRuns];
+
+      this.previousRunRoots = new int[maxRowRuns];
+
+      this.runRoots = new int[maxRowRuns];
+
+      this.previousRowRuns = 0;
+    }
+
+    /**
+     * Adds the runs of the next row.
+     * @param runStarts the first cell of every run, in ascending order
+     * @param runEnds the last cell of every run
+     * @param rowRuns the number of runs
+     */
+    private void addRow(int[] runStarts, int[] runEnds, int rowRuns) {
+      /* Both rows are ordered, so the overlapping runs are found by walking them together. */
+
+      int previous = 0;
+
+      for (int current = 0; current < rowRuns; ++current) {
+        int root = -1;
+
+        while (previous < previousRowRuns && previousRunEnds[previous] < runStarts[current]) {
+          ++previous;
+        }
+
+        for (int overlapping = previous;
+             overlapping < previousRowRuns && previousRunStarts[overlapping] <= runEnds[current];
+             ++overlapping) {
+          int overlappingRoot = find(previousRunRoots[overlapping]);
+
+          if (root == -1) {
+            root = overlappingRoot;
+          } else if (root != overlappingRoot) {
+            root = union(root, overlappingRoot);
+          }
         }
+
+        runRoots[current] = addRun(runCount++, root, runEnds[current] - runStarts[current] + 1);
       }
+
+      System.arraycopy(runStarts, 0, previousRunStarts, 0, rowRuns);
+      System.arraycopy(runEnds, 0, previousRunEnds, 0, rowRuns);
+
+      int[] swap = previousRunRoots;
+      previousRunRoots = runRoots;
+      runRoots = swap;
+
+      previousRowRuns = rowRuns;
     }
-    return null;
-  }
 
-  /**
-   * Counts the visited cave cells, stored in the finalWorld array and calculates its ratio,
-   * compared to the whole array.
-   * @return float the ratio of the cave system to all cells of the world.
-   */
-  private float countCaveCellRatio() {
-    float counter = 0;
-    float numberOfAllCells = height * width;
-
-    for (int i = 0; i < height; ++i) {
-      for (int j = 0; j < width; ++j) {
-        if (finalWorld[i][j]) {
-          counter++;
+    /**
+     * Returns the root of the largest cave, {@code -1} if there are no caves.
+     */
+    private int largestCave() {
+      int largest = -1;
+
+      for (int run = 0; run < runCount; ++run) {
+        if (parent[run] == run && (largest == -1 || caveSize[run] > caveSize[largest])) {
+          largest = run;
         }
       }
+
+      return largest;
+    }
+
+    /**
+     * Adds a run to the union-find structure.
+     * @param run the label of the run
+     * @param root the root of the cave the run belongs to, {@code -1} if the run is a new cave
+     * @param size the number of cells of the run
+     * @return the root of the cave of the run
+     */
+    private int addRun(int run, int root, int size) {
+      if (run == parent.length) {
+        parent = Arrays.copyOf(parent, parent.length * 2);
+        caveSize = Arrays.copyOf(caveSize, caveSize.length * 2);
+      }
+
+      if (root == -1) {
+        parent[run] = run;
+        caveSize[run] = size;
+
+        return run;
+      }
+
+      parent[run] = root;
+      caveSize[root] += size;
+
+      return root;
     }
 
-    return counter / numberOfAllCells;
+    /**
+     * Merges two caves, attaching the smaller one to the larger one to keep the trees flat.
+     * @return the root of the merged cave
+     */
+    private int union(int root, int otherRoot) {
+      if (caveSize[root] < caveSize[otherRoot]) {
+        int swap = root;
+        root = otherRoot;
+        otherRoot = swap;
+      }
+
+      parent[otherRoot] = root;
+      caveSize[root] += caveSize[otherRoot];
+
+      return root;
+    }
+
+    private int find(int run) {
+      int current = run;
+
+      while (parent[current] != current) {
+        parent[current] = parent[parent[current]];
+
+        current = parent[current];
+      }
+
+      return current;
+    }
   }
 }
@@ -20,7 +20,15 @@ public interface WorldGeneratorStrategy {
    * using booleans instead of {@link io.infectnet.server.engine.core.world.TileType}s.
    * @param height the height of the generated world
    * @param width the width of the generated world
+   * @param seed the seed of the random choices, the same seed always generating the same world
    * @return a boolean array containing the data about all tiles that were generated.
    */
-  boolean[][] generateWorld(int height, int width);
+  boolean[][] generateWorld(int height, int width, long seed);
+
+  /**
+   * Returns the version of the generation, which has to be changed whenever the same seed starts
+   * generating a different world, so the worlds cached by the previous versions are not restored.
+   * @return the version of the generation
+   */
+  int getVersion();
 }
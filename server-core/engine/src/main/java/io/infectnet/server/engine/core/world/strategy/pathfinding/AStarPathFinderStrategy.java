@@ -5,16 +5,14 @@ import io.infectnet.server.engine.core.world.Tile;
 import io.infectnet.server.engine.core.world.TileType;
 import io.infectnet.server.engine.core.world.World;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
 
 /**
  * Class for Path finding in the world between two Positions, using the A* algorithm.
+ * <p>
+ * The state of the search is stored in a {@link GridSearch}, which is reused by the subsequent
+ * searches of the same thread, so apart from the returned path, a search does not allocate.
+ * </p>
  */
 public class AStarPathFinderStrategy implements PathFinderStrategy {
 
@@ -32,146 +30,143 @@ public class AStarPathFinderStrategy implements PathFinderStrategy {
    */
   private final Heuristic heuristic;
 
+  /**
+   * The reusable search state of every thread.
+   */
+  private final ThreadLocal<GridSearch> searchState;
+
   /**
    * Creates a strategy with the given heuristic to use in the A* algorithm.
    * @param heuristic the specific heuristic function to use
    */
   public AStarPathFinderStrategy(Heuristic heuristic) {
     this.heuristic = heuristic;
+
+    this.searchState = ThreadLocal.withInitial(GridSearch::new);
   }
 
   @Override
   public List<Tile> findPath(World world, Position start, Position target) {
+    if (!world.sameRegion(start, target)) {
+      /* The target is in a sealed-off region, no search could reach it. */
+      return GridSearch.startOnlyPath(world, start);
+    }
 
-        /*  The list of Nodes that we do not yet consider fully searched. */
-    PriorityQueue<Node> openQueue = new PriorityQueue<>(new NodeComparator());
-
-    Set<Node> openNodes = new HashSet<>();
-
-        /* The list of nodes that have been searched through. */
+    int width = world.getWidth();
 
-    Set<Node> closedNodes = new HashSet<>();
+    GridSearch state = searchState.get();
 
-        /* Finding the right target, if the given is a occupied by an Entity,
-        which is almost always e.g. resource, other player's entity. */
+    state.prepare(world.getHeight() * width);
 
-    Position targetPos = resetTarget(world, target);
+    /* Finding the right target, if the given is a occupied by an Entity,
+       which is almost always e.g. resource, other player's entity. */
 
-        /* Putting the starting node with its parameters in the list of open Nodes,
-         to expand it later on. */
+    Position targetPos = GridSearch.resetTarget(world, target);
 
-    Node startNode = new Node(start);
-    startNode.setCost(0);
-    startNode.setHeuristic(heuristic.heuristic(world, start, targetPos));
-    startNode.setSumCost(startNode.getHeuristic());
+    int targetH = targetPos.getH();
+    int targetW = targetPos.getW();
 
-    openQueue.add(startNode);
-    openNodes.add(startNode);
+    int startCell = start.getH() * width + start.getW();
+    int targetCell = targetH * width + targetW;
 
-        /* The current Node represents the current end of the found path so far. */
+    /* Putting the starting cell in the open heap, to expand it later on. */
 
-    Node current = null;
+    int startHeuristic = heuristic.heuristic(world, start.getH(), start.getW(), targetH, targetW);
 
-        /* The loop goes as long as there are nodes to expand
-        or we were able to find a path to the target. */
+    state.open(startCell, -1, 0, startHeuristic);
 
-    while (!openNodes.isEmpty()) {
+    /* If the target cannot be reached, the path to the expanded cell closest to the target
+       will be returned. */
 
-            /* The current node should be chosen from the openNodes list. */
+    int bestCell = startCell;
+    int bestHeuristic = startHeuristic;
 
-      current = openQueue.poll();
+    while (state.heapSize > 0) {
+      int current = state.poll();
 
-            /* If we got to the desired target, the algorithm stops. */
+      if (current == targetCell) {
+        bestCell = current;
 
-      if (current.getPosition().equals(targetPos)) {
         break;
       }
 
-            /* Before we expand the chosen Node named as current,
-            we switch its formed place in the open list to a place in the closed nodes list. */
+      int currentH = current / width;
+      int currentW = current % width;
 
-      openNodes.remove(current);
-      closedNodes.add(current);
+      int currentHeuristic = state.fScore[current] - state.gScore[current];
 
-            /* Expanding the current node */
+      if (currentHeuristic < bestHeuristic) {
+        bestCell = current;
+        bestHeuristic = currentHeuristic;
+      }
 
-      expandNode(world, openQueue, openNodes, closedNodes, targetPos, current);
+      expandCell(world, state, current, currentH, currentW, targetH, targetW);
     }
-        /* Even if no path found to the target Position,
-         the path that has already been constructed in the direction of the target will be returned. */
 
-    return getPathFromNodes(world, start, current);
+    /* Even if no path found to the target Position, the path that has already been
+       constructed in the direction of the target will be returned. */
 
+    return state.buildPath(world, bestCell);
   }
 
   /**
-   * Expanding the previously chosen {@code current} Node into its neighbours.
+   * Expanding the previously chosen {@code current} cell into its neighbours.
    * @param world the world to search in
-   * @param openNodes the Set of nodes to visit later
-   * @param closedNodes the set of already visited nodes
-   * @param targetPos the Position of the target we want to reach
-   * @param current the currently visited node
+   * @param state the state of the search
+   * @param current the index of the currently visited cell
+   * @param currentH the first coordinate of the current cell
+   * @param currentW the second coordinate of the current cell
+   * @param targetH the first coordinate of the target
+   * @param targetW the second coordinate of the target
    */
-  private void expandNode(World world, PriorityQueue<Node> openQueue, Set<Node> openNodes,
-                          Set<Node> closedNodes, Position targetPos, Node current) {
-    for (Node neighbour : current.getNeighbours()) {
-      if (neighbour == null) {
+  private void expandCell(World world, GridSearch state, int current, int currentH, int currentW,
+                          int targetH, int targetW) {
+    int width = world.getWidth();
+    int height = world.getHeight();
+
+    for (int i = 0; i < GridSearch.NEIGHBOUR_OFFSET_H.length; ++i) {
+      int neighbourH = currentH + GridSearch.NEIGHBOUR_OFFSET_H[i];
+      int neighbourW = currentW + GridSearch.NEIGHBOUR_OFFSET_W[i];
+
+      if (neighbourH < 0 || neighbourH >= height || neighbourW < 0 || neighbourW >= width) {
         continue;
       }
 
-            /* Computing the cost of the current Node, and comparing with its neighbour's cost,
-             to decide where to continue the path building.*/
+      int neighbour = neighbourH * width + neighbourW;
 
-      int nextCost = current.getCost() + calculateCostOfTile(world, neighbour);
+      if (state.isClosed(neighbour)) {
+        continue;
+      }
 
-      if (nextCost < neighbour.getCost()) {
-        openQueue.remove(neighbour);
-        openNodes.remove(neighbour);
-        closedNodes.remove(neighbour);
+      if (!GridSearch.isSuitableTile(world, neighbourH, neighbourW)) {
+        continue;
       }
 
-            /* The only case where all conditions are met */
+      /* Computing the cost of reaching the neighbour through the current cell,
+         and keeping it only if it is better than the one found so far. */
 
-      if (isSuitableNode(world, openNodes, closedNodes, neighbour)) {
+      int nextCost = state.gScore[current]
+          + calculateCostOfTile(world.getTileType(neighbourH, neighbourW));
 
-        neighbour.setCost(nextCost);
-        neighbour.setHeuristic(heuristic.heuristic(world, neighbour.getPosition(), targetPos));
-        neighbour.setSumCost(neighbour.getCost() + neighbour.getHeuristic());
-        neighbour.setParent(current);
-        openQueue.add(neighbour);
-        openNodes.add(neighbour);
+      if (state.isSeen(neighbour)) {
+        if (nextCost < state.gScore[neighbour]) {
+          state.decrease(neighbour, current, nextCost);
+        }
+      } else {
+        state.open(neighbour, current, nextCost,
+            heuristic.heuristic(world, neighbourH, neighbourW, targetH, targetW));
       }
     }
   }
 
-  /**
-   * Checks if the node given might possibly be the next Node to continue building the path forward,
-   * with checking if it is not yet visited before, and whether the Tile defined by the Node's
-   * Position is empty and is of type {@code CAVE}.
-   * @param world the world to search in
-   * @param openNodes the Set of nodes to visit later
-   * @param closedNodes the set of already visited nodes
-   * @param neighbour the node to check
-   * @return true if all conditions are met, false otherwise
-   */
-  private boolean isSuitableNode(World world, Set<Node> openNodes, Set<Node> closedNodes,
-                                 Node neighbour) {
-    return !openNodes.contains(neighbour)
-        && !closedNodes.contains(neighbour)
-        && world.getTileByPosition(neighbour.getPosition()).getType() == TileType.CAVE
-        && world.getTileByPosition(neighbour.getPosition()).getEntity() == null;
-  }
-
   /**
    * Calculating the cost of a Tile, could be used for more than two Tile types,
    * in this case with only one type to move on,  a constant function is enough.
-   * @param world the world where we search
-   * @param neighbour the node representing  of the Tile given
-   * @return the cost of stepping to the given Position
+   * @param tileType the type of the Tile given
+   * @return the cost of stepping to the given Tile
    */
-  private int calculateCostOfTile(World world, Node neighbour) {
-    Tile tile = world.getTileByPosition(neighbour.getPosition());
-    switch (tile.getType()) {
+  private int calculateCostOfTile(TileType tileType) {
+    switch (tileType) {
       case CAVE:
         return COST_OF_CAVE;
       case ROCK:
@@ -180,138 +175,4 @@ public class AStarPathFinderStrategy implements PathFinderStrategy {
         return DEFAULT_COST;
     }
   }
-
-  /**
-   * Constructs the Path, which can be returned as the result of the A* algorithm.
-   * Uses recursive path building, going from the last Position in the Path, binding
-   * its parent Node to it, and so on. Until it reaches the starting Position.
-   * @param world the world where we search
-   * @param start the starting Position
-   * @param current the end Position of the current Path, may not be the original target
-   * @return a list of the path containing the target at the front and the start at the back
-   */
-  private List<Tile> getPathFromNodes(World world, Position start, Node current) {
-    List<Tile> path = new LinkedList<>();
-    Node node = current;
-
-    while (node.getParent() != null) {
-      path.add(world.getTileByPosition(node.getPosition()));
-      node = node.getParent();
-    }
-    path.add(world.getTileByPosition(start));
-    return path;
-  }
-
-  /**
-   * Always repositions the given target Position to one,
-   * that is not occupied or not a {@code ROCK}.
-   * @return the new position nearby the original target
-   */
-  private Position resetTarget(World world, Position target) {
-    Position newTarget = target;
-    Node targetNode = new Node(target);
-
-    for (Node node : targetNode.getNeighbours()) {
-      if (world.isPositionValidTile(node.getPosition())
-          && !world.getTileByPosition(node.getPosition()).isBlockedOrOccupied()) {
-        newTarget = node.getPosition();
-        break;
-      }
-    }
-    return newTarget;
-  }
-
-  private static class NodeComparator implements Comparator<Node> {
-    @Override
-    public int compare(Node o1, Node o2) {
-      return Integer.compare(o1.getSumCost(), o2.getSumCost());
-    }
-  }
-
-  /**
-   * Inner class to represent the special cell required by the A* algorithm.
-   */
-  private static class Node {
-    private Node parent;
-    private Position position;
-    private int cost;
-    private int heuristic;
-    private int SumCost;
-
-    Node(Position position) {
-      this.position = position;
-    }
-
-    /**
-     * Creates all neighbouring Nodes of the current Node.
-     * @return a list of Nodes
-     */
-    List<Node> getNeighbours() {
-      List<Node> nodes = new ArrayList<>();
-      nodes.add(new Node(this.getPosition().stepNorth()));
-      nodes.add(new Node(this.getPosition().stepNorthEast()));
-      nodes.add(new Node(this.getPosition().stepEast()));
-      nodes.add(new Node(this.getPosition().stepSouthEast()));
-      nodes.add(new Node(this.getPosition().stepSouth()));
-      nodes.add(new Node(this.getPosition().stepSouthWest()));
-      nodes.add(new Node(this.getPosition().stepWest()));
-      nodes.add(new Node(this.getPosition().stepNorthWest()));
-      return nodes;
-    }
-
-    Node getParent() {
-      return parent;
-    }
-
-    void setParent(Node parent) {
-      this.parent = parent;
-    }
-
-    Position getPosition() {
-      return position;
-    }
-
-    int getCost() {
-      return cost;
-    }
-
-    void setCost(int cost) {
-      this.cost = cost;
-    }
-
-    int getHeuristic() {
-      return heuristic;
-    }
-
-    void setHeuristic(int heuristic) {
-      this.heuristic = heuristic;
-    }
-
-    int getSumCost() {
-      return SumCost;
-    }
-
-    void setSumCost(int sumCost) {
-      SumCost = sumCost;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-
-      Node node = (Node) o;
-
-      return getPosition().equals(node.getPosition());
-    }
-
-    @Override
-    public int hashCode() {
-      return getPosition().hashCode();
-    }
-  }
-}
\ No newline at end of file
+}
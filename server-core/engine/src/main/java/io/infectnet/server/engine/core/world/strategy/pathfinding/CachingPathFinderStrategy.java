@@ -0,0 +1,299 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.TileChangeListener;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path finder strategy remembering the paths found by an other strategy across ticks.
+ * <p>
+ * A cached path is not only returned for the start it has been searched from, but for every
+ * Tile along it: an entity following the path asks for the path from its next Tile in the next
+ * tick, which is the remaining part of the cached one. Only paths actually reaching the target
+ * are cached, the least recently used ones being evicted.
+ * </p>
+ * <p>
+ * The strategy must be registered as a {@link TileChangeListener} on the {@code World}. When a
+ * Tile of a cached path becomes blocked or occupied, the part of the path behind it is
+ * invalidated, as it can no longer be followed to the target. The part between the Tile and the
+ * target is kept, an entity standing on the Tile may still use it.
+ * </p>
+ */
+public class CachingPathFinderStrategy implements PathFinderStrategy, TileChangeListener {
+
+  /**
+   * The strategy finding the paths not found in the cache.
+   */
+  private final PathFinderStrategy pathFinderStrategy;
+
+  /**
+   * The cached paths by the start and target cell they have been searched for, in the order of
+   * their last use.
+   */
+  private final Map<Long, CachedPath> pathMap;
+
+  /**
+   * The cached paths by the index of their target cell.
+   */
+  private final Map<Integer, List<CachedPath>> targetIndex;
+
+  /**
+   * The cached paths by the index of the cells they go through.
+   */
+  private final Map<Integer, List<CachedPath>> cellIndex;
+
+  /**
+   * The width of the world the cached paths have been found in.
+   */
+  private int width;
+
+  private long hitCount;
+
+  private long missCount;
+
+  private long invalidationCount;
+
+  /**
+   * Creates a cache in front of the given strategy.
+   * @param pathFinderStrategy the strategy finding the paths not found in the cache
+   * @param maxCachedPaths the maximal number of paths kept in the cache
+   */
+  public CachingPathFinderStrategy(PathFinderStrategy pathFinderStrategy, int maxCachedPaths) {
+    this.pathFinderStrategy = pathFinderStrategy;
+
+    this.pathMap = new LruMap<>(maxCachedPaths, evicted -> unindex(evicted, 0));
+
+    this.targetIndex = new HashMap<>();
+
+    this.cellIndex = new HashMap<>();
+
+    this.width = 0;
+  }
+
+  @Override
+  public synchronized List<Tile> findPath(World world, Position start, Position target) {
+    if (world.getWidth() != width) {
+      clear();
+
+      width = world.getWidth();
+    }
+
+    int startCell = start.getH() * width + start.getW();
+    int targetCell = target.getH() * width + target.getW();
+
+    for (CachedPath cachedPath : targetIndex.getOrDefault(targetCell, Collections.emptyList())) {
+      int index = cachedPath.indexOf(startCell);
+
+      if (index != -1) {
+        ++hitCount;
+
+        /* Marks the path as recently used. */
+        pathMap.get(cachedPath.key);
+
+        return cachedPath.toTiles(world, index);
+      }
+    }
+
+    ++missCount;
+
+    List<Tile> path = pathFinderStrategy.findPath(world, start, target);
+
+    Position end = path.get(0).getPosition();
+
+    /* Partial paths towards unreachable targets are not cached, as they may be extended as soon
+       as the target gets reachable. */
+    if (Math.abs(end.getH() - target.getH()) <= 1 && Math.abs(end.getW() - target.getW()) <= 1) {
+      cache(path, startCell, targetCell);
+    }
+
+    return path;
+  }
+
+  @Override
+  public void worldGenerated(World world) {
+    clear();
+
+    pathFinderStrategy.worldGenerated(world);
+  }
+
+  @Override
+  public synchronized void tileChanged(Tile tile) {
+    if (!tile.isBlockedOrOccupied()) {
+      return;
+    }
+
+    int cell = tile.getPosition().getH() * width + tile.getPosition().getW();
+
+    List<CachedPath> cachedPaths = cellIndex.get(cell);
+
+    if (cachedPaths == null) {
+      return;
+    }
+
+    for (CachedPath cachedPath : new ArrayList<>(cachedPaths)) {
+      int index = cachedPath.indexOf(cell);
+
+      if (index == cachedPath.length - 1) {
+        /* Nothing is behind the start of the path. */
+        continue;
+      }
+
+      /* Only the start is cut off when the entity following the path steps forward, which is
+         not counted as an invalidation. */
+      if (index < cachedPath.length - 2) {
+        ++invalidationCount;
+      }
+
+      if (index == 0) {
+        unindex(cachedPath, 0);
+
+        pathMap.remove(cachedPath.key);
+      } else {
+        unindex(cachedPath, index + 1);
+
+        cachedPath.length = index + 1;
+      }
+    }
+  }
+
+  /**
+   * Removes every path from the cache, without touching the counters.
+   */
+  public synchronized void clear() {
+    pathMap.clear();
+
+    targetIndex.clear();
+
+    cellIndex.clear();
+  }
+
+  /**
+   * Returns the number of paths returned from the cache.
+   * @return the number of cache hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the number of paths that had to be searched.
+   * @return the number of cache misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of times a cached path has been cut or removed, because one of its Tiles
+   * got blocked or occupied, apart from entities following the path.
+   * @return the number of invalidations
+   */
+  public synchronized long getInvalidationCount() {
+    return invalidationCount;
+  }
+
+  private void cache(List<Tile> path, int startCell, int targetCell) {
+    long key = ((long) startCell << 32) | targetCell;
+
+    CachedPath previous = pathMap.remove(key);
+
+    if (previous != null) {
+      unindex(previous, 0);
+    }
+
+    CachedPath cachedPath = new CachedPath(key, targetCell, path, width);
+
+    targetIndex.computeIfAbsent(targetCell, cell -> new ArrayList<>()).add(cachedPath);
+
+    for (int i = 0; i < cachedPath.length; ++i) {
+      cellIndex.computeIfAbsent(cachedPath.cells[i], cell -> new ArrayList<>()).add(cachedPath);
+    }
+
+    pathMap.put(key, cachedPath);
+  }
+
+  /**
+   * Removes the path from the index of its cells starting from the given index. Starting from
+   * {@code 0}, the path is removed from the index of its target as well.
+   */
+  private void unindex(CachedPath cachedPath, int fromIndex) {
+    for (int i = fromIndex; i < cachedPath.length; ++i) {
+      removeFromIndex(cellIndex, cachedPath.cells[i], cachedPath);
+    }
+
+    if (fromIndex == 0) {
+      removeFromIndex(targetIndex, cachedPath.targetCell, cachedPath);
+    }
+  }
+
+  private static void removeFromIndex(Map<Integer, List<CachedPath>> index, int cell,
+                                      CachedPath cachedPath) {
+    List<CachedPath> cachedPaths = index.get(cell);
+
+    if (cachedPaths != null) {
+      cachedPaths.remove(cachedPath);
+
+      if (cachedPaths.isEmpty()) {
+        index.remove(cell);
+      }
+    }
+  }
+
+  /**
+   * The cells of a cached path, the end next to the target being the first one.
+   */
+  private static class CachedPath {
+    private final long key;
+
+    private final int targetCell;
+
+    private final int[] cells;
+
+    private int length;
+
+    private CachedPath(long key, int targetCell, List<Tile> path, int width) {
+      this.key = key;
+
+      this.targetCell = targetCell;
+
+      this.cells = new int[path.size()];
+
+      for (int i = 0; i < cells.length; ++i) {
+        Position position = path.get(i).getPosition();
+
+        cells[i] = position.getH() * width + position.getW();
+      }
+
+      this.length = cells.length;
+    }
+
+    private int indexOf(int cell) {
+      for (int i = 0; i < length; ++i) {
+        if (cells[i] == cell) {
+          return i;
+        }
+      }
+
+      return -1;
+    }
+
+    private List<Tile> toTiles(World world, int last) {
+      int width = world.getWidth();
+
+      List<Tile> path = new ArrayList<>(last + 1);
+
+      for (int i = 0; i <= last; ++i) {
+        path.add(world.getTileByCoordinates(cells[i] / width, cells[i] % width));
+      }
+
+      return path;
+    }
+  }
+}
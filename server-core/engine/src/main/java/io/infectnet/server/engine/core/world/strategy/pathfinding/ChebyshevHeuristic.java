@@ -0,0 +1,23 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.World;
+
+/**
+ * An admissible heuristic function for the path finding algorithms. Every step costs the same and
+ * diagonal steps are allowed, so the number of steps between two positions is never less than the
+ * larger of the differences of their coordinates. Searches using it find the shortest paths.
+ */
+public class ChebyshevHeuristic implements Heuristic {
+
+  @Override
+  public int heuristic(World world, Position currentPosition, Position targetPosition) {
+    return heuristic(world, currentPosition.getH(), currentPosition.getW(), targetPosition.getH(),
+        targetPosition.getW());
+  }
+
+  @Override
+  public int heuristic(World world, int currentH, int currentW, int targetH, int targetW) {
+    return Math.max(Math.abs(currentH - targetH), Math.abs(currentW - targetW));
+  }
+}
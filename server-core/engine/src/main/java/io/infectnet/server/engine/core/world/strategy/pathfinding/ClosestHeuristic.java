@@ -11,7 +11,12 @@ public class ClosestHeuristic implements Heuristic {
 
   @Override
   public int heuristic(World world, Position currentPosition, Position targetPosition) {
-    return Math.abs(currentPosition.getH() - targetPosition.getH()) + Math
-        .abs(currentPosition.getW() - targetPosition.getW());
+    return heuristic(world, currentPosition.getH(), currentPosition.getW(), targetPosition.getH(),
+        targetPosition.getW());
+  }
+
+  @Override
+  public int heuristic(World world, int currentH, int currentW, int targetH, int targetW) {
+    return Math.abs(currentH - targetH) + Math.abs(currentW - targetW);
   }
 }
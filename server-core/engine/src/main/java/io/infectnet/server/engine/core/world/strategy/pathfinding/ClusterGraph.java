@@ -0,0 +1,316 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.TileType;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The abstraction of the tile grid used by {@link HierarchicalPathFinderStrategy}.
+ * <p>
+ * The world is split into square clusters. Where two neighbouring clusters are connected by a
+ * run of {@code CAVE} tiles along their common border, one or two pairs of facing tiles are chosen
+ * as entrances, and become the nodes of the graph. Nodes facing each other are connected by an
+ * edge of cost {@code 1}, while the nodes of the same cluster are connected by edges weighted by
+ * the length of the shortest path between them inside the cluster.
+ * </p>
+ * <p>
+ * The graph only depends on the type of the tiles, which does not change after the world has been
+ * generated, so the entities are not taken into account.
+ * </p>
+ */
+class ClusterGraph {
+  /**
+   * Runs of connected border tiles at least this long get two entrances, one at each end.
+   */
+  private static final int DOUBLE_ENTRANCE_LENGTH = 6;
+
+  final int height;
+
+  final int width;
+
+  final int clusterSize;
+
+  private final int clusterColumns;
+
+  /**
+   * The index of the cell of every node.
+   */
+  final int[] nodeCell;
+
+  /**
+   * The nodes of every cluster, by the index of the cluster.
+   */
+  final int[][] clusterNodes;
+
+  final int[][] edgeTarget;
+
+  final int[][] edgeCost;
+
+  private ClusterGraph(int height, int width, int clusterSize, int[] nodeCell,
+                       int[][] clusterNodes, int[][] edgeTarget, int[][] edgeCost) {
+    this.height = height;
+
+    this.width = width;
+
+    this.clusterSize = clusterSize;
+
+    this.clusterColumns = (width + clusterSize - 1) / clusterSize;
+
+    this.nodeCell = nodeCell;
+
+    this.clusterNodes = clusterNodes;
+
+    this.edgeTarget = edgeTarget;
+
+    this.edgeCost = edgeCost;
+  }
+
+  /**
+   * Builds the graph of the given world.
+   * @param world the generated world
+   * @param clusterSize the length of the sides of the clusters
+   * @return the new graph
+   */
+  static ClusterGraph build(World world, int clusterSize) {
+    return new Builder(world, clusterSize).build();
+  }
+
+  /**
+   * Checks whether the graph has been built for a world of the same size as the given one.
+   */
+  boolean matches(World world) {
+    return world.getHeight() == height && world.getWidth() == width;
+  }
+
+  int nodeCount() {
+    return nodeCell.length;
+  }
+
+  int clusterOf(int cell) {
+    return (cell / width / clusterSize) * clusterColumns + (cell % width) / clusterSize;
+  }
+
+  /**
+   * Returns the first coordinate of the north-western corner of the cluster.
+   */
+  int clusterMinH(int cluster) {
+    return (cluster / clusterColumns) * clusterSize;
+  }
+
+  /**
+   * Returns the second coordinate of the north-western corner of the cluster.
+   */
+  int clusterMinW(int cluster) {
+    return (cluster % clusterColumns) * clusterSize;
+  }
+
+  private static class Builder {
+    private final World world;
+
+    private final int height;
+
+    private final int width;
+
+    private final int clusterSize;
+
+    private final int clusterRows;
+
+    private final int clusterColumns;
+
+    private final Map<Integer, Integer> nodeByCell;
+
+    private final List<Integer> nodeCells;
+
+    private final List<List<Integer>> nodesOfCluster;
+
+    private final List<List<int[]>> edges;
+
+    private Builder(World world, int clusterSize) {
+      this.world = world;
+
+      this.height = world.getHeight();
+
+      this.width = world.getWidth();
+
+      this.clusterSize = clusterSize;
+
+      this.clusterRows = (height + clusterSize - 1) / clusterSize;
+
+      this.clusterColumns = (width + clusterSize - 1) / clusterSize;
+
+      this.nodeByCell = new HashMap<>();
+
+      this.nodeCells = new ArrayList<>();
+
+      this.nodesOfCluster = new ArrayList<>();
+
+      for (int i = 0; i < clusterRows * clusterColumns; ++i) {
+        nodesOfCluster.add(new ArrayList<>());
+      }
+
+      this.edges = new ArrayList<>();
+    }
+
+    private ClusterGraph build() {
+      for (int clusterH = 0; clusterH < clusterRows; ++clusterH) {
+        for (int clusterW = 0; clusterW < clusterColumns; ++clusterW) {
+          findEntrances(clusterH, clusterW);
+        }
+      }
+
+      for (int cluster = 0; cluster < nodesOfCluster.size(); ++cluster) {
+        connectClusterNodes(cluster);
+      }
+
+      int nodeCount = nodeCells.size();
+
+      int[] nodeCell = new int[nodeCount];
+      int[][] edgeTarget = new int[nodeCount][];
+      int[][] edgeCost = new int[nodeCount][];
+
+      for (int node = 0; node < nodeCount; ++node) {
+        nodeCell[node] = nodeCells.get(node);
+
+        List<int[]> nodeEdges = edges.get(node);
+
+        edgeTarget[node] = new int[nodeEdges.size()];
+        edgeCost[node] = new int[nodeEdges.size()];
+
+        for (int i = 0; i < nodeEdges.size(); ++i) {
+          edgeTarget[node][i] = nodeEdges.get(i)[0];
+          edgeCost[node][i] = nodeEdges.get(i)[1];
+        }
+      }
+
+      int[][] clusterNodes = new int[nodesOfCluster.size()][];
+
+      for (int cluster = 0; cluster < clusterNodes.length; ++cluster) {
+        clusterNodes[cluster] = nodesOfCluster.get(cluster).stream().mapToInt(i -> i).toArray();
+      }
+
+      return new ClusterGraph(height, width, clusterSize, nodeCell, clusterNodes, edgeTarget,
+          edgeCost);
+    }
+
+    /**
+     * Finds the entrances on the eastern and southern border of the given cluster.
+     */
+    private void findEntrances(int clusterH, int clusterW) {
+      int minH = clusterH * clusterSize;
+      int minW = clusterW * clusterSize;
+
+      int maxH = Math.min(height, minH + clusterSize) - 1;
+      int maxW = Math.min(width, minW + clusterSize) - 1;
+
+      if (maxW + 1 < width) {
+        int runStart = -1;
+
+        for (int h = minH; h <= maxH + 1; ++h) {
+          boolean open = h <= maxH && isCave(h, maxW) && isCave(h, maxW + 1);
+
+          if (open && runStart == -1) {
+            runStart = h;
+          } else if (!open && runStart != -1) {
+            addEntrances(runStart, maxW, h - 1, maxW, 0, 1);
+
+            runStart = -1;
+          }
+        }
+      }
+
+      if (maxH + 1 < height) {
+        int runStart = -1;
+
+        for (int w = minW; w <= maxW + 1; ++w) {
+          boolean open = w <= maxW && isCave(maxH, w) && isCave(maxH + 1, w);
+
+          if (open && runStart == -1) {
+            runStart = w;
+          } else if (!open && runStart != -1) {
+            addEntrances(maxH, runStart, maxH, w - 1, 1, 0);
+
+            runStart = -1;
+          }
+        }
+      }
+    }
+
+    /**
+     * Adds the entrances of a run of border cells, each facing the cell at the given offset.
+     */
+    private void addEntrances(int firstH, int firstW, int lastH, int lastW, int dh, int dw) {
+      int length = Math.max(lastH - firstH, lastW - firstW) + 1;
+
+      if (length < DOUBLE_ENTRANCE_LENGTH) {
+        int h = (firstH + lastH) / 2;
+        int w = (firstW + lastW) / 2;
+
+        connect(node(h, w), node(h + dh, w + dw), 1);
+      } else {
+        connect(node(firstH, firstW), node(firstH + dh, firstW + dw), 1);
+        connect(node(lastH, lastW), node(lastH + dh, lastW + dw), 1);
+      }
+    }
+
+    /**
+     * Connects the nodes of a cluster with the lengths of the shortest paths between them.
+     */
+    private void connectClusterNodes(int cluster) {
+      List<Integer> nodes = nodesOfCluster.get(cluster);
+
+      if (nodes.size() < 2) {
+        return;
+      }
+
+      int minH = (cluster / clusterColumns) * clusterSize;
+      int minW = (cluster % clusterColumns) * clusterSize;
+
+      ClusterSearch search = new ClusterSearch(clusterSize);
+
+      for (int node : nodes) {
+        search.run(world, minH, minW, nodeCells.get(node), -1, false);
+
+        for (int other : nodes) {
+          int distance = search.distanceTo(nodeCells.get(other));
+
+          if (other != node && distance > 0) {
+            edges.get(node).add(new int[] {other, distance});
+          }
+        }
+      }
+    }
+
+    private int node(int h, int w) {
+      int cell = h * width + w;
+
+      Integer node = nodeByCell.get(cell);
+
+      if (node == null) {
+        node = nodeCells.size();
+
+        nodeByCell.put(cell, node);
+
+        nodeCells.add(cell);
+
+        edges.add(new ArrayList<>());
+
+        nodesOfCluster.get((h / clusterSize) * clusterColumns + w / clusterSize).add(node);
+      }
+
+      return node;
+    }
+
+    private void connect(int node, int otherNode, int cost) {
+      edges.get(node).add(new int[] {otherNode, cost});
+      edges.get(otherNode).add(new int[] {node, cost});
+    }
+
+    private boolean isCave(int h, int w) {
+      return world.getTileType(h, w) == TileType.CAVE;
+    }
+  }
+}
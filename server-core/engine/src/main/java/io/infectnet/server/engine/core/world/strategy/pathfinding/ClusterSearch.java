@@ -0,0 +1,165 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.TileType;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable breadth-first search confined to a single cluster of a {@link ClusterGraph}.
+ * <p>
+ * Every step costs the same and diagonal steps are allowed, just like in the path finder
+ * strategies. The search either considers only the type of the tiles, which is used to build the
+ * graph, or avoids the tiles occupied by entities as well, which is used to turn the abstract path
+ * into Tiles.
+ * </p>
+ */
+class ClusterSearch {
+  private static final int UNREACHED = -1;
+
+  /**
+   * Marks the cells found to be blocked, so they are not checked again.
+   */
+  private static final int BLOCKED = -2;
+
+  private final int clusterSize;
+
+  private final int[] distance;
+
+  private final int[] parent;
+
+  private final int[] queue;
+
+  private int width;
+
+  private int minH;
+
+  private int minW;
+
+  private int maxH;
+
+  private int maxW;
+
+  ClusterSearch(int clusterSize) {
+    this.clusterSize = clusterSize;
+
+    this.distance = new int[clusterSize * clusterSize];
+
+    this.parent = new int[clusterSize * clusterSize];
+
+    this.queue = new int[clusterSize * clusterSize];
+  }
+
+  /**
+   * Runs the search from the source cell over the cluster with the given corner. The source itself
+   * is always part of the search, even if it is occupied.
+   * @param world the world to search in
+   * @param clusterMinH the first coordinate of the north-western corner of the cluster
+   * @param clusterMinW the second coordinate of the north-western corner of the cluster
+   * @param sourceCell the index of the cell to start from
+   * @param stopCell the index of the cell the search can stop at, {@code -1} to search the whole
+   * cluster
+   * @param avoidEntities whether tiles occupied by entities are avoided
+   */
+  void run(World world, int clusterMinH, int clusterMinW, int sourceCell, int stopCell,
+           boolean avoidEntities) {
+    this.width = world.getWidth();
+
+    this.minH = clusterMinH;
+    this.minW = clusterMinW;
+
+    this.maxH = Math.min(world.getHeight(), clusterMinH + clusterSize) - 1;
+    this.maxW = Math.min(width, clusterMinW + clusterSize) - 1;
+
+    Arrays.fill(distance, UNREACHED);
+
+    int head = 0;
+    int tail = 0;
+
+    int source = localIndex(sourceCell);
+
+    distance[source] = 0;
+    parent[source] = -1;
+
+    queue[tail++] = source;
+
+    while (head < tail) {
+      int current = queue[head++];
+
+      if (toCell(current) == stopCell) {
+        return;
+      }
+
+      int h = minH + current / clusterSize;
+      int w = minW + current % clusterSize;
+
+      for (int i = 0; i < GridSearch.NEIGHBOUR_OFFSET_H.length; ++i) {
+        int neighbourH = h + GridSearch.NEIGHBOUR_OFFSET_H[i];
+        int neighbourW = w + GridSearch.NEIGHBOUR_OFFSET_W[i];
+
+        if (neighbourH < minH || neighbourH > maxH || neighbourW < minW || neighbourW > maxW) {
+          continue;
+        }
+
+        int neighbour = (neighbourH - minH) * clusterSize + (neighbourW - minW);
+
+        if (distance[neighbour] != UNREACHED) {
+          continue;
+        }
+
+        if (avoidEntities
+            ? world.isBlockedOrOccupied(neighbourH, neighbourW)
+            : world.getTileType(neighbourH, neighbourW) != TileType.CAVE) {
+          distance[neighbour] = BLOCKED;
+
+          continue;
+        }
+
+        distance[neighbour] = distance[current] + 1;
+        parent[neighbour] = current;
+
+        queue[tail++] = neighbour;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of steps from the source to the given cell found by the last search.
+   * @param cell the index of the cell
+   * @return the number of steps, or {@code -1} if the cell has not been reached
+   */
+  int distanceTo(int cell) {
+    int h = cell / width;
+    int w = cell % width;
+
+    if (h < minH || h > maxH || w < minW || w > maxW) {
+      return UNREACHED;
+    }
+
+    return Math.max(UNREACHED, distance[localIndex(cell)]);
+  }
+
+  /**
+   * Appends the path found by the last search from the given reached cell back to the source, so
+   * the source is added last.
+   * @param world the world searched in
+   * @param cell the index of a reached cell
+   * @param path the list to append the Tiles to
+   */
+  void appendPath(World world, int cell, List<Tile> path) {
+    for (int current = localIndex(cell); current != -1; current = parent[current]) {
+      path.add(world.getTileByCoordinates(minH + current / clusterSize,
+          minW + current % clusterSize));
+    }
+  }
+
+  private int localIndex(int cell) {
+    return (cell / width - minH) * clusterSize + (cell % width - minW);
+  }
+
+  private int toCell(int local) {
+    return (minH + local / clusterSize) * width + minW + local % clusterSize;
+  }
+}
@@ -0,0 +1,23 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+
+import java.util.Optional;
+
+/**
+ * Service for finding the next step of entities moving towards a target. Many entities chasing the
+ * same target share the result of a single search, a flow field storing the distance of the tiles
+ * around the target, from which the next step of every entity can be read without searching.
+ */
+public interface FlowFieldService {
+
+  /**
+   * Finds the next step from the start Position towards the target Position. The step is always
+   * an empty {@code CAVE} tile adjacent to the start.
+   * @param start the current Position of the moving entity
+   * @param target the Position of the target
+   * @return the Position of the next step, or an empty {@code Optional} if the entity cannot get
+   * closer to the target
+   */
+  Optional<Position> nextStep(Position start, Position target);
+}
@@ -0,0 +1,242 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.TileChangeListener;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Default implementation of {@link FlowFieldService}.
+ * <p>
+ * A flow field covers a square window around its target, and stores the number of steps needed to
+ * get next to the target from every tile of the window, computed by a breadth-first search started
+ * from the target. Entities outside of the window, or not connected to the target inside of it,
+ * are routed by the {@link World#findPath(Position, Position)} method instead.
+ * </p>
+ * <p>
+ * The fields are cached across ticks, the least recently used ones being evicted. The service must
+ * be registered as a {@link TileChangeListener} on the {@code World}: when a {@code Tile} changes,
+ * the fields covering it are marked as stale and are recomputed the next time they are needed.
+ * </p>
+ * <p>
+ * The service is not thread-safe, it must only be used by the thread of the game loop.
+ * </p>
+ */
+public class FlowFieldServiceImpl implements FlowFieldService, TileChangeListener {
+  private static final int UNREACHED = -1;
+
+  private final World world;
+
+  private final int radius;
+
+  /**
+   * The cached fields by the index of their target cell, in the order of their last use.
+   */
+  private final Map<Integer, FlowField> fieldMap;
+
+  /**
+   * The queue of the breadth-first search, shared by the fields.
+   */
+  private final int[] queue;
+
+  /**
+   * Constructs a new service with an empty cache.
+   * @param world the {@link World} to find the steps in
+   * @param radius the distance between the target and the edges of the window of the fields
+   * @param maxCachedFields the maximal number of fields kept in the cache
+   */
+  public FlowFieldServiceImpl(World world, int radius, int maxCachedFields) {
+    this.world = world;
+
+    this.radius = radius;
+
+    this.fieldMap = new LruMap<>(maxCachedFields);
+
+    this.queue = new int[(2 * radius + 1) * (2 * radius + 1)];
+  }
+
+  @Override
+  public Optional<Position> nextStep(Position start, Position target) {
+    FlowField field = getField(target);
+
+    int bestAnyDistance = Integer.MAX_VALUE;
+    int bestStepDistance = Integer.MAX_VALUE;
+
+    int bestStepH = 0;
+    int bestStepW = 0;
+
+    for (int i = 0; i < GridSearch.NEIGHBOUR_OFFSET_H.length; ++i) {
+      int h = start.getH() + GridSearch.NEIGHBOUR_OFFSET_H[i];
+      int w = start.getW() + GridSearch.NEIGHBOUR_OFFSET_W[i];
+
+      int distance = field.distanceAt(h, w);
+
+      if (distance == UNREACHED) {
+        continue;
+      }
+
+      bestAnyDistance = Math.min(bestAnyDistance, distance);
+
+      if (distance < bestStepDistance
+          && GridSearch.isSuitableTile(world, h, w)) {
+        bestStepDistance = distance;
+
+        bestStepH = h;
+        bestStepW = w;
+      }
+    }
+
+    if (bestAnyDistance == Integer.MAX_VALUE) {
+      /* The start is not covered by the field. */
+      return stepAlongPath(start, target);
+    }
+
+    /* The start is already next to the target, or every step getting closer is taken. */
+    if (bestStepDistance != bestAnyDistance) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new Position(bestStepH, bestStepW));
+  }
+
+  @Override
+  public void tileChanged(Tile tile) {
+    int h = tile.getPosition().getH();
+    int w = tile.getPosition().getW();
+
+    for (FlowField field : fieldMap.values()) {
+      if (field.covers(h, w)) {
+        field.stale = true;
+      }
+    }
+  }
+
+  private FlowField getField(Position target) {
+    int targetCell = target.getH() * world.getWidth() + target.getW();
+
+    FlowField field = fieldMap.get(targetCell);
+
+    if (field == null) {
+      field = new FlowField(target.getH(), target.getW());
+
+      fieldMap.put(targetCell, field);
+    }
+
+    if (field.stale) {
+      field.compute();
+    }
+
+    return field;
+  }
+
+  private Optional<Position> stepAlongPath(Position start, Position target) {
+    List<Tile> path = world.findPath(start, target);
+
+    /* The path starts at the target and ends at the start. */
+    if (path.size() < 2) {
+      return Optional.empty();
+    }
+
+    return Optional.of(path.get(path.size() - 2).getPosition());
+  }
+
+  /**
+   * The distances of the tiles of a window from the target in its centre.
+   */
+  private class FlowField {
+    private final int targetH;
+
+    private final int targetW;
+
+    private final int minH;
+
+    private final int minW;
+
+    private final int height;
+
+    private final int width;
+
+    private final int[] distance;
+
+    private boolean stale;
+
+    private FlowField(int targetH, int targetW) {
+      this.targetH = targetH;
+
+      this.targetW = targetW;
+
+      this.minH = Math.max(0, targetH - radius);
+
+      this.minW = Math.max(0, targetW - radius);
+
+      this.height = Math.min(world.getHeight() - 1, targetH + radius) - minH + 1;
+
+      this.width = Math.min(world.getWidth() - 1, targetW + radius) - minW + 1;
+
+      this.distance = new int[height * width];
+
+      this.stale = true;
+    }
+
+    private boolean covers(int h, int w) {
+      return h >= minH && h < minH + height && w >= minW && w < minW + width;
+    }
+
+    private int distanceAt(int h, int w) {
+      if (!covers(h, w)) {
+        return UNREACHED;
+      }
+
+      return distance[(h - minH) * width + (w - minW)];
+    }
+
+    /**
+     * Runs the breadth-first search from the target. The target itself is usually occupied, so
+     * only the tiles around it have to be empty.
+     */
+    private void compute() {
+      Arrays.fill(distance, UNREACHED);
+
+      int head = 0;
+      int tail = 0;
+
+      int targetCell = (targetH - minH) * width + (targetW - minW);
+
+      distance[targetCell] = 0;
+
+      queue[tail++] = targetCell;
+
+      while (head < tail) {
+        int cell = queue[head++];
+
+        int h = cell / width;
+        int w = cell % width;
+
+        for (int i = 0; i < GridSearch.NEIGHBOUR_OFFSET_H.length; ++i) {
+          int neighbourH = h + GridSearch.NEIGHBOUR_OFFSET_H[i];
+          int neighbourW = w + GridSearch.NEIGHBOUR_OFFSET_W[i];
+
+          if (neighbourH < 0 || neighbourH >= height || neighbourW < 0 || neighbourW >= width) {
+            continue;
+          }
+
+          int neighbour = neighbourH * width + neighbourW;
+
+          if (distance[neighbour] == UNREACHED
+              && GridSearch.isSuitableTile(world, minH + neighbourH, minW + neighbourW)) {
+            distance[neighbour] = distance[cell] + 1;
+
+            queue[tail++] = neighbour;
+          }
+        }
+      }
+
+      stale = false;
+    }
+  }
+}
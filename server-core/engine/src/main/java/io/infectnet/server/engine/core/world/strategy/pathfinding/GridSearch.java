@@ -0,0 +1,313 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The reusable state of the path searches over the tile grid of a single thread.
+ * <p>
+ * The cells of the world are identified by their index, {@code h * width + w}, and the state of
+ * the search is stored in primitive arrays indexed by the cells. Every search has its own
+ * generation number, so the arrays never have to be cleared: a value only belongs to the current
+ * search if the stamp of the cell equals the current generation.
+ * </p>
+ * <p>
+ * The open cells are stored in a binary min-heap of cell indices ordered by their estimated total
+ * cost, and the position of every cell in the heap is tracked, so its cost can be decreased in
+ * logarithmic time.
+ * </p>
+ */
+class GridSearch {
+  /**
+   * The offsets of the eight neighbours of a cell, in the order of north, north-east, east,
+   * south-east, south, south-west, west and north-west.
+   */
+  static final int[] NEIGHBOUR_OFFSET_H = {-1, -1, 0, 1, 1, 1, 0, -1};
+
+  static final int[] NEIGHBOUR_OFFSET_W = {0, 1, 1, 1, 0, -1, -1, -1};
+
+  private int generation;
+
+  /**
+   * The generation in which the cell has been opened. The other values of the cell are only
+   * valid if it equals the current generation.
+   */
+  private int[] seenGeneration;
+
+  /**
+   * The generation in which the cell has been expanded.
+   */
+  private int[] closedGeneration;
+
+  int[] gScore;
+
+  int[] fScore;
+
+  /**
+   * The index of the cell the cell has been reached from, {@code -1} for the start.
+   */
+  int[] parent;
+
+  private int[] heapIndex;
+
+  private int[] heap;
+
+  int heapSize;
+
+  GridSearch() {
+    this.generation = 0;
+
+    allocate(0);
+  }
+
+  /**
+   * Checks whether a path can go through the tile at the given coordinates, that is whether it is
+   * empty and is of type {@code CAVE}.
+   * @param world the world of the tile
+   * @param h the first coordinate of the tile
+   * @param w the second coordinate of the tile
+   * @return true if all conditions are met, false otherwise
+   */
+  static boolean isSuitableTile(World world, int h, int w) {
+    return !world.isBlockedOrOccupied(h, w);
+  }
+
+  /**
+   * Always repositions the given target Position to one,
+   * that is not occupied or not a {@code ROCK}.
+   * @return the new position nearby the original target
+   */
+  static Position resetTarget(World world, Position target) {
+    for (int i = 0; i < NEIGHBOUR_OFFSET_H.length; ++i) {
+      int h = target.getH() + NEIGHBOUR_OFFSET_H[i];
+      int w = target.getW() + NEIGHBOUR_OFFSET_W[i];
+
+      if (h >= 0 && h < world.getHeight() && w >= 0 && w < world.getWidth()
+          && !world.isBlockedOrOccupied(h, w)) {
+        return new Position(h, w);
+      }
+    }
+
+    return target;
+  }
+
+  /**
+   * Returns the path of an Entity that cannot get any closer to its target.
+   * @return a list containing only the Tile of the start
+   */
+  static List<Tile> startOnlyPath(World world, Position start) {
+    List<Tile> path = new ArrayList<>(1);
+
+    path.add(world.getTileByPosition(start));
+
+    return path;
+  }
+
+  /**
+   * Prepares the arrays for a new search in a world with the specified number of cells.
+   * @param cellCount the number of cells of the world
+   */
+  void prepare(int cellCount) {
+    if (seenGeneration.length != cellCount) {
+      allocate(cellCount);
+    }
+
+    if (generation == Integer.MAX_VALUE) {
+      /* The stamps of old searches could be mistaken for the new ones after overflowing. */
+      Arrays.fill(seenGeneration, 0);
+      Arrays.fill(closedGeneration, 0);
+
+      generation = 0;
+    }
+
+    ++generation;
+
+    heapSize = 0;
+  }
+
+  private void allocate(int cellCount) {
+    seenGeneration = new int[cellCount];
+    closedGeneration = new int[cellCount];
+    gScore = new int[cellCount];
+    fScore = new int[cellCount];
+    parent = new int[cellCount];
+    heapIndex = new int[cellCount];
+    heap = new int[cellCount];
+  }
+
+  boolean isSeen(int cell) {
+    return seenGeneration[cell] == generation;
+  }
+
+  boolean isClosed(int cell) {
+    return closedGeneration[cell] == generation;
+  }
+
+  /**
+   * Adds a cell not seen before to the open cells.
+   * @param cell the index of the cell
+   * @param parentCell the index of the cell it has been reached from
+   * @param cost the cost of reaching the cell from the start
+   * @param heuristicValue the estimated cost of reaching the target from the cell
+   */
+  void open(int cell, int parentCell, int cost, int heuristicValue) {
+    seenGeneration[cell] = generation;
+
+    gScore[cell] = cost;
+    fScore[cell] = cost + heuristicValue;
+    parent[cell] = parentCell;
+
+    heap[heapSize] = cell;
+    heapIndex[cell] = heapSize;
+
+    siftUp(heapSize++);
+  }
+
+  /**
+   * Records a cheaper way of reaching an open cell.
+   * @param cell the index of the cell
+   * @param parentCell the index of the cell it has been reached from
+   * @param cost the new, lower cost of reaching the cell from the start
+   */
+  void decrease(int cell, int parentCell, int cost) {
+    fScore[cell] -= gScore[cell] - cost;
+    gScore[cell] = cost;
+    parent[cell] = parentCell;
+
+    siftUp(heapIndex[cell]);
+  }
+
+  /**
+   * Removes the open cell with the lowest estimated total cost and closes it.
+   * @return the index of the removed cell
+   */
+  int poll() {
+    int cell = heap[0];
+
+    heap[0] = heap[--heapSize];
+    heapIndex[heap[0]] = 0;
+
+    siftDown(0);
+
+    closedGeneration[cell] = generation;
+
+    return cell;
+  }
+
+  /**
+   * Constructs the Path following the parents of the cells from the last one until it reaches the
+   * starting cell. Consecutive cells of the chain must lie on a straight or diagonal line, the
+   * cells between them are added to the Path as well.
+   * @param world the world where we search
+   * @param last the index of the end of the Path, may not be the original target
+   * @return a list of the path containing the target at the front and the start at the back
+   */
+  List<Tile> buildPath(World world, int last) {
+    int width = world.getWidth();
+
+    int length = 1;
+
+    for (int cell = last; parent[cell] != -1; cell = parent[cell]) {
+      length += distance(cell, parent[cell], width);
+    }
+
+    List<Tile> path = new ArrayList<>(length);
+
+    int cell = last;
+
+    for (; parent[cell] != -1; cell = parent[cell]) {
+      int h = cell / width;
+      int w = cell % width;
+
+      int parentH = parent[cell] / width;
+      int parentW = parent[cell] % width;
+
+      int stepH = Integer.signum(parentH - h);
+      int stepW = Integer.signum(parentW - w);
+
+      for (; h != parentH || w != parentW; h += stepH, w += stepW) {
+        path.add(world.getTileByCoordinates(h, w));
+      }
+    }
+
+    /* The loop stops at the start, which has no parent. */
+
+    path.add(world.getTileByCoordinates(cell / width, cell % width));
+
+    return path;
+  }
+
+  /**
+   * The number of steps between two cells, when diagonal steps are allowed.
+   */
+  static int distance(int cell, int otherCell, int width) {
+    return Math.max(Math.abs(cell / width - otherCell / width),
+        Math.abs(cell % width - otherCell % width));
+  }
+
+  private void siftUp(int index) {
+    int cell = heap[index];
+
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      int parentCell = heap[parentIndex];
+
+      if (!isBefore(cell, parentCell)) {
+        break;
+      }
+
+      heap[index] = parentCell;
+      heapIndex[parentCell] = index;
+
+      index = parentIndex;
+    }
+
+    heap[index] = cell;
+    heapIndex[cell] = index;
+  }
+
+  private void siftDown(int index) {
+    int cell = heap[index];
+
+    while (true) {
+      int child = 2 * index + 1;
+
+      if (child >= heapSize) {
+        break;
+      }
+
+      if (child + 1 < heapSize && isBefore(heap[child + 1], heap[child])) {
+        ++child;
+      }
+
+      if (!isBefore(heap[child], cell)) {
+        break;
+      }
+
+      heap[index] = heap[child];
+      heapIndex[heap[index]] = index;
+
+      index = child;
+    }
+
+    heap[index] = cell;
+    heapIndex[cell] = index;
+  }
+
+  /**
+   * Orders the cells by their estimated total cost, preferring the cells farther from the start
+   * on ties, as those are probably closer to the target.
+   */
+  private boolean isBefore(int cell, int otherCell) {
+    if (fScore[cell] != fScore[otherCell]) {
+      return fScore[cell] < fScore[otherCell];
+    }
+
+    return gScore[cell] > gScore[otherCell];
+  }
+}
@@ -16,4 +16,18 @@ public interface Heuristic {
    * @return a value calculated
    */
   int heuristic(World world, Position currentPosition, Position targetPosition);
+
+  /**
+   * Returns a value calculated with the given coordinates. Path finders call it for every visited
+   * tile, so implementations should override it to avoid creating {@link Position} instances.
+   * @param world the current map of the game
+   * @param currentH the first coordinate of one of the given positions
+   * @param currentW the second coordinate of one of the given positions
+   * @param targetH the first coordinate of the other position
+   * @param targetW the second coordinate of the other position
+   * @return a value calculated
+   */
+  default int heuristic(World world, int currentH, int currentW, int targetH, int targetW) {
+    return heuristic(world, new Position(currentH, currentW), new Position(targetH, targetW));
+  }
 }
@@ -0,0 +1,387 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class for Path finding in the world between two Positions, using Hierarchical Path-Finding A*.
+ * <p>
+ * After the world has been generated, its tile grid is abstracted into a {@link ClusterGraph}.
+ * A search first finds a path in the graph, which is small compared to the grid, then turns every
+ * step of the abstract path into Tiles with a search confined to a single cluster, so even paths
+ * crossing the whole world only expand a fraction of its tiles. The found paths are near-optimal.
+ * </p>
+ * <p>
+ * Targets outside of the region of the start, see {@link World#sameRegion(Position, Position)},
+ * are rejected without searching, the returned path only contains the start. Short paths, and
+ * paths that cannot be completed because of the entities in the way, are found by the wrapped
+ * strategy instead.
+ * </p>
+ */
+public class HierarchicalPathFinderStrategy implements PathFinderStrategy {
+
+  /**
+   * The strategy finding the paths not handled by the abstraction.
+   */
+  private final PathFinderStrategy pathFinderStrategy;
+
+  /**
+   * A heuristic to use with value calculating in the abstract graph.
+   */
+  private final Heuristic heuristic;
+
+  private final int clusterSize;
+
+  /**
+   * The abstraction of the last generated world, {@code null} before the first generation.
+   */
+  private volatile ClusterGraph clusterGraph;
+
+  /**
+   * The reusable search state of every thread.
+   */
+  private final ThreadLocal<AbstractSearch> searchState;
+
+  /**
+   * Creates a strategy searching the abstraction of the world, and falling back to the given
+   * strategy.
+   * @param pathFinderStrategy the strategy finding the paths not handled by the abstraction
+   * @param heuristic the specific heuristic function to use in the abstract graph
+   * @param clusterSize the length of the sides of the clusters
+   */
+  public HierarchicalPathFinderStrategy(PathFinderStrategy pathFinderStrategy,
+                                        Heuristic heuristic, int clusterSize) {
+    this.pathFinderStrategy = pathFinderStrategy;
+
+    this.heuristic = heuristic;
+
+    this.clusterSize = clusterSize;
+
+    this.clusterGraph = null;
+
+    this.searchState = ThreadLocal.withInitial(AbstractSearch::new);
+  }
+
+  @Override
+  public void worldGenerated(World world) {
+    clusterGraph = ClusterGraph.build(world, clusterSize);
+
+    pathFinderStrategy.worldGenerated(world);
+  }
+
+  @Override
+  public List<Tile> findPath(World world, Position start, Position target) {
+    ClusterGraph graph = clusterGraph;
+
+    if (graph == null || !graph.matches(world)) {
+      return pathFinderStrategy.findPath(world, start, target);
+    }
+
+    if (!world.sameRegion(start, target)) {
+      return GridSearch.startOnlyPath(world, start);
+    }
+
+    int width = world.getWidth();
+
+    Position targetPos = GridSearch.resetTarget(world, target);
+
+    int startCell = start.getH() * width + start.getW();
+    int targetCell = targetPos.getH() * width + targetPos.getW();
+
+    /* Nearby targets are found faster without the abstraction. */
+    if (GridSearch.distance(startCell, targetCell, width) <= 2 * clusterSize) {
+      return pathFinderStrategy.findPath(world, start, target);
+    }
+
+    List<Tile> path = searchState.get().findPath(world, graph, heuristic, startCell, targetCell);
+
+    if (path == null) {
+      return pathFinderStrategy.findPath(world, start, target);
+    }
+
+    return path;
+  }
+
+  /**
+   * The reusable state of the search in the abstract graph of a single thread. The start and the
+   * target are inserted into the graph as two extra nodes, connected to the nodes of their
+   * clusters.
+   */
+  private static class AbstractSearch {
+    private ClusterGraph graph;
+
+    private ClusterSearch clusterSearch;
+
+    private int generation;
+
+    private int[] seenGeneration;
+
+    private int[] closedGeneration;
+
+    private int[] gScore;
+
+    private int[] parent;
+
+    /**
+     * The generation in which the cost of reaching the target from the node has been set.
+     */
+    private int[] targetGeneration;
+
+    private int[] targetCost;
+
+    /**
+     * The open nodes, each entry holding the estimated total cost in its upper and the node in its
+     * lower half. Nodes are not removed when their cost decreases, the outdated entries are
+     * skipped instead.
+     */
+    private long[] heap;
+
+    private int heapSize;
+
+    private int[] nodeChain;
+
+    private Heuristic heuristic;
+
+    private List<Tile> findPath(World world, ClusterGraph clusterGraph, Heuristic heuristic,
+                                int startCell, int targetCell) {
+      prepare(clusterGraph);
+
+      this.heuristic = heuristic;
+
+      int startNode = graph.nodeCount();
+      int targetNode = startNode + 1;
+
+      int startCluster = graph.clusterOf(startCell);
+      int targetCluster = graph.clusterOf(targetCell);
+
+      /* Connecting the target to the nodes of its cluster. */
+
+      clusterSearch.run(world, graph.clusterMinH(targetCluster), graph.clusterMinW(targetCluster),
+          targetCell, -1, false);
+
+      for (int node : graph.clusterNodes[targetCluster]) {
+        int distance = clusterSearch.distanceTo(graph.nodeCell[node]);
+
+        if (distance != -1) {
+          targetGeneration[node] = generation;
+          targetCost[node] = distance;
+        }
+      }
+
+      /* Opening the nodes of the cluster of the start. */
+
+      seenGeneration[startNode] = generation;
+      closedGeneration[startNode] = generation;
+      gScore[startNode] = 0;
+      parent[startNode] = -1;
+
+      clusterSearch.run(world, graph.clusterMinH(startCluster), graph.clusterMinW(startCluster),
+          startCell, -1, false);
+
+      for (int node : graph.clusterNodes[startCluster]) {
+        int distance = clusterSearch.distanceTo(graph.nodeCell[node]);
+
+        if (distance != -1) {
+          relax(world, startNode, node, distance, targetCell);
+        }
+      }
+
+      while (heapSize > 0) {
+        int current = (int) poll();
+
+        if (closedGeneration[current] == generation) {
+          continue;
+        }
+
+        closedGeneration[current] = generation;
+
+        if (current == targetNode) {
+          return refine(world, startNode, targetNode, startCell, targetCell);
+        }
+
+        for (int i = 0; i < graph.edgeTarget[current].length; ++i) {
+          relax(world, current, graph.edgeTarget[current][i],
+              gScore[current] + graph.edgeCost[current][i], targetCell);
+        }
+
+        if (targetGeneration[current] == generation) {
+          relax(world, current, targetNode, gScore[current] + targetCost[current], targetCell);
+        }
+      }
+
+      return null;
+    }
+
+    private void prepare(ClusterGraph clusterGraph) {
+      if (graph != clusterGraph) {
+        graph = clusterGraph;
+
+        clusterSearch = new ClusterSearch(clusterGraph.clusterSize);
+
+        int nodeCount = clusterGraph.nodeCount() + 2;
+
+        seenGeneration = new int[nodeCount];
+        closedGeneration = new int[nodeCount];
+        gScore = new int[nodeCount];
+        parent = new int[nodeCount];
+        targetGeneration = new int[nodeCount];
+        targetCost = new int[nodeCount];
+        nodeChain = new int[nodeCount];
+
+        heap = new long[16];
+
+        generation = 0;
+      }
+
+      if (generation == Integer.MAX_VALUE) {
+        Arrays.fill(seenGeneration, 0);
+        Arrays.fill(closedGeneration, 0);
+        Arrays.fill(targetGeneration, 0);
+
+        generation = 0;
+      }
+
+      ++generation;
+
+      heapSize = 0;
+    }
+
+    private void relax(World world, int from, int node, int cost, int targetCell) {
+      if (closedGeneration[node] == generation
+          || (seenGeneration[node] == generation && gScore[node] <= cost)) {
+        return;
+      }
+
+      seenGeneration[node] = generation;
+      gScore[node] = cost;
+      parent[node] = from;
+
+      int width = graph.width;
+
+      int estimate = node < graph.nodeCount()
+          ? heuristic.heuristic(world, graph.nodeCell[node] / width, graph.nodeCell[node] % width,
+              targetCell / width, targetCell % width)
+          : 0;
+
+      push(((long) (cost + estimate) << 32) | node);
+    }
+
+    /**
+     * Turns the found chain of nodes into Tiles, avoiding the entities in the way.
+     * @return the path from the target back to the start, or {@code null} if a step of the chain
+     * is blocked
+     */
+    private List<Tile> refine(World world, int startNode, int targetNode, int startCell,
+                              int targetCell) {
+      int length = 0;
+
+      for (int node = targetNode; node != -1; node = parent[node]) {
+        if (node == targetNode) {
+          nodeChain[length++] = targetCell;
+        } else if (node == startNode) {
+          nodeChain[length++] = startCell;
+        } else {
+          nodeChain[length++] = graph.nodeCell[node];
+        }
+      }
+
+      List<Tile> path = new ArrayList<>();
+
+      int width = graph.width;
+
+      for (int i = 0; i + 1 < length; ++i) {
+        int destination = nodeChain[i];
+        int source = nodeChain[i + 1];
+
+        if (GridSearch.distance(source, destination, width) == 1) {
+          if (!GridSearch.isSuitableTile(world, destination / width, destination % width)) {
+            return null;
+          }
+
+          path.add(world.getTileByCoordinates(destination / width, destination % width));
+          path.add(world.getTileByCoordinates(source / width, source % width));
+        } else {
+          int cluster = graph.clusterOf(source);
+
+          clusterSearch.run(world, graph.clusterMinH(cluster), graph.clusterMinW(cluster), source,
+              destination, true);
+
+          if (clusterSearch.distanceTo(destination) == -1) {
+            return null;
+          }
+
+          clusterSearch.appendPath(world, destination, path);
+        }
+
+        /* The source is added again by the next step of the chain. */
+        if (i + 2 < length) {
+          path.remove(path.size() - 1);
+        }
+      }
+
+      return path;
+    }
+
+    private void push(long entry) {
+      if (heapSize == heap.length) {
+        heap = Arrays.copyOf(heap, heap.length * 2);
+      }
+
+      int index = heapSize++;
+
+      while (index > 0) {
+        int parentIndex = (index - 1) >>> 1;
+
+        if (heap[parentIndex] <= entry) {
+          break;
+        }
+
+        heap[index] = heap[parentIndex];
+
+        index = parentIndex;
+      }
+
+      heap[index] = entry;
+    }
+
+    /**
+     * Removes the entry with the lowest estimated cost and returns its node.
+     */
+    private long poll() {
+      long first = heap[0];
+
+      long last = heap[--heapSize];
+
+      int index = 0;
+
+      while (true) {
+        int child = 2 * index + 1;
+
+        if (child >= heapSize) {
+          break;
+        }
+
+        if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+          ++child;
+        }
+
+        if (heap[child] >= last) {
+          break;
+        }
+
+        heap[index] = heap[child];
+
+        index = child;
+      }
+
+      heap[index] = last;
+
+      return first & 0xFFFFFFFFL;
+    }
+  }
+}
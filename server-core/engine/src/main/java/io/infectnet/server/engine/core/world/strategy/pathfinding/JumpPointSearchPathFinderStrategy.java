@@ -0,0 +1,255 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import io.infectnet.server.engine.core.world.Position;
+import io.infectnet.server.engine.core.world.Tile;
+import io.infectnet.server.engine.core.world.World;
+
+import java.util.List;
+
+/**
+ * Class for Path finding in the world between two Positions, using the Jump Point Search
+ * algorithm.
+ * <p>
+ * Jump Point Search is A* on uniform-cost grids, that prunes the symmetric paths: instead of
+ * opening every neighbour of a cell, it travels in straight and diagonal lines until it finds a
+ * cell where the path might have to turn because of an obstacle, a so-called jump point. Only the
+ * jump points are opened, so far fewer cells are expanded than by
+ * {@link AStarPathFinderStrategy}. The movement rules are the same: every step costs the same,
+ * diagonal steps are allowed, even between two {@code ROCK}s, and a path can only go through
+ * empty {@code CAVE} tiles.
+ * </p>
+ * <p>
+ * The found paths are only as short as the ones of A* with the same heuristic. With an admissible
+ * heuristic, such as {@link ChebyshevHeuristic}, both find the shortest paths, while an
+ * inadmissible one, such as {@link WeightedHeuristic}, may make either of them return longer
+ * paths.
+ * </p>
+ * <p>
+ * The state of the search is stored in a {@link GridSearch}, which is reused by the subsequent
+ * searches of the same thread, so apart from the returned path, a search does not allocate.
+ * </p>
+ */
+public class JumpPointSearchPathFinderStrategy implements PathFinderStrategy {
+
+  /**
+   * A heuristic to use with value calculating.
+   */
+  private final Heuristic heuristic;
+
+  /**
+   * The reusable search state of every thread.
+   */
+  private final ThreadLocal<GridSearch> searchState;
+
+  /**
+   * Creates a strategy with the given heuristic to use in the Jump Point Search algorithm.
+   * @param heuristic the specific heuristic function to use
+   */
+  public JumpPointSearchPathFinderStrategy(Heuristic heuristic) {
+    this.heuristic = heuristic;
+
+    this.searchState = ThreadLocal.withInitial(GridSearch::new);
+  }
+
+  @Override
+  public List<Tile> findPath(World world, Position start, Position target) {
+    if (!world.sameRegion(start, target)) {
+      /* The target is in a sealed-off region, no search could reach it. */
+      return GridSearch.startOnlyPath(world, start);
+    }
+
+    int width = world.getWidth();
+
+    GridSearch state = searchState.get();
+
+    state.prepare(world.getHeight() * width);
+
+    /* The target is repositioned the same way as in the A* algorithm. */
+
+    Position targetPos = GridSearch.resetTarget(world, target);
+
+    int targetH = targetPos.getH();
+    int targetW = targetPos.getW();
+
+    int startCell = start.getH() * width + start.getW();
+    int targetCell = targetH * width + targetW;
+
+    int startHeuristic = heuristic.heuristic(world, start.getH(), start.getW(), targetH, targetW);
+
+    state.open(startCell, -1, 0, startHeuristic);
+
+    /* If the target cannot be reached, the path to the expanded jump point closest to the target
+       will be returned. */
+
+    int bestCell = startCell;
+    int bestHeuristic = startHeuristic;
+
+    while (state.heapSize > 0) {
+      int current = state.poll();
+
+      if (current == targetCell) {
+        bestCell = current;
+
+        break;
+      }
+
+      int currentHeuristic = state.fScore[current] - state.gScore[current];
+
+      if (currentHeuristic < bestHeuristic) {
+        bestCell = current;
+        bestHeuristic = currentHeuristic;
+      }
+
+      identifySuccessors(world, state, current, targetH, targetW);
+    }
+
+    return state.buildPath(world, bestCell);
+  }
+
+  /**
+   * Opens the jump points reachable from the current cell in the directions not pruned.
+   * @param world the world to search in
+   * @param state the state of the search
+   * @param current the index of the currently visited cell
+   * @param targetH the first coordinate of the target
+   * @param targetW the second coordinate of the target
+   */
+  private void identifySuccessors(World world, GridSearch state, int current, int targetH,
+                                  int targetW) {
+    int width = world.getWidth();
+
+    int h = current / width;
+    int w = current % width;
+
+    int parent = state.parent[current];
+
+    if (parent == -1) {
+      /* Nothing can be pruned at the start. */
+      for (int i = 0; i < GridSearch.NEIGHBOUR_OFFSET_H.length; ++i) {
+        jumpAndOpen(world, state, current, GridSearch.NEIGHBOUR_OFFSET_H[i],
+            GridSearch.NEIGHBOUR_OFFSET_W[i], targetH, targetW);
+      }
+
+      return;
+    }
+
+    int dh = Integer.signum(h - parent / width);
+    int dw = Integer.signum(w - parent % width);
+
+    if (dh != 0 && dw != 0) {
+      /* The natural neighbours of a diagonal move. */
+      jumpAndOpen(world, state, current, dh, dw, targetH, targetW);
+      jumpAndOpen(world, state, current, dh, 0, targetH, targetW);
+      jumpAndOpen(world, state, current, 0, dw, targetH, targetW);
+
+      /* The forced neighbours. */
+      if (!isWalkable(world, h - dh, w)) {
+        jumpAndOpen(world, state, current, -dh, dw, targetH, targetW);
+      }
+
+      if (!isWalkable(world, h, w - dw)) {
+        jumpAndOpen(world, state, current, dh, -dw, targetH, targetW);
+      }
+    } else if (dh == 0) {
+      jumpAndOpen(world, state, current, 0, dw, targetH, targetW);
+
+      if (!isWalkable(world, h + 1, w)) {
+        jumpAndOpen(world, state, current, 1, dw, targetH, targetW);
+      }
+
+      if (!isWalkable(world, h - 1, w)) {
+        jumpAndOpen(world, state, current, -1, dw, targetH, targetW);
+      }
+    } else {
+      jumpAndOpen(world, state, current, dh, 0, targetH, targetW);
+
+      if (!isWalkable(world, h, w + 1)) {
+        jumpAndOpen(world, state, current, dh, 1, targetH, targetW);
+      }
+
+      if (!isWalkable(world, h, w - 1)) {
+        jumpAndOpen(world, state, current, dh, -1, targetH, targetW);
+      }
+    }
+  }
+
+  /**
+   * Jumps from the current cell in the given direction, and opens the found jump point, or records
+   * the cheaper way of reaching it.
+   */
+  private void jumpAndOpen(World world, GridSearch state, int current, int dh, int dw,
+                           int targetH, int targetW) {
+    int width = world.getWidth();
+
+    int jumpPoint = jump(world, current / width + dh, current % width + dw, dh, dw, targetH,
+        targetW);
+
+    if (jumpPoint == -1 || state.isClosed(jumpPoint)) {
+      return;
+    }
+
+    int nextCost = state.gScore[current] + GridSearch.distance(current, jumpPoint, width);
+
+    if (state.isSeen(jumpPoint)) {
+      if (nextCost < state.gScore[jumpPoint]) {
+        state.decrease(jumpPoint, current, nextCost);
+      }
+    } else {
+      state.open(jumpPoint, current, nextCost,
+          heuristic.heuristic(world, jumpPoint / width, jumpPoint % width, targetH, targetW));
+    }
+  }
+
+  /**
+   * Travels from the given cell in the given direction until a jump point is found.
+   * @param world the world to search in
+   * @param h the first coordinate of the first cell to check
+   * @param w the second coordinate of the first cell to check
+   * @param dh the first coordinate of the direction
+   * @param dw the second coordinate of the direction
+   * @param targetH the first coordinate of the target
+   * @param targetW the second coordinate of the target
+   * @return the index of the jump point or {@code -1} if the line ends at an obstacle
+   */
+  private int jump(World world, int h, int w, int dh, int dw, int targetH, int targetW) {
+    while (isWalkable(world, h, w)) {
+      if (h == targetH && w == targetW) {
+        return h * world.getWidth() + w;
+      }
+
+      if (dh != 0 && dw != 0) {
+        if ((isWalkable(world, h - dh, w + dw) && !isWalkable(world, h - dh, w))
+            || (isWalkable(world, h + dh, w - dw) && !isWalkable(world, h, w - dw))) {
+          return h * world.getWidth() + w;
+        }
+
+        /* A diagonal cell is a jump point if a jump point can be reached from it in a straight
+           line. */
+        if (jump(world, h + dh, w, dh, 0, targetH, targetW) != -1
+            || jump(world, h, w + dw, 0, dw, targetH, targetW) != -1) {
+          return h * world.getWidth() + w;
+        }
+      } else if (dh == 0) {
+        if ((isWalkable(world, h + 1, w + dw) && !isWalkable(world, h + 1, w))
+            || (isWalkable(world, h - 1, w + dw) && !isWalkable(world, h - 1, w))) {
+          return h * world.getWidth() + w;
+        }
+      } else {
+        if ((isWalkable(world, h + dh, w + 1) && !isWalkable(world, h, w + 1))
+            || (isWalkable(world, h + dh, w - 1) && !isWalkable(world, h, w - 1))) {
+          return h * world.getWidth() + w;
+        }
+      }
+
+      h += dh;
+      w += dw;
+    }
+
+    return -1;
+  }
+
+  private boolean isWalkable(World world, int h, int w) {
+    return h >= 0 && h < world.getHeight() && w >= 0 && w < world.getWidth()
+        && GridSearch.isSuitableTile(world, h, w);
+  }
+}
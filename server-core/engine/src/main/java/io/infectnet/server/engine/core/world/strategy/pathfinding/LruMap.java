@@ -0,0 +1,59 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Map holding a limited number of entries, in the order of their last access. When an entry is
+ * added to a full map, the least recently accessed entry is evicted, and its value is passed to the
+ * eviction listener.
+ * <p>
+ * The map is not meant to be serialized, the listener is not kept if it is.
+ * </p>
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+class LruMap<K, V> extends LinkedHashMap<K, V> {
+  private static final long serialVersionUID = 1L;
+
+  private final int maxSize;
+
+  private final transient Consumer<? super V> evictionListener;
+
+  /**
+   * Constructs a new, empty map.
+   * @param maxSize the maximal number of entries kept in the map
+   * @param evictionListener the listener receiving the evicted values
+   */
+  LruMap(int maxSize, Consumer<? super V> evictionListener) {
+    super(16, 0.75f, true);
+
+    this.maxSize = maxSize;
+
+    this.evictionListener = evictionListener;
+  }
+
+  /**
+   * Constructs a new, empty map that silently drops the evicted values.
+   * @param maxSize the maximal number of entries kept in the map
+   */
+  LruMap(int maxSize) {
+    this(maxSize, value -> {
+      /*
+       * Nothing to release.
+       */
+    });
+  }
+
+  @Override
+  protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+    if (size() > maxSize) {
+      evictionListener.accept(eldest.getValue());
+
+      return true;
+    }
+
+    return false;
+  }
+}
@@ -20,4 +20,12 @@ public interface PathFinderStrategy {
    * @return a linked list containing the found path
    */
   List<Tile> findPath(World world, Position start, Position target);
+
+  /**
+   * Called by the World after it has generated its tiles, so the strategy can precompute data
+   * about them. Does nothing by default.
+   * @param world the generated world
+   */
+  default void worldGenerated(World world) {
+  }
 }
@@ -24,4 +24,9 @@ public class WeightedHeuristic implements Heuristic {
   public int heuristic(World world, Position currentPosition, Position targetPosition) {
     return epsilon * heuristic.heuristic(world, currentPosition, targetPosition);
   }
+
+  @Override
+  public int heuristic(World world, int currentH, int currentW, int targetH, int targetW) {
+    return epsilon * heuristic.heuristic(world, currentH, currentW, targetH, targetW);
+  }
 }
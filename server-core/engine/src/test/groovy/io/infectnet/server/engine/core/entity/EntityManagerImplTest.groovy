@@ -0,0 +1,230 @@
+package io.infectnet.server.engine.core.entity
+
+import io.infectnet.server.engine.core.entity.component.OwnerComponent
+import io.infectnet.server.engine.core.entity.component.PositionComponent
+import io.infectnet.server.engine.core.entity.component.TypeComponent
+import io.infectnet.server.engine.core.player.Player
+import io.infectnet.server.engine.core.world.Position
+import spock.lang.Specification
+
+class EntityManagerImplTest extends Specification {
+
+  def final CHUNK_SIZE = 8
+
+  def final WORLD_SIZE = 64
+
+  def final ENTITY_COUNT = 300
+
+  def final QUERY_COUNT = 200
+
+  def final CATEGORIES = [Category.WORKER, Category.BUILDING]
+
+  def players = [new Player("alice"), new Player("bob"), new Player("carol")]
+
+  def random = new Random(42)
+
+  def indexedManager = new EntityManagerImpl(CHUNK_SIZE)
+
+  def scanningManager = new EntityManagerImpl()
+
+  def entities = []
+
+  def "indexed area queries return the same entities as scanning"() {
+    given: "the same entities are managed with and without spatial indices"
+      addRandomEntities()
+
+    when: "random boxes and radii are queried with every owner filter"
+      def mismatches = []
+      QUERY_COUNT.times {
+        def corner = randomPosition(-20, WORLD_SIZE + 20)
+        def oppositeCorner = randomPosition(-20, WORLD_SIZE + 20)
+        def center = randomPosition(0, WORLD_SIZE)
+        def radius = random.nextInt(20)
+
+        queriesOfEveryFilter().each { query ->
+          if (!sameResults { query(it).inBox(corner, oppositeCorner) }) {
+            mismatches << [corner, oppositeCorner]
+          }
+
+          if (!sameResults { query(it).withinRadius(center, radius) }) {
+            mismatches << [center, radius]
+          }
+        }
+      }
+
+    then: "the indexed and the scanning manager return the same entities"
+      mismatches.isEmpty()
+  }
+
+  def "boxes outside of the world return no entities"() {
+    given: "entities everywhere in the world"
+      addRandomEntities()
+
+    expect: "negative and out of world boxes are empty"
+      queriesOfEveryFilter().each { query ->
+        assert results { query(it).inBox(new Position(-30, -30), new Position(-1, -1)) }.isEmpty()
+        assert results { query(it).inBox(new Position(-10, WORLD_SIZE), new Position(90, 90)) }
+            .isEmpty()
+        assert results { query(it).inBox(new Position(WORLD_SIZE, -5), new Position(80, 10)) }
+            .isEmpty()
+      }
+  }
+
+  def "boxes reaching over the edge of the world find the entities inside the world"() {
+    given: "an entity at the origin and one at the far corner"
+      def origin = addEntity(players[0], Category.WORKER, new Position(0, 0))
+      def farCorner = addEntity(players[0], Category.WORKER,
+          new Position(WORLD_SIZE - 1, WORLD_SIZE - 1))
+
+    expect: "the boxes overlapping the corners find them"
+      results { it.ofPlayer(players[0]).inCategory(Category.WORKER)
+          .inBox(new Position(-9, -9), new Position(0, 0)) } == [origin] as Set
+      results { it.ofAnyPlayer().inCategory(Category.WORKER)
+          .withinRadius(new Position(WORLD_SIZE + 3, WORLD_SIZE + 3), 4) } == [farCorner] as Set
+  }
+
+  def "the any and except owner filters select entities across players"() {
+    given: "a worker of every player on the same tile"
+      def position = new Position(10, 10)
+      def workers = players.collect { addEntity(it, Category.WORKER, position) }
+
+    when: "the tile is queried with the any and except filters"
+      def any = results { it.ofAnyPlayer().inCategory(Category.WORKER).withinRadius(position, 0) }
+      def exceptFirst = results { it.exceptPlayer(players[0]).inCategory(Category.WORKER)
+          .withinRadius(position, 0) }
+
+    then: "any returns every worker, except leaves out the excluded player"
+      any == workers as Set
+      exceptFirst == workers.drop(1) as Set
+  }
+
+  def "moved entities are found at their new positions only"() {
+    given: "an entity in the first chunk"
+      def entity = addEntity(players[1], Category.WORKER, new Position(1, 1))
+
+    when: "it is moved to a distant chunk"
+      moveEverywhere(entity, new Position(50, 50))
+
+    then: "it is found there and not at the old position"
+      results { it.ofPlayer(players[1]).inCategory(Category.WORKER)
+          .withinRadius(new Position(1, 1), 2) }.isEmpty()
+      results { it.exceptPlayer(players[0]).inCategory(Category.WORKER)
+          .withinRadius(new Position(50, 50), 0) } == [entity] as Set
+
+    when: "it is taken out of the world"
+      moveEverywhere(entity, null)
+
+    then: "area queries do not find it, but plain queries still do"
+      results { it.ofAnyPlayer().inCategory(Category.WORKER)
+          .inBox(new Position(-100, -100), new Position(100, 100)) }.isEmpty()
+      results { it.ofPlayer(players[1]).inCategory(Category.WORKER) } == [entity] as Set
+  }
+
+  def "indexed queries match scanning after random moves and removals"() {
+    given: "the same entities are managed with and without spatial indices"
+      addRandomEntities()
+
+    when: "entities are moved around, taken out of the world and removed"
+      entities.each { entity ->
+        def roll = random.nextInt(10)
+
+        if (roll < 6) {
+          moveEverywhere(entity, randomPosition(0, WORLD_SIZE))
+        } else if (roll < 7) {
+          moveEverywhere(entity, null)
+        } else if (roll < 8) {
+          indexedManager.removeEntity(entity)
+          scanningManager.removeEntity(entity)
+        }
+      }
+
+    and: "random boxes are queried with every owner filter"
+      def mismatches = []
+      QUERY_COUNT.times {
+        def corner = randomPosition(-20, WORLD_SIZE + 20)
+        def oppositeCorner = randomPosition(-20, WORLD_SIZE + 20)
+
+        queriesOfEveryFilter().each { query ->
+          if (!sameResults { query(it).inBox(corner, oppositeCorner) }) {
+            mismatches << [corner, oppositeCorner]
+          }
+        }
+      }
+
+    then: "the indexed and the scanning manager still return the same entities"
+      mismatches.isEmpty()
+  }
+
+  def "querying an unknown player returns nothing"() {
+    given: "entities of other players"
+      addEntity(players[0], Category.WORKER, new Position(3, 3))
+
+    expect: "the unknown player has no entities"
+      results { it.ofPlayer(new Player("dave")).inCategory(Category.WORKER)
+          .withinRadius(new Position(3, 3), 5) }.isEmpty()
+  }
+
+  def addRandomEntities() {
+    ENTITY_COUNT.times {
+      def owner = players[random.nextInt(players.size())]
+      def category = CATEGORIES[random.nextInt(CATEGORIES.size())]
+
+      entities << addEntity(owner, category, randomPosition(0, WORLD_SIZE))
+    }
+  }
+
+  def addEntity(Player owner, Category category, Position position) {
+    def type = new TypeComponent(category, category.name()) {
+      @Override
+      Entity createEntityOfType() {
+        return null
+      }
+    }
+
+    def entity = Entity.builder()
+        .typeComponent(type)
+        .ownerComponent(new OwnerComponent(owner))
+        .positionComponent(new PositionComponent(position))
+        .build()
+
+    indexedManager.addEntity(entity)
+    scanningManager.addEntity(entity)
+
+    return entity
+  }
+
+  def moveEverywhere(Entity entity, Position position) {
+    indexedManager.moveEntity(entity, position)
+    scanningManager.moveEntity(entity, position)
+  }
+
+  def randomPosition(int from, int to) {
+    return new Position(from + random.nextInt(to - from), from + random.nextInt(to - from))
+  }
+
+  def queriesOfEveryFilter() {
+    def queries = []
+
+    CATEGORIES.each { category ->
+      players.each { player ->
+        queries << { query -> query.ofPlayer(player).inCategory(category) }
+        queries << { query -> query.exceptPlayer(player).inCategory(category) }
+      }
+
+      queries << { query -> query.ofAnyPlayer().inCategory(category) }
+    }
+
+    return queries
+  }
+
+  def results(Closure configure) {
+    return configure(indexedManager.query()).execute() as Set
+  }
+
+  def sameResults(Closure configure) {
+    def indexed = configure(indexedManager.query()).execute() as Set
+    def scanned = configure(scanningManager.query()).execute() as Set
+
+    return indexed == scanned
+  }
+}
@@ -0,0 +1,157 @@
+package io.infectnet.server.engine.core.metrics
+
+import spock.lang.Specification
+
+class LatencyHistogramTest extends Specification {
+
+  def final SUB_BUCKET_COUNT = 32
+
+  def final HIGHEST_TRACKABLE_VALUE = (1L << 40) - 1
+
+  def histogram = new LatencyHistogram()
+
+  def "the values below 64 have their own buckets"() {
+    when: "the buckets of the small values are computed"
+      def mismatches = (0L..<64L).findAll {
+        LatencyHistogram.bucketIndex(it) != it || LatencyHistogram.highestEquivalentValue(
+            LatencyHistogram.bucketIndex(it)) != it
+      }
+
+    then: "every value is its own bucket and its own highest equivalent value"
+      mismatches.isEmpty()
+  }
+
+  def "a new bucket starts at every power of two"() {
+    when: "the buckets around the powers of two are computed"
+      def mismatches = (6..40).findAll {
+        def power = 1L << it
+
+        LatencyHistogram.bucketIndex(power) != LatencyHistogram.bucketIndex(power - 1) + 1 ||
+            LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(power - 1)) !=
+                power - 1
+      }
+
+    then: "the value below a power of two closes its bucket, the power opens the next one"
+      mismatches.isEmpty()
+  }
+
+  def "every value is in a bucket at most a 32nd wider than the value"() {
+    given: "values around the powers of two and in between"
+      def values = []
+      (6..39).each {
+        def power = 1L << it
+        values.addAll([power - 1, power, power + 1, power + power.intdiv(3), 2 * power - 1])
+      }
+
+    when: "the highest equivalent values are computed"
+      def mismatches = values.findAll {
+        def index = LatencyHistogram.bucketIndex(it)
+        def highest = LatencyHistogram.highestEquivalentValue(index)
+        def lowest = index == 0 ? 0 : LatencyHistogram.highestEquivalentValue(index - 1) + 1
+
+        it < lowest || it > highest ||
+            highest - lowest + 1 > Math.max(1L, it.intdiv(SUB_BUCKET_COUNT))
+      }
+
+    then: "every value is between the bounds of its bucket, which are close to the value"
+      mismatches.isEmpty()
+  }
+
+  def "the values above 2^40 share the last bucket"() {
+    given: "the index of the largest trackable value"
+      def lastIndex = LatencyHistogram.bucketIndex(HIGHEST_TRACKABLE_VALUE)
+
+    when: "a value above 2^40 is recorded"
+      histogram.record(1L << 50)
+
+    then: "it is counted in the last bucket"
+      histogram.@counts.length() == lastIndex + 1
+      histogram.@counts.get(lastIndex) == 1L
+      LatencyHistogram.highestEquivalentValue(lastIndex) == HIGHEST_TRACKABLE_VALUE
+
+    and: "the maximum and the total keep the exact value"
+      histogram.max == 1L << 50
+      histogram.total == 1L << 50
+
+    and: "the percentiles are capped at the largest trackable value"
+      histogram.getValueAtPercentile(100.0) == HIGHEST_TRACKABLE_VALUE
+  }
+
+  def "the value at a percentile is the value of its nearest rank"() {
+    given: "the values from 1 to 50 in reverse order"
+      (50L..1L).each { histogram.record(it) }
+
+    expect: "the value at the percentile is the value of the rank"
+      histogram.getValueAtPercentile(percentile) == value
+
+    where:
+      percentile | value
+      0.0        | 1
+      1.0        | 1
+      2.0        | 1
+      2.1        | 2
+      50.0       | 25
+      51.0       | 26
+      99.0       | 50
+      100.0      | 50
+  }
+
+  def "the value at a percentile is never more than the largest value"() {
+    given: "a value in the middle of a wide bucket"
+      histogram.record(1000L)
+      histogram.record(10L)
+
+    expect: "the highest percentile is the largest value, not the end of its bucket"
+      LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(1000L)) > 1000L
+      histogram.getValueAtPercentile(100.0) == 1000L
+
+    and: "the lower percentile is the smaller value"
+      histogram.getValueAtPercentile(50.0) == 10L
+  }
+
+  def "an empty histogram reports zeros"() {
+    expect: "the count, the total, the maximum and the percentiles are zero"
+      histogram.count == 0L
+      histogram.total == 0L
+      histogram.max == 0L
+      histogram.getValueAtPercentile(99.0) == 0L
+  }
+
+  def "negative values are recorded as zero"() {
+    when: "a negative value is recorded"
+      histogram.record(-5L)
+
+    then: "it is counted as zero"
+      histogram.count == 1L
+      histogram.total == 0L
+      histogram.getValueAtPercentile(100.0) == 0L
+  }
+
+  def "percentiles out of range are rejected"() {
+    when: "the value at an invalid percentile is requested"
+      histogram.getValueAtPercentile(percentile)
+
+    then: "an exception is thrown"
+      thrown(IllegalArgumentException)
+
+    where:
+      percentile << [-0.1d, 100.1d]
+  }
+
+  def "values recorded concurrently are all counted"() {
+    given: "threads recording values"
+      def threads = (1..4).collect { thread ->
+        Thread.start {
+          (1..10000).each { histogram.record(it * thread) }
+        }
+      }
+
+    when: "the threads finish"
+      threads*.join()
+
+    then: "every value is counted"
+      histogram.count == 40000L
+      histogram.total == (1..4).sum() * (1..10000).sum()
+      histogram.max == 40000L
+  }
+}
@@ -0,0 +1,69 @@
+package io.infectnet.server.engine.core.metrics
+
+import io.infectnet.server.engine.core.player.Player
+import spock.lang.Specification
+
+class ScriptProfilerTest extends Specification {
+
+  def final WINDOW_SIZE = 3
+
+  def alice = new Player("alice")
+
+  def bob = new Player("bob")
+
+  def scriptProfiler = new ScriptProfiler(WINDOW_SIZE)
+
+  def "only the last executions are profiled"() {
+    when: "more executions are recorded than the size of the window"
+      (1..5).each { scriptProfiler.scriptExecuted(alice, it, 0L, 0L, 1, 0) }
+
+    then: "the profile sums up the last executions"
+      def profile = scriptProfiler.getProfile("alice").get()
+      profile.executionCount == WINDOW_SIZE
+      profile.getTotal(ScriptCost.WALL_TIME) == 3L + 4L + 5L
+      profile.getMax(ScriptCost.WALL_TIME) == 5L
+      profile.getTotal(ScriptCost.ACTIONS) == WINDOW_SIZE
+  }
+
+  def "the path finding requests are added to the last execution of the owner"() {
+    given: "an executed script"
+      scriptProfiler.scriptExecuted(alice, 1L, 0L, 0L, 0, 0)
+
+    when: "paths are requested for both players"
+      scriptProfiler.pathFindingRequested(alice)
+      scriptProfiler.pathFindingRequested(alice)
+      scriptProfiler.pathFindingRequested(bob)
+
+    then: "only the requests of the player with an execution are recorded"
+      scriptProfiler.getProfile("alice").get().getTotal(ScriptCost.PATH_FINDING_REQUESTS) == 2L
+      !scriptProfiler.getProfile("bob").isPresent()
+  }
+
+  def "the executions of a departed player are forgotten"() {
+    given: "the executed scripts of two players"
+      scriptProfiler.scriptExecuted(alice, 1L, 0L, 0L, 0, 0)
+      scriptProfiler.scriptExecuted(bob, 2L, 0L, 0L, 0, 0)
+
+    when: "a player departs"
+      scriptProfiler.removePlayer(alice)
+
+    then: "only the profile of the other player is kept"
+      scriptProfiler.profiles.keySet() == ["bob"] as Set
+      !scriptProfiler.getProfile("alice").isPresent()
+
+    when: "the script of the departed player runs again"
+      scriptProfiler.scriptExecuted(alice, 7L, 0L, 0L, 0, 0)
+
+    then: "it is profiled from scratch"
+      scriptProfiler.getProfile("alice").get().executionCount == 1
+      scriptProfiler.getProfile("alice").get().getTotal(ScriptCost.WALL_TIME) == 7L
+  }
+
+  def "the window must not be empty"() {
+    when: "a profiler is created with an empty window"
+      new ScriptProfiler(0)
+
+    then: "an exception is thrown"
+      thrown(IllegalArgumentException)
+  }
+}
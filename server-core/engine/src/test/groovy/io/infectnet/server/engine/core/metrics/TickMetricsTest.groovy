@@ -0,0 +1,117 @@
+package io.infectnet.server.engine.core.metrics
+
+import io.infectnet.server.engine.core.TickPhase
+import io.infectnet.server.engine.core.TickTimings
+import io.infectnet.server.engine.core.entity.wrapper.Action
+import io.infectnet.server.engine.core.player.Player
+import io.infectnet.server.engine.core.script.Request
+import spock.lang.Specification
+
+class TickMetricsTest extends Specification {
+
+  def tickMetrics = new TickMetrics()
+
+  def "the durations of the ticks and their phases are recorded"() {
+    when: "two ticks finish"
+      tickMetrics.tickFinished(new TickTimings(1, 10, 20, 30, 40))
+      tickMetrics.tickFinished(new TickTimings(2, 11, 21, 31, 41))
+
+    then: "the ticks are counted"
+      tickMetrics.tickCount == 2L
+
+    and: "every phase has its durations"
+      tickMetrics.getPhaseDurations(TickPhase.SCRIPTS).total == 21L
+      tickMetrics.getPhaseDurations(TickPhase.ACTIONS).total == 41L
+      tickMetrics.getPhaseDurations(TickPhase.REQUESTS).total == 61L
+      tickMetrics.getPhaseDurations(TickPhase.PUBLISH).total == 81L
+
+    and: "the durations of the ticks are the sums of their phases"
+      tickMetrics.tickDurations.total == 204L
+      tickMetrics.tickDurations.max == 104L
+  }
+
+  def "the script durations are recorded by player"() {
+    given: "two players"
+      def alice = new Player("alice")
+      def bob = new Player("bob")
+
+    when: "their scripts are executed"
+      tickMetrics.scriptExecuted(alice, 5L)
+      tickMetrics.scriptExecuted(alice, 7L)
+      tickMetrics.scriptExecuted(bob, 3L)
+
+    then: "every player has its own histogram"
+      tickMetrics.scriptDurations.keySet() == ["alice", "bob"] as Set
+      tickMetrics.scriptDurations["alice"].count == 2L
+      tickMetrics.scriptDurations["alice"].total == 12L
+      tickMetrics.scriptDurations["bob"].total == 3L
+  }
+
+  def "the script durations of a departed player are forgotten"() {
+    given: "two players whose scripts have been executed"
+      def alice = new Player("alice")
+      def bob = new Player("bob")
+      tickMetrics.scriptExecuted(alice, 5L)
+      tickMetrics.scriptExecuted(bob, 3L)
+
+    when: "a player departs"
+      tickMetrics.removePlayer(alice)
+
+    then: "only the durations of the other player are kept"
+      tickMetrics.scriptDurations.keySet() == ["bob"] as Set
+
+    when: "the script of the departed player runs again"
+      tickMetrics.scriptExecuted(alice, 9L)
+
+    then: "its durations are recorded from scratch"
+      tickMetrics.scriptDurations["alice"].count == 1L
+      tickMetrics.scriptDurations["alice"].total == 9L
+  }
+
+  def "the actions and requests are counted by kind"() {
+    when: "actions and requests of different kinds are processed"
+      tickMetrics.actionProcessed(firstAction(), 4L)
+      tickMetrics.actionProcessed(firstAction(), 6L)
+      tickMetrics.actionProcessed(secondAction(), 1L)
+      tickMetrics.requestProcessed(request(), 8L)
+
+    then: "they are counted by kind and in total"
+      tickMetrics.actionDurations.size() == 2
+      tickMetrics.actionDurations[firstAction().getClass()].total == 10L
+      tickMetrics.actionCount == 3L
+      tickMetrics.requestCount == 1L
+  }
+
+  def "the skipped and overrun ticks and the shed publishes are counted"() {
+    when: "the game loop falls behind"
+      tickMetrics.tickOverrun()
+      tickMetrics.tickOverrun()
+      tickMetrics.ticksSkipped(3L)
+      tickMetrics.publishShed()
+
+    then: "the counters are updated"
+      tickMetrics.overrunTickCount == 2L
+      tickMetrics.skippedTickCount == 3L
+      tickMetrics.shedPublishCount == 1L
+  }
+
+  def "the script durations cannot be modified by the readers"() {
+    when: "a reader removes a player"
+      tickMetrics.scriptDurations.remove("alice")
+
+    then: "an exception is thrown"
+      thrown(UnsupportedOperationException)
+  }
+
+  def firstAction() {
+    return new Action(null) {}
+  }
+
+  def secondAction() {
+    return new Action(null) {}
+  }
+
+  def request() {
+    return new Request(null, null) {}
+  }
+}
@@ -0,0 +1,108 @@
+package io.infectnet.server.engine.core.util
+
+import spock.lang.Specification
+
+import java.util.function.Consumer
+
+class ListenableQueueTest extends Specification {
+
+  def final INITIAL_CAPACITY = 64
+
+  def queue = new ListenableQueue<Object>()
+
+  def processed = []
+
+  def setup() {
+    queue.addListener(Integer, { element -> processed << element } as Consumer)
+  }
+
+  def "elements are processed in FIFO order after the ring buffer has wrapped around"() {
+    given: "the head of the queue has been moved forward"
+      (0..<40).each { queue.add(it) }
+      30.times { queue.processOne() }
+
+    when: "elements are added past the end of the storage"
+      (40..<80).each { queue.add(it) }
+      queue.processAll()
+
+    then: "every element is processed once, in the order it was added"
+      processed == (0..<80).toList()
+      queue.isEmpty()
+  }
+
+  def "the queue grows while its content is wrapped around"() {
+    given: "a full queue whose content is wrapped around"
+      def half = INITIAL_CAPACITY.intdiv(2)
+      (0..<INITIAL_CAPACITY).each { queue.add(it) }
+      half.times { queue.processOne() }
+      (INITIAL_CAPACITY..<INITIAL_CAPACITY + half).each { queue.add(it) }
+
+    when: "more elements are added"
+      (INITIAL_CAPACITY + half..<INITIAL_CAPACITY * 4).each { queue.add(it) }
+
+    then: "every element is kept"
+      queue.size() == INITIAL_CAPACITY * 4 - half
+
+    when: "the queue is processed"
+      queue.processAll()
+
+    then: "the elements are processed in the order they were added"
+      processed == (0..<INITIAL_CAPACITY * 4).toList()
+  }
+
+  def "elements added by listeners during processAll are processed in FIFO order"() {
+    given: "a listener that enqueues a string for every integer below 3"
+      queue.addListener(Integer, { element ->
+        if (element < 3) {
+          queue.add("from " + element)
+        }
+      } as Consumer)
+      queue.addListener(String, { element -> processed << element } as Consumer)
+      (0..<5).each { queue.add(it) }
+
+    when: "the queue is processed"
+      queue.processAll()
+
+    then: "the added elements are processed after the ones already queued"
+      processed == [0, 1, 2, 3, 4, "from 0", "from 1", "from 2"]
+      queue.isEmpty()
+  }
+
+  def "listeners enqueuing past the capacity make the queue grow during processAll"() {
+    given: "a listener that enqueues two strings for every integer"
+      queue.addListener(Integer, { element ->
+        queue.add("a" + element)
+        queue.add("b" + element)
+      } as Consumer)
+      queue.addListener(String, { element -> processed << element } as Consumer)
+      (0..<INITIAL_CAPACITY).each { queue.add(it) }
+
+    when: "the queue is processed"
+      queue.processAll()
+
+    then: "every element is processed once, in FIFO order"
+      processed == (0..<INITIAL_CAPACITY).toList() +
+          (0..<INITIAL_CAPACITY).collectMany { ["a" + it, "b" + it] }
+      queue.isEmpty()
+  }
+
+  def "an element without listeners is dropped"() {
+    given: "an element nobody listens to"
+      queue.add(1L)
+      queue.add(1)
+
+    when: "the queue is processed"
+      queue.processAll()
+
+    then: "only the listened element is seen"
+      processed == [1]
+  }
+
+  def "processing an empty queue element by element fails"() {
+    when: "an element is processed from an empty queue"
+      queue.processOne()
+
+    then: "an exception is thrown"
+      thrown(NoSuchElementException)
+  }
+}
@@ -0,0 +1,69 @@
+package io.infectnet.server.engine.core.world
+
+import io.infectnet.server.engine.core.entity.Entity
+import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy
+import spock.lang.Specification
+
+import java.nio.LongBuffer
+
+class PositionTest extends Specification {
+
+  def final SIZE = 6
+
+  def world = new WorldImpl(null, { world, start, target -> [] } as PathFinderStrategy)
+
+  def setup() {
+    def caves = new long[1]
+    Arrays.fill(caves, -1L)
+
+    world.restore(SIZE, SIZE, LongBuffer.wrap(caves))
+  }
+
+  def "the neighbours inside the world are visited in the order they are listed"() {
+    given: "a position"
+      def position = new Position(h, w)
+
+    when: "its neighbours are visited"
+      def visited = []
+      position.forEachNeighbour(world, { neighbourH, neighbourW ->
+        visited << new Position(neighbourH, neighbourW)
+      } as NeighbourConsumer)
+
+    then: "they are the listed neighbours inside the world, in the same order"
+      visited == position.neighbours.findAll { world.isPositionValidTile(it) }
+      visited.size() == count
+
+    where:
+      h        | w        | count
+      2        | 3        | 8
+      0        | 3        | 5
+      SIZE - 1 | 0        | 3
+      0        | SIZE - 1 | 3
+  }
+
+  def "the first free neighbour is found in the order the neighbours are listed"() {
+    given: "a position whose first listed neighbours are occupied"
+      def position = new Position(2, 2)
+      position.neighbours.take(occupied).each {
+        world.setEntityOnPosition(Entity.builder().build(), it)
+      }
+
+    expect: "the first listed neighbour that is free is found"
+      position.findFreeNeighbour(world) ==
+          Optional.ofNullable(position.neighbours.drop(occupied).find())
+
+    where:
+      occupied << [0, 1, 4, 7, 8]
+  }
+
+  def "no neighbour is found outside of the world"() {
+    given: "a corner whose neighbours inside the world are occupied"
+      def corner = new Position(0, 0)
+      corner.forEachNeighbour(world, { h, w ->
+        world.setEntityOnPosition(Entity.builder().build(), new Position(h, w))
+      } as NeighbourConsumer)
+
+    expect: "no free neighbour is found"
+      !corner.findFreeNeighbour(world).isPresent()
+  }
+}
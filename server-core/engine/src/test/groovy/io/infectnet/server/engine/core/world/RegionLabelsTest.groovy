@@ -0,0 +1,245 @@
+package io.infectnet.server.engine.core.world
+
+import io.infectnet.server.engine.core.entity.Entity
+import spock.lang.Specification
+
+class RegionLabelsTest extends Specification {
+
+  def final ENTITY = Entity.builder().build()
+
+  def tileGrid
+
+  def regionLabels
+
+  def "occupying the only gap of a wall splits the region"() {
+    given: "an open world with a wall across it and a single gap"
+      openWorld(9, 20)
+      (0..<9).each { h -> if (h != 4) setRock(h, 10) }
+      regionLabels = new RegionLabels(tileGrid)
+
+    expect: "the two sides are connected through the gap"
+      regionLabels.sameRegion(4, 2, 4, 17)
+
+    when: "the gap gets occupied"
+      occupy(4, 10)
+
+    then: "the two sides are separate regions, but each side is still connected"
+      !regionLabels.sameRegion(4, 2, 4, 17)
+      regionLabels.sameRegion(0, 0, 8, 7)
+      regionLabels.sameRegion(0, 13, 8, 19)
+  }
+
+  def "freeing the gap of a wall merges the regions"() {
+    given: "a wall across the world with an occupied gap"
+      openWorld(9, 20)
+      (0..<9).each { h -> if (h != 4) setRock(h, 10) }
+      occupy(4, 10)
+      regionLabels = new RegionLabels(tileGrid)
+
+    expect: "the two sides are separate"
+      !regionLabels.sameRegion(4, 2, 4, 17)
+
+    when: "the gap is freed"
+      free(4, 10)
+
+    then: "the two sides are connected again"
+      regionLabels.sameRegion(4, 2, 4, 17)
+  }
+
+  def "occupying the centre of a crossroads splits the region into four"() {
+    given: "two diagonal corridors crossing each other, their cells touching only at the corners"
+      rockWorld(21, 21)
+      (0..<21).each { i ->
+        setCave(i, i)
+        setCave(i, 20 - i)
+      }
+      regionLabels = new RegionLabels(tileGrid)
+
+    when: "the crossing gets occupied"
+      occupy(10, 10)
+
+    then: "every arm is a region of its own"
+      def arms = [[1, 1], [1, 19], [19, 1], [19, 19]]
+      [arms, arms].combinations().every { first, second ->
+        regionLabels.sameRegion(first[0], first[1], second[0], second[1]) == (first == second)
+      }
+  }
+
+  def "occupying a tile whose neighbours stay connected does not split the region"() {
+    given: "an open world"
+      openWorld(10, 10)
+      regionLabels = new RegionLabels(tileGrid)
+
+    when: "a tile in the middle gets occupied"
+      occupy(5, 5)
+
+    then: "the tiles around it are still connected"
+      regionLabels.sameRegion(4, 4, 6, 6)
+      regionLabels.sameRegion(0, 0, 9, 9)
+  }
+
+  def "the regions match a breadth-first search after random changes"() {
+    given: "a random cave world"
+      def random = new Random(3)
+      rockWorld(40, 40)
+      (0..<1600).each { cell ->
+        if (random.nextInt(100) >= 35) {
+          tileGrid.setType(cell, TileType.CAVE)
+        }
+      }
+      regionLabels = new RegionLabels(tileGrid)
+
+    when: "tiles are occupied and freed at random, and random pairs of positions are compared"
+      def mismatches = 0
+      20.times {
+        500.times {
+          toggle(random.nextInt(40), random.nextInt(40))
+        }
+
+        def components = connectedComponents()
+
+        200.times {
+          def first = random.nextInt(1600)
+          def second = random.nextInt(1600)
+
+          if (regionLabels.sameRegion(first.intdiv(40), first % 40, second.intdiv(40), second % 40)
+              != nearSameComponent(components, first, second)) {
+            ++mismatches
+          }
+        }
+      }
+
+    then: "every comparison agrees with the search"
+      mismatches == 0
+  }
+
+  def "the labels are compacted instead of growing with every split"() {
+    given: "a world whose regions are split and merged over and over"
+      openWorld(16, 16)
+      (0..<16).each { h -> if (h != 8) setRock(h, 8) }
+      regionLabels = new RegionLabels(tileGrid)
+
+    when: "the gap of the wall is occupied and freed many times"
+      10000.times {
+        occupy(8, 8)
+        free(8, 8)
+      }
+      occupy(8, 8)
+
+    then: "the number of labels stays proportional to the number of cells"
+      regionLabels.@parent.length <= 16 * 16
+
+    and: "the regions are still correct"
+      !regionLabels.sameRegion(8, 2, 8, 14)
+      regionLabels.sameRegion(0, 0, 15, 6)
+  }
+
+  def openWorld(int height, int width) {
+    tileGrid = new TileGrid(height, width)
+
+    (0..<height * width).each { tileGrid.setType(it, TileType.CAVE) }
+  }
+
+  def rockWorld(int height, int width) {
+    tileGrid = new TileGrid(height, width)
+
+    (0..<height * width).each { tileGrid.setType(it, TileType.ROCK) }
+  }
+
+  def setRock(int h, int w) {
+    tileGrid.setType(h * tileGrid.width + w, TileType.ROCK)
+  }
+
+  def setCave(int h, int w) {
+    tileGrid.setType(h * tileGrid.width + w, TileType.CAVE)
+  }
+
+  def occupy(int h, int w) {
+    tileGrid.setEntity(h * tileGrid.width + w, ENTITY)
+
+    regionLabels?.tileChanged(h, w)
+  }
+
+  def free(int h, int w) {
+    tileGrid.setEntity(h * tileGrid.width + w, null)
+
+    regionLabels?.tileChanged(h, w)
+  }
+
+  def toggle(int h, int w) {
+    if (tileGrid.getEntity(h * tileGrid.width + w) == null) {
+      occupy(h, w)
+    } else {
+      free(h, w)
+    }
+  }
+
+  /**
+   * Labels the walkable cells by a breadth-first search over their eight neighbours.
+   */
+  def connectedComponents() {
+    def width = tileGrid.width
+    def cellCount = tileGrid.height * width
+    def components = new int[cellCount]
+    Arrays.fill(components, -1)
+    def componentCount = 0
+
+    for (int start = 0; start < cellCount; ++start) {
+      if (components[start] != -1 || tileGrid.isBlockedOrOccupied(start)) {
+        continue
+      }
+
+      def queue = [start] as LinkedList
+      components[start] = componentCount
+
+      while (!queue.isEmpty()) {
+        int cell = queue.poll()
+
+        for (int dh = -1; dh <= 1; ++dh) {
+          for (int dw = -1; dw <= 1; ++dw) {
+            int h = cell.intdiv(width) + dh
+            int w = cell % width + dw
+            int neighbour = h * width + w
+
+            if (h >= 0 && h < tileGrid.height && w >= 0 && w < width
+                && components[neighbour] == -1 && !tileGrid.isBlockedOrOccupied(neighbour)) {
+              components[neighbour] = componentCount
+              queue << neighbour
+            }
+          }
+        }
+      }
+
+      ++componentCount
+    }
+
+    return components
+  }
+
+  /**
+   * Checks whether a walkable cell around the first one is in the same component as a walkable
+   * cell around the second one, which is what sameRegion tells.
+   */
+  def nearSameComponent(int[] components, int first, int second) {
+    def around = { int cell ->
+      def width = tileGrid.width
+      def found = [] as Set
+
+      for (int dh = -1; dh <= 1; ++dh) {
+        for (int dw = -1; dw <= 1; ++dw) {
+          int h = cell.intdiv(width) + dh
+          int w = cell % width + dw
+
+          if (h >= 0 && h < tileGrid.height && w >= 0 && w < width
+              && components[h * width + w] != -1) {
+            found << components[h * width + w]
+          }
+        }
+      }
+
+      return found
+    }
+
+    return !around(first).disjoint(around(second))
+  }
+}
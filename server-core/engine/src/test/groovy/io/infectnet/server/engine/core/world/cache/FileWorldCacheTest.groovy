@@ -0,0 +1,154 @@
+package io.infectnet.server.engine.core.world.cache
+
+import io.infectnet.server.engine.content.type.BitResourceTypeComponent
+import io.infectnet.server.engine.core.entity.type.TypeRepositoryImpl
+import io.infectnet.server.engine.core.world.WorldImpl
+import io.infectnet.server.engine.core.world.customizer.NestCustomizer
+import io.infectnet.server.engine.core.world.customizer.ResourceCustomizer
+import io.infectnet.server.engine.core.world.strategy.generation.CellularAutomaton
+import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class FileWorldCacheTest extends Specification {
+
+  def final HEIGHT = 130
+
+  def final WIDTH = 150
+
+  def final SEED = 11L
+
+  def final NESTS = 20
+
+  def directory = Files.createTempDirectory("world-cache")
+
+  def path = directory.resolve("world.cache")
+
+  def typeRepository = new TypeRepositoryImpl()
+
+  def setup() {
+    typeRepository.registerType(new BitResourceTypeComponent())
+  }
+
+  def cleanup() {
+    Files.deleteIfExists(path)
+    Files.deleteIfExists(directory)
+  }
+
+  def "a restored world is the same as the generated one"() {
+    given: "a generated and customized world stored in the cache"
+      def generated = newWorld()
+      def generatedCustomizers = newCustomizers()
+      generated.generate(HEIGHT, WIDTH, SEED)
+      generatedCustomizers.each { it.customize(generated, SEED) }
+      new FileWorldCache(path, new CellularAutomaton()).store(generated, generatedCustomizers, SEED)
+
+    when: "the world is restored from the cache"
+      def restored = newWorld()
+      def restoredCustomizers = newCustomizers()
+      def isRestored = new FileWorldCache(path, new CellularAutomaton())
+          .restore(restored, restoredCustomizers, HEIGHT, WIDTH, SEED)
+
+    then: "it is restored"
+      isRestored
+
+    when: "the tiles of the worlds are compared"
+      def mismatches = []
+      for (int h = 0; h < HEIGHT; ++h) {
+        for (int w = 0; w < WIDTH; ++w) {
+          if (generated.getTileType(h, w) != restored.getTileType(h, w)
+              || typeNameOf(generated, h, w) != typeNameOf(restored, h, w)) {
+            mismatches << [h, w]
+          }
+        }
+      }
+
+    then: "every tile has the same type and the same entity"
+      mismatches.isEmpty()
+
+    and: "the nests are chosen in the same order"
+      nestPositionsOf(generatedCustomizers[1]) == nestPositionsOf(restoredCustomizers[1])
+  }
+
+  def "a world of another seed or size is not restored"() {
+    given: "a world stored in the cache"
+      storeGeneratedWorld(new CellularAutomaton())
+
+    expect: "a world of another seed or size is not restored"
+      !new FileWorldCache(path, new CellularAutomaton())
+          .restore(newWorld(), newCustomizers(), height, width, seed)
+
+    where:
+      height     | width     | seed
+      HEIGHT     | WIDTH     | SEED + 1
+      HEIGHT + 1 | WIDTH     | SEED
+      HEIGHT     | WIDTH - 1 | SEED
+  }
+
+  def "a world of another version of the generator is not restored"() {
+    given: "a world stored in the cache"
+      storeGeneratedWorld(new CellularAutomaton())
+
+    and: "a newer version of the generator"
+      def newerGenerator = new CellularAutomaton() {
+        @Override
+        int getVersion() {
+          return super.getVersion() + 1
+        }
+      }
+
+    expect: "the world is not restored"
+      !new FileWorldCache(path, newerGenerator)
+          .restore(newWorld(), newCustomizers(), HEIGHT, WIDTH, SEED)
+  }
+
+  def "a truncated cache is not restored"() {
+    given: "a world stored in the cache, then truncated"
+      storeGeneratedWorld(new CellularAutomaton())
+      def bytes = Files.readAllBytes(path)
+      Files.write(path, Arrays.copyOf(bytes, bytes.length - 3))
+
+    expect: "the world is not restored"
+      !new FileWorldCache(path, new CellularAutomaton())
+          .restore(newWorld(), newCustomizers(), HEIGHT, WIDTH, SEED)
+  }
+
+  def "a missing cache is not restored"() {
+    expect: "the world is not restored"
+      !new FileWorldCache(path, new CellularAutomaton())
+          .restore(newWorld(), newCustomizers(), HEIGHT, WIDTH, SEED)
+  }
+
+  def newWorld() {
+    return new WorldImpl(new CellularAutomaton(), { world, start, target -> [] } as PathFinderStrategy)
+  }
+
+  def newCustomizers() {
+    return [new ResourceCustomizer(typeRepository), new NestCustomizer()]
+  }
+
+  def storeGeneratedWorld(CellularAutomaton generator) {
+    def world = newWorld()
+    def customizers = newCustomizers()
+
+    world.generate(HEIGHT, WIDTH, SEED)
+    customizers.each { it.customize(world, SEED) }
+
+    new FileWorldCache(path, generator).store(world, customizers, SEED)
+  }
+
+  def typeNameOf(WorldImpl world, int h, int w) {
+    return world.getEntityByCoordinates(h, w)?.typeComponent?.name
+  }
+
+  def nestPositionsOf(NestCustomizer nestCustomizer) {
+    def positions = []
+
+    for (int i = 0; i < NESTS; ++i) {
+      positions << nestCustomizer.randomNestPosition.map { [it.h, it.w] }.orElse(null)
+    }
+
+    return positions
+  }
+}
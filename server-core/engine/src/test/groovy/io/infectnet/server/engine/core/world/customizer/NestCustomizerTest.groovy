@@ -0,0 +1,111 @@
+package io.infectnet.server.engine.core.world.customizer
+
+import io.infectnet.server.engine.core.entity.Category
+import io.infectnet.server.engine.core.entity.Entity
+import io.infectnet.server.engine.core.entity.component.TypeComponent
+import io.infectnet.server.engine.core.world.Position
+import io.infectnet.server.engine.core.world.World
+import io.infectnet.server.engine.core.world.WorldImpl
+import io.infectnet.server.engine.core.world.strategy.generation.CellularAutomaton
+import io.infectnet.server.engine.core.world.strategy.pathfinding.PathFinderStrategy
+import spock.lang.Specification
+
+class NestCustomizerTest extends Specification {
+
+  def final SIZE = 120
+
+  def final SEED = 5L
+
+  def final RESOURCE_TYPE = new TypeComponent(Category.RESOURCE, "Resource") {
+    @Override
+    Entity createEntityOfType() {
+      return Entity.builder().typeComponent(this).build()
+    }
+  }
+
+  def world = new WorldImpl(new CellularAutomaton(), { world, start, target -> [] } as PathFinderStrategy)
+
+  def nestCustomizer = new NestCustomizer()
+
+  def "the nest positions match the ones found with neighbour sets"() {
+    given: "a generated world with scattered resources"
+      world.generate(SIZE, SIZE, SEED)
+      def random = new Random(SEED)
+      for (int h = 0; h < SIZE; ++h) {
+        for (int w = 0; w < SIZE; ++w) {
+          if (!world.isBlockedOrOccupied(h, w) && random.nextInt(40) == 0) {
+            world.setEntityOnPosition(RESOURCE_TYPE.createEntityOfType(), new Position(h, w))
+          }
+        }
+      }
+
+    when: "the nest positions are searched"
+      nestCustomizer.customize(world, SEED)
+
+    then: "they are the positions whose two layers of neighbours are empty, with a resource in the third layer"
+      def expected = largestRegionGroup(positionsWithEmptyBorderAndResource())
+      !expected.isEmpty()
+      nestCustomizer.@basePositions == expected
+  }
+
+  /**
+   * Finds the nest positions the way they used to be found, by collecting the neighbours and the
+   * second neighbours into sets of Positions.
+   */
+  def positionsWithEmptyBorderAndResource() {
+    def positions = []
+
+    for (int h = 1; h < SIZE - 1; ++h) {
+      for (int w = 1; w < SIZE - 1; ++w) {
+        def current = new Position(h, w)
+
+        if (world.getTileByPosition(current).isBlockedOrOccupied()) {
+          continue
+        }
+
+        def twoLayers = validNeighboursOf([current] as Set)
+        twoLayers.addAll(validNeighboursOf(twoLayers))
+
+        if (twoLayers.any { world.getTileByPosition(it).isBlockedOrOccupied() }) {
+          continue
+        }
+
+        def thirdLayer = validNeighboursOf(twoLayers)
+        thirdLayer.removeAll(twoLayers)
+
+        if (thirdLayer.any { world.getTileByPosition(it).entity?.typeComponent?.category ==
+            Category.RESOURCE }) {
+          positions << current
+        }
+      }
+    }
+
+    return positions
+  }
+
+  def validNeighboursOf(Set<Position> positions) {
+    def neighbours = [] as Set
+
+    positions.each { position ->
+      neighbours.addAll(position.neighbours.findAll { world.isPositionValidTile(it) })
+    }
+
+    return neighbours
+  }
+
+  def largestRegionGroup(List<Position> positions) {
+    def groups = []
+
+    positions.each { position ->
+      def group = groups.find { world.sameRegion(it[0], position) }
+
+      if (group != null) {
+        group << position
+      } else {
+        groups << [position]
+      }
+    }
+
+    return groups.max { it.size() } ?: []
+  }
+}
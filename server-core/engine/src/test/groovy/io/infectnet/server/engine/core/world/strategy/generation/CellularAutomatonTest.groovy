@@ -0,0 +1,194 @@
+package io.infectnet.server.engine.core.world.strategy.generation
+
+import spock.lang.Specification
+
+class CellularAutomatonTest extends Specification {
+
+  def final HEIGHT = 37
+
+  def final STEP_H = [1, 0, -1, 0]
+
+  def final STEP_W = [0, -1, 0, 1]
+
+  def automaton = new CellularAutomaton()
+
+  def "a simulation step matches the cell by cell automaton"() {
+    given: "a random grid whose rows end inside and on the boundaries of the words"
+      def grid = randomGrid(HEIGHT, width, 0.45d, width)
+      load(grid)
+
+    when: "a simulation step is performed on the bits and on the cells"
+      automaton.doSimulationStep()
+      def result = automaton.toBooleanGrid()
+      def expected = simulationStep(grid)
+
+    then: "every cell is the same"
+      result == expected
+
+    where:
+      width << [1, 2, 63, 64, 65, 127, 128, 200]
+  }
+
+  def "only the largest cave system is kept, like with a flood fill"() {
+    given: "a random grid with several cave systems"
+      def grid = simulationStep(randomGrid(HEIGHT, width, 0.55d, width + 1))
+      def caves = caveSystemsOf(grid)
+      def largest = caves.max { it.size() }
+
+    and: "a single largest cave system"
+      assert caves.size() > 1
+      assert caves.count { it.size() == largest.size() } == 1
+
+    when: "the islands are eliminated"
+      load(grid)
+      def size = automaton.eliminateIslands()
+      def result = automaton.toBooleanGrid()
+
+    then: "only the cells of the largest cave system remain"
+      size == largest.size()
+      cellsOf(result) == largest
+
+    where:
+      width << [5, 64, 65, 130, 200]
+  }
+
+  def "a grid without caves is left empty"() {
+    given: "a grid of rocks"
+      load(new boolean[HEIGHT][70])
+
+    expect: "there is no cave system"
+      automaton.eliminateIslands() == 0
+      cellsOf(automaton.toBooleanGrid()).isEmpty()
+  }
+
+  def "the same seed generates the same world"() {
+    expect: "the worlds generated from the same seed are equal"
+      automaton.generateWorld(90, 110, 42L) == new CellularAutomaton().generateWorld(90, 110, 42L)
+
+    and: "the world is a single cave system"
+      caveSystemsOf(automaton.generateWorld(90, 110, 7L)).size() == 1
+  }
+
+  def randomGrid(int height, int width, double chance, long seed) {
+    def random = new Random(seed)
+    def grid = new boolean[height][width]
+
+    for (int h = 0; h < height; ++h) {
+      for (int w = 0; w < width; ++w) {
+        grid[h][w] = random.nextDouble() < chance
+      }
+    }
+
+    return grid
+  }
+
+  /**
+   * Sets the bits of the automaton to the cells of the grid.
+   */
+  def load(boolean[][] grid) {
+    def height = grid.length
+    def width = grid[0].length
+    def wordsPerRow = (width + Long.SIZE - 1).intdiv(Long.SIZE)
+
+    def cells = new long[height * wordsPerRow]
+
+    for (int h = 0; h < height; ++h) {
+      for (int w = 0; w < width; ++w) {
+        if (grid[h][w]) {
+          cells[h * wordsPerRow + w.intdiv(Long.SIZE)] |= 1L << (w % Long.SIZE)
+        }
+      }
+    }
+
+    automaton.@height = height
+    automaton.@width = width
+    automaton.@wordsPerRow = wordsPerRow
+    automaton.@lastWordMask = width % Long.SIZE == 0 ? -1L : (1L << (width % Long.SIZE)) - 1
+    automaton.@cells = cells
+    automaton.@nextCells = new long[height * wordsPerRow]
+  }
+
+  /**
+   * Performs a simulation step cell by cell, the cells outside of the grid counting as rocks.
+   */
+  def simulationStep(boolean[][] grid) {
+    def height = grid.length
+    def width = grid[0].length
+    def next = new boolean[height][width]
+
+    for (int h = 0; h < height; ++h) {
+      for (int w = 0; w < width; ++w) {
+        def rockNeighbours = 0
+
+        for (int i = -1; i < 2; ++i) {
+          for (int j = -1; j < 2; ++j) {
+            if ((i != 0 || j != 0) && !isCave(grid, h + i, w + j)) {
+              ++rockNeighbours
+            }
+          }
+        }
+
+        next[h][w] = grid[h][w] ? rockNeighbours >= 4 : rockNeighbours > 4
+      }
+    }
+
+    return next
+  }
+
+  /**
+   * Finds the cave systems of the grid with flood fills, the caves being connected to the four
+   * orthogonal neighbours.
+   */
+  def caveSystemsOf(boolean[][] grid) {
+    def caves = []
+    def visited = [] as Set
+
+    for (int h = 0; h < grid.length; ++h) {
+      for (int w = 0; w < grid[0].length; ++w) {
+        if (!grid[h][w] || visited.contains([h, w])) {
+          continue
+        }
+
+        def cave = [] as Set
+        def queue = [[h, w]] as LinkedList
+        visited << [h, w]
+
+        while (!queue.isEmpty()) {
+          def cell = queue.poll()
+          cave << cell
+
+          for (int i = 0; i < STEP_H.size(); ++i) {
+            def neighbour = [cell[0] + STEP_H[i], cell[1] + STEP_W[i]]
+
+            if (isCave(grid, neighbour[0], neighbour[1]) && !visited.contains(neighbour)) {
+              visited << neighbour
+              queue << neighbour
+            }
+          }
+        }
+
+        caves << cave
+      }
+    }
+
+    return caves
+  }
+
+  def cellsOf(boolean[][] grid) {
+    def cells = [] as Set
+
+    for (int h = 0; h < grid.length; ++h) {
+      for (int w = 0; w < grid[0].length; ++w) {
+        if (grid[h][w]) {
+          cells << [h, w]
+        }
+      }
+    }
+
+    return cells
+  }
+
+  def isCave(boolean[][] grid, int h, int w) {
+    return h >= 0 && h < grid.length && w >= 0 && w < grid[0].length && grid[h][w]
+  }
+}
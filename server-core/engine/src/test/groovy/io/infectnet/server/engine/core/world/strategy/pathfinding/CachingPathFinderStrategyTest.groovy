@@ -0,0 +1,152 @@
+package io.infectnet.server.engine.core.world.strategy.pathfinding
+
+import io.infectnet.server.engine.core.entity.Entity
+import io.infectnet.server.engine.core.world.Position
+import io.infectnet.server.engine.core.world.WorldImpl
+import spock.lang.Specification
+
+import java.nio.LongBuffer
+
+class CachingPathFinderStrategyTest extends Specification {
+
+  def final SIZE = 12
+
+  def final TARGET_W = 10
+
+  def searchCount = 0
+
+  /**
+   * Finds straight paths along a row, starting with the tile next to the target.
+   */
+  def straightPathFinder = { world, start, target ->
+    ++searchCount
+
+    return ((target.w - 1)..start.w).collect { world.getTileByCoordinates(start.h, it) }
+  } as PathFinderStrategy
+
+  def cache
+
+  def world
+
+  def setup() {
+    createCache(16)
+  }
+
+  def "a path is returned from the cache for every cell along it"() {
+    given: "a cached path from the west end of a row"
+      def searched = findPath(5, 1)
+
+    when: "the path is requested from a cell in the middle of it"
+      def path = findPath(5, 4)
+
+    then: "the remaining part of the cached path is returned without a search"
+      searchCount == 1
+      cache.hitCount == 1
+      cache.missCount == 1
+      path*.position == searched.subList(0, searched.size() - 3)*.position
+      path.last().position == new Position(5, 4)
+  }
+
+  def "the part of a path behind a blocked cell is cut off"() {
+    given: "a cached path"
+      findPath(5, 1)
+
+    when: "a cell in the middle of it gets occupied"
+      block(5, 6)
+
+    then: "the cut is counted as an invalidation"
+      cache.invalidationCount == 1
+
+    when: "the path is requested from behind the blocked cell"
+      findPath(5, 3)
+
+    then: "it has to be searched again"
+      searchCount == 2
+
+    when: "the path is requested from between the blocked cell and the target"
+      def path = findPath(5, 7)
+
+    then: "the part in front of the blocked cell is still cached"
+      searchCount == 2
+      path*.position == [new Position(5, 9), new Position(5, 8), new Position(5, 7)]
+  }
+
+  def "a path is removed when its end next to the target gets blocked"() {
+    given: "a cached path"
+      findPath(5, 1)
+
+    when: "the cell next to the target gets occupied"
+      block(5, TARGET_W - 1)
+
+    and: "the path is requested from any of its cells"
+      findPath(5, 5)
+
+    then: "the path has been removed and it has to be searched again"
+      cache.invalidationCount == 1
+      searchCount == 2
+  }
+
+  def "an entity stepping along the path does not invalidate it"() {
+    given: "a cached path"
+      findPath(5, 1)
+
+    when: "the start and then the next cell get occupied"
+      block(5, 1)
+      block(5, 2)
+
+    and: "the path is requested from the following cell"
+      findPath(5, 3)
+
+    then: "the path is returned from the cache and nothing is counted as an invalidation"
+      searchCount == 1
+      cache.invalidationCount == 0
+  }
+
+  def "the least recently used path is evicted and unindexed"() {
+    given: "a cache holding two paths"
+      createCache(2)
+      findPath(1, 1)
+      findPath(2, 1)
+
+    when: "the first path is used again and a third one is cached"
+      findPath(1, 3)
+      findPath(3, 1)
+
+    then: "the first and the third path are still cached"
+      findPath(1, 2).last().position == new Position(1, 2)
+      findPath(3, 2).last().position == new Position(3, 2)
+      searchCount == 3
+
+    when: "a cell of the evicted path gets occupied"
+      block(2, 5)
+
+    then: "the evicted path is not invalidated, as it is not indexed anymore"
+      cache.invalidationCount == 0
+
+    when: "the evicted path is requested from its middle"
+      findPath(2, 7)
+
+    then: "it has to be searched again"
+      searchCount == 4
+  }
+
+  def createCache(int maxCachedPaths) {
+    cache = new CachingPathFinderStrategy(straightPathFinder, maxCachedPaths)
+
+    world = new WorldImpl(null, cache)
+    world.addTileChangeListener(cache)
+
+    def caves = new long[(SIZE * SIZE + Long.SIZE - 1).intdiv(Long.SIZE)]
+    Arrays.fill(caves, -1L)
+
+    world.restore(SIZE, SIZE, LongBuffer.wrap(caves))
+  }
+
+  def findPath(int h, int w) {
+    return cache.findPath(world, new Position(h, w), new Position(h, TARGET_W))
+  }
+
+  def block(int h, int w) {
+    world.setEntityOnPosition(Entity.builder().build(), new Position(h, w))
+  }
+}
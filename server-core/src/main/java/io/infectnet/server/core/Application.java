@@ -1,8 +1,11 @@
 package io.infectnet.server.core;
 
+import io.infectnet.server.common.configuration.Configuration;
+import io.infectnet.server.common.configuration.ConfigurationHolder;
 import io.infectnet.server.controller.configuration.ControllerModule;
 import io.infectnet.server.controller.configuration.EngineModule;
 
+import java.util.Optional;
 import javax.inject.Singleton;
 import dagger.Component;
 
@@ -15,6 +18,18 @@ public class Application {
   }
 
   public static void main(String[] args) {
+    /*
+     * The configuration is needed when the components are created, the engine generates its world
+     * from the configured seed.
+     */
+    Optional<Configuration> configuration = new ConfigurationLoader().loadConfiguration();
+
+    if (!configuration.isPresent()) {
+      return;
+    }
+
+    ConfigurationHolder.INSTANCE.setActiveConfiguration(configuration.get());
+
     Bootstrapper bootstrapper = DaggerApplication_Bootstrapper.create();
     bootstrapper.getApplicationStarter().start();
 
@@ -3,8 +3,6 @@ package io.infectnet.server.core;
 import static spark.Spark.after;
 import static spark.Spark.webSocket;
 
-import io.infectnet.server.common.configuration.Configuration;
-import io.infectnet.server.common.configuration.ConfigurationHolder;
 import io.infectnet.server.controller.rest.RestController;
 import io.infectnet.server.controller.engine.EngineConnector;
 import io.infectnet.server.controller.rest.exception.ExceptionMapperController;
@@ -12,10 +10,8 @@ import io.infectnet.server.controller.websocket.WebSocketDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Optional;
 import java.util.Set;
 import javax.inject.Inject;
-import spark.Spark;
 
 class ApplicationStarter {
   private static final Logger logger = LoggerFactory.getLogger(ApplicationStarter.class);
@@ -43,17 +39,11 @@ class ApplicationStarter {
 
   }
 
+  /**
+   * Configures the controllers and starts the engine. The active configuration must be set
+   * before.
+   */
   void start() {
-    Optional<Configuration> configuration = new ConfigurationLoader().loadConfiguration();
-
-    if (!configuration.isPresent()) {
-      Spark.stop();
-
-      return;
-    }
-
-    ConfigurationHolder.INSTANCE.setActiveConfiguration(configuration.get());
-
     // Must be defined before regular HTTP routes!
     webSocket("/ws", webSocketDispatcher);
 